@@ -1,25 +1,34 @@
 package cr.ac.ucenfotec.bl.entities;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Representa a un actor dentro del sistema.
  * Cada actor tiene un identificador, un nombre
- * y una lista de películas en las que ha participado (filmografía).
+ * y las películas en las que ha participado (filmografía).
+ *
+ * La filmografía se guarda en un {@link LinkedHashSet}, así que asociar, quitar y
+ * consultar una película cuestan O(1) aunque el actor tenga miles de créditos.
  */
 public class Actor {
 
     private String id;
     private String nombre;
-    private ArrayList<Pelicula> filmografia;
+    private final LinkedHashSet<Pelicula> filmografia = new LinkedHashSet<>();
+    private final Set<Pelicula> filmografiaSoloLectura = Collections.unmodifiableSet(filmografia);
+    /** Copia inmutable; se descarta con cada cambio y se arma al pedirla. */
+    private List<Pelicula> copiaFilmografia;
 
     /**
      * Constructor por defecto.
-     * Inicializa la filmografía como una lista vacía.
+     * Crea el actor sin filmografía.
      */
     public Actor() {
-        this.filmografia = new ArrayList<>();
     }
 
     /**
@@ -27,15 +36,13 @@ public class Actor {
      *
      * @param id          identificador único del actor
      * @param nombre      nombre del actor
-     * @param filmografia lista de películas en las que ha participado;
-     *                    si es null, se inicializa como lista vacía
+     * @param filmografia películas en las que ha participado;
+     *                    si es null, se inicializa vacía
      */
-    public Actor(String id, String nombre, ArrayList<Pelicula> filmografia) {
+    public Actor(String id, String nombre, Collection<Pelicula> filmografia) {
         this.id = id;
         this.nombre = nombre;
-        this.filmografia = (filmografia != null)
-                ? filmografia
-                : new ArrayList<>();
+        copiarFilmografia(filmografia);
     }
 
     // GETTERS & SETTERS
@@ -48,18 +55,67 @@ public class Actor {
 
     public void setNombre(String nombre) { this.nombre = nombre; }
 
-    public ArrayList<Pelicula> getFilmografia() { return filmografia; }
+    /**
+     * Vista de solo lectura de la filmografía, en orden de alta. Para modificarla use
+     * {@link #agregarPelicula} y {@link #quitarPelicula}.
+     */
+    public Set<Pelicula> getFilmografia() { return filmografiaSoloLectura; }
+
+    /**
+     * Agrega una película si aún no está.
+     *
+     * @param p película a agregar
+     * @return true si se agregó, false si ya estaba o si p es null
+     */
+    public boolean agregarPelicula(Pelicula p) {
+        if (p == null || !filmografia.add(p)) return false;
+        copiaFilmografia = null;
+        return true;
+    }
 
     /**
-     * Asigna la filmografía del actor.
-     * Si se recibe null, se reemplaza por una lista vacía para evitar NullPointerException.
+     * Quita una película.
      *
-     * @param filmografia lista de películas en las que participa el actor
+     * @param p película a quitar
+     * @return true si se quitó, false si no estaba
      */
-    public void setFilmografia(ArrayList<Pelicula> filmografia) {
-        this.filmografia = (filmografia != null)
-                ? filmografia
-                : new ArrayList<>();
+    public boolean quitarPelicula(Pelicula p) {
+        if (!filmografia.remove(p)) return false;
+        copiaFilmografia = null;
+        return true;
+    }
+
+    /**
+     * Lista inmutable de la filmografía. Mientras no cambien se devuelve siempre la misma.
+     *
+     * @return películas en orden de alta
+     */
+    public List<Pelicula> listaFilmografia() {
+        List<Pelicula> copia = copiaFilmografia;
+        if (copia == null) {
+            copia = List.copyOf(filmografia);
+            copiaFilmografia = copia;
+        }
+        return copia;
+    }
+
+    /**
+     * Reemplaza la filmografía. Si se recibe null, quedan vacías.
+     *
+     * @param filmografia películas a asignar (se ignoran repetidas)
+     */
+    public void setFilmografia(Collection<Pelicula> filmografia) {
+        this.filmografia.clear();
+        copiarFilmografia(filmografia);
+        copiaFilmografia = null;
+    }
+
+    /** Agrega las no null; privado para que el constructor no llame a un método sobrescribible. */
+    private void copiarFilmografia(Collection<Pelicula> filmografia) {
+        if (filmografia == null) return;
+        for (Pelicula p : filmografia) {
+            if (p != null) this.filmografia.add(p);
+        }
     }
 
     @Override
@@ -1,24 +1,24 @@
 package cr.ac.ucenfotec.bl.entities;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Representa a un administrador del sistema.
- * Hereda de {@link Cuenta} y agrega una lista de privilegios especiales.
+ * Hereda de {@link Cuenta} y agrega sus privilegios especiales, guardados como una
+ * máscara de bits de {@link Privilegio}: consultar uno es un solo AND.
  */
 public class Administrador extends Cuenta {
 
-    private List<String> privilegios;
+    private long privilegios;
 
     /**
      * Constructor por defecto.
-     * Inicializa la lista de privilegios vacía.
+     * Inicializa el administrador sin privilegios.
      */
     public Administrador() {
         super();
-        this.privilegios = new ArrayList<>();
     }
 
     /**
@@ -27,22 +27,42 @@ public class Administrador extends Cuenta {
      * @param id          identificador único de la cuenta
      * @param username    nombre de usuario
      * @param email       correo electrónico
-     * @param privilegios lista de privilegios; si es null, se inicializa vacía
+     * @param privilegios privilegios iniciales; si es null, queda sin privilegios
      */
-    public Administrador(String id, String username, String email, List<String> privilegios) {
+    public Administrador(String id, String username, String email, Collection<Privilegio> privilegios) {
         super(id, username, email);
-        this.privilegios = (privilegios != null) ? privilegios : new ArrayList<>();
+        this.privilegios = (privilegios != null) ? Privilegio.mascara(privilegios) : 0;
     }
 
     /**
-     * Agrega un privilegio al administrador si no existe ya.
+     * Constructor con los privilegios de un {@link Rol} (o cualquier máscara ya armada).
      *
-     * @param privilegio nombre del privilegio a agregar
+     * @param id          identificador único de la cuenta
+     * @param username    nombre de usuario
+     * @param email       correo electrónico
+     * @param privilegios máscara de privilegios, por ejemplo {@code Rol.EDITOR.mascara()}
+     */
+    public Administrador(String id, String username, String email, long privilegios) {
+        super(id, username, email);
+        this.privilegios = privilegios;
+    }
+
+    /**
+     * Agrega un privilegio al administrador (si ya lo tenía, no cambia nada).
+     *
+     * @param privilegio privilegio a agregar
+     */
+    public void agregarPrivilegio(Privilegio privilegio) {
+        privilegios |= privilegio.bit();
+    }
+
+    /**
+     * Agrega todos los privilegios de un rol a los que ya tiene.
+     *
+     * @param rol plantilla de privilegios
      */
-    public void agregarPrivilegio(String privilegio) {
-        if (privilegio != null && !privilegios.contains(privilegio)) {
-            privilegios.add(privilegio);
-        }
+    public void aplicarRol(Rol rol) {
+        privilegios |= rol.mascara();
     }
 
     /**
@@ -51,8 +71,10 @@ public class Administrador extends Cuenta {
      * @param privilegio privilegio a eliminar
      * @return true si se eliminó, false en caso contrario
      */
-    public boolean removerPrivilegio(String privilegio) {
-        return privilegios.remove(privilegio);
+    public boolean removerPrivilegio(Privilegio privilegio) {
+        boolean tenia = tienePrivilegio(privilegio);
+        privilegios &= ~privilegio.bit();
+        return tenia;
     }
 
     /**
@@ -61,18 +83,24 @@ public class Administrador extends Cuenta {
      * @param privilegio privilegio a consultar
      * @return true si lo tiene, false en caso contrario
      */
-    public boolean tienePrivilegio(String privilegio) {
-        return privilegios.contains(privilegio);
+    public boolean tienePrivilegio(Privilegio privilegio) {
+        return (privilegios & privilegio.bit()) != 0;
     }
 
     // GETTERS & SETTERS
 
-    public List<String> getPrivilegios() { return privilegios; }
+    /** @return conjunto nuevo con los privilegios del administrador */
+    public Set<Privilegio> getPrivilegios() { return Privilegio.deMascara(privilegios); }
 
-    public void setPrivilegios(List<String> privilegios) {
-        this.privilegios = (privilegios != null) ? privilegios : new ArrayList<>();
+    public void setPrivilegios(Collection<Privilegio> privilegios) {
+        this.privilegios = (privilegios != null) ? Privilegio.mascara(privilegios) : 0;
     }
 
+    /** @return máscara con los bits de los privilegios del administrador */
+    public long getMascaraPrivilegios() { return privilegios; }
+
+    public void setMascaraPrivilegios(long privilegios) { this.privilegios = privilegios; }
+
     // Métodos utilitarios
 
     @Override
@@ -86,7 +114,7 @@ public class Administrador extends Cuenta {
                 "id='" + id + '\'' +
                 ", username='" + username + '\'' +
                 ", email='" + email + '\'' +
-                ", privilegios=" + privilegios +
+                ", privilegios=" + getPrivilegios() +
                 '}';
     }
 
@@ -1,24 +1,31 @@
 package cr.ac.ucenfotec.bl.entities;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Representa a un director de cine dentro del sistema.
- * Mantiene una lista de películas que ha dirigido.
+ * Mantiene las películas que ha dirigido, en un {@link LinkedHashSet} para que
+ * asociar, quitar y consultar cuesten O(1).
  */
 public class Director {
 
     private String id;
     private String nombre;
-    private ArrayList<Pelicula> peliculasDirigidas;
+    private final LinkedHashSet<Pelicula> peliculasDirigidas = new LinkedHashSet<>();
+    private final Set<Pelicula> peliculasDirigidasSoloLectura = Collections.unmodifiableSet(peliculasDirigidas);
+    /** Copia inmutable; se descarta con cada cambio y se arma al pedirla. */
+    private List<Pelicula> copiaPeliculasDirigidas;
 
     /**
      * Constructor por defecto.
-     * Inicializa la lista de películas dirigidas vacía.
+     * Crea el director sin películas dirigidas.
      */
     public Director() {
-        this.peliculasDirigidas = new ArrayList<>();
     }
 
     /**
@@ -26,14 +33,12 @@ public class Director {
      *
      * @param id                identificador único del director
      * @param nombre            nombre del director
-     * @param peliculasDirigidas lista de películas dirigidas; si es null, se inicializa vacía
+     * @param peliculasDirigidas películas dirigidas; si es null, se inicializa vacía
      */
-    public Director(String id, String nombre, ArrayList<Pelicula> peliculasDirigidas) {
+    public Director(String id, String nombre, Collection<Pelicula> peliculasDirigidas) {
         this.id = id;
         this.nombre = nombre;
-        this.peliculasDirigidas = (peliculasDirigidas != null)
-                ? peliculasDirigidas
-                : new ArrayList<>();
+        copiarPeliculasDirigidas(peliculasDirigidas);
     }
 
     // GETTERS & SETTERS
@@ -46,18 +51,67 @@ public class Director {
 
     public void setNombre(String nombre) { this.nombre = nombre; }
 
-    public ArrayList<Pelicula> getPeliculasDirigidas() { return peliculasDirigidas; }
+    /**
+     * Vista de solo lectura de las películas dirigidas, en orden de alta. Para modificarla use
+     * {@link #agregarPeliculaDirigida} y {@link #quitarPeliculaDirigida}.
+     */
+    public Set<Pelicula> getPeliculasDirigidas() { return peliculasDirigidasSoloLectura; }
+
+    /**
+     * Agrega una película si aún no está.
+     *
+     * @param p película a agregar
+     * @return true si se agregó, false si ya estaba o si p es null
+     */
+    public boolean agregarPeliculaDirigida(Pelicula p) {
+        if (p == null || !peliculasDirigidas.add(p)) return false;
+        copiaPeliculasDirigidas = null;
+        return true;
+    }
 
     /**
-     * Asigna la lista de películas dirigidas.
-     * Si se recibe null, se reemplaza por una lista vacía.
+     * Quita una película.
      *
-     * @param peliculasDirigidas películas asociadas al director
+     * @param p película a quitar
+     * @return true si se quitó, false si no estaba
      */
-    public void setPeliculasDirigidas(ArrayList<Pelicula> peliculasDirigidas) {
-        this.peliculasDirigidas = (peliculasDirigidas != null)
-                ? peliculasDirigidas
-                : new ArrayList<>();
+    public boolean quitarPeliculaDirigida(Pelicula p) {
+        if (!peliculasDirigidas.remove(p)) return false;
+        copiaPeliculasDirigidas = null;
+        return true;
+    }
+
+    /**
+     * Lista inmutable de las películas dirigidas. Mientras no cambien se devuelve siempre la misma.
+     *
+     * @return películas en orden de alta
+     */
+    public List<Pelicula> listaPeliculasDirigidas() {
+        List<Pelicula> copia = copiaPeliculasDirigidas;
+        if (copia == null) {
+            copia = List.copyOf(peliculasDirigidas);
+            copiaPeliculasDirigidas = copia;
+        }
+        return copia;
+    }
+
+    /**
+     * Reemplaza las películas dirigidas. Si se recibe null, quedan vacías.
+     *
+     * @param peliculasDirigidas películas a asignar (se ignoran repetidas)
+     */
+    public void setPeliculasDirigidas(Collection<Pelicula> peliculasDirigidas) {
+        this.peliculasDirigidas.clear();
+        copiarPeliculasDirigidas(peliculasDirigidas);
+        copiaPeliculasDirigidas = null;
+    }
+
+    /** Agrega las no null; privado para que el constructor no llame a un método sobrescribible. */
+    private void copiarPeliculasDirigidas(Collection<Pelicula> peliculasDirigidas) {
+        if (peliculasDirigidas == null) return;
+        for (Pelicula p : peliculasDirigidas) {
+            if (p != null) this.peliculasDirigidas.add(p);
+        }
     }
 
     @Override
@@ -5,15 +5,21 @@ import java.util.Objects;
 /**
  * Representa un género cinematográfico, por ejemplo:
  * Acción, Drama, Comedia, Terror, Infantil, etc.
+ *
+ * Las instancias que guardan las películas son las de {@link RegistroGeneros}:
+ * únicas por nombre, inmutables y con un ordinal. Las creadas con los constructores
+ * públicos no tienen ordinal hasta que se registran.
  */
 public class Genero {
 
     private String nombre;
+    private final int ordinal;
 
     /**
      * Constructor por defecto requerido por el portafolio.
      */
     public Genero() {
+        this.ordinal = -1;
     }
 
     /**
@@ -23,11 +29,33 @@ public class Genero {
      */
     public Genero(String nombre) {
         this.nombre = nombre;
+        this.ordinal = -1;
+    }
+
+    /**
+     * Constructor de las instancias canónicas; lo usa {@link RegistroGeneros}.
+     */
+    Genero(String nombre, int ordinal) {
+        this.nombre = nombre;
+        this.ordinal = ordinal;
     }
 
     public String getNombre() { return nombre; }
 
-    public void setNombre(String nombre) { this.nombre = nombre; }
+    /**
+     * @throws IllegalStateException si el género ya está registrado
+     */
+    public void setNombre(String nombre) {
+        if (ordinal >= 0) {
+            throw new IllegalStateException("Un género registrado no puede cambiar de nombre");
+        }
+        this.nombre = nombre;
+    }
+
+    /**
+     * @return ordinal del género en {@link RegistroGeneros}, o -1 si no está registrado
+     */
+    public int getOrdinal() { return ordinal; }
 
     @Override
     public String toString() {
@@ -1,12 +1,25 @@
 package cr.ac.ucenfotec.bl.entities;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Representa una película dentro del catálogo.
  * Incluye información básica como título, año, duración,
  * clasificación, géneros, elenco, director y una ficha con sinopsis.
+ *
+ * El elenco se guarda en un {@link LinkedHashSet}: asociar, quitar y consultar
+ * un actor cuestan O(1) aunque el elenco sea enorme, y se conserva el orden de alta.
+ *
+ * Los géneros se guardan como un mapa de bits de ordinales de {@link RegistroGeneros}
+ * (normalmente un solo {@code long}); se devuelven en orden de ordinal.
  */
 public class Pelicula {
 
@@ -16,8 +29,14 @@ public class Pelicula {
     private int duracionMinutos;
     private String clasificacion;
 
-    private ArrayList<Genero> generos;
-    private ArrayList<Actor> elenco;
+    private static final long[] SIN_GENEROS = new long[0];
+
+    /** Palabras del mapa de bits de géneros; se reemplaza completo en cada cambio. */
+    private long[] generos = SIN_GENEROS;
+    private final LinkedHashSet<Actor> elenco = new LinkedHashSet<>();
+    private final Set<Actor> elencoSoloLectura = Collections.unmodifiableSet(elenco);
+    /** Copia inmutable del elenco; se descarta con cada cambio y se arma al pedirla. */
+    private List<Actor> copiaElenco;
     private Director director;
 
     /**
@@ -30,11 +49,9 @@ public class Pelicula {
 
     /**
      * Constructor por defecto.
-     * Inicializa las listas de géneros y elenco vacías.
+     * Inicializa los géneros y el elenco vacíos.
      */
     public Pelicula() {
-        this.generos = new ArrayList<>();
-        this.elenco = new ArrayList<>();
     }
 
     /**
@@ -45,12 +62,12 @@ public class Pelicula {
      * @param anio            año de estreno
      * @param duracionMinutos duración en minutos
      * @param clasificacion   clasificación por edad
-     * @param generos         lista de géneros; si es null, se inicializa vacía
-     * @param elenco          lista de actores; si es null, se inicializa vacía
+     * @param generos         géneros (se registran en {@link RegistroGeneros}); si es null, queda sin géneros
+     * @param elenco          actores (se ignoran repetidos); si es null, se inicializa vacío
      * @param director        director asociado a la película (puede ser null)
      */
     public Pelicula(String id, String titulo, int anio, int duracionMinutos, String clasificacion,
-                    ArrayList<Genero> generos, ArrayList<Actor> elenco, Director director) {
+                    Collection<Genero> generos, Collection<Actor> elenco, Director director) {
 
         this.id = id;
         this.titulo = titulo;
@@ -58,19 +75,18 @@ public class Pelicula {
         this.duracionMinutos = duracionMinutos;
         this.clasificacion = clasificacion;
 
-        this.generos = (generos != null) ? generos : new ArrayList<>();
-        this.elenco = (elenco != null) ? elenco : new ArrayList<>();
+        this.generos = mascaraDe(generos);
+        copiarElenco(elenco);
         this.director = director;
     }
 
     /**
      * Constructor simplificado que solo recibe los datos básicos.
-     * Inicializa las listas de géneros y elenco vacías
+     * Inicializa los géneros y el elenco vacíos
      * y deja el director en null.
      */
     public Pelicula(String id, String titulo, int anio, int duracionMinutos, String clasificacion) {
-        this(id, titulo, anio, duracionMinutos, clasificacion,
-                new ArrayList<>(), new ArrayList<>(), null);
+        this(id, titulo, anio, duracionMinutos, clasificacion, null, null, null);
     }
 
     // GETTERS & SETTERS
@@ -94,24 +110,142 @@ public class Pelicula {
 
     public void setClasificacion(String clasificacion) { this.clasificacion = clasificacion; }
 
-    public ArrayList<Genero> getGeneros() { return generos; }
+    /**
+     * Géneros de la película, decodificados del mapa de bits.
+     *
+     * @return lista de solo lectura con los géneros canónicos, en orden de ordinal
+     */
+    public List<Genero> getGeneros() {
+        long[] palabras = generos;
+        List<Genero> lista = new ArrayList<>();
+        for (int i = 0; i < palabras.length; i++) {
+            long palabra = palabras[i];
+            while (palabra != 0) {
+                lista.add(RegistroGeneros.porOrdinal(i * Long.SIZE + Long.numberOfTrailingZeros(palabra)));
+                palabra &= palabra - 1;
+            }
+        }
+        return Collections.unmodifiableList(lista);
+    }
 
     /**
-     * Asigna la lista de géneros.
-     * Si se recibe null, se reemplaza por una lista vacía.
+     * Reemplaza los géneros, registrándolos en {@link RegistroGeneros}.
+     * Si se recibe null, la película queda sin géneros.
      */
-    public void setGeneros(ArrayList<Genero> generos) {
-        this.generos = (generos != null) ? generos : new ArrayList<>();
+    public void setGeneros(Collection<Genero> generos) {
+        this.generos = mascaraDe(generos);
     }
 
-    public ArrayList<Actor> getElenco() { return elenco; }
+    private static long[] mascaraDe(Collection<Genero> generos) {
+        BitSet bits = new BitSet();
+        if (generos != null) {
+            for (Genero g : generos) {
+                Genero canonico = RegistroGeneros.interno(g);
+                if (canonico != null) bits.set(canonico.getOrdinal());
+            }
+        }
+        return bits.isEmpty() ? SIN_GENEROS : bits.toLongArray();
+    }
+
+    /**
+     * Agrega un género, registrándolo si es nuevo.
+     *
+     * @param genero género a agregar
+     * @return true si se agregó, false si ya lo tenía o no tiene nombre
+     */
+    public boolean agregarGenero(Genero genero) {
+        Genero canonico = RegistroGeneros.interno(genero);
+        if (canonico == null || tieneGenero(canonico)) return false;
+        int palabra = canonico.getOrdinal() / Long.SIZE;
+        long[] nuevas = Arrays.copyOf(generos, Math.max(generos.length, palabra + 1));
+        nuevas[palabra] |= 1L << canonico.getOrdinal();
+        this.generos = nuevas;
+        return true;
+    }
+
+    /**
+     * Indica si la película tiene un género, sin recorrer listas.
+     *
+     * @param genero género a consultar (registrado o no)
+     * @return true si lo tiene
+     */
+    public boolean tieneGenero(Genero genero) {
+        Genero canonico = (genero == null) ? null
+                : (genero.getOrdinal() >= 0) ? genero : RegistroGeneros.buscar(genero.getNombre());
+        if (canonico == null) return false;
+        long[] palabras = generos;
+        int palabra = canonico.getOrdinal() / Long.SIZE;
+        return palabra < palabras.length && (palabras[palabra] & (1L << canonico.getOrdinal())) != 0;
+    }
+
+    /**
+     * Copia del mapa de bits de géneros, indexado por ordinal de {@link RegistroGeneros}.
+     *
+     * @return mapa de bits nuevo
+     */
+    public BitSet getMascaraGeneros() {
+        return BitSet.valueOf(generos);
+    }
 
     /**
-     * Asigna la lista de actores (elenco).
-     * Si se recibe null, se reemplaza por una lista vacía.
+     * Vista de solo lectura del elenco, en orden de alta. Para modificarlo use
+     * {@link #agregarActor} y {@link #quitarActor}.
      */
-    public void setElenco(ArrayList<Actor> elenco) {
-        this.elenco = (elenco != null) ? elenco : new ArrayList<>();
+    public Set<Actor> getElenco() { return elencoSoloLectura; }
+
+    /**
+     * Agrega un actor al elenco si aún no está.
+     *
+     * @param actor actor a agregar
+     * @return true si se agregó, false si ya estaba o si actor es null
+     */
+    public boolean agregarActor(Actor actor) {
+        if (actor == null || !elenco.add(actor)) return false;
+        copiaElenco = null;
+        return true;
+    }
+
+    /**
+     * Quita un actor del elenco.
+     *
+     * @param actor actor a quitar
+     * @return true si se quitó, false si no estaba
+     */
+    public boolean quitarActor(Actor actor) {
+        if (!elenco.remove(actor)) return false;
+        copiaElenco = null;
+        return true;
+    }
+
+    /**
+     * Lista inmutable del elenco. Mientras no cambie se devuelve siempre la misma.
+     *
+     * @return actores en orden de alta
+     */
+    public List<Actor> listaElenco() {
+        List<Actor> copia = copiaElenco;
+        if (copia == null) {
+            copia = List.copyOf(elenco);
+            copiaElenco = copia;
+        }
+        return copia;
+    }
+
+    /**
+     * Reemplaza el elenco. Si se recibe null, queda vacío.
+     */
+    public void setElenco(Collection<Actor> elenco) {
+        this.elenco.clear();
+        copiarElenco(elenco);
+        copiaElenco = null;
+    }
+
+    /** Agrega los no null; privado para que el constructor no llame a un método sobrescribible. */
+    private void copiarElenco(Collection<Actor> elenco) {
+        if (elenco == null) return;
+        for (Actor a : elenco) {
+            if (a != null) this.elenco.add(a);
+        }
     }
 
     public Director getDirector() { return director; }
@@ -125,11 +259,11 @@ public class Pelicula {
     @Override
     public String toString() {
         return "Pelicula{" +
-                "id='" + id + '\'' +
-                ", titulo='" + titulo + '\'' +
-                ", anio=" + anio +
-                ", duracionMinutos=" + duracionMinutos +
-                ", clasificacion='" + clasificacion + '\'' +
+                "id='" + getId() + '\'' +
+                ", titulo='" + getTitulo() + '\'' +
+                ", anio=" + getAnio() +
+                ", duracionMinutos=" + getDuracionMinutos() +
+                ", clasificacion='" + getClasificacion() + '\'' +
                 '}';
     }
 
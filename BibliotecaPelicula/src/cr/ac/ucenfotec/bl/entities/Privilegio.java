@@ -0,0 +1,101 @@
+package cr.ac.ucenfotec.bl.entities;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Privilegios que puede tener un {@link Administrador}.
+ *
+ * Cada privilegio ocupa un bit según su ordinal, así que un conjunto de privilegios
+ * cabe en un {@code long} y preguntar si se tiene uno es un solo AND. Los nombres son
+ * los que se guardan en disco: se pueden agregar privilegios al final, pero no
+ * renombrar los existentes.
+ */
+public enum Privilegio {
+
+    /** Registrar películas nuevas. */
+    CREAR_PELICULAS,
+    /** Cambiar datos y sinopsis de películas. */
+    EDITAR_PELICULAS,
+    /** Eliminar películas del catálogo. */
+    ELIMINAR_PELICULAS,
+    /** Registrar directores y actores. */
+    GESTIONAR_PERSONAS,
+    /** Asociar directores y actores con películas. */
+    GESTIONAR_ELENCO,
+    /** Cargar catálogos desde archivos. */
+    IMPORTAR_CATALOGO,
+    /** Registrar otros administradores y consultar o cambiar los datos de cualquier usuario. */
+    GESTIONAR_CUENTAS;
+
+    private static final Privilegio[] TODOS = values();
+
+    static {
+        if (TODOS.length > Long.SIZE) {
+            throw new IllegalStateException("Hay más privilegios que bits en un long");
+        }
+    }
+
+    private final long bit = 1L << ordinal();
+
+    /** @return el bit de este privilegio dentro de una máscara */
+    public long bit() {
+        return bit;
+    }
+
+    /**
+     * @param privilegios privilegios a incluir
+     * @return máscara con sus bits encendidos
+     */
+    public static long mascara(Privilegio... privilegios) {
+        long mascara = 0;
+        for (Privilegio p : privilegios) {
+            mascara |= p.bit;
+        }
+        return mascara;
+    }
+
+    /**
+     * @param privilegios privilegios a incluir
+     * @return máscara con sus bits encendidos
+     */
+    public static long mascara(Collection<Privilegio> privilegios) {
+        long mascara = 0;
+        for (Privilegio p : privilegios) {
+            mascara |= p.bit;
+        }
+        return mascara;
+    }
+
+    /**
+     * Máscara a partir de nombres guardados. Los nombres desconocidos se ignoran.
+     *
+     * @param nombres nombres de privilegios
+     * @return máscara con los privilegios reconocidos
+     */
+    public static long mascaraDeNombres(Collection<String> nombres) {
+        long mascara = 0;
+        for (String nombre : nombres) {
+            for (Privilegio p : TODOS) {
+                if (p.name().equals(nombre)) {
+                    mascara |= p.bit;
+                    break;
+                }
+            }
+        }
+        return mascara;
+    }
+
+    /**
+     * @param mascara máscara de privilegios
+     * @return conjunto nuevo con los privilegios de la máscara, en orden de ordinal
+     */
+    public static Set<Privilegio> deMascara(long mascara) {
+        EnumSet<Privilegio> conjunto = EnumSet.noneOf(Privilegio.class);
+        for (long resto = mascara; resto != 0; resto &= resto - 1) {
+            conjunto.add(TODOS[Long.numberOfTrailingZeros(resto)]);
+        }
+        return conjunto;
+    }
+}
@@ -0,0 +1,95 @@
+package cr.ac.ucenfotec.bl.entities;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario global de géneros.
+ *
+ * Cada nombre (sin distinguir mayúsculas ni espacios alrededor) tiene una única
+ * instancia de {@link Genero} con un ordinal pequeño y denso, asignado en orden de
+ * aparición. Las películas guardan solo los ordinales en un mapa de bits, así que
+ * un género repetido en millones de películas no crea millones de objetos.
+ *
+ * El nombre que se conserva es el de la primera vez que apareció el género.
+ * Los géneros no se eliminan.
+ */
+public final class RegistroGeneros {
+
+    private static final ConcurrentHashMap<String, Genero> porNombre = new ConcurrentHashMap<>();
+    /** Se reemplaza al crecer; volátil para que los lectores vean cada género completo. */
+    private static volatile Genero[] porOrdinal = new Genero[16];
+    private static int cantidad;
+
+    private RegistroGeneros() {
+    }
+
+    /**
+     * Devuelve la instancia única del género con ese nombre, registrándolo si es nuevo.
+     *
+     * @param nombre nombre del género
+     * @return género canónico, o null si el nombre es null o está en blanco
+     */
+    public static Genero interno(String nombre) {
+        if (nombre == null || nombre.isBlank()) return null;
+        String llave = normalizar(nombre);
+        Genero g = porNombre.get(llave);
+        return (g != null) ? g : registrar(llave, nombre.trim());
+    }
+
+    /**
+     * Devuelve la instancia única equivalente a un género cualquiera.
+     *
+     * @param genero género, registrado o no
+     * @return género canónico, o null si no tiene nombre
+     */
+    public static Genero interno(Genero genero) {
+        if (genero == null) return null;
+        return (genero.getOrdinal() >= 0) ? genero : interno(genero.getNombre());
+    }
+
+    /**
+     * Busca un género sin registrarlo.
+     *
+     * @param nombre nombre del género
+     * @return género canónico, o null si nunca se registró
+     */
+    public static Genero buscar(String nombre) {
+        return (nombre == null) ? null : porNombre.get(normalizar(nombre));
+    }
+
+    /**
+     * @param ordinal ordinal asignado al registrar el género
+     * @return el género, o null si el ordinal no existe
+     */
+    public static Genero porOrdinal(int ordinal) {
+        Genero[] arreglo = porOrdinal;
+        return (ordinal >= 0 && ordinal < arreglo.length) ? arreglo[ordinal] : null;
+    }
+
+    /**
+     * @return cantidad de géneros registrados (cota de los ordinales)
+     */
+    public static synchronized int cantidad() {
+        return cantidad;
+    }
+
+    private static synchronized Genero registrar(String llave, String nombre) {
+        Genero g = porNombre.get(llave);
+        if (g != null) return g;
+        g = new Genero(nombre, cantidad);
+        Genero[] arreglo = porOrdinal;
+        if (cantidad == arreglo.length) {
+            arreglo = Arrays.copyOf(arreglo, cantidad * 2);
+        }
+        arreglo[cantidad++] = g;
+        porOrdinal = arreglo;
+        porNombre.put(llave, g);
+        return g;
+    }
+
+    private static String normalizar(String nombre) {
+        return nombre.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,28 @@
+package cr.ac.ucenfotec.bl.entities;
+
+import static cr.ac.ucenfotec.bl.entities.Privilegio.*;
+
+/**
+ * Plantillas de privilegios para administradores. La máscara de cada rol se calcula
+ * una sola vez y todos los administradores que lo reciben la comparten.
+ */
+public enum Rol {
+
+    /** Mantiene el catálogo: crea y edita películas, personas y elencos. */
+    EDITOR(CREAR_PELICULAS, EDITAR_PELICULAS, GESTIONAR_PERSONAS, GESTIONAR_ELENCO),
+    /** Corrige y depura el catálogo: edita y elimina películas. */
+    MODERADOR(EDITAR_PELICULAS, ELIMINAR_PELICULAS),
+    /** Todos los privilegios. */
+    ADMINISTRADOR(Privilegio.values());
+
+    private final long mascara;
+
+    Rol(Privilegio... privilegios) {
+        this.mascara = Privilegio.mascara(privilegios);
+    }
+
+    /** @return máscara con los privilegios del rol */
+    public long mascara() {
+        return mascara;
+    }
+}
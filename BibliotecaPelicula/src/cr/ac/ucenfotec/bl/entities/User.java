@@ -1,23 +1,33 @@
 package cr.ac.ucenfotec.bl.entities;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Representa a un usuario normal del sistema.
- * Hereda de {@link Cuenta} y mantiene una lista de películas favoritas.
+ * Hereda de {@link Cuenta} y mantiene sus películas favoritas.
+ *
+ * Los favoritos se guardan en un {@link LinkedHashSet}: agregar, quitar y consultar
+ * cuestan O(1) aunque el usuario tenga miles, y se conserva el orden en que se marcaron.
  */
 public class User extends Cuenta {
 
-    private ArrayList<Pelicula> favoritos;
+    private final LinkedHashSet<Pelicula> favoritos = new LinkedHashSet<>();
+    private final Set<Pelicula> favoritosSoloLectura = Collections.unmodifiableSet(favoritos);
+
+    /** Copia inmutable de los favoritos; se descarta con cada cambio y se arma al pedirla. */
+    private List<Pelicula> copiaFavoritos;
 
     /**
      * Constructor por defecto.
-     * Inicializa la lista de favoritos vacía.
+     * Inicializa los favoritos vacíos.
      */
     public User() {
         super();
-        this.favoritos = new ArrayList<>();
     }
 
     /**
@@ -26,18 +36,18 @@ public class User extends Cuenta {
      * @param id        identificador único de la cuenta
      * @param username  nombre de usuario
      * @param email     correo electrónico
-     * @param favoritos lista de películas favoritas; si es null, se inicializa vacía
+     * @param favoritos películas favoritas (se ignoran repetidas); si es null, se inicializa vacía
      */
-    public User(String id, String username, String email, ArrayList<Pelicula> favoritos) {
+    public User(String id, String username, String email, Collection<Pelicula> favoritos) {
         super(id, username, email);
-        this.favoritos = (favoritos != null) ? favoritos : new ArrayList<>();
+        copiarFavoritos(favoritos);
     }
 
     /**
-     * Constructor simplificado que parte de una lista de favoritos vacía.
+     * Constructor simplificado que parte sin favoritos.
      */
     public User(String id, String username, String email) {
-        this(id, username, email, new ArrayList<>());
+        this(id, username, email, null);
     }
 
     /**
@@ -48,9 +58,9 @@ public class User extends Cuenta {
      * @return true si se agregó, false si ya estaba o si p es null
      */
     public boolean agregarFavorito(Pelicula p) {
-        if (p == null) return false;
-        if (!favoritos.contains(p)) return favoritos.add(p);
-        return false;
+        if (p == null || !favoritos.add(p)) return false;
+        copiaFavoritos = null;
+        return true;
     }
 
     /**
@@ -60,19 +70,60 @@ public class User extends Cuenta {
      * @return true si se eliminó, false si no estaba en la lista
      */
     public boolean eliminarFavorito(Pelicula p) {
-        return favoritos.remove(p);
+        if (!favoritos.remove(p)) return false;
+        copiaFavoritos = null;
+        return true;
     }
 
-    public ArrayList<Pelicula> getFavoritos() {
-        return favoritos;
+    /**
+     * Indica si una película está entre las favoritas, en O(1).
+     *
+     * @param p película a consultar
+     * @return true si está marcada como favorita
+     */
+    public boolean esFavorita(Pelicula p) {
+        return favoritos.contains(p);
     }
 
     /**
-     * Asigna la lista de favoritas.
-     * Si se recibe null, se reemplaza por una lista vacía.
+     * Vista de solo lectura de los favoritos, en el orden en que se marcaron.
+     * Refleja los cambios posteriores; para modificarlos use {@link #agregarFavorito}
+     * y {@link #eliminarFavorito}.
      */
-    public void setFavoritos(ArrayList<Pelicula> favoritos) {
-        this.favoritos = (favoritos != null) ? favoritos : new ArrayList<>();
+    public Set<Pelicula> getFavoritos() {
+        return favoritosSoloLectura;
+    }
+
+    /**
+     * Lista inmutable de los favoritos. Mientras no cambien se devuelve siempre la
+     * misma, así que pedirla varias veces no copia nada.
+     *
+     * @return favoritos en el orden en que se marcaron
+     */
+    public List<Pelicula> listaFavoritos() {
+        List<Pelicula> copia = copiaFavoritos;
+        if (copia == null) {
+            copia = List.copyOf(favoritos);
+            copiaFavoritos = copia;
+        }
+        return copia;
+    }
+
+    /**
+     * Reemplaza las favoritas. Si se recibe null, quedan vacías.
+     */
+    public void setFavoritos(Collection<Pelicula> favoritos) {
+        this.favoritos.clear();
+        copiarFavoritos(favoritos);
+        copiaFavoritos = null;
+    }
+
+    /** Agrega las no null; privado para que el constructor no llame a un método sobrescribible. */
+    private void copiarFavoritos(Collection<Pelicula> favoritos) {
+        if (favoritos == null) return;
+        for (Pelicula p : favoritos) {
+            if (p != null) this.favoritos.add(p);
+        }
     }
 
     @Override
@@ -0,0 +1,143 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Genero;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Agregación sobre el catálogo de películas: cantidad y duración (total, promedio,
+ * mínima y máxima), en total o agrupadas por año, clasificación, director o género.
+ *
+ * Se obtiene con {@link Gestor#analizarPeliculas()}, se filtra igual que una
+ * {@link ConsultaPeliculas} y se termina con uno de los métodos de agregación, por ejemplo:
+ * <pre>
+ *     gestor.analizarPeliculas()
+ *           .genero("Drama")
+ *           .entreAnios(1990, 1999)
+ *           .porClasificacion();
+ * </pre>
+ * Se resuelve sobre la proyección por columnas del catálogo, sin recorrer las películas.
+ * Las comparaciones de género y clasificación no distinguen mayúsculas.
+ */
+public final class AnalisisPeliculas {
+
+    private final ProyeccionColumnar proyeccion;
+
+    private final List<String> generos = new ArrayList<>();
+    private String clasificacion;
+    private Director director;
+    private int anioDesde = Integer.MIN_VALUE;
+    private int anioHasta = Integer.MAX_VALUE;
+
+    AnalisisPeliculas(ProyeccionColumnar proyeccion) {
+        this.proyeccion = proyeccion;
+    }
+
+    /**
+     * Considera solo las películas con este género. Puede llamarse varias veces;
+     * en ese caso deben tenerlos todos.
+     *
+     * @param genero nombre del género
+     * @return este mismo análisis
+     */
+    public AnalisisPeliculas genero(String genero) {
+        if (genero != null) generos.add(IndiceCatalogo.normalizar(genero));
+        return this;
+    }
+
+    /**
+     * Considera solo una clasificación.
+     *
+     * @param clasificacion clasificación por edad (ej: "PG-13")
+     * @return este mismo análisis
+     */
+    public AnalisisPeliculas clasificacion(String clasificacion) {
+        this.clasificacion = IndiceCatalogo.normalizar(clasificacion);
+        return this;
+    }
+
+    /**
+     * Considera solo las películas de un director.
+     *
+     * @param director director de la película
+     * @return este mismo análisis
+     */
+    public AnalisisPeliculas director(Director director) {
+        this.director = director;
+        return this;
+    }
+
+    /**
+     * Considera solo los años dentro del rango (ambos extremos incluidos).
+     *
+     * @param desde primer año aceptado
+     * @param hasta último año aceptado
+     * @return este mismo análisis
+     */
+    public AnalisisPeliculas entreAnios(int desde, int hasta) {
+        this.anioDesde = Math.min(desde, hasta);
+        this.anioHasta = Math.max(desde, hasta);
+        return this;
+    }
+
+    /**
+     * @return resumen de todas las películas que cumplen los filtros
+     */
+    public ResumenDuracion resumen() {
+        return proyeccion.resumen(this);
+    }
+
+    /**
+     * @return resumen por año, ordenado; solo aparecen los años con películas
+     */
+    public SortedMap<Integer, ResumenDuracion> porAnio() {
+        return proyeccion.porAnio(this);
+    }
+
+    /**
+     * @return resumen por clasificación; las películas sin clasificación no aparecen
+     */
+    public Map<String, ResumenDuracion> porClasificacion() {
+        return proyeccion.porClasificacion(this);
+    }
+
+    /**
+     * @return resumen por director; las películas sin director no aparecen
+     */
+    public Map<Director, ResumenDuracion> porDirector() {
+        return proyeccion.porDirector(this);
+    }
+
+    /**
+     * Resumen por género. Una película con varios géneros cuenta en cada uno.
+     *
+     * @return resumen por género; solo aparecen los géneros con películas
+     */
+    public Map<Genero, ResumenDuracion> porGenero() {
+        return proyeccion.porGenero(this);
+    }
+
+    List<String> getGeneros() {
+        return generos;
+    }
+
+    String getClasificacion() {
+        return clasificacion;
+    }
+
+    Director getDirector() {
+        return director;
+    }
+
+    int getAnioDesde() {
+        return anioDesde;
+    }
+
+    int getAnioHasta() {
+        return anioHasta;
+    }
+}
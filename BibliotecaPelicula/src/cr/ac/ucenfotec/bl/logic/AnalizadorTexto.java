@@ -0,0 +1,59 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Normalización y separación en palabras del texto que se indexa o se busca.
+ *
+ * Pliega los acentos y diacríticos ("acción" y "accion" dan el mismo término),
+ * pasa todo a minúsculas y corta en cualquier carácter que no sea letra ni dígito.
+ */
+final class AnalizadorTexto {
+
+    private AnalizadorTexto() {
+    }
+
+    /**
+     * Quita acentos y diacríticos y pasa a minúsculas.
+     *
+     * @param texto texto original
+     * @return texto plegado; cadena vacía si texto es null
+     */
+    static String plegar(String texto) {
+        if (texto == null) return "";
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(descompuesto.length());
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Separa un texto en términos ya plegados, en el orden en que aparecen.
+     *
+     * @param texto texto original
+     * @return lista de términos (vacía si no hay ninguno)
+     */
+    static List<String> tokenizar(String texto) {
+        List<String> terminos = new ArrayList<>();
+        String plegado = plegar(texto);
+        int inicio = -1;
+        for (int i = 0; i <= plegado.length(); i++) {
+            boolean esParte = i < plegado.length() && Character.isLetterOrDigit(plegado.charAt(i));
+            if (esParte && inicio < 0) {
+                inicio = i;
+            } else if (!esParte && inicio >= 0) {
+                terminos.add(plegado.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return terminos;
+    }
+}
@@ -0,0 +1,656 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.User;
+import cr.ac.ucenfotec.dl.Data;
+import cr.ac.ucenfotec.dl.OyenteCambios;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocompletado tolerante a errores sobre títulos de películas y nombres de
+ * actores y directores.
+ *
+ * Cada nombre se guarda una vez, plegado con {@link AnalizadorTexto} (sin acentos ni
+ * mayúsculas). Las claves son pares (entrada, inicio de palabra), ordenados por el
+ * texto que empieza en esa posición, como en un arreglo de sufijos restringido a
+ * inicios de palabra. Así "padr" encuentra "El Padrino". Una búsqueda por prefijo es
+ * una búsqueda binaria más el recorrido del rango, sin nodos por carácter.
+ *
+ * Las altas van a una tabla pequeña de claves recientes que se fusiona con la
+ * principal al llenarse; las bajas marcan la entrada como muerta y se descartan
+ * en la siguiente fusión. Un alta por lotes ordena sus claves de una vez y fusiona
+ * a lo sumo una vez por lote.
+ *
+ * Si las coincidencias exactas no llenan el resultado y el prefijo tiene al menos
+ * {@value #MINIMO_PARA_DIFUSO} caracteres, se prueban todas las variantes a distancia
+ * de edición 1 (borrar, cambiar, insertar o transponer un carácter). Los resultados
+ * exactos van primero; dentro de cada grupo se ordena por popularidad.
+ *
+ * Para no recorrer rangos enormes con prefijos cortos ("a"), la tabla principal
+ * guarda por cada bloque de {@value #TAMANO_BLOQUE} claves una cota del mejor puntaje
+ * que contiene. Con la selección llena se saltan los bloques que no pueden mejorarla.
+ * La cota solo sube (más favoritos, más películas); si baja queda alta hasta la
+ * siguiente fusión, lo cual sigue siendo correcto.
+ */
+final class Autocompletado implements OyenteCambios {
+
+    private static final int MAXIMO_RECIENTES = 2048;
+    private static final int MINIMO_PARA_DIFUSO = 3;
+    private static final int BITS_BLOQUE = 5;
+    private static final int TAMANO_BLOQUE = 1 << BITS_BLOQUE;
+
+    /**
+     * Un nombre indexado. La popularidad cambia sin tocar las tablas porque el
+     * orden por popularidad se decide al consultar.
+     */
+    private static final class Entrada {
+        final Sugerencia.Tipo tipo;
+        final String id;
+        final String texto;
+        final String plegado;
+        int popularidad;
+        int claves;
+        boolean viva = true;
+        /** Posiciones de sus claves en la tabla principal; null mientras solo esté en recientes. */
+        int[] posiciones;
+
+        Entrada(Sugerencia.Tipo tipo, String id, String texto, int popularidad) {
+            this.tipo = tipo;
+            this.id = id;
+            this.texto = texto;
+            this.plegado = normalizar(texto);
+            this.popularidad = popularidad;
+        }
+
+        /** Más alto es mejor: popularidad y, a igual popularidad, texto más corto. */
+        long puntaje() {
+            return ((long) popularidad << 32) | (Integer.MAX_VALUE - plegado.length());
+        }
+
+        Sugerencia comoSugerencia() {
+            return new Sugerencia(tipo, id, texto, popularidad);
+        }
+    }
+
+    /** Mejor primero: más popular, luego más corto, luego alfabético. */
+    private static final Comparator<Entrada> ORDEN_RELEVANCIA = Comparator
+            .comparingLong((Entrada e) -> -e.puntaje())
+            .thenComparing(e -> e.plegado)
+            .thenComparing(e -> e.id);
+
+    /**
+     * Tabla de claves ordenada: arreglos paralelos de entrada e inicio de palabra.
+     */
+    private static final class Tabla {
+        Entrada[] entradas;
+        int[] inicios;
+        int cantidad;
+        /** Cota del mejor puntaje por bloque; null en la tabla de recientes. */
+        long[] cotas;
+
+        Tabla(int capacidad) {
+            entradas = new Entrada[Math.max(16, capacidad)];
+            inicios = new int[entradas.length];
+        }
+
+        void agregarAlFinal(Entrada e, int inicio) {
+            if (cantidad == entradas.length) {
+                entradas = Arrays.copyOf(entradas, cantidad * 2);
+                inicios = Arrays.copyOf(inicios, cantidad * 2);
+            }
+            entradas[cantidad] = e;
+            inicios[cantidad] = inicio;
+            cantidad++;
+        }
+
+        /** Inserta manteniendo el orden; solo se usa en la tabla de recientes, que es pequeña. */
+        void insertar(Entrada e, int inicio) {
+            int bajo = 0;
+            int alto = cantidad;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (compararClaves(entradas[medio], inicios[medio], e, inicio) < 0) bajo = medio + 1;
+                else alto = medio;
+            }
+            agregarAlFinal(e, inicio);
+            System.arraycopy(entradas, bajo, entradas, bajo + 1, cantidad - 1 - bajo);
+            System.arraycopy(inicios, bajo, inicios, bajo + 1, cantidad - 1 - bajo);
+            entradas[bajo] = e;
+            inicios[bajo] = inicio;
+        }
+
+        /** Ordena todas las claves; solo se usa en la tabla de recientes tras una carga por lotes. */
+        void ordenar() {
+            Integer[] orden = new Integer[cantidad];
+            for (int i = 0; i < cantidad; i++) orden[i] = i;
+            Arrays.sort(orden, (a, b) -> compararClaves(entradas[a], inicios[a], entradas[b], inicios[b]));
+            Entrada[] ordenadas = new Entrada[entradas.length];
+            int[] iniciosOrdenados = new int[inicios.length];
+            for (int i = 0; i < cantidad; i++) {
+                ordenadas[i] = entradas[orden[i]];
+                iniciosOrdenados[i] = inicios[orden[i]];
+            }
+            entradas = ordenadas;
+            inicios = iniciosOrdenados;
+        }
+
+        /**
+         * Calcula las cotas por bloque y anota en cada entrada dónde quedaron sus claves.
+         */
+        void indexarBloques() {
+            cotas = new long[(cantidad + TAMANO_BLOQUE - 1) >>> BITS_BLOQUE];
+            Map<Entrada, Integer> llenas = new IdentityHashMap<>();
+            for (int i = 0; i < cantidad; i++) {
+                Entrada e = entradas[i];
+                int k = llenas.merge(e, 1, Integer::sum) - 1;
+                if (k == 0) e.posiciones = new int[e.claves];
+                e.posiciones[k] = i;
+                cotas[i >>> BITS_BLOQUE] = Math.max(cotas[i >>> BITS_BLOQUE], e.puntaje());
+            }
+        }
+
+        void subirCotas(Entrada e) {
+            long puntaje = e.puntaje();
+            for (int pos : e.posiciones) {
+                cotas[pos >>> BITS_BLOQUE] = Math.max(cotas[pos >>> BITS_BLOQUE], puntaje);
+            }
+        }
+
+        /**
+         * Primera clave cuyo texto, cortado al largo de {@code q}, es mayor o igual
+         * ({@code estricto == false}) o estrictamente mayor ({@code estricto == true}) que q.
+         */
+        int limite(String q, boolean estricto) {
+            int bajo = 0;
+            int alto = cantidad;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                int c = compararConPrefijo(entradas[medio], inicios[medio], q);
+                if (c < 0 || (estricto && c == 0)) bajo = medio + 1;
+                else alto = medio;
+            }
+            return bajo;
+        }
+    }
+
+    /**
+     * Los {@code limite} de mayor puntaje, sin repetir entradas (una entrada puede
+     * coincidir por varias de sus palabras). A igual puntaje gana la que llegó antes,
+     * es decir, la de clave menor.
+     */
+    private static final class Seleccion {
+        final int limite;
+        final PriorityQueue<Entrada> monticulo;
+
+        Seleccion(int limite) {
+            this.limite = limite;
+            this.monticulo = new PriorityQueue<>(limite + 1, Comparator.comparingLong(Entrada::puntaje));
+        }
+
+        /**
+         * Puntaje que hay que superar para entrar, o -1 si todavía hay lugar.
+         */
+        long umbral() {
+            return monticulo.size() < limite ? -1 : monticulo.peek().puntaje();
+        }
+
+        boolean contiene(Entrada e) {
+            for (Entrada x : monticulo) {
+                if (x == e) return true;
+            }
+            return false;
+        }
+
+        int cantidad() {
+            return monticulo.size();
+        }
+
+        void ofrecer(Entrada e) {
+            if (e.puntaje() <= umbral()) return;
+            if (contiene(e)) return;
+            monticulo.add(e);
+            if (monticulo.size() > limite) monticulo.poll();
+        }
+
+        List<Entrada> ordenadas() {
+            List<Entrada> lista = new ArrayList<>(monticulo);
+            lista.sort(ORDEN_RELEVANCIA);
+            return lista;
+        }
+    }
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    private final Map<Object, Entrada> porEntidad = new HashMap<>();
+    private final Map<Pelicula, Director> directorDe = new HashMap<>();
+
+    private Tabla principal = new Tabla(16);
+    private Tabla recientes = new Tabla(16);
+    private int clavesMuertas;
+
+    private final BitSet caracteres = new BitSet();
+    private char[] alfabeto = new char[0];
+
+    /**
+     * Construye el autocompletado con las entidades ya registradas en {@code data}.
+     *
+     * @param data datos de los que se toman películas, actores, directores y favoritos
+     */
+    Autocompletado(Data data) {
+        List<Entrada> entradas = new ArrayList<>();
+        for (Pelicula p : data.getPeliculas()) {
+            entradas.add(registrar(p, Sugerencia.Tipo.PELICULA, p.getId(), p.getTitulo(),
+                    data.cantidadSeguidores(p)));
+            if (p.getDirector() != null) directorDe.put(p, p.getDirector());
+        }
+        for (Actor a : data.getActores()) {
+            entradas.add(registrar(a, Sugerencia.Tipo.ACTOR, a.getId(), a.getNombre(),
+                    data.filmografiaDe(a).size()));
+        }
+        for (Director d : data.getDirectores()) {
+            entradas.add(registrar(d, Sugerencia.Tipo.DIRECTOR, d.getId(), d.getNombre(),
+                    data.peliculasDirigidasDe(d).size()));
+        }
+
+        record Clave(Entrada entrada, int inicio) {}
+        List<Clave> claves = new ArrayList<>();
+        for (Entrada e : entradas) {
+            for (int inicio : iniciosDePalabra(e.plegado)) {
+                claves.add(new Clave(e, inicio));
+                e.claves++;
+            }
+        }
+        claves.sort((a, b) -> compararClaves(a.entrada(), a.inicio(), b.entrada(), b.inicio()));
+        principal = new Tabla(claves.size());
+        for (Clave c : claves) {
+            principal.agregarAlFinal(c.entrada(), c.inicio());
+        }
+        principal.indexarBloques();
+    }
+
+    // ===== TEXTO Y COMPARACIONES =====
+
+    /**
+     * Pliega acentos y mayúsculas y deja un solo espacio entre palabras.
+     */
+    static String normalizar(String texto) {
+        return AnalizadorTexto.plegar(texto).trim().replaceAll("\\s+", " ");
+    }
+
+    private static List<Integer> iniciosDePalabra(String plegado) {
+        List<Integer> inicios = new ArrayList<>();
+        for (int i = 0; i < plegado.length(); i++) {
+            if (Character.isLetterOrDigit(plegado.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(plegado.charAt(i - 1)))) {
+                inicios.add(i);
+            }
+        }
+        return inicios;
+    }
+
+    private static int compararClaves(Entrada a, int ia, Entrada b, int ib) {
+        String sa = a.plegado;
+        String sb = b.plegado;
+        int n = Math.min(sa.length() - ia, sb.length() - ib);
+        for (int i = 0; i < n; i++) {
+            int d = sa.charAt(ia + i) - sb.charAt(ib + i);
+            if (d != 0) return d;
+        }
+        return (sa.length() - ia) - (sb.length() - ib);
+    }
+
+    /**
+     * Compara el texto de la clave, cortado al largo de {@code q}, con {@code q}.
+     */
+    private static int compararConPrefijo(Entrada e, int inicio, String q) {
+        String s = e.plegado;
+        int n = Math.min(q.length(), s.length() - inicio);
+        for (int i = 0; i < n; i++) {
+            int d = s.charAt(inicio + i) - q.charAt(i);
+            if (d != 0) return d;
+        }
+        return (n < q.length()) ? -1 : 0;
+    }
+
+    // ===== MANTENIMIENTO =====
+
+    private Entrada registrar(Object entidad, Sugerencia.Tipo tipo, String id, String texto, int popularidad) {
+        Entrada e = new Entrada(tipo, id, texto, popularidad);
+        porEntidad.put(entidad, e);
+        for (int i = 0; i < e.plegado.length(); i++) {
+            caracteres.set(e.plegado.charAt(i));
+        }
+        return e;
+    }
+
+    private void agregar(Object entidad, Sugerencia.Tipo tipo, String id, String texto, int popularidad) {
+        agregarClaves(entidad, tipo, id, texto, popularidad, true);
+        if (recientes.cantidad > MAXIMO_RECIENTES) {
+            fusionar();
+        }
+    }
+
+    /**
+     * Registra la entidad y sus claves en la tabla de recientes. En un lote las claves
+     * van al final sin ordenar y {@link #terminarLote()} las ordena todas juntas.
+     */
+    private void agregarClaves(Object entidad, Sugerencia.Tipo tipo, String id, String texto, int popularidad,
+                               boolean enOrden) {
+        if (texto == null || porEntidad.containsKey(entidad)) return;
+        Entrada e = registrar(entidad, tipo, id, texto, popularidad);
+        for (int inicio : iniciosDePalabra(e.plegado)) {
+            if (enOrden) recientes.insertar(e, inicio);
+            else recientes.agregarAlFinal(e, inicio);
+            e.claves++;
+        }
+    }
+
+    private void terminarLote() {
+        recientes.ordenar();
+        if (recientes.cantidad > MAXIMO_RECIENTES) {
+            fusionar();
+        }
+    }
+
+    private void quitar(Object entidad) {
+        Entrada e = porEntidad.remove(entidad);
+        if (e == null) return;
+        e.viva = false;
+        clavesMuertas += e.claves;
+        if (clavesMuertas > MAXIMO_RECIENTES && clavesMuertas * 2 > principal.cantidad + recientes.cantidad) {
+            fusionar();
+        }
+    }
+
+    /**
+     * Mezcla la tabla de recientes con la principal, descartando las claves muertas.
+     */
+    private void fusionar() {
+        Tabla nueva = new Tabla(principal.cantidad + recientes.cantidad - clavesMuertas);
+        int i = 0;
+        int j = 0;
+        while (i < principal.cantidad || j < recientes.cantidad) {
+            boolean dePrincipal = j == recientes.cantidad
+                    || (i < principal.cantidad && compararClaves(principal.entradas[i], principal.inicios[i],
+                    recientes.entradas[j], recientes.inicios[j]) <= 0);
+            Tabla origen = dePrincipal ? principal : recientes;
+            int pos = dePrincipal ? i++ : j++;
+            if (origen.entradas[pos].viva) {
+                nueva.agregarAlFinal(origen.entradas[pos], origen.inicios[pos]);
+            }
+        }
+        nueva.indexarBloques();
+        principal = nueva;
+        recientes = new Tabla(16);
+        clavesMuertas = 0;
+    }
+
+    private void cambiarPopularidad(Object entidad, int delta) {
+        Entrada e = porEntidad.get(entidad);
+        if (e == null) return;
+        e.popularidad = Math.max(0, e.popularidad + delta);
+        if (delta > 0 && e.posiciones != null) principal.subirCotas(e);
+    }
+
+    @Override
+    public void peliculaAgregada(Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            agregarPelicula(p, true);
+            if (recientes.cantidad > MAXIMO_RECIENTES) {
+                fusionar();
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void peliculasAgregadas(List<Pelicula> nuevas) {
+        candado.writeLock().lock();
+        try {
+            for (Pelicula p : nuevas) agregarPelicula(p, false);
+            terminarLote();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private void agregarPelicula(Pelicula p, boolean enOrden) {
+        agregarClaves(p, Sugerencia.Tipo.PELICULA, p.getId(), p.getTitulo(), 0, enOrden);
+        if (p.getDirector() != null) {
+            directorDe.put(p, p.getDirector());
+            cambiarPopularidad(p.getDirector(), 1);
+        }
+        for (Actor a : p.getElenco()) {
+            cambiarPopularidad(a, 1);
+        }
+    }
+
+    @Override
+    public void peliculaEliminada(Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            quitar(p);
+            Director d = directorDe.remove(p);
+            if (d != null) cambiarPopularidad(d, -1);
+            for (Actor a : p.getElenco()) {
+                cambiarPopularidad(a, -1);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void peliculaActualizada(Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            Entrada e = porEntidad.get(p);
+            if (e != null && !e.texto.equals(p.getTitulo())) {
+                quitar(p);
+                agregar(p, Sugerencia.Tipo.PELICULA, p.getId(), p.getTitulo(), e.popularidad);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void actorAgregado(Actor a) {
+        candado.writeLock().lock();
+        try {
+            agregar(a, Sugerencia.Tipo.ACTOR, a.getId(), a.getNombre(), a.getFilmografia().size());
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void directorAgregado(Director d) {
+        candado.writeLock().lock();
+        try {
+            agregar(d, Sugerencia.Tipo.DIRECTOR, d.getId(), d.getNombre(), d.getPeliculasDirigidas().size());
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void actoresAgregados(List<Actor> nuevos) {
+        candado.writeLock().lock();
+        try {
+            for (Actor a : nuevos) {
+                agregarClaves(a, Sugerencia.Tipo.ACTOR, a.getId(), a.getNombre(), a.getFilmografia().size(), false);
+            }
+            terminarLote();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void directoresAgregados(List<Director> nuevos) {
+        candado.writeLock().lock();
+        try {
+            for (Director d : nuevos) {
+                agregarClaves(d, Sugerencia.Tipo.DIRECTOR, d.getId(), d.getNombre(),
+                        d.getPeliculasDirigidas().size(), false);
+            }
+            terminarLote();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void actorAsociado(Actor a, Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            cambiarPopularidad(a, 1);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void directorAsociado(Pelicula p, Director d) {
+        candado.writeLock().lock();
+        try {
+            Director anterior = directorDe.put(p, d);
+            if (!d.equals(anterior)) {
+                if (anterior != null) cambiarPopularidad(anterior, -1);
+                cambiarPopularidad(d, 1);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void favoritoAgregado(User u, Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            cambiarPopularidad(p, 1);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void favoritoEliminado(User u, Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            cambiarPopularidad(p, -1);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // ===== CONSULTAS =====
+
+    /**
+     * Sugiere películas, actores y directores cuyo nombre tiene alguna palabra que
+     * empieza con {@code prefijo} (o con algo a un error de distancia).
+     *
+     * @param prefijo texto escrito hasta el momento
+     * @param limite  cantidad máxima de sugerencias
+     * @return sugerencias exactas primero y luego las aproximadas, cada grupo por popularidad
+     */
+    List<Sugerencia> sugerir(String prefijo, int limite) {
+        List<Sugerencia> resultado = new ArrayList<>();
+        String q = normalizar(prefijo);
+        if (q.isEmpty() || limite <= 0) return resultado;
+
+        candado.readLock().lock();
+        try {
+            Seleccion exactas = new Seleccion(limite);
+            recolectar(q, exactas, null);
+            for (Entrada e : exactas.ordenadas()) {
+                resultado.add(e.comoSugerencia());
+            }
+
+            if (exactas.cantidad() < limite && q.length() >= MINIMO_PARA_DIFUSO) {
+                // Todas las exactas caben en la selección, así que basta con excluirlas
+                Seleccion difusas = new Seleccion(limite - exactas.cantidad());
+                for (String variante : variantes(q)) {
+                    recolectar(variante, difusas, exactas);
+                }
+                for (Entrada e : difusas.ordenadas()) {
+                    resultado.add(e.comoSugerencia());
+                }
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private void recolectar(String q, Seleccion seleccion, Seleccion excluidas) {
+        for (Tabla t : new Tabla[]{principal, recientes}) {
+            int fin = t.limite(q, true);
+            for (int i = t.limite(q, false); i < fin; i++) {
+                if (t.cotas != null && (i & (TAMANO_BLOQUE - 1)) == 0
+                        && t.cotas[i >>> BITS_BLOQUE] <= seleccion.umbral()) {
+                    i |= TAMANO_BLOQUE - 1;
+                    continue;
+                }
+                Entrada e = t.entradas[i];
+                if (e.viva && (excluidas == null || !excluidas.contiene(e))) {
+                    seleccion.ofrecer(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Prefijos a distancia de edición 1 de {@code q}. No se generan inserciones al
+     * final, porque esas claves ya empiezan con {@code q}.
+     */
+    private Set<String> variantes(String q) {
+        if (alfabeto.length != caracteres.cardinality()) {
+            alfabeto = new char[caracteres.cardinality()];
+            int k = 0;
+            for (int c = caracteres.nextSetBit(0); c >= 0; c = caracteres.nextSetBit(c + 1)) {
+                alfabeto[k++] = (char) c;
+            }
+        }
+        Set<String> resultado = new LinkedHashSet<>();
+        StringBuilder sb = new StringBuilder(q);
+        for (int i = 0; i < q.length(); i++) {
+            resultado.add(q.substring(0, i) + q.substring(i + 1));
+            if (i + 1 < q.length() && q.charAt(i) != q.charAt(i + 1)) {
+                sb.setCharAt(i, q.charAt(i + 1));
+                sb.setCharAt(i + 1, q.charAt(i));
+                resultado.add(sb.toString());
+                sb.setCharAt(i, q.charAt(i));
+                sb.setCharAt(i + 1, q.charAt(i + 1));
+            }
+            for (char c : alfabeto) {
+                if (c != q.charAt(i)) {
+                    sb.setCharAt(i, c);
+                    resultado.add(sb.toString());
+                }
+                resultado.add(q.substring(0, i) + c + q.substring(i));
+            }
+            sb.setCharAt(i, q.charAt(i));
+        }
+        resultado.remove(q);
+        resultado.remove("");
+        return resultado;
+    }
+}
@@ -0,0 +1,45 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Privilegio;
+
+import java.util.function.Supplier;
+
+/**
+ * Verificación de permisos que el {@link Gestor} hace antes de cada operación que
+ * modifica datos (ver {@link Gestor#setAutorizador(Autorizador)}).
+ *
+ * Se llama en el camino de cada escritura, así que una implementación no debe buscar
+ * nada: lo normal es leer la sesión en curso y comparar un bit.
+ */
+@FunctionalInterface
+public interface Autorizador {
+
+    /** Permite todo; es el que usa el gestor mientras no se configure otro. */
+    Autorizador PERMITIR_TODO = privilegio -> { };
+
+    /**
+     * @param privilegio privilegio que exige la operación
+     * @throws SecurityException (u otra excepción no verificada) si no se permite
+     */
+    void verificar(Privilegio privilegio);
+
+    /**
+     * Autorizador según la sesión en curso, por ejemplo la del hilo que atiende una
+     * solicitud. Sin sesión, o si la sesión no tiene el privilegio, lanza
+     * {@link SecurityException}.
+     *
+     * @param sesionActual da la sesión en curso, o null si no hay
+     * @return autorizador que consulta la máscara de privilegios de esa sesión
+     */
+    static Autorizador segunSesion(Supplier<GestorSesiones.Identidad> sesionActual) {
+        return privilegio -> {
+            GestorSesiones.Identidad sesion = sesionActual.get();
+            if (sesion == null) {
+                throw new SecurityException("Se requiere iniciar sesión");
+            }
+            if (!sesion.tienePrivilegio(privilegio)) {
+                throw new SecurityException("Falta el privilegio " + privilegio);
+            }
+        };
+    }
+}
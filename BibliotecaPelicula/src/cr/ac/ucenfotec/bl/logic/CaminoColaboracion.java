@@ -0,0 +1,23 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+
+import java.util.List;
+
+/**
+ * Cadena más corta de colaboraciones entre dos actores: {@code actores.get(i)} y
+ * {@code actores.get(i + 1)} trabajaron juntos en {@code peliculas.get(i)}.
+ *
+ * @param actores  actores desde el origen hasta el destino, ambos incluidos
+ * @param peliculas película que une a cada par de actores consecutivos
+ */
+public record CaminoColaboracion(List<Actor> actores, List<Pelicula> peliculas) {
+
+    /**
+     * @return grados de separación (0 si origen y destino son el mismo actor)
+     */
+    public int grados() {
+        return peliculas.size();
+    }
+}
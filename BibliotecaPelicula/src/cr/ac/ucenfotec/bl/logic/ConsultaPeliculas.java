@@ -0,0 +1,126 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consulta de películas que combina varias condiciones con AND.
+ *
+ * Se obtiene con {@link Gestor#consultarPeliculas()} y se arma encadenando
+ * condiciones, por ejemplo:
+ * <pre>
+ *     gestor.consultarPeliculas()
+ *           .genero("Drama")
+ *           .entreAnios(1990, 1999)
+ *           .clasificacion("PG-13")
+ *           .ejecutar();
+ * </pre>
+ * Las comparaciones de género y clasificación no distinguen mayúsculas.
+ */
+public final class ConsultaPeliculas {
+
+    private final IndiceCatalogo indice;
+
+    private final List<String> generos = new ArrayList<>();
+    private String clasificacion;
+    private Director director;
+    private Integer anioDesde;
+    private Integer anioHasta;
+
+    ConsultaPeliculas(IndiceCatalogo indice) {
+        this.indice = indice;
+    }
+
+    /**
+     * Exige que la película tenga este género. Puede llamarse varias veces;
+     * en ese caso debe tenerlos todos.
+     *
+     * @param genero nombre del género
+     * @return esta misma consulta
+     */
+    public ConsultaPeliculas genero(String genero) {
+        if (genero != null) generos.add(IndiceCatalogo.normalizar(genero));
+        return this;
+    }
+
+    /**
+     * Exige una clasificación concreta.
+     *
+     * @param clasificacion clasificación por edad (ej: "PG-13")
+     * @return esta misma consulta
+     */
+    public ConsultaPeliculas clasificacion(String clasificacion) {
+        this.clasificacion = IndiceCatalogo.normalizar(clasificacion);
+        return this;
+    }
+
+    /**
+     * Exige un director concreto.
+     *
+     * @param director director de la película
+     * @return esta misma consulta
+     */
+    public ConsultaPeliculas director(Director director) {
+        this.director = director;
+        return this;
+    }
+
+    /**
+     * Exige que el año esté dentro del rango (ambos extremos incluidos).
+     *
+     * @param desde primer año aceptado
+     * @param hasta último año aceptado
+     * @return esta misma consulta
+     */
+    public ConsultaPeliculas entreAnios(int desde, int hasta) {
+        this.anioDesde = Math.min(desde, hasta);
+        this.anioHasta = Math.max(desde, hasta);
+        return this;
+    }
+
+    /**
+     * Exige un año exacto.
+     *
+     * @param anio año de estreno
+     * @return esta misma consulta
+     */
+    public ConsultaPeliculas anio(int anio) {
+        return entreAnios(anio, anio);
+    }
+
+    /**
+     * Ejecuta la consulta sobre los índices del catálogo.
+     *
+     * @return películas que cumplen todas las condiciones, ordenadas por año e id
+     */
+    public List<Pelicula> ejecutar() {
+        return indice.buscar(this);
+    }
+
+    List<String> getGeneros() {
+        return generos;
+    }
+
+    String getClasificacion() {
+        return clasificacion;
+    }
+
+    Director getDirector() {
+        return director;
+    }
+
+    boolean tieneRangoAnios() {
+        return anioDesde != null;
+    }
+
+    int getAnioDesde() {
+        return anioDesde;
+    }
+
+    int getAnioHasta() {
+        return anioHasta;
+    }
+}
@@ -0,0 +1,12 @@
+package cr.ac.ucenfotec.bl.logic;
+
+/**
+ * Una entrada de un ranking de {@link EstadisticasCatalogo}: la entidad y el valor
+ * por el que se ordenó.
+ *
+ * @param elemento película, actor o director
+ * @param cantidad valor del ranking (favoritos, películas, etc.)
+ * @param <T>      tipo de la entidad
+ */
+public record Conteo<T>(T elemento, int cantidad) {
+}
@@ -0,0 +1,232 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Genero;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.RegistroGeneros;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Estadísticas del catálogo calculadas en paralelo: películas con más favoritos,
+ * actores con más películas, géneros por década y tamaño promedio del elenco por director.
+ *
+ * Se obtiene con {@link Gestor#estadisticas()}, que copia el catálogo en un mismo
+ * instante sin detener a los escritores; todos los reportes de una misma instancia
+ * se calculan sobre esa copia y no ven los cambios posteriores. Cada reporte reparte
+ * los arreglos de la copia en tramos que resuelve el {@link ForkJoinPool} común, con
+ * un resultado parcial por tramo que luego se combina.
+ */
+public final class EstadisticasCatalogo {
+
+    /**
+     * Por debajo de este tamaño un tramo se recorre en el mismo hilo. Si el resultado
+     * parcial es más grande (muchos directores, por ejemplo), el tramo mínimo crece a su
+     * tamaño, para que la memoria de todos los parciales no supere la de la copia.
+     */
+    private static final int UMBRAL = 1 << 13;
+
+    private final FotoCatalogo foto;
+    private final ForkJoinPool pool;
+
+    EstadisticasCatalogo(FotoCatalogo foto) {
+        this.foto = foto;
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    /**
+     * @return cantidad de películas en la copia
+     */
+    public int cantidadPeliculas() {
+        return foto.cantidadPeliculas;
+    }
+
+    /**
+     * Películas marcadas como favoritas por más usuarios. Los empates se ordenan
+     * por orden de catálogo.
+     *
+     * @param cantidad máximo de películas a devolver
+     * @return películas de la más a la menos seguida
+     */
+    public List<Conteo<Pelicula>> peliculasMasFavoritas(int cantidad) {
+        validarCantidad(cantidad);
+        int[] seguidores = foto.seguidores;
+        Ranking ranking = reducir(foto.cantidadPeliculas, cantidad, (desde, hasta) -> {
+            Ranking parcial = new Ranking(cantidad);
+            for (int i = desde; i < hasta; i++) {
+                if (seguidores[i] > 0) parcial.ofrecer(i, seguidores[i]);
+            }
+            return parcial;
+        }, Ranking::combinar);
+        return ranking.resolver(foto.peliculas);
+    }
+
+    /**
+     * Actores con más películas en su filmografía. Los empates se ordenan por
+     * orden de registro.
+     *
+     * @param cantidad máximo de actores a devolver
+     * @return actores del más al menos prolífico
+     */
+    public List<Conteo<Actor>> actoresMasProlificos(int cantidad) {
+        validarCantidad(cantidad);
+        int[] filmografias = foto.filmografias;
+        Ranking ranking = reducir(foto.cantidadActores, cantidad, (desde, hasta) -> {
+            Ranking parcial = new Ranking(cantidad);
+            for (int i = desde; i < hasta; i++) {
+                if (filmografias[i] > 0) parcial.ofrecer(i, filmografias[i]);
+            }
+            return parcial;
+        }, Ranking::combinar);
+        return ranking.resolver(foto.actores);
+    }
+
+    /**
+     * Cantidad de películas de cada género por década. Una película con varios
+     * géneros cuenta en cada uno.
+     *
+     * @return por año inicial de la década (1990, 2000...), cantidad por género en
+     *         orden de registro; se omiten las décadas y géneros sin películas
+     */
+    public SortedMap<Integer, Map<Genero, Long>> generosPorDecada() {
+        SortedMap<Integer, Map<Genero, Long>> resultado = new TreeMap<>();
+        if (foto.cantidadPeliculas == 0 || foto.cantidadGeneros == 0) return resultado;
+
+        int primera = Math.floorDiv(foto.anioMinimo, 10);
+        int decadas = Math.floorDiv(foto.anioMaximo, 10) - primera + 1;
+        int generos = foto.cantidadGeneros;
+        int[] anios = foto.anios;
+        int[] inicio = foto.inicioGeneros;
+        int[] ordinales = foto.ordinales;
+
+        long[] conteos = reducir(foto.cantidadPeliculas, decadas * generos, (desde, hasta) -> {
+            long[] parcial = new long[decadas * generos];
+            for (int i = desde; i < hasta; i++) {
+                int fila = (Math.floorDiv(anios[i], 10) - primera) * generos;
+                for (int j = inicio[i], fin = inicio[i + 1]; j < fin; j++) {
+                    parcial[fila + ordinales[j]]++;
+                }
+            }
+            return parcial;
+        }, EstadisticasCatalogo::sumar);
+
+        for (int d = 0; d < decadas; d++) {
+            Map<Genero, Long> porGenero = new LinkedHashMap<>();
+            for (int o = 0; o < generos; o++) {
+                long c = conteos[d * generos + o];
+                if (c > 0) porGenero.put(RegistroGeneros.porOrdinal(o), c);
+            }
+            if (!porGenero.isEmpty()) {
+                resultado.put((primera + d) * 10, Collections.unmodifiableMap(porGenero));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Tamaño promedio del elenco de las películas de cada director. Las películas
+     * sin director (o con uno que no está registrado) no se cuentan.
+     *
+     * @return promedio por director, en orden de registro; se omiten los directores sin películas
+     */
+    public Map<Director, Double> promedioElencoPorDirector() {
+        Director[] porNumero = foto.directoresPorNumero;
+        int cantidad = porNumero.length;
+        int[] directores = foto.directores;
+        int[] elencos = foto.elencos;
+
+        // [0, cantidad): suma de elencos; [cantidad, 2 * cantidad): cantidad de películas
+        long[] sumas = reducir(foto.cantidadPeliculas, cantidad * 2, (desde, hasta) -> {
+            long[] parcial = new long[cantidad * 2];
+            for (int i = desde; i < hasta; i++) {
+                int d = directores[i];
+                if (d >= 0 && d < cantidad) {
+                    parcial[d] += elencos[i];
+                    parcial[cantidad + d]++;
+                }
+            }
+            return parcial;
+        }, EstadisticasCatalogo::sumar);
+
+        Map<Director, Double> resultado = new LinkedHashMap<>();
+        for (int d = 0; d < cantidad; d++) {
+            long peliculas = sumas[cantidad + d];
+            if (peliculas > 0 && porNumero[d] != null) {
+                resultado.put(porNumero[d], (double) sumas[d] / peliculas);
+            }
+        }
+        return resultado;
+    }
+
+    private static void validarCantidad(int cantidad) {
+        if (cantidad < 1) {
+            throw new IllegalArgumentException("La cantidad debe ser al menos 1");
+        }
+    }
+
+    private static long[] sumar(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) a[i] += b[i];
+        return a;
+    }
+
+    // ===== REDUCCIÓN EN PARALELO =====
+
+    /**
+     * Calcula el resultado parcial de un tramo [desde, hasta).
+     */
+    @FunctionalInterface
+    private interface Tramo<R> {
+        R calcular(int desde, int hasta);
+    }
+
+    /**
+     * @param cantidad      tamaño del rango a recorrer
+     * @param tamanoParcial cantidad de posiciones del resultado parcial de cada tramo
+     */
+    private <R> R reducir(int cantidad, int tamanoParcial, Tramo<R> tramo, BinaryOperator<R> combinar) {
+        int umbral = Math.max(UMBRAL, tamanoParcial);
+        if (cantidad <= umbral) return tramo.calcular(0, cantidad);
+        return pool.invoke(new Reduccion<>(0, cantidad, umbral, tramo, combinar));
+    }
+
+    /**
+     * Parte el rango a la mitad hasta llegar al umbral y combina los parciales de a pares.
+     * Nunca se serializa (solo vive dentro del pool), aunque {@link RecursiveTask} lo permita.
+     */
+    @SuppressWarnings("serial")
+    private static final class Reduccion<R> extends RecursiveTask<R> {
+
+        private final int desde;
+        private final int hasta;
+        private final int umbral;
+        private final Tramo<R> tramo;
+        private final BinaryOperator<R> combinar;
+
+        Reduccion(int desde, int hasta, int umbral, Tramo<R> tramo, BinaryOperator<R> combinar) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.umbral = umbral;
+            this.tramo = tramo;
+            this.combinar = combinar;
+        }
+
+        @Override
+        protected R compute() {
+            if (hasta - desde <= umbral) return tramo.calcular(desde, hasta);
+            int medio = (desde + hasta) >>> 1;
+            Reduccion<R> izquierda = new Reduccion<>(desde, medio, umbral, tramo, combinar);
+            izquierda.fork();
+            R derecha = new Reduccion<>(medio, hasta, umbral, tramo, combinar).compute();
+            return combinar.apply(izquierda.join(), derecha);
+        }
+    }
+}
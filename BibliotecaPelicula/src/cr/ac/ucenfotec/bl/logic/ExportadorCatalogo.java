@@ -0,0 +1,703 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Genero;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.User;
+import cr.ac.ucenfotec.dl.Data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Exportación del catálogo a un archivo, en CSV, JSON-lines o un formato binario
+ * compacto, opcionalmente comprimido con gzip.
+ *
+ * Se obtiene con {@link Gestor#exportador()}, por ejemplo:
+ * <pre>
+ *     gestor.exportador()
+ *           .formato(ExportadorCatalogo.Formato.JSONL)
+ *           .comprimido(true)
+ *           .exportar(Path.of("peliculas.jsonl.gz"), ImportadorCatalogo.Tipo.PELICULAS);
+ * </pre>
+ *
+ * Recorre las entidades por páginas en orden de id, así que la memoria usada no
+ * depende del tamaño del catálogo; no es una copia en un mismo instante (lo que cambie
+ * durante la exportación puede salir o no). Los registros se codifican directamente
+ * en un {@link ByteBuffer} directo que se reutiliza y se vacía en un {@link FileChannel},
+ * sin armar un {@code String} por registro. Con gzip, el mismo buffer pasa por un
+ * {@link Deflater} hacia un segundo buffer directo.
+ *
+ * Las columnas son las de {@link ImportadorCatalogo.Tipo}, de modo que un archivo CSV o
+ * JSON-lines exportado se puede volver a importar. Las películas llevan además
+ * {@code sinopsis} y {@code elenco} (ids de los actores), que la importación ignora;
+ * el elenco se importa aparte con {@link ImportadorCatalogo.Tipo#ELENCO}.
+ *
+ * El formato binario empieza con el número mágico {@code MCX1}, un byte de versión y
+ * un byte con el tipo; sigue un registro tras otro hasta el fin del archivo. Cada campo
+ * va en el orden de las columnas: los textos como longitud en bytes + 1 (0 para null)
+ * seguida de los bytes UTF-8, los números en zigzag y las listas como cantidad seguida
+ * de los textos. Todas las longitudes, cantidades y números usan 7 bits por byte.
+ */
+public final class ExportadorCatalogo {
+
+    /**
+     * Formato del archivo.
+     */
+    public enum Formato {
+        /** Encabezado con los nombres de columna; listas separadas por {@code |}. */
+        CSV,
+        /** Un objeto JSON por línea; listas como arreglos. */
+        JSONL,
+        /** Binario compacto (ver la descripción de la clase). */
+        BINARIO
+    }
+
+    /** Número mágico del formato binario: "MCX1". */
+    public static final int MAGICO = 0x4D435831;
+    /** Versión del formato binario. */
+    public static final int VERSION = 1;
+
+    private static final int TAMANO_PAGINA = 1000;
+    private static final String[] CAMPOS_PELICULA = {
+            "id", "titulo", "anio", "duracion", "clasificacion", "generos", "director", "sinopsis", "elenco"};
+    private static final String[] CAMPOS_PERSONA = {"id", "nombre"};
+    private static final String[] CAMPOS_USUARIO = {"id", "username", "email"};
+    private static final String[] CAMPOS_ELENCO = {"pelicula", "actor"};
+    private static final String[] CAMPOS_FAVORITOS = {"usuario", "pelicula"};
+
+    private final Data data;
+    private Formato formato = Formato.CSV;
+    private boolean comprimido;
+    private int tamanoBuffer = 1 << 18;
+
+    ExportadorCatalogo(Data data) {
+        this.data = data;
+    }
+
+    /**
+     * @param formato formato del archivo (por defecto CSV)
+     * @return este mismo exportador
+     */
+    public ExportadorCatalogo formato(Formato formato) {
+        if (formato == null) throw new IllegalArgumentException("El formato no puede ser null");
+        this.formato = formato;
+        return this;
+    }
+
+    /**
+     * @param comprimido true para comprimir con gzip (por defecto no)
+     * @return este mismo exportador
+     */
+    public ExportadorCatalogo comprimido(boolean comprimido) {
+        this.comprimido = comprimido;
+        return this;
+    }
+
+    /**
+     * @param bytes tamaño del buffer de escritura (por defecto 256 KB; mínimo 4 KB)
+     * @return este mismo exportador
+     */
+    public ExportadorCatalogo tamanoBuffer(int bytes) {
+        if (bytes < 4096) throw new IllegalArgumentException("El buffer debe tener al menos 4 KB");
+        this.tamanoBuffer = bytes;
+        return this;
+    }
+
+    /**
+     * Escribe el archivo completo, reemplazándolo si ya existía.
+     *
+     * @param archivo archivo de salida
+     * @param tipo    qué exportar
+     * @return cantidad de registros escritos
+     * @throws IOException si no se puede escribir
+     */
+    public long exportar(Path archivo, ImportadorCatalogo.Tipo tipo) throws IOException {
+        try (Salida salida = new Salida(archivo, tamanoBuffer, comprimido)) {
+            Escritor escritor = switch (formato) {
+                case CSV -> new EscritorCsv(salida);
+                case JSONL -> new EscritorJson(salida);
+                case BINARIO -> new EscritorBinario(salida);
+            };
+            return switch (tipo) {
+                case PELICULAS -> exportarPeliculas(escritor);
+                case ACTORES -> exportarActores(escritor);
+                case DIRECTORES -> exportarDirectores(escritor);
+                case USUARIOS -> exportarUsuarios(escritor);
+                case ELENCO -> exportarElenco(escritor);
+                case FAVORITOS -> exportarFavoritos(escritor);
+            };
+        }
+    }
+
+    // ===== RECORRIDOS =====
+
+    private long exportarPeliculas(Escritor escritor) throws IOException {
+        escritor.empezar(ImportadorCatalogo.Tipo.PELICULAS, CAMPOS_PELICULA);
+        long registros = 0;
+        String cursor = null;
+        List<Pelicula> pagina;
+        while (!(pagina = data.peliculasDespuesDe(cursor, TAMANO_PAGINA)).isEmpty()) {
+            for (Pelicula p : pagina) {
+                Director director = p.getDirector();
+                escritor.empezarRegistro();
+                escritor.texto(p.getId());
+                escritor.texto(p.getTitulo());
+                escritor.numero(p.getAnio());
+                escritor.numero(p.getDuracionMinutos());
+                escritor.texto(p.getClasificacion());
+                escritor.lista(p.getGeneros(), Genero::getNombre);
+                escritor.texto((director != null) ? director.getId() : null);
+                escritor.texto((p.getFicha() != null) ? p.getFicha().sinopsis() : null);
+                escritor.lista(data.elencoDe(p), Actor::getId);
+                escritor.terminarRegistro();
+                registros++;
+            }
+            cursor = pagina.get(pagina.size() - 1).getId();
+        }
+        return registros;
+    }
+
+    private long exportarActores(Escritor escritor) throws IOException {
+        escritor.empezar(ImportadorCatalogo.Tipo.ACTORES, CAMPOS_PERSONA);
+        long registros = 0;
+        String cursor = null;
+        List<Actor> pagina;
+        while (!(pagina = data.actoresDespuesDe(cursor, TAMANO_PAGINA)).isEmpty()) {
+            for (Actor a : pagina) {
+                escritor.empezarRegistro();
+                escritor.texto(a.getId());
+                escritor.texto(a.getNombre());
+                escritor.terminarRegistro();
+                registros++;
+            }
+            cursor = pagina.get(pagina.size() - 1).getId();
+        }
+        return registros;
+    }
+
+    private long exportarDirectores(Escritor escritor) throws IOException {
+        escritor.empezar(ImportadorCatalogo.Tipo.DIRECTORES, CAMPOS_PERSONA);
+        long registros = 0;
+        String cursor = null;
+        List<Director> pagina;
+        while (!(pagina = data.directoresDespuesDe(cursor, TAMANO_PAGINA)).isEmpty()) {
+            for (Director d : pagina) {
+                escritor.empezarRegistro();
+                escritor.texto(d.getId());
+                escritor.texto(d.getNombre());
+                escritor.terminarRegistro();
+                registros++;
+            }
+            cursor = pagina.get(pagina.size() - 1).getId();
+        }
+        return registros;
+    }
+
+    private long exportarUsuarios(Escritor escritor) throws IOException {
+        escritor.empezar(ImportadorCatalogo.Tipo.USUARIOS, CAMPOS_USUARIO);
+        long registros = 0;
+        String cursor = null;
+        List<User> pagina;
+        while (!(pagina = data.usuariosDespuesDe(cursor, TAMANO_PAGINA)).isEmpty()) {
+            for (User u : pagina) {
+                escritor.empezarRegistro();
+                escritor.texto(u.getId());
+                escritor.texto(u.getUsername());
+                escritor.texto(u.getEmail());
+                escritor.terminarRegistro();
+                registros++;
+            }
+            cursor = pagina.get(pagina.size() - 1).getId();
+        }
+        return registros;
+    }
+
+    private long exportarElenco(Escritor escritor) throws IOException {
+        escritor.empezar(ImportadorCatalogo.Tipo.ELENCO, CAMPOS_ELENCO);
+        long registros = 0;
+        String cursor = null;
+        List<Pelicula> pagina;
+        while (!(pagina = data.peliculasDespuesDe(cursor, TAMANO_PAGINA)).isEmpty()) {
+            for (Pelicula p : pagina) {
+                for (Actor a : data.elencoDe(p)) {
+                    escritor.empezarRegistro();
+                    escritor.texto(p.getId());
+                    escritor.texto(a.getId());
+                    escritor.terminarRegistro();
+                    registros++;
+                }
+            }
+            cursor = pagina.get(pagina.size() - 1).getId();
+        }
+        return registros;
+    }
+
+    private long exportarFavoritos(Escritor escritor) throws IOException {
+        escritor.empezar(ImportadorCatalogo.Tipo.FAVORITOS, CAMPOS_FAVORITOS);
+        long registros = 0;
+        String cursor = null;
+        List<User> pagina;
+        while (!(pagina = data.usuariosDespuesDe(cursor, TAMANO_PAGINA)).isEmpty()) {
+            for (User u : pagina) {
+                for (Pelicula p : data.favoritosDe(u)) {
+                    escritor.empezarRegistro();
+                    escritor.texto(u.getId());
+                    escritor.texto(p.getId());
+                    escritor.terminarRegistro();
+                    registros++;
+                }
+            }
+            cursor = pagina.get(pagina.size() - 1).getId();
+        }
+        return registros;
+    }
+
+    // ===== FORMATOS =====
+
+    /**
+     * Codifica registros campo por campo, en el orden de las columnas.
+     */
+    private abstract static class Escritor {
+        final Salida salida;
+        String[] campos;
+        int campo;
+
+        Escritor(Salida salida) {
+            this.salida = salida;
+        }
+
+        void empezar(ImportadorCatalogo.Tipo tipo, String[] campos) throws IOException {
+            this.campos = campos;
+        }
+
+        void empezarRegistro() {
+            campo = 0;
+        }
+
+        abstract void texto(String valor) throws IOException;
+
+        abstract void numero(int valor) throws IOException;
+
+        abstract <T> void lista(Collection<T> elementos, Function<T, String> texto) throws IOException;
+
+        abstract void terminarRegistro() throws IOException;
+    }
+
+    private static final class EscritorCsv extends Escritor {
+
+        EscritorCsv(Salida salida) {
+            super(salida);
+        }
+
+        @Override
+        void empezar(ImportadorCatalogo.Tipo tipo, String[] campos) throws IOException {
+            super.empezar(tipo, campos);
+            for (int i = 0; i < campos.length; i++) {
+                if (i > 0) salida.ascii(',');
+                salida.utf8(campos[i]);
+            }
+            salida.ascii('\n');
+        }
+
+        private void separar() throws IOException {
+            if (campo++ > 0) salida.ascii(',');
+        }
+
+        @Override
+        void texto(String valor) throws IOException {
+            separar();
+            if (valor != null) escribirCampo(valor);
+        }
+
+        @Override
+        void numero(int valor) throws IOException {
+            separar();
+            salida.entero(valor);
+        }
+
+        @Override
+        <T> void lista(Collection<T> elementos, Function<T, String> texto) throws IOException {
+            separar();
+            boolean comillas = false;
+            for (T e : elementos) {
+                if (requiereComillas(texto.apply(e))) {
+                    comillas = true;
+                    break;
+                }
+            }
+            if (comillas) salida.ascii('"');
+            boolean primero = true;
+            for (T e : elementos) {
+                if (!primero) salida.ascii('|');
+                primero = false;
+                if (comillas) escribirEntreComillas(texto.apply(e));
+                else salida.utf8(texto.apply(e));
+            }
+            if (comillas) salida.ascii('"');
+        }
+
+        @Override
+        void terminarRegistro() throws IOException {
+            salida.ascii('\n');
+        }
+
+        private void escribirCampo(String valor) throws IOException {
+            if (!requiereComillas(valor)) {
+                salida.utf8(valor);
+                return;
+            }
+            salida.ascii('"');
+            escribirEntreComillas(valor);
+            salida.ascii('"');
+        }
+
+        private void escribirEntreComillas(String valor) throws IOException {
+            int desde = 0;
+            for (int i = 0; i < valor.length(); i++) {
+                if (valor.charAt(i) == '"') {
+                    salida.utf8(valor, desde, i + 1);
+                    salida.ascii('"');
+                    desde = i + 1;
+                }
+            }
+            salida.utf8(valor, desde, valor.length());
+        }
+
+        private static boolean requiereComillas(String valor) {
+            for (int i = 0; i < valor.length(); i++) {
+                char c = valor.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class EscritorJson extends Escritor {
+
+        private static final char[] HEXADECIMAL = "0123456789abcdef".toCharArray();
+
+        EscritorJson(Salida salida) {
+            super(salida);
+        }
+
+        private void clave() throws IOException {
+            salida.ascii(campo == 0 ? '{' : ',');
+            salida.ascii('"');
+            salida.utf8(campos[campo++]);
+            salida.ascii('"');
+            salida.ascii(':');
+        }
+
+        @Override
+        void texto(String valor) throws IOException {
+            clave();
+            cadena(valor);
+        }
+
+        @Override
+        void numero(int valor) throws IOException {
+            clave();
+            salida.entero(valor);
+        }
+
+        @Override
+        <T> void lista(Collection<T> elementos, Function<T, String> texto) throws IOException {
+            clave();
+            salida.ascii('[');
+            boolean primero = true;
+            for (T e : elementos) {
+                if (!primero) salida.ascii(',');
+                primero = false;
+                cadena(texto.apply(e));
+            }
+            salida.ascii(']');
+        }
+
+        @Override
+        void terminarRegistro() throws IOException {
+            salida.ascii('}');
+            salida.ascii('\n');
+        }
+
+        private void cadena(String valor) throws IOException {
+            if (valor == null) {
+                salida.utf8("null");
+                return;
+            }
+            salida.ascii('"');
+            int desde = 0;
+            for (int i = 0; i < valor.length(); i++) {
+                char c = valor.charAt(i);
+                if (c != '"' && c != '\\' && c >= 0x20) continue;
+                salida.utf8(valor, desde, i);
+                desde = i + 1;
+                salida.ascii('\\');
+                switch (c) {
+                    case '"', '\\' -> salida.ascii(c);
+                    case '\n' -> salida.ascii('n');
+                    case '\r' -> salida.ascii('r');
+                    case '\t' -> salida.ascii('t');
+                    default -> {
+                        salida.ascii('u');
+                        for (int corrimiento = 12; corrimiento >= 0; corrimiento -= 4) {
+                            salida.ascii(HEXADECIMAL[(c >> corrimiento) & 0xF]);
+                        }
+                    }
+                }
+            }
+            salida.utf8(valor, desde, valor.length());
+            salida.ascii('"');
+        }
+    }
+
+    private static final class EscritorBinario extends Escritor {
+
+        EscritorBinario(Salida salida) {
+            super(salida);
+        }
+
+        @Override
+        void empezar(ImportadorCatalogo.Tipo tipo, String[] campos) throws IOException {
+            super.empezar(tipo, campos);
+            for (int corrimiento = 24; corrimiento >= 0; corrimiento -= 8) {
+                salida.octeto(MAGICO >>> corrimiento);
+            }
+            salida.octeto(VERSION);
+            salida.octeto(tipo.ordinal());
+        }
+
+        @Override
+        void texto(String valor) throws IOException {
+            if (valor == null) {
+                salida.variable(0);
+                return;
+            }
+            salida.variable(Salida.longitudUtf8(valor, 0, valor.length()) + 1);
+            salida.utf8(valor);
+        }
+
+        @Override
+        void numero(int valor) throws IOException {
+            salida.variable((valor << 1) ^ (valor >> 31));
+        }
+
+        @Override
+        <T> void lista(Collection<T> elementos, Function<T, String> texto) throws IOException {
+            salida.variable(elementos.size());
+            for (T e : elementos) {
+                texto(texto.apply(e));
+            }
+        }
+
+        @Override
+        void terminarRegistro() {
+        }
+    }
+
+    // ===== SALIDA =====
+
+    /**
+     * Buffer directo reutilizable sobre un {@link FileChannel}, con gzip opcional.
+     * Los textos se codifican a UTF-8 carácter por carácter dentro del buffer.
+     */
+    private static final class Salida implements Closeable {
+
+        private static final int ESPACIO_CARACTER = 4;
+        private static final ByteBuffer SIN_DATOS = ByteBuffer.allocate(0);
+
+        private final FileChannel canal;
+        private final ByteBuffer buffer;
+        private final Deflater compresor;
+        private final ByteBuffer comprimidos;
+        private final CRC32 crc;
+        private long bytesSinComprimir;
+
+        Salida(Path archivo, int tamano, boolean gzip) throws IOException {
+            canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            buffer = ByteBuffer.allocateDirect(tamano);
+            if (gzip) {
+                compresor = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                comprimidos = ByteBuffer.allocateDirect(tamano);
+                crc = new CRC32();
+                escribirEncabezadoGzip();
+            } else {
+                compresor = null;
+                comprimidos = null;
+                crc = null;
+            }
+        }
+
+        void octeto(int b) throws IOException {
+            if (!buffer.hasRemaining()) vaciar();
+            buffer.put((byte) b);
+        }
+
+        void ascii(char c) throws IOException {
+            octeto(c);
+        }
+
+        /** Entero sin signo en grupos de 7 bits, el menos significativo primero. */
+        void variable(int valor) throws IOException {
+            if (buffer.remaining() < 5) vaciar();
+            while ((valor & ~0x7F) != 0) {
+                buffer.put((byte) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            buffer.put((byte) valor);
+        }
+
+        /** Entero en decimal, sin pasar por {@code String}. */
+        void entero(int valor) throws IOException {
+            if (buffer.remaining() < 11) vaciar();
+            if (valor == Integer.MIN_VALUE) {
+                utf8(Integer.toString(valor));
+                return;
+            }
+            if (valor < 0) {
+                buffer.put((byte) '-');
+                valor = -valor;
+            }
+            // Las cifras salen de la menos significativa a la más; se invierten en el buffer
+            int inicio = buffer.position();
+            do {
+                buffer.put((byte) ('0' + valor % 10));
+                valor /= 10;
+            } while (valor != 0);
+            for (int i = inicio, j = buffer.position() - 1; i < j; i++, j--) {
+                byte cifra = buffer.get(i);
+                buffer.put(i, buffer.get(j));
+                buffer.put(j, cifra);
+            }
+        }
+
+        void utf8(String texto) throws IOException {
+            utf8(texto, 0, texto.length());
+        }
+
+        void utf8(String texto, int desde, int hasta) throws IOException {
+            for (int i = desde; i < hasta; i++) {
+                if (buffer.remaining() < ESPACIO_CARACTER) vaciar();
+                char c = texto.charAt(i);
+                if (c < 0x80) {
+                    buffer.put((byte) c);
+                } else if (c < 0x800) {
+                    buffer.put((byte) (0xC0 | (c >> 6)));
+                    buffer.put((byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < hasta
+                        && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    int punto = Character.toCodePoint(c, texto.charAt(++i));
+                    buffer.put((byte) (0xF0 | (punto >> 18)));
+                    buffer.put((byte) (0x80 | ((punto >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((punto >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (punto & 0x3F)));
+                } else if (Character.isSurrogate(c)) {
+                    buffer.put((byte) '?');
+                } else {
+                    buffer.put((byte) (0xE0 | (c >> 12)));
+                    buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (c & 0x3F)));
+                }
+            }
+        }
+
+        /** Bytes que ocupa un texto en UTF-8, con la misma regla que {@link #utf8(String, int, int)}. */
+        static int longitudUtf8(String texto, int desde, int hasta) {
+            int bytes = 0;
+            for (int i = desde; i < hasta; i++) {
+                char c = texto.charAt(i);
+                if (c < 0x80) {
+                    bytes++;
+                } else if (c < 0x800) {
+                    bytes += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < hasta
+                        && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    bytes += 4;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    bytes++;
+                } else {
+                    bytes += 3;
+                }
+            }
+            return bytes;
+        }
+
+        /**
+         * Pasa el contenido del buffer al archivo (o al compresor) y lo deja vacío.
+         */
+        private void vaciar() throws IOException {
+            buffer.flip();
+            if (compresor == null) {
+                escribirTodo(buffer);
+            } else {
+                bytesSinComprimir += buffer.remaining();
+                crc.update(buffer.duplicate());
+                compresor.setInput(buffer);
+                while (!compresor.needsInput()) {
+                    comprimir();
+                }
+                // El compresor guarda la referencia: sin esto, al limpiar el buffer
+                // volvería a ver su contenido anterior como entrada pendiente
+                compresor.setInput(SIN_DATOS);
+            }
+            buffer.clear();
+        }
+
+        private void comprimir() throws IOException {
+            compresor.deflate(comprimidos);
+            if (!comprimidos.hasRemaining() || compresor.finished()) {
+                comprimidos.flip();
+                escribirTodo(comprimidos);
+                comprimidos.clear();
+            }
+        }
+
+        private void escribirTodo(ByteBuffer origen) throws IOException {
+            while (origen.hasRemaining()) {
+                canal.write(origen);
+            }
+        }
+
+        private void escribirEncabezadoGzip() throws IOException {
+            // ID1 ID2, método deflate, sin banderas ni fecha, sin extra, sistema desconocido
+            ByteBuffer encabezado = ByteBuffer.wrap(new byte[]{0x1F, (byte) 0x8B, 8, 0, 0, 0, 0, 0, 0, (byte) 0xFF});
+            escribirTodo(encabezado);
+        }
+
+        private void terminarGzip() throws IOException {
+            compresor.finish();
+            while (!compresor.finished()) {
+                comprimir();
+            }
+            ByteBuffer cola = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            cola.putInt((int) crc.getValue());
+            cola.putInt((int) bytesSinComprimir);
+            cola.flip();
+            escribirTodo(cola);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                vaciar();
+                if (compresor != null) terminarGzip();
+            } finally {
+                if (compresor != null) compresor.end();
+                canal.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.dl.Data;
+import cr.ac.ucenfotec.dl.Relacion;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Copia en arreglos de lo que necesitan las estadísticas del catálogo, tomada en un
+ * mismo instante (ver {@link Data#leerConsistente}). Una vez tomada no cambia, así
+ * que puede recorrerse desde varios hilos sin candados.
+ *
+ * Las películas ocupan las posiciones 0..cantidadPeliculas-1 de sus arreglos y los
+ * actores las 0..cantidadActores-1 de los suyos; los directores se guardan por su
+ * número en {@link Data}.
+ */
+final class FotoCatalogo {
+
+    final int cantidadPeliculas;
+    final Pelicula[] peliculas;
+    final int[] anios;
+    /** Número del director de cada película, o -1 si no tiene. */
+    final int[] directores;
+    final int[] elencos;
+    final int[] seguidores;
+    /** Los géneros de la película i son ordinales[inicioGeneros[i] .. inicioGeneros[i + 1]). */
+    final int[] inicioGeneros;
+    final int[] ordinales;
+    /** Mayor ordinal de género más uno. */
+    final int cantidadGeneros;
+    final int anioMinimo;
+    final int anioMaximo;
+
+    final int cantidadActores;
+    final Actor[] actores;
+    final int[] filmografias;
+
+    final Director[] directoresPorNumero;
+
+    private FotoCatalogo(Data data) {
+        int capacidad = Math.max(16, data.limitePeliculas());
+        Pelicula[] peliculas = new Pelicula[capacidad];
+        int[] anios = new int[capacidad];
+        int[] directores = new int[capacidad];
+        int[] elencos = new int[capacidad];
+        int[] seguidores = new int[capacidad];
+        int[] inicioGeneros = new int[capacidad + 1];
+        int[] ordinales = new int[capacidad];
+        int n = 0, g = 0, generos = 0;
+        int minimo = Integer.MAX_VALUE, maximo = Integer.MIN_VALUE;
+
+        for (Pelicula p : data.getPeliculas()) {
+            if (n == peliculas.length) {
+                int nueva = n + (n >> 1);
+                peliculas = Arrays.copyOf(peliculas, nueva);
+                anios = Arrays.copyOf(anios, nueva);
+                directores = Arrays.copyOf(directores, nueva);
+                elencos = Arrays.copyOf(elencos, nueva);
+                seguidores = Arrays.copyOf(seguidores, nueva);
+                inicioGeneros = Arrays.copyOf(inicioGeneros, nueva + 1);
+            }
+            int numero = data.numeroDe(p);
+            peliculas[n] = p;
+            anios[n] = p.getAnio();
+            directores[n] = (p.getDirector() == null) ? -1 : data.numeroDe(p.getDirector());
+            elencos[n] = data.grado(Relacion.ELENCO, numero);
+            seguidores[n] = data.grado(Relacion.SEGUIDORES, numero);
+            minimo = Math.min(minimo, anios[n]);
+            maximo = Math.max(maximo, anios[n]);
+
+            inicioGeneros[n] = g;
+            BitSet mascara = p.getMascaraGeneros();
+            for (int o = mascara.nextSetBit(0); o >= 0; o = mascara.nextSetBit(o + 1)) {
+                if (g == ordinales.length) ordinales = Arrays.copyOf(ordinales, g + (g >> 1) + 1);
+                ordinales[g++] = o;
+                generos = Math.max(generos, o + 1);
+            }
+            n++;
+        }
+        inicioGeneros[n] = g;
+
+        this.cantidadPeliculas = n;
+        this.peliculas = peliculas;
+        this.anios = anios;
+        this.directores = directores;
+        this.elencos = elencos;
+        this.seguidores = seguidores;
+        this.inicioGeneros = inicioGeneros;
+        this.ordinales = ordinales;
+        this.cantidadGeneros = generos;
+        this.anioMinimo = (n == 0) ? 0 : minimo;
+        this.anioMaximo = (n == 0) ? 0 : maximo;
+
+        Actor[] actores = data.getActores().toArray(new Actor[0]);
+        int[] filmografias = new int[actores.length];
+        for (int i = 0; i < actores.length; i++) {
+            filmografias[i] = data.grado(Relacion.FILMOGRAFIA, data.numeroDe(actores[i]));
+        }
+        this.cantidadActores = actores.length;
+        this.actores = actores;
+        this.filmografias = filmografias;
+
+        Director[] porNumero = new Director[data.limiteDirectores()];
+        for (Director d : data.getDirectores()) {
+            int numero = data.numeroDe(d);
+            if (numero >= 0 && numero < porNumero.length) porNumero[numero] = d;
+        }
+        this.directoresPorNumero = porNumero;
+    }
+
+    /**
+     * Toma la foto sin detener a los escritores salvo que haya mutaciones constantes.
+     *
+     * @param data datos a copiar
+     * @return foto consistente
+     */
+    static FotoCatalogo tomar(Data data) {
+        return data.leerConsistente(() -> new FotoCatalogo(data));
+    }
+}
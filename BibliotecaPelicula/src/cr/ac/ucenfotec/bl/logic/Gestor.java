@@ -1,9 +1,14 @@
 package cr.ac.ucenfotec.bl.logic;
 
 import cr.ac.ucenfotec.bl.entities.*;
+import cr.ac.ucenfotec.dl.AlmacenPersistente;
 import cr.ac.ucenfotec.dl.Data;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,10 +18,55 @@ import java.util.List;
  * aplicando las reglas de negocio sobre películas, usuarios, administradores, directores y actores.
  *
  * Además expone una lista polimórfica de {@link Cuenta} para demostrar herencia y polimorfismo.
+ *
+ * Puede trabajar solo en memoria o, con {@link #Gestor(Path)}, respaldado por un
+ * {@link AlmacenPersistente} que conserva los datos entre ejecuciones.
+ *
+ * Mantiene índices secundarios del catálogo (año, género, clasificación y director)
+ * para resolver {@link #consultarPeliculas()} sin recorrer todas las películas, y un
+ * índice de texto completo para {@link #buscarPeliculasPorTexto(String, int)}.
+ * {@link #autocompletar(String, int)} sugiere nombres mientras se escribe. Cada índice
+ * se construye en la primera consulta que lo necesita, así que abrir un catálogo grande
+ * no lo recorre entero. {@link #analizarPeliculas()} agrega sobre una proyección por
+ * columnas del catálogo, que también se crea la primera vez que se usa. {@link #estadisticas()} calcula rankings y
+ * distribuciones en paralelo sobre una copia consistente del catálogo.
+ * {@link #recomendarPeliculas(User, int)} recomienda a partir de los favoritos. Los
+ * grados de separación y colaboradores frecuentes se resuelven con un grafo de
+ * colaboraciones por números enteros. {@link #importador()} carga catálogos grandes
+ * desde archivos CSV o JSON-lines y {@link #exportador()} los escribe por partes, sin
+ * armar el archivo en memoria.
+ *
+ * Los métodos {@code listar*} devuelven la lista completa; para catálogos grandes
+ * están los {@code paginar*}, que recorren por id con un cursor y memoria constante
+ * por página (ver {@link Pagina}).
+ *
+ * Las sesiones se abren con {@link #iniciarSesionAdmin(String)} o
+ * {@link #iniciarSesionUsuario(String)}, que devuelven un token; {@link #sesion(String)}
+ * lo valida sin volver a buscar la cuenta (ver {@link GestorSesiones}).
+ *
+ * Cada operación que modifica el catálogo o registra administradores pasa primero por
+ * un {@link Autorizador} con el {@link Privilegio} que exige. Por defecto se permite
+ * todo; quien atiende varias sesiones instala uno con {@link #setAutorizador(Autorizador)}.
+ *
+ * Una misma instancia puede compartirse entre varias sesiones concurrentes: toda la
+ * sincronización vive en {@link Data}, y aquí no se hacen verificaciones previas
+ * fuera de ella (las altas ya son "insertar si no existe").
  */
-public class Gestor {
+public class Gestor implements Closeable {
+
+    /** Tamaño máximo de página de los listados paginados. */
+    public static final int TAMANO_MAXIMO_PAGINA = 1000;
 
     private Data data;
+    private AlmacenPersistente almacen;
+    private final GestorSesiones sesiones = new GestorSesiones();
+    private volatile Autorizador autorizador = Autorizador.PERMITIR_TODO;
+    private volatile IndiceCatalogo indice;
+    private volatile IndiceTexto indiceTexto;
+    private volatile Autocompletado autocompletado;
+    private volatile ProyeccionColumnar proyeccion;
+    private volatile Recomendador recomendador;
+    private volatile GrafoColaboraciones grafo;
 
     /**
      * Constructor por defecto.
@@ -26,6 +76,54 @@ public class Gestor {
         this.data = new Data();
     }
 
+    /**
+     * Constructor con persistencia.
+     * Recupera los datos guardados en {@code directorio} (última instantánea más
+     * la cola de la bitácora) y registra ahí cada cambio posterior.
+     *
+     * @param directorio directorio donde se guardan los datos
+     * @throws IOException si no se pueden leer o crear los archivos de datos
+     */
+    public Gestor(Path directorio) throws IOException {
+        this.data = new Data();
+        this.almacen = AlmacenPersistente.abrir(directorio, data);
+    }
+
+    /**
+     * Pasa todas las películas guardadas en {@code directorio} a su catálogo mapeado
+     * (ver {@link AlmacenPersistente#compactarCatalogo(Path)}). Se usa con los datos
+     * cerrados, antes de abrir un {@code Gestor} sobre ellos.
+     *
+     * @param directorio directorio donde se guardan los datos
+     * @return cantidad de películas que quedaron en el catálogo
+     * @throws IOException si no se pueden leer o escribir los archivos de datos
+     */
+    public static int compactarCatalogo(Path directorio) throws IOException {
+        return AlmacenPersistente.compactarCatalogo(directorio);
+    }
+
+    /**
+     * Cierra el almacén persistente (si existe), guardando una instantánea final.
+     *
+     * @throws IOException si falla la escritura final
+     */
+    @Override
+    public void close() throws IOException {
+        if (almacen != null) {
+            almacen.close();
+            almacen = null;
+        }
+    }
+
+    /**
+     * Cambia la verificación de permisos de las operaciones que modifican datos.
+     *
+     * @param autorizador nuevo autorizador; null vuelve a {@link Autorizador#PERMITIR_TODO}
+     */
+    public void setAutorizador(Autorizador autorizador) {
+        this.autorizador = (autorizador != null) ? autorizador : Autorizador.PERMITIR_TODO;
+    }
+
     // ===== LISTAS DE CONSULTA =====
 
     /**
@@ -86,10 +184,321 @@ public class Gestor {
         return data.getCuentas();
     }
 
+    // ===== LISTADOS POR PÁGINAS =====
+
+    /**
+     * Primera página de películas ordenadas por id (sin distinguir mayúsculas) o la
+     * que sigue a {@code cursor}. Cada página cuesta lo mismo sin importar el tamaño
+     * del catálogo ni cuántas páginas se hayan recorrido.
+     *
+     * @param cursor {@link Pagina#siguiente()} de la página anterior, o null para la primera
+     * @param tamano cantidad de películas por página, entre 1 y {@value #TAMANO_MAXIMO_PAGINA}
+     * @return página de películas
+     * @throws IllegalArgumentException si el tamaño está fuera de rango
+     */
+    public Pagina<Pelicula> paginarPeliculas(String cursor, int tamano) {
+        validarTamanoPagina(tamano);
+        return Pagina.de(data.peliculasDespuesDe(cursor, tamano + 1), tamano, Pelicula::getId);
+    }
+
+    /**
+     * Página de usuarios ordenados por id.
+     *
+     * @param cursor cursor de la página anterior, o null para la primera
+     * @param tamano cantidad de usuarios por página
+     * @return página de usuarios
+     * @see #paginarPeliculas(String, int)
+     */
+    public Pagina<User> paginarUsuarios(String cursor, int tamano) {
+        validarTamanoPagina(tamano);
+        return Pagina.de(data.usuariosDespuesDe(cursor, tamano + 1), tamano, User::getId);
+    }
+
+    /**
+     * Página de directores ordenados por id.
+     *
+     * @param cursor cursor de la página anterior, o null para la primera
+     * @param tamano cantidad de directores por página
+     * @return página de directores
+     * @see #paginarPeliculas(String, int)
+     */
+    public Pagina<Director> paginarDirectores(String cursor, int tamano) {
+        validarTamanoPagina(tamano);
+        return Pagina.de(data.directoresDespuesDe(cursor, tamano + 1), tamano, Director::getId);
+    }
+
+    /**
+     * Página de actores ordenados por id.
+     *
+     * @param cursor cursor de la página anterior, o null para la primera
+     * @param tamano cantidad de actores por página
+     * @return página de actores
+     * @see #paginarPeliculas(String, int)
+     */
+    public Pagina<Actor> paginarActores(String cursor, int tamano) {
+        validarTamanoPagina(tamano);
+        return Pagina.de(data.actoresDespuesDe(cursor, tamano + 1), tamano, Actor::getId);
+    }
+
+    /**
+     * Página de cuentas (usuarios y administradores) ordenadas por id.
+     *
+     * @param cursor cursor de la página anterior, o null para la primera
+     * @param tamano cantidad de cuentas por página
+     * @return página de cuentas
+     * @throws IllegalArgumentException si el cursor no lo generó este método
+     * @see #paginarPeliculas(String, int)
+     */
+    public Pagina<Cuenta> paginarCuentas(String cursor, int tamano) {
+        validarTamanoPagina(tamano);
+        String id = null;
+        boolean administrador = false;
+        if (cursor != null) {
+            // El cursor lleva el tipo porque un usuario y un admin pueden compartir id
+            if (cursor.length() < 2 || cursor.charAt(1) != ':' || "AU".indexOf(cursor.charAt(0)) < 0) {
+                throw new IllegalArgumentException("Cursor de cuentas inválido: " + cursor);
+            }
+            administrador = cursor.charAt(0) == 'A';
+            id = cursor.substring(2);
+        }
+        return Pagina.de(data.cuentasDespuesDe(id, administrador, tamano + 1), tamano,
+                c -> ((c instanceof Administrador) ? "A:" : "U:") + c.getId());
+    }
+
+    private static void validarTamanoPagina(int tamano) {
+        if (tamano < 1 || tamano > TAMANO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO_PAGINA);
+        }
+    }
+
+    // ===== ÍNDICES =====
+    // Se arman en la primera consulta que los usa, no al abrir: con un catálogo mapeado
+    // grande el arranque ya no recorre todas las filas. Desde ahí se mantienen como oyentes.
+
+    private IndiceCatalogo indice() {
+        IndiceCatalogo i = indice;
+        if (i == null) {
+            synchronized (this) {
+                i = indice;
+                if (i == null) {
+                    i = data.agregarOyente(() -> new IndiceCatalogo(data.getPeliculas()));
+                    indice = i;
+                }
+            }
+        }
+        return i;
+    }
+
+    private IndiceTexto indiceTexto() {
+        IndiceTexto i = indiceTexto;
+        if (i == null) {
+            synchronized (this) {
+                i = indiceTexto;
+                if (i == null) {
+                    i = data.agregarOyente(() -> new IndiceTexto(data.getPeliculas()));
+                    indiceTexto = i;
+                }
+            }
+        }
+        return i;
+    }
+
+    private Autocompletado autocompletado() {
+        Autocompletado a = autocompletado;
+        if (a == null) {
+            synchronized (this) {
+                a = autocompletado;
+                if (a == null) {
+                    a = data.agregarOyente(() -> new Autocompletado(data));
+                    autocompletado = a;
+                }
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Inicia una consulta de películas por género, rango de años, clasificación
+     * y director, resuelta con los índices secundarios en lugar de recorrer el catálogo.
+     * La primera llamada construye los índices.
+     *
+     * @return consulta vacía lista para agregarle condiciones
+     */
+    public ConsultaPeliculas consultarPeliculas() {
+        return new ConsultaPeliculas(indice());
+    }
+
+    /**
+     * Inicia un análisis del catálogo (cantidades y duraciones, en total o agrupadas
+     * por año, clasificación, director o género). La primera llamada construye la
+     * proyección por columnas; a partir de ahí se mantiene al día con cada cambio.
+     *
+     * @return análisis sin filtros listo para agregarle condiciones
+     */
+    public AnalisisPeliculas analizarPeliculas() {
+        ProyeccionColumnar p = proyeccion;
+        if (p == null) {
+            synchronized (this) {
+                p = proyeccion;
+                if (p == null) {
+                    p = ProyeccionColumnar.crear(data);
+                    proyeccion = p;
+                }
+            }
+        }
+        return new AnalisisPeliculas(p);
+    }
+
+    /**
+     * Copia el catálogo en un mismo instante, sin detener a los escritores salvo que
+     * haya mutaciones constantes, y devuelve los reportes calculados en paralelo sobre
+     * esa copia (favoritos, actores más prolíficos, géneros por década y elenco promedio
+     * por director).
+     *
+     * @return estadísticas sobre el catálogo tal como está ahora
+     */
+    public EstadisticasCatalogo estadisticas() {
+        return new EstadisticasCatalogo(FotoCatalogo.tomar(data));
+    }
+
+    /**
+     * Búsqueda de texto sobre título, sinopsis, elenco y director, sin distinguir
+     * mayúsculas ni acentos. Admite palabras sueltas, frases entre comillas y
+     * prefijos terminados en asterisco; todas las partes deben cumplirse.
+     *
+     * @param consulta texto a buscar, por ejemplo {@code accion "el padrino" terminat*}
+     * @param limite   cantidad máxima de resultados
+     * @return películas ordenadas de la más a la menos relevante
+     */
+    public List<Pelicula> buscarPeliculasPorTexto(String consulta, int limite) {
+        return indiceTexto().buscar(consulta, limite);
+    }
+
+    /**
+     * Sugiere películas, actores y directores a partir de lo que se lleva escrito.
+     * Coincide con el inicio de cualquier palabra del nombre y tolera un error
+     * de tipeo (letra de más, de menos, cambiada o dos letras invertidas).
+     *
+     * @param prefijo texto escrito hasta el momento, por ejemplo {@code "padri"}
+     * @param limite  cantidad máxima de sugerencias
+     * @return sugerencias exactas primero y luego las aproximadas, las más populares antes
+     */
+    public List<Sugerencia> autocompletar(String prefijo, int limite) {
+        return autocompletado().sugerir(prefijo, limite);
+    }
+
+    /**
+     * Películas recomendadas para un usuario según sus favoritas: las que suelen marcar
+     * los usuarios con gustos parecidos y las que comparten director, actores o géneros.
+     * No incluye las que ya son favoritas. Es liviano, pensado para cada inicio de sesión.
+     *
+     * @param user   usuario
+     * @param limite cantidad máxima de películas
+     * @return de la más a la menos recomendada; vacía si el usuario no tiene favoritas
+     */
+    public List<Pelicula> recomendarPeliculas(User user, int limite) {
+        Recomendador r = recomendador;
+        if (r == null) {
+            synchronized (this) {
+                r = recomendador;
+                if (r == null) {
+                    r = Recomendador.crear(data, indice());
+                    recomendador = r;
+                }
+            }
+        }
+        return r.recomendar(user, limite);
+    }
+
+    /**
+     * Importador masivo desde archivos CSV o JSON-lines. Cada llamada devuelve uno nuevo,
+     * que se configura antes de {@link ImportadorCatalogo#importar(Path, ImportadorCatalogo.Tipo)}.
+     *
+     * @return importador sobre los datos de este gestor
+     */
+    public ImportadorCatalogo importador() {
+        autorizador.verificar(Privilegio.IMPORTAR_CATALOGO);
+        return new ImportadorCatalogo(data);
+    }
+
+    /**
+     * Exportador del catálogo a CSV, JSON-lines o binario, con gzip opcional. Cada
+     * llamada devuelve uno nuevo, que se configura antes de
+     * {@link ExportadorCatalogo#exportar(Path, ImportadorCatalogo.Tipo)}.
+     *
+     * @return exportador sobre los datos de este gestor
+     */
+    public ExportadorCatalogo exportador() {
+        return new ExportadorCatalogo(data);
+    }
+
+    // ===== COLABORACIONES =====
+
+    private GrafoColaboraciones grafo() {
+        GrafoColaboraciones g = grafo;
+        if (g == null) {
+            synchronized (this) {
+                g = grafo;
+                if (g == null) {
+                    g = GrafoColaboraciones.crear(data);
+                    grafo = g;
+                }
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Grados de separación entre dos actores: la cadena más corta de actores en la que
+     * cada uno trabajó en una película con el siguiente.
+     *
+     * @param origen  actor de partida
+     * @param destino actor de llegada
+     * @return la cadena con sus películas, o null si no están conectados o alguno no está registrado
+     */
+    public CaminoColaboracion caminoEntreActores(Actor origen, Actor destino) {
+        return grafo().camino(origen, destino);
+    }
+
+    /**
+     * Actores a los que se llega desde uno pasando por a lo sumo {@code saltos} películas.
+     *
+     * @param actor  actor de partida
+     * @param saltos distancia máxima (1 = compañeros de reparto)
+     * @param limite cantidad máxima de actores
+     * @return actores del más cercano al más lejano, sin incluir al de partida
+     */
+    public List<Actor> actoresCercanos(Actor actor, int saltos, int limite) {
+        return grafo().cercanos(actor, saltos, limite);
+    }
+
+    /**
+     * Actores con los que un actor compartió más películas.
+     *
+     * @param actor  actor
+     * @param limite cantidad máxima de actores
+     * @return compañeros y cantidad de películas en común, de más a menos
+     */
+    public List<Conteo<Actor>> colaboradoresFrecuentes(Actor actor, int limite) {
+        return grafo().colaboradores(actor, limite);
+    }
+
+    /**
+     * Actores que más veces trabajaron con un director.
+     *
+     * @param director director
+     * @param limite   cantidad máxima de actores
+     * @return actores y cantidad de películas con ese director, de más a menos
+     */
+    public List<Conteo<Actor>> actoresFrecuentesDe(Director director, int limite) {
+        return grafo().actoresDeDirector(director, limite);
+    }
+
     // ===== ADMINISTRADORES =====
 
     /**
-     * Registra un nuevo administrador en el sistema.
+     * Registra un nuevo administrador en el sistema, con todos los privilegios
+     * ({@link Rol#ADMINISTRADOR}).
      *
      * @param id       identificador único del administrador
      * @param username nombre de usuario
@@ -97,7 +506,21 @@ public class Gestor {
      * @return true si se registró correctamente, false si ya existía un admin con ese id
      */
     public boolean registrarAdmin(String id, String username, String email) {
-        Administrador nuevo = new Administrador(id, username, email, new ArrayList<>());
+        return registrarAdmin(id, username, email, Rol.ADMINISTRADOR);
+    }
+
+    /**
+     * Registra un nuevo administrador con los privilegios de un rol.
+     *
+     * @param id       identificador único del administrador
+     * @param username nombre de usuario
+     * @param email    correo electrónico
+     * @param rol      plantilla de privilegios del nuevo administrador
+     * @return true si se registró correctamente, false si ya existía un admin con ese id
+     */
+    public boolean registrarAdmin(String id, String username, String email, Rol rol) {
+        autorizador.verificar(Privilegio.GESTIONAR_CUENTAS);
+        Administrador nuevo = new Administrador(id, username, email, rol.mascara());
         return data.agregarAdmin(nuevo);
     }
 
@@ -136,6 +559,50 @@ public class Gestor {
         return data.buscarUsuarioPorId(id);
     }
 
+    // ===== SESIONES =====
+
+    /**
+     * Abre una sesión de administrador.
+     *
+     * @param id identificador del administrador
+     * @return token de la sesión, o null si no existe el administrador
+     */
+    public String iniciarSesionAdmin(String id) {
+        Administrador admin = loginAdmin(id);
+        return (admin == null) ? null : sesiones.abrir(admin);
+    }
+
+    /**
+     * Abre una sesión de usuario normal.
+     *
+     * @param id identificador del usuario
+     * @return token de la sesión, o null si no existe el usuario
+     */
+    public String iniciarSesionUsuario(String id) {
+        User user = loginUsuario(id);
+        return (user == null) ? null : sesiones.abrir(user);
+    }
+
+    /**
+     * Valida el token de una sesión y la marca como usada.
+     *
+     * @param token token devuelto al iniciar sesión (puede ser null)
+     * @return cuenta, rol y privilegios de la sesión, o null si no es válida o ya venció
+     */
+    public GestorSesiones.Identidad sesion(String token) {
+        return sesiones.validar(token);
+    }
+
+    /**
+     * Cierra una sesión.
+     *
+     * @param token token de la sesión
+     * @return true si estaba abierta
+     */
+    public boolean cerrarSesion(String token) {
+        return sesiones.cerrar(token);
+    }
+
     // ===== DIRECTORES =====
 
     /**
@@ -146,11 +613,23 @@ public class Gestor {
      * @return true si se registró correctamente, false si ya existía un director con ese id
      */
     public boolean registrarDirector(String id, String nombre) {
-        if (data.buscarDirectorPorId(id) != null) return false;
+        autorizador.verificar(Privilegio.GESTIONAR_PERSONAS);
         Director d = new Director(id, nombre, new ArrayList<>());
         return data.agregarDirector(d);
     }
 
+    /**
+     * Registra varios directores de una vez; los índices se actualizan una sola vez
+     * para todo el grupo.
+     *
+     * @param directores directores nuevos
+     * @return los que sí se registraron, en el mismo orden (se omiten los ids ya existentes)
+     */
+    public List<Director> registrarDirectores(Collection<Director> directores) {
+        autorizador.verificar(Privilegio.GESTIONAR_PERSONAS);
+        return data.agregarDirectores(directores);
+    }
+
     /**
      * Busca un director por su id.
      *
@@ -164,25 +643,16 @@ public class Gestor {
     /**
      * Asocia una película con un director
      *     La película guarda la referencia al director
-     *     El director agrega la película a su lista de películas dirigidas (si no estaba
-
+     *     El director agrega la película a su lista de películas dirigidas (si no estaba)
+     *     Si la película tenía otro director, se quita de la lista del anterior
      *
-     * @param peli película a asociar
-     * @param dir  director responsable
-     * @return true si la asociación fue válida, false si alguno de los parámetros es null
+     * @param peli película a asociar (debe estar registrada)
+     * @param dir  director responsable (debe estar registrado)
+     * @return true si la asociación fue válida, false si alguno es null o no está registrado
      */
     public boolean asociarPeliculaConDirector(Pelicula peli, Director dir) {
-        if (peli == null || dir == null) return false;
-
-        peli.setDirector(dir);
-
-        if (dir.getPeliculasDirigidas() == null) {
-            dir.setPeliculasDirigidas(new ArrayList<>());
-        }
-        if (!dir.getPeliculasDirigidas().contains(peli)) {
-            dir.getPeliculasDirigidas().add(peli);
-        }
-        return true;
+        autorizador.verificar(Privilegio.GESTIONAR_ELENCO);
+        return data.asociarPeliculaConDirector(peli, dir);
     }
 
     // ===== ACTORES =====
@@ -195,11 +665,23 @@ public class Gestor {
      * @return true si se registró correctamente, false si ya existía un actor con ese id
      */
     public boolean registrarActor(String id, String nombre) {
-        if (data.buscarActorPorId(id) != null) return false;
+        autorizador.verificar(Privilegio.GESTIONAR_PERSONAS);
         Actor a = new Actor(id, nombre, new ArrayList<>());
         return data.agregarActor(a);
     }
 
+    /**
+     * Registra varios actores de una vez; los índices se actualizan una sola vez
+     * para todo el grupo.
+     *
+     * @param actores actores nuevos
+     * @return los que sí se registraron, en el mismo orden (se omiten los ids ya existentes)
+     */
+    public List<Actor> registrarActores(Collection<Actor> actores) {
+        autorizador.verificar(Privilegio.GESTIONAR_PERSONAS);
+        return data.agregarActores(actores);
+    }
+
     /**
      * Busca un actor por su id.
      *
@@ -217,28 +699,57 @@ public class Gestor {
      *     <li>El actor agrega la película a su filmografía.</li>
      * </ul>
      *
-     * @param actor    actor a asociar
-     * @param pelicula película en la que participa
-     * @return true si la asociación fue correcta, false si algún parámetro es null
+     * @param actor    actor a asociar (debe estar registrado)
+     * @param pelicula película en la que participa (debe estar registrada)
+     * @return true si la asociación fue correcta, false si algún parámetro es null o no está registrado
      */
     public boolean asociarActorConPelicula(Actor actor, Pelicula pelicula) {
-        if (actor == null || pelicula == null) return false;
+        autorizador.verificar(Privilegio.GESTIONAR_ELENCO);
+        return data.asociarActorConPelicula(actor, pelicula);
+    }
 
-        if (pelicula.getElenco() == null) {
-            pelicula.setElenco(new ArrayList<>());
-        }
-        if (!pelicula.getElenco().contains(actor)) {
-            pelicula.getElenco().add(actor);
-        }
+    /**
+     * Asocia todo un elenco con una película en una sola operación.
+     *
+     * @param pelicula película registrada
+     * @param elenco   actores registrados; los demás se ignoran
+     * @return cantidad de actores asociados
+     */
+    public int asociarElenco(Pelicula pelicula, Collection<Actor> elenco) {
+        autorizador.verificar(Privilegio.GESTIONAR_ELENCO);
+        return data.asociarElenco(pelicula, elenco);
+    }
 
-        if (actor.getFilmografia() == null) {
-            actor.setFilmografia(new ArrayList<>());
-        }
-        if (!actor.getFilmografia().contains(pelicula)) {
-            actor.getFilmografia().add(pelicula);
-        }
+    /**
+     * Elenco de una película, seguro de leer mientras otros hilos lo modifican.
+     *
+     * @param pelicula película a consultar
+     * @return lista de solo lectura; vacía si pelicula es null
+     */
+    public List<Actor> listarElenco(Pelicula pelicula) {
+        return data.elencoDe(pelicula);
+    }
 
-        return true;
+    /**
+     * Películas en las que participa un actor, seguro de leer mientras otros hilos
+     * lo modifican.
+     *
+     * @param actor actor a consultar
+     * @return lista de solo lectura; vacía si actor es null
+     */
+    public List<Pelicula> listarFilmografia(Actor actor) {
+        return data.filmografiaDe(actor);
+    }
+
+    /**
+     * Películas dirigidas por un director, seguro de leer mientras otros hilos
+     * lo modifican.
+     *
+     * @param director director a consultar
+     * @return lista de solo lectura; vacía si director es null
+     */
+    public List<Pelicula> listarPeliculasDirigidas(Director director) {
+        return data.peliculasDirigidasDe(director);
     }
 
     // ===== PELÍCULAS =====
@@ -250,9 +761,38 @@ public class Gestor {
      * @return true si se agregó correctamente, false si ya existía una película con ese id
      */
     public boolean crearPelicula(Pelicula p) {
+        autorizador.verificar(Privilegio.CREAR_PELICULAS);
         return data.agregarPelicula(p);
     }
 
+    /**
+     * Registra una nueva película y la asocia con su director. Los dos privilegios se
+     * verifican antes de tocar nada, así que sin alguno de ellos la película no se crea.
+     *
+     * @param p   película a agregar
+     * @param dir director de la película, o null para crearla sin director
+     * @return true si se agregó correctamente, false si ya existía una película con ese id
+     */
+    public boolean crearPelicula(Pelicula p, Director dir) {
+        autorizador.verificar(Privilegio.CREAR_PELICULAS);
+        if (dir != null) autorizador.verificar(Privilegio.GESTIONAR_ELENCO);
+        if (!data.agregarPelicula(p)) return false;
+        if (dir != null) data.asociarPeliculaConDirector(p, dir);
+        return true;
+    }
+
+    /**
+     * Registra varias películas de una vez; los índices se actualizan una sola vez
+     * para todo el grupo. El director que traiga cada película queda asociado.
+     *
+     * @param peliculas películas nuevas
+     * @return las que sí se agregaron, en el mismo orden (se omiten los ids ya existentes)
+     */
+    public List<Pelicula> crearPeliculas(Collection<Pelicula> peliculas) {
+        autorizador.verificar(Privilegio.CREAR_PELICULAS);
+        return data.agregarPeliculas(peliculas);
+    }
+
     /**
      * Busca una película por su id.
      *
@@ -271,28 +811,38 @@ public class Gestor {
      * @param nuevoAnio         nuevo año
      * @param nuevaDuracion     nueva duración en minutos
      * @param nuevaClasificacion nueva clasificación
-     * @return true si se actualizó, false si la película era null
+     * @return true si se actualizó, false si la película era null o no está registrada
      */
     public boolean actualizarPelicula(Pelicula p,
                                       String nuevoTitulo,
                                       int nuevoAnio,
                                       int nuevaDuracion,
                                       String nuevaClasificacion) {
-        if (p == null) return false;
-        p.setTitulo(nuevoTitulo);
-        p.setAnio(nuevoAnio);
-        p.setDuracionMinutos(nuevaDuracion);
-        p.setClasificacion(nuevaClasificacion);
-        return true;
+        autorizador.verificar(Privilegio.EDITAR_PELICULAS);
+        return data.actualizarPelicula(p, nuevoTitulo, nuevoAnio, nuevaDuracion, nuevaClasificacion);
+    }
+
+    /**
+     * Reemplaza la ficha (sinopsis) de una película.
+     *
+     * @param p     película a modificar
+     * @param ficha nueva ficha, o null para eliminarla
+     * @return true si se actualizó, false si la película era null o no está registrada
+     */
+    public boolean actualizarFicha(Pelicula p, Pelicula.Ficha ficha) {
+        autorizador.verificar(Privilegio.EDITAR_PELICULAS);
+        return data.actualizarFicha(p, ficha);
     }
 
     /**
-     * Elimina una película por su id.
+     * Elimina una película por su id, junto con las referencias que el director,
+     * los actores del elenco y los usuarios tenían hacia ella.
      *
      * @param id identificador de la película
      * @return true si se eliminó, false si no se encontró
      */
     public boolean eliminarPelicula(String id) {
+        autorizador.verificar(Privilegio.ELIMINAR_PELICULAS);
         return data.eliminarPelicula(id);
     }
 
@@ -306,8 +856,7 @@ public class Gestor {
      * @return true si se agregó, false si ya estaba o si algún parámetro es null
      */
     public boolean agregarFavorito(User user, Pelicula pelicula) {
-        if (user == null || pelicula == null) return false;
-        return user.agregarFavorito(pelicula);
+        return data.agregarFavorito(user, pelicula);
     }
 
     /**
@@ -318,18 +867,37 @@ public class Gestor {
      * @return true si se eliminó, false si no estaba o si algún parámetro es null
      */
     public boolean eliminarFavorito(User user, Pelicula pelicula) {
-        if (user == null || pelicula == null) return false;
-        return user.eliminarFavorito(pelicula);
+        return data.eliminarFavorito(user, pelicula);
     }
 
     /**
-     * Devuelve una copia de la lista de películas favoritas de un usuario.
+     * Devuelve las películas favoritas de un usuario, en el orden en que las marcó.
+     * La lista es de solo lectura y se reutiliza mientras los favoritos no cambien.
      *
      * @param user usuario a consultar
      * @return lista de películas favoritas; lista vacía si user es null
      */
     public List<Pelicula> listarFavoritos(User user) {
-        if (user == null) return new ArrayList<>();
-        return new ArrayList<>(user.getFavoritos());
+        return data.favoritosDe(user);
+    }
+
+    /**
+     * Usuarios que marcaron una película como favorita.
+     *
+     * @param pelicula película a consultar
+     * @return usuarios que la siguen; lista vacía si nadie la marcó
+     */
+    public List<User> listarSeguidores(Pelicula pelicula) {
+        return data.seguidoresDe(pelicula);
+    }
+
+    /**
+     * Cantidad de usuarios que marcaron una película como favorita.
+     *
+     * @param pelicula película a consultar
+     * @return cantidad de seguidores
+     */
+    public int contarFavoritos(Pelicula pelicula) {
+        return data.cantidadSeguidores(pelicula);
     }
 }
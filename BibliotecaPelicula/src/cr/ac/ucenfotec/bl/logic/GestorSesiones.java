@@ -0,0 +1,334 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Administrador;
+import cr.ac.ucenfotec.bl.entities.Cuenta;
+import cr.ac.ucenfotec.bl.entities.Privilegio;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sesiones abiertas de muchas personas a la vez, identificadas por un token opaco.
+ * <p>
+ * El token lleva adentro la posición de la sesión en la tabla y 128 bits aleatorios:
+ * validarlo es decodificarlo, ir directo a esa posición y comparar el secreto, sin
+ * buscar en mapas ni consultar {@code Data}. La identidad (cuenta, rol y privilegios)
+ * se copia al abrir la sesión y se reutiliza en cada validación.
+ * <p>
+ * La tabla está repartida en segmentos con su propio candado, y cada segmento guarda
+ * sus sesiones en arreglos paralelos de tipos primitivos (28 bytes por sesión más su
+ * {@link Identidad}), así que un millón de sesiones inactivas caben en pocas decenas
+ * de megabytes.
+ * <p>
+ * Las sesiones vencen tras un tiempo sin uso. Cada segmento tiene una rueda de tiempo
+ * con 64 ranuras que cubre todo el plazo de inactividad; cuando el reloj
+ * pasa por una ranura se revisan solo las sesiones anotadas ahí: las vencidas se liberan
+ * y las que se usaron después se vuelven a anotar según su último acceso (así usar una
+ * sesión solo actualiza un entero). La rueda avanza sola con cada apertura y validación
+ * del segmento; {@link #purgar()} la avanza en todos.
+ */
+public final class GestorSesiones {
+
+    /** Plazo de inactividad por defecto. */
+    public static final Duration INACTIVIDAD_POR_DEFECTO = Duration.ofMinutes(30);
+
+    private static final int SEGMENTOS = 64;
+    private static final int BITS_SEGMENTO = 6;
+    private static final int RANURAS = 64;
+    private static final int CAPACIDAD_INICIAL = 16;
+    private static final int BYTES_TOKEN = 20;
+    private static final int LARGO_TOKEN = 27;
+    private static final int NADA = -1;
+
+    /**
+     * Quién está detrás de una sesión. Se arma una vez al abrirla: el rol y los privilegios
+     * quedan tal como estaban en ese momento.
+     *
+     * @param cuenta        cuenta que inició la sesión
+     * @param administrador true si la cuenta es un {@link Administrador}
+     * @param privilegios   máscara de {@link Privilegio} (0 para usuarios)
+     */
+    public record Identidad(Cuenta cuenta, boolean administrador, long privilegios) {
+
+        /**
+         * @param privilegio privilegio a consultar
+         * @return true si la sesión lo tiene
+         */
+        public boolean tienePrivilegio(Privilegio privilegio) {
+            return (privilegios & privilegio.bit()) != 0;
+        }
+    }
+
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final Segmento[] segmentos = new Segmento[SEGMENTOS];
+    private final long inicio = System.nanoTime();
+    private final int inactividad;
+    private final int anchoRanura;
+
+    /** Con el plazo de inactividad por defecto. */
+    public GestorSesiones() {
+        this(INACTIVIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * @param inactividad tiempo sin uso tras el cual vence una sesión (al menos un segundo)
+     */
+    public GestorSesiones(Duration inactividad) {
+        long segundos = inactividad.toSeconds();
+        if (segundos < 1 || segundos > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Plazo de inactividad fuera de rango: " + inactividad);
+        }
+        this.inactividad = (int) segundos;
+        // La rueda da una vuelta en al menos el plazo: un vencimiento nunca cae más allá.
+        this.anchoRanura = (this.inactividad + RANURAS - 2) / (RANURAS - 1);
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento();
+        }
+    }
+
+    /**
+     * Abre una sesión nueva para la cuenta.
+     *
+     * @param cuenta cuenta ya autenticada
+     * @return token opaco de la sesión
+     */
+    public String abrir(Cuenta cuenta) {
+        long privilegios = (cuenta instanceof Administrador a) ? a.getMascaraPrivilegios() : 0;
+        Identidad identidad = new Identidad(cuenta, cuenta instanceof Administrador, privilegios);
+        long alto = aleatorio.nextLong();
+        long bajo = aleatorio.nextLong();
+        int s = ThreadLocalRandom.current().nextInt(SEGMENTOS);
+        int indice = segmentos[s].abrir(identidad, alto, bajo, ahora());
+        return codificar((indice << BITS_SEGMENTO) | s, alto, bajo);
+    }
+
+    /**
+     * Valida un token y marca la sesión como usada.
+     *
+     * @param token token recibido (puede ser null)
+     * @return la identidad de la sesión, o null si el token no es válido o ya venció
+     */
+    public Identidad validar(String token) {
+        long[] partes = decodificar(token);
+        if (partes == null) return null;
+        int posicion = (int) partes[0];
+        return segmentos[posicion & (SEGMENTOS - 1)]
+                .validar(posicion >>> BITS_SEGMENTO, partes[1], partes[2], ahora());
+    }
+
+    /**
+     * Cierra una sesión; el token deja de ser válido de inmediato.
+     *
+     * @param token token de la sesión
+     * @return true si la sesión estaba abierta
+     */
+    public boolean cerrar(String token) {
+        long[] partes = decodificar(token);
+        if (partes == null) return false;
+        int posicion = (int) partes[0];
+        return segmentos[posicion & (SEGMENTOS - 1)]
+                .cerrar(posicion >>> BITS_SEGMENTO, partes[1], partes[2], ahora());
+    }
+
+    /** Avanza la rueda de todos los segmentos, liberando las sesiones vencidas. */
+    public void purgar() {
+        int t = ahora();
+        for (Segmento s : segmentos) {
+            s.candado.lock();
+            try {
+                s.avanzar(t);
+            } finally {
+                s.candado.unlock();
+            }
+        }
+    }
+
+    /** Sesiones que ocupan lugar en la tabla (las vencidas cuentan hasta que se purgan). */
+    public int activas() {
+        int total = 0;
+        for (Segmento s : segmentos) {
+            s.candado.lock();
+            try {
+                total += s.ocupadas;
+            } finally {
+                s.candado.unlock();
+            }
+        }
+        return total;
+    }
+
+    /** Segundos desde que se creó este gestor. */
+    private int ahora() {
+        return (int) ((System.nanoTime() - inicio) / 1_000_000_000L);
+    }
+
+    // ===== TOKENS =====
+
+    private static String codificar(int posicion, long alto, long bajo) {
+        byte[] b = new byte[BYTES_TOKEN];
+        escribir(b, 0, posicion, 4);
+        escribir(b, 4, alto, 8);
+        escribir(b, 12, bajo, 8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(b);
+    }
+
+    /** @return {posición, alto, bajo}, o null si el texto no tiene forma de token */
+    private static long[] decodificar(String token) {
+        if (token == null || token.length() != LARGO_TOKEN) return null;
+        byte[] b;
+        try {
+            b = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return new long[]{leer(b, 0, 4), leer(b, 4, 8), leer(b, 12, 8)};
+    }
+
+    private static void escribir(byte[] b, int desde, long valor, int bytes) {
+        for (int i = bytes - 1; i >= 0; i--) {
+            b[desde + i] = (byte) valor;
+            valor >>>= 8;
+        }
+    }
+
+    private static long leer(byte[] b, int desde, int bytes) {
+        long valor = 0;
+        for (int i = 0; i < bytes; i++) {
+            valor = (valor << 8) | (b[desde + i] & 0xFF);
+        }
+        return valor;
+    }
+
+    // ===== SEGMENTOS =====
+
+    /**
+     * Parte de la tabla. Una posición está libre (encadenada en {@code libres}) u ocupada y
+     * anotada en exactamente una ranura de la rueda; {@code siguiente} sirve para ambas listas.
+     * Las sesiones cerradas quedan en su ranura sin identidad hasta que la rueda pasa por ahí.
+     */
+    private final class Segmento {
+
+        final ReentrantLock candado = new ReentrantLock();
+
+        long[] secretoAlto = new long[CAPACIDAD_INICIAL];
+        long[] secretoBajo = new long[CAPACIDAD_INICIAL];
+        int[] ultimoAcceso = new int[CAPACIDAD_INICIAL];
+        int[] siguiente = new int[CAPACIDAD_INICIAL];
+        Identidad[] identidades = new Identidad[CAPACIDAD_INICIAL];
+        int usadas;
+        int libres = NADA;
+        int ocupadas;
+
+        final int[] ranuras = new int[RANURAS];
+        /** Última marca de la rueda ya revisada. */
+        int marca;
+
+        Segmento() {
+            Arrays.fill(ranuras, NADA);
+        }
+
+        int abrir(Identidad identidad, long alto, long bajo, int t) {
+            candado.lock();
+            try {
+                avanzar(t);
+                int i = libres;
+                if (i != NADA) {
+                    libres = siguiente[i];
+                } else {
+                    if (usadas == identidades.length) crecer();
+                    i = usadas++;
+                }
+                secretoAlto[i] = alto;
+                secretoBajo[i] = bajo;
+                ultimoAcceso[i] = t;
+                identidades[i] = identidad;
+                ocupadas++;
+                anotar(i, (t + inactividad) / anchoRanura);
+                return i;
+            } finally {
+                candado.unlock();
+            }
+        }
+
+        Identidad validar(int i, long alto, long bajo, int t) {
+            candado.lock();
+            try {
+                avanzar(t);
+                if (!vigente(i, alto, bajo, t)) return null;
+                ultimoAcceso[i] = t;
+                return identidades[i];
+            } finally {
+                candado.unlock();
+            }
+        }
+
+        boolean cerrar(int i, long alto, long bajo, int t) {
+            candado.lock();
+            try {
+                if (!vigente(i, alto, bajo, t)) return false;
+                identidades[i] = null;
+                return true;
+            } finally {
+                candado.unlock();
+            }
+        }
+
+        private boolean vigente(int i, long alto, long bajo, int t) {
+            return i < usadas
+                    && identidades[i] != null
+                    && secretoAlto[i] == alto
+                    && secretoBajo[i] == bajo
+                    && t - ultimoAcceso[i] < inactividad;
+        }
+
+        /** Revisa las ranuras por las que pasó el reloj desde la última vez. */
+        void avanzar(int t) {
+            int actual = t / anchoRanura;
+            if (actual <= marca) return;
+            int desde = Math.max(marca + 1, actual - RANURAS + 1);
+            marca = actual;
+            for (int m = desde; m <= actual; m++) {
+                int r = m % RANURAS;
+                int i = ranuras[r];
+                ranuras[r] = NADA;
+                while (i != NADA) {
+                    int proxima = siguiente[i];
+                    if (identidades[i] == null || t - ultimoAcceso[i] >= inactividad) {
+                        liberar(i);
+                    } else {
+                        anotar(i, Math.max(actual + 1, (ultimoAcceso[i] + inactividad) / anchoRanura));
+                    }
+                    i = proxima;
+                }
+            }
+        }
+
+        private void anotar(int i, int vence) {
+            int r = vence % RANURAS;
+            siguiente[i] = ranuras[r];
+            ranuras[r] = i;
+        }
+
+        private void liberar(int i) {
+            identidades[i] = null;
+            secretoAlto[i] = 0;
+            secretoBajo[i] = 0;
+            siguiente[i] = libres;
+            libres = i;
+            ocupadas--;
+        }
+
+        private void crecer() {
+            int n = identidades.length * 2;
+            secretoAlto = Arrays.copyOf(secretoAlto, n);
+            secretoBajo = Arrays.copyOf(secretoBajo, n);
+            ultimoAcceso = Arrays.copyOf(ultimoAcceso, n);
+            siguiente = Arrays.copyOf(siguiente, n);
+            identidades = Arrays.copyOf(identidades, n);
+        }
+    }
+}
@@ -0,0 +1,597 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.dl.Data;
+import cr.ac.ucenfotec.dl.OyenteCambios;
+import cr.ac.ucenfotec.dl.Relacion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grafo de colaboraciones entre actores y directores a través de las películas, para
+ * {@link Gestor#caminoEntreActores}, {@link Gestor#actoresCercanos} y los conteos de
+ * colaboradores frecuentes.
+ *
+ * Guarda tres relaciones por número entero ({@link Data#numeroDe}) en formato CSR: un
+ * arreglo con el inicio de la fila de cada nodo y otro con todos los destinos seguidos,
+ * cada fila ordenada. Se construye con la adyacencia de {@link Data} y se mantiene al
+ * día como {@link OyenteCambios}: las aristas nuevas van a una fila extra por nodo, y
+ * cuando las extras o las películas eliminadas pasan de una cuarta parte del grafo
+ * se vuelve a construir en la siguiente consulta. Mientras tanto, las películas
+ * eliminadas se saltan con {@link Data#peliculaViva} y un cambio de director se
+ * resuelve con el director actual de cada película.
+ *
+ * Las consultas toman la parte compartida del candado y usan arreglos de trabajo
+ * marcados por época, que se reutilizan entre consultas sin limpiarlos.
+ */
+final class GrafoColaboraciones implements OyenteCambios {
+
+    private static final int MINIMO_PARA_RECONSTRUIR = 4096;
+
+    private static final byte ORIGEN = 1;
+    private static final byte DESTINO = 2;
+
+    private final Data data;
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    /** Película -> actores. */
+    private Csr elenco;
+    /** Actor -> películas. */
+    private Csr filmografia;
+    /** Director -> películas; incluye películas que ya cambiaron de director. */
+    private Csr dirigidas;
+    /** Director actual de cada película, o -1. */
+    private int[] directorDe;
+    private int eliminadas;
+    private volatile boolean desactualizado;
+
+    private final ConcurrentLinkedQueue<Busqueda> busquedasLibres = new ConcurrentLinkedQueue<>();
+
+    private GrafoColaboraciones(Data data) {
+        this.data = data;
+    }
+
+    /**
+     * Crea el grafo con las relaciones registradas y lo suscribe a {@code data}.
+     *
+     * Se suscribe antes de construirlo y con el candado tomado: los cambios que ocurran
+     * mientras tanto esperan y se aplican después; si la construcción ya los vio, agregar
+     * la arista otra vez no tiene efecto.
+     *
+     * @param data datos de los que sale el grafo
+     * @return grafo al día
+     */
+    static GrafoColaboraciones crear(Data data) {
+        GrafoColaboraciones grafo = new GrafoColaboraciones(data);
+        grafo.candado.writeLock().lock();
+        try {
+            data.agregarOyente(grafo);
+            grafo.construir();
+        } finally {
+            grafo.candado.writeLock().unlock();
+        }
+        return grafo;
+    }
+
+    private void construir() {
+        int peliculas = data.limitePeliculas();
+        elenco = Csr.construir(data, Relacion.ELENCO, peliculas);
+        filmografia = Csr.construir(data, Relacion.FILMOGRAFIA, data.limiteActores());
+        dirigidas = Csr.construir(data, Relacion.DIRIGIDAS, data.limiteDirectores());
+        directorDe = new int[peliculas];
+        Arrays.fill(directorDe, -1);
+        for (int d = 0; d < dirigidas.nodos; d++) {
+            for (int i = dirigidas.inicio[d], fin = dirigidas.inicio[d + 1]; i < fin; i++) {
+                directorDe[dirigidas.destinos[i]] = d;
+            }
+        }
+        eliminadas = 0;
+        desactualizado = false;
+    }
+
+    /**
+     * Toma la parte compartida del candado, reconstruyendo antes si hace falta.
+     */
+    private Lock leer() {
+        if (desactualizado) {
+            candado.writeLock().lock();
+            try {
+                if (desactualizado) construir();
+            } finally {
+                candado.writeLock().unlock();
+            }
+        }
+        Lock lectura = candado.readLock();
+        lectura.lock();
+        return lectura;
+    }
+
+    // ===== CONSULTAS =====
+
+    /**
+     * Cadena más corta de colaboraciones entre dos actores, con búsqueda en anchura
+     * desde ambos extremos: en cada paso avanza un nivel completo el lado con la
+     * frontera más chica, y termina en el primer nivel en que se tocan.
+     *
+     * @return el camino, o null si no están conectados o alguno no está registrado
+     */
+    CaminoColaboracion camino(Actor origen, Actor destino) {
+        int a = data.numeroDe(origen);
+        int b = data.numeroDe(destino);
+        if (a < 0 || b < 0) return null;
+        if (a == b) return new CaminoColaboracion(List.of(origen), List.of());
+
+        Lock lectura = leer();
+        Busqueda bq = tomarBusqueda();
+        try {
+            bq.preparar(data.limiteActores(), data.limitePeliculas());
+            bq.visitar(a, ORIGEN, 0, -1, -1);
+            bq.visitar(b, DESTINO, 0, -1, -1);
+            int[] frenteOrigen = {a};
+            int cantidadOrigen = 1;
+            int[] frenteDestino = {b};
+            int cantidadDestino = 1;
+
+            while (cantidadOrigen > 0 && cantidadDestino > 0 && bq.mejor == Integer.MAX_VALUE) {
+                if (cantidadOrigen <= cantidadDestino) {
+                    frenteOrigen = expandir(bq, ORIGEN, frenteOrigen, cantidadOrigen);
+                    cantidadOrigen = bq.cantidadSiguiente;
+                } else {
+                    frenteDestino = expandir(bq, DESTINO, frenteDestino, cantidadDestino);
+                    cantidadDestino = bq.cantidadSiguiente;
+                }
+            }
+            if (bq.mejor == Integer.MAX_VALUE) return null;
+            return reconstruir(bq);
+        } finally {
+            devolverBusqueda(bq);
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Avanza un nivel desde la frontera de un lado. Si toca un actor ya visitado por el
+     * otro lado, anota el encuentro más corto en lugar de visitarlo.
+     *
+     * @return la frontera siguiente; su tamaño queda en {@code bq.cantidadSiguiente}
+     */
+    private int[] expandir(Busqueda bq, byte lado, int[] frente, int cantidad) {
+        int[] siguiente = new int[Math.max(16, cantidad)];
+        int cantidadSiguiente = 0;
+        for (int i = 0; i < cantidad; i++) {
+            int x = frente[i];
+            int distancia = bq.distancia[x] + 1;
+            for (int j = 0, peliculas = filmografia.grado(x); j < peliculas; j++) {
+                int f = filmografia.destino(x, j);
+                if (!bq.visitarPelicula(f, lado) || !data.peliculaViva(f)) continue;
+                for (int k = 0, actores = elenco.grado(f); k < actores; k++) {
+                    int y = elenco.destino(f, k);
+                    if (bq.visitado(y)) {
+                        if (y < bq.lado.length && bq.lado[y] != lado) bq.encuentro(x, f, y, distancia + bq.distancia[y]);
+                        continue;
+                    }
+                    bq.visitar(y, lado, distancia, x, f);
+                    if (cantidadSiguiente == siguiente.length) {
+                        siguiente = Arrays.copyOf(siguiente, cantidadSiguiente * 2);
+                    }
+                    siguiente[cantidadSiguiente++] = y;
+                }
+            }
+        }
+        bq.cantidadSiguiente = cantidadSiguiente;
+        return siguiente;
+    }
+
+    private CaminoColaboracion reconstruir(Busqueda bq) {
+        // Cada mitad va desde el punto de encuentro hasta su extremo
+        List<Integer> actoresX = new ArrayList<>();
+        List<Integer> peliculasX = new ArrayList<>();
+        bq.cadena(bq.encuentroX, actoresX, peliculasX);
+        List<Integer> actoresY = new ArrayList<>();
+        List<Integer> peliculasY = new ArrayList<>();
+        bq.cadena(bq.encuentroY, actoresY, peliculasY);
+
+        List<Integer> actores = new ArrayList<>();
+        List<Integer> peliculas = new ArrayList<>();
+        boolean xDesdeOrigen = bq.lado[bq.encuentroX] == ORIGEN;
+        List<Integer> actoresOrigen = xDesdeOrigen ? actoresX : actoresY;
+        List<Integer> peliculasOrigen = xDesdeOrigen ? peliculasX : peliculasY;
+        Collections.reverse(actoresOrigen);
+        Collections.reverse(peliculasOrigen);
+        actores.addAll(actoresOrigen);
+        peliculas.addAll(peliculasOrigen);
+        peliculas.add(bq.encuentroPelicula);
+        actores.addAll(xDesdeOrigen ? actoresY : actoresX);
+        peliculas.addAll(xDesdeOrigen ? peliculasY : peliculasX);
+
+        List<Actor> resultadoActores = new ArrayList<>(actores.size());
+        for (int n : actores) resultadoActores.add(data.actorPorNumero(n));
+        List<Pelicula> resultadoPeliculas = new ArrayList<>(peliculas.size());
+        for (int n : peliculas) resultadoPeliculas.add(data.peliculaPorNumero(n));
+        return new CaminoColaboracion(Collections.unmodifiableList(resultadoActores),
+                Collections.unmodifiableList(resultadoPeliculas));
+    }
+
+    /**
+     * Actores a lo sumo a {@code saltos} películas de distancia, del más cercano al más lejano.
+     */
+    List<Actor> cercanos(Actor actor, int saltos, int limite) {
+        int a = data.numeroDe(actor);
+        if (a < 0 || saltos < 1 || limite < 1) return List.of();
+
+        Lock lectura = leer();
+        Busqueda bq = tomarBusqueda();
+        try {
+            bq.preparar(data.limiteActores(), data.limitePeliculas());
+            bq.visitar(a, ORIGEN, 0, -1, -1);
+            List<Actor> resultado = new ArrayList<>();
+            int[] frente = {a};
+            int cantidad = 1;
+            for (int nivel = 1; nivel <= saltos && cantidad > 0; nivel++) {
+                int[] siguiente = new int[Math.max(16, cantidad)];
+                int cantidadSiguiente = 0;
+                for (int i = 0; i < cantidad; i++) {
+                    int x = frente[i];
+                    for (int j = 0, peliculas = filmografia.grado(x); j < peliculas; j++) {
+                        int f = filmografia.destino(x, j);
+                        if (!bq.visitarPelicula(f, ORIGEN) || !data.peliculaViva(f)) continue;
+                        for (int k = 0, actores = elenco.grado(f); k < actores; k++) {
+                            int y = elenco.destino(f, k);
+                            if (bq.visitado(y)) continue;
+                            bq.visitar(y, ORIGEN, nivel, x, f);
+                            Actor encontrado = data.actorPorNumero(y);
+                            if (encontrado != null) resultado.add(encontrado);
+                            if (resultado.size() == limite) return resultado;
+                            if (cantidadSiguiente == siguiente.length) {
+                                siguiente = Arrays.copyOf(siguiente, cantidadSiguiente * 2);
+                            }
+                            siguiente[cantidadSiguiente++] = y;
+                        }
+                    }
+                }
+                frente = siguiente;
+                cantidad = cantidadSiguiente;
+            }
+            return resultado;
+        } finally {
+            devolverBusqueda(bq);
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Actores que más películas compartieron con un actor.
+     */
+    List<Conteo<Actor>> colaboradores(Actor actor, int limite) {
+        int a = data.numeroDe(actor);
+        if (a < 0 || limite < 1) return List.of();
+
+        Lock lectura = leer();
+        Busqueda bq = tomarBusqueda();
+        try {
+            bq.preparar(data.limiteActores(), data.limitePeliculas());
+            for (int j = 0, peliculas = filmografia.grado(a); j < peliculas; j++) {
+                int f = filmografia.destino(a, j);
+                if (!bq.visitarPelicula(f, ORIGEN) || !data.peliculaViva(f)) continue;
+                contarElenco(bq, f, a);
+            }
+            return bq.ranking(limite).resolver(data::actorPorNumero);
+        } finally {
+            devolverBusqueda(bq);
+            lectura.unlock();
+        }
+    }
+
+    /**
+     * Actores que más películas hicieron con un director.
+     */
+    List<Conteo<Actor>> actoresDeDirector(Director director, int limite) {
+        int d = data.numeroDe(director);
+        if (d < 0 || limite < 1) return List.of();
+
+        Lock lectura = leer();
+        Busqueda bq = tomarBusqueda();
+        try {
+            bq.preparar(data.limiteActores(), data.limitePeliculas());
+            for (int j = 0, peliculas = dirigidas.grado(d); j < peliculas; j++) {
+                int f = dirigidas.destino(d, j);
+                if (f >= directorDe.length || directorDe[f] != d) continue;
+                if (!bq.visitarPelicula(f, ORIGEN) || !data.peliculaViva(f)) continue;
+                contarElenco(bq, f, -1);
+            }
+            return bq.ranking(limite).resolver(data::actorPorNumero);
+        } finally {
+            devolverBusqueda(bq);
+            lectura.unlock();
+        }
+    }
+
+    private void contarElenco(Busqueda bq, int pelicula, int excluido) {
+        for (int k = 0, actores = elenco.grado(pelicula); k < actores; k++) {
+            int y = elenco.destino(pelicula, k);
+            if (y == excluido) continue;
+            if (!bq.visitado(y)) bq.visitar(y, ORIGEN, 0, -1, -1);
+            bq.conteo[y]++;
+        }
+    }
+
+    private Busqueda tomarBusqueda() {
+        Busqueda bq = busquedasLibres.poll();
+        return (bq != null) ? bq : new Busqueda();
+    }
+
+    private void devolverBusqueda(Busqueda bq) {
+        busquedasLibres.offer(bq);
+    }
+
+    // ===== EVENTOS =====
+
+    @Override
+    public void peliculaAgregada(Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            int f = data.numeroDe(p);
+            if (f < 0) return;
+            for (int a : data.vecinos(Relacion.ELENCO, f)) {
+                enlazarActor(a, f);
+            }
+            enlazarDirector(f, data.numeroDe(p.getDirector()));
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void peliculaEliminada(Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            eliminadas++;
+            revisarTamano();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void actorAsociado(Actor a, Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            enlazarActor(data.numeroDe(a), data.numeroDe(p));
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void directorAsociado(Pelicula p, Director d) {
+        candado.writeLock().lock();
+        try {
+            enlazarDirector(data.numeroDe(p), data.numeroDe(d));
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private void enlazarActor(int actor, int pelicula) {
+        if (actor < 0 || pelicula < 0) return;
+        elenco.agregarSiFalta(pelicula, actor);
+        filmografia.agregarSiFalta(actor, pelicula);
+        revisarTamano();
+    }
+
+    private void enlazarDirector(int pelicula, int director) {
+        if (pelicula < 0 || director < 0) return;
+        if (pelicula >= directorDe.length) {
+            int anterior = directorDe.length;
+            directorDe = Arrays.copyOf(directorDe, Math.max(pelicula + 1, anterior * 2));
+            Arrays.fill(directorDe, anterior, directorDe.length, -1);
+        }
+        directorDe[pelicula] = director;
+        dirigidas.agregarSiFalta(director, pelicula);
+        revisarTamano();
+    }
+
+    private void revisarTamano() {
+        long base = (long) elenco.destinos.length + filmografia.destinos.length + dirigidas.destinos.length;
+        long extras = (long) elenco.totalExtra + filmografia.totalExtra + dirigidas.totalExtra;
+        long umbral = Math.max(MINIMO_PARA_RECONSTRUIR, base / 4);
+        if (extras > umbral || eliminadas > Math.max(MINIMO_PARA_RECONSTRUIR, elenco.nodos / 4)) {
+            desactualizado = true;
+        }
+    }
+
+    // ===== ESTRUCTURAS =====
+
+    /**
+     * Relación en formato CSR más una fila extra por nodo para lo agregado después.
+     */
+    private static final class Csr {
+
+        final int nodos;
+        /** La fila base del nodo n es destinos[inicio[n] .. inicio[n + 1]). */
+        final int[] inicio;
+        final int[] destinos;
+        private int[][] extra = new int[0][];
+        private int[] cantidadExtra = new int[0];
+        int totalExtra;
+
+        private Csr(int nodos, int[] inicio, int[] destinos) {
+            this.nodos = nodos;
+            this.inicio = inicio;
+            this.destinos = destinos;
+        }
+
+        static Csr construir(Data data, Relacion relacion, int nodos) {
+            int[] inicio = new int[nodos + 1];
+            int[] destinos = new int[Math.max(16, nodos)];
+            int usados = 0;
+            for (int n = 0; n < nodos; n++) {
+                inicio[n] = usados;
+                int[] fila = data.vecinos(relacion, n);
+                if (fila.length == 0) continue;
+                Arrays.sort(fila);
+                if (usados + fila.length > destinos.length) {
+                    destinos = Arrays.copyOf(destinos, Math.max(usados + fila.length, destinos.length * 2));
+                }
+                System.arraycopy(fila, 0, destinos, usados, fila.length);
+                usados += fila.length;
+            }
+            inicio[nodos] = usados;
+            return new Csr(nodos, inicio, Arrays.copyOf(destinos, usados));
+        }
+
+        /**
+         * Cantidad de destinos de un nodo: los de su fila base más los de la extra.
+         */
+        int grado(int n) {
+            int base = (n < nodos) ? inicio[n + 1] - inicio[n] : 0;
+            return base + ((n < cantidadExtra.length) ? cantidadExtra[n] : 0);
+        }
+
+        /**
+         * Destino número {@code k} de un nodo, con {@code 0 <= k < grado(n)}.
+         */
+        int destino(int n, int k) {
+            int base = (n < nodos) ? inicio[n + 1] - inicio[n] : 0;
+            return (k < base) ? destinos[inicio[n] + k] : extra[n][k - base];
+        }
+
+        void agregarSiFalta(int origen, int destino) {
+            if (origen < nodos && Arrays.binarySearch(destinos, inicio[origen], inicio[origen + 1], destino) >= 0) {
+                return;
+            }
+            if (origen >= cantidadExtra.length) {
+                int nuevo = Math.max(origen + 1, cantidadExtra.length * 2);
+                extra = Arrays.copyOf(extra, nuevo);
+                cantidadExtra = Arrays.copyOf(cantidadExtra, nuevo);
+            }
+            int[] fila = extra[origen];
+            int cantidad = cantidadExtra[origen];
+            for (int i = 0; i < cantidad; i++) {
+                if (fila[i] == destino) return;
+            }
+            if (fila == null) {
+                fila = extra[origen] = new int[4];
+            } else if (cantidad == fila.length) {
+                fila = extra[origen] = Arrays.copyOf(fila, cantidad * 2);
+            }
+            fila[cantidad] = destino;
+            cantidadExtra[origen]++;
+            totalExtra++;
+        }
+    }
+
+    /**
+     * Arreglos de trabajo de una consulta. Un actor o película cuenta como visitado solo
+     * si su marca es la época actual, así que no hace falta limpiarlos entre consultas.
+     */
+    private static final class Busqueda {
+
+        private int epoca;
+        private int[] marca = new int[0];
+        byte[] lado = new byte[0];
+        int[] distancia = new int[0];
+        private int[] padre = new int[0];
+        private int[] via = new int[0];
+        int[] conteo = new int[0];
+        private int[] tocados = new int[64];
+        private int cantidadTocados;
+
+        private int[] marcaPeliculaOrigen = new int[0];
+        private int[] marcaPeliculaDestino = new int[0];
+
+        int cantidadSiguiente;
+
+        int mejor;
+        int encuentroX;
+        int encuentroY;
+        int encuentroPelicula;
+
+        void preparar(int actores, int peliculas) {
+            if (actores > marca.length) {
+                int nuevo = Math.max(actores, marca.length + (marca.length >> 1));
+                marca = Arrays.copyOf(marca, nuevo);
+                lado = Arrays.copyOf(lado, nuevo);
+                distancia = Arrays.copyOf(distancia, nuevo);
+                padre = Arrays.copyOf(padre, nuevo);
+                via = Arrays.copyOf(via, nuevo);
+                conteo = Arrays.copyOf(conteo, nuevo);
+            }
+            if (peliculas > marcaPeliculaOrigen.length) {
+                int nuevo = Math.max(peliculas, marcaPeliculaOrigen.length + (marcaPeliculaOrigen.length >> 1));
+                marcaPeliculaOrigen = Arrays.copyOf(marcaPeliculaOrigen, nuevo);
+                marcaPeliculaDestino = Arrays.copyOf(marcaPeliculaDestino, nuevo);
+            }
+            if (++epoca == Integer.MAX_VALUE) {
+                Arrays.fill(marca, 0);
+                Arrays.fill(marcaPeliculaOrigen, 0);
+                Arrays.fill(marcaPeliculaDestino, 0);
+                epoca = 1;
+            }
+            cantidadTocados = 0;
+            mejor = Integer.MAX_VALUE;
+        }
+
+        boolean visitado(int actor) {
+            return actor >= marca.length || marca[actor] == epoca;
+        }
+
+        void visitar(int actor, byte desde, int dist, int anterior, int pelicula) {
+            marca[actor] = epoca;
+            lado[actor] = desde;
+            distancia[actor] = dist;
+            padre[actor] = anterior;
+            via[actor] = pelicula;
+            conteo[actor] = 0;
+            if (cantidadTocados == tocados.length) tocados = Arrays.copyOf(tocados, cantidadTocados * 2);
+            tocados[cantidadTocados++] = actor;
+        }
+
+        /**
+         * @return true si la película no había sido recorrida desde ese lado
+         */
+        boolean visitarPelicula(int pelicula, byte desde) {
+            int[] marcas = (desde == ORIGEN) ? marcaPeliculaOrigen : marcaPeliculaDestino;
+            if (pelicula >= marcas.length || marcas[pelicula] == epoca) return false;
+            marcas[pelicula] = epoca;
+            return true;
+        }
+
+        void encuentro(int x, int pelicula, int y, int total) {
+            if (total < mejor) {
+                mejor = total;
+                encuentroX = x;
+                encuentroY = y;
+                encuentroPelicula = pelicula;
+            }
+        }
+
+        /**
+         * Actores y películas desde un actor hasta el extremo de su lado, sin incluir
+         * la película por la que se llegó al actor inicial.
+         */
+        void cadena(int actor, List<Integer> actores, List<Integer> peliculas) {
+            for (int n = actor; n >= 0; n = padre[n]) {
+                actores.add(n);
+                if (padre[n] >= 0) peliculas.add(via[n]);
+            }
+        }
+
+        Ranking ranking(int limite) {
+            Ranking ranking = new Ranking(limite);
+            for (int i = 0; i < cantidadTocados; i++) {
+                int y = tocados[i];
+                if (conteo[y] > 0) ranking.ofrecer(y, conteo[y]);
+            }
+            return ranking;
+        }
+    }
+}
@@ -0,0 +1,574 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Genero;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.RegistroGeneros;
+import cr.ac.ucenfotec.bl.entities.User;
+import cr.ac.ucenfotec.dl.Data;
+import cr.ac.ucenfotec.dl.Relacion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Importación masiva desde archivos CSV o JSON-lines: películas, actores, directores,
+ * usuarios, vínculos de elenco y favoritos.
+ *
+ * Se obtiene con {@link Gestor#importador()}, se configura y se ejecuta con
+ * {@link #importar(Path, Tipo)}, por ejemplo:
+ * <pre>
+ *     gestor.importador()
+ *           .hilos(4)
+ *           .alAvanzar(r -&gt; System.out.println(r.lineas() + " líneas"))
+ *           .importar(Path.of("elenco.csv"), ImportadorCatalogo.Tipo.ELENCO);
+ * </pre>
+ *
+ * Un hilo lee el archivo en lotes de líneas, varios hilos los interpretan y validan
+ * con {@link ReglasValidacion} (las mismas reglas que la consola), y el hilo que llamó
+ * aplica cada lote a los datos en el orden del archivo. Las colas entre etapas son
+ * acotadas: si aplicar va más lento que leer, la lectura espera en lugar de llenar la
+ * memoria. Las altas de un lote entran con una sola llamada a {@link Data} (un candado
+ * y un aviso a los índices por lote), y los vínculos de elenco se agrupan por película
+ * y se aplican con una llamada por película.
+ *
+ * El formato sale de la extensión:
+ * <ul>
+ *     <li>{@code .csv}: la primera línea nombra las columnas, en cualquier orden; los
+ *         valores pueden ir entre comillas dobles, y así incluir comas o saltos de línea;</li>
+ *     <li>{@code .jsonl} o {@code .ndjson}: un objeto por línea con esos mismos nombres.</li>
+ * </ul>
+ * Los géneros van separados por {@code |} en CSV o como arreglo en JSON. Los ids se
+ * pasan a mayúsculas como en la consola. Un registro repetido (mismo id, vínculo o
+ * favorito) no es un error: se cuenta aparte y se deja el que ya estaba.
+ */
+public final class ImportadorCatalogo {
+
+    /**
+     * Qué contiene el archivo y con qué columnas.
+     */
+    public enum Tipo {
+        /** id, titulo, anio, duracion, clasificacion y, opcionales, generos y director (id). */
+        PELICULAS(2, "id", "titulo", "anio", "duracion", "clasificacion", "generos", "director"),
+        /** id, nombre. */
+        ACTORES(0, "id", "nombre"),
+        /** id, nombre. */
+        DIRECTORES(0, "id", "nombre"),
+        /** id, username, email. */
+        USUARIOS(0, "id", "username", "email"),
+        /** pelicula (id), actor (id). */
+        ELENCO(0, "pelicula", "actor"),
+        /** usuario (id), pelicula (id). */
+        FAVORITOS(0, "usuario", "pelicula");
+
+        private final String[] campos;
+        private final int opcionales;
+
+        Tipo(int opcionales, String... campos) {
+            this.campos = campos;
+            this.opcionales = opcionales;
+        }
+
+        private boolean obligatorio(int campo) {
+            return campo < campos.length - opcionales;
+        }
+    }
+
+    private static final int MAXIMO_ERRORES = 100;
+
+    private final Data data;
+    private int hilos = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private int tamanoLote = 10_000;
+    private Consumer<ReporteImportacion> alAvanzar;
+
+    ImportadorCatalogo(Data data) {
+        this.data = data;
+    }
+
+    /**
+     * @param hilos hilos que interpretan y validan líneas (por defecto, uno por procesador)
+     * @return este mismo importador
+     */
+    public ImportadorCatalogo hilos(int hilos) {
+        if (hilos < 1) throw new IllegalArgumentException("Debe haber al menos un hilo");
+        this.hilos = hilos;
+        return this;
+    }
+
+    /**
+     * @param tamanoLote líneas por lote (por defecto 10 000)
+     * @return este mismo importador
+     */
+    public ImportadorCatalogo tamanoLote(int tamanoLote) {
+        if (tamanoLote < 1) throw new IllegalArgumentException("El lote debe tener al menos una línea");
+        this.tamanoLote = tamanoLote;
+        return this;
+    }
+
+    /**
+     * @param alAvanzar se llama con el avance después de aplicar cada lote, en el hilo que importa
+     * @return este mismo importador
+     */
+    public ImportadorCatalogo alAvanzar(Consumer<ReporteImportacion> alAvanzar) {
+        this.alAvanzar = alAvanzar;
+        return this;
+    }
+
+    /**
+     * Importa un archivo completo.
+     *
+     * @param archivo archivo {@code .csv}, {@code .jsonl} o {@code .ndjson}
+     * @param tipo    qué contiene
+     * @return cantidades finales y los primeros errores
+     * @throws IOException              si no se puede leer el archivo
+     * @throws IllegalArgumentException si la extensión no es conocida o al CSV le falta una columna obligatoria
+     */
+    public ReporteImportacion importar(Path archivo, Tipo tipo) throws IOException {
+        String nombre = archivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean csv = nombre.endsWith(".csv");
+        if (!csv && !nombre.endsWith(".jsonl") && !nombre.endsWith(".ndjson")) {
+            throw new IllegalArgumentException("Formato no soportado: " + archivo.getFileName());
+        }
+
+        BufferedReader lector = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(archivo), StandardCharsets.UTF_8), 1 << 16);
+        ExecutorService hilosTrabajo = Executors.newFixedThreadPool(hilos + 1);
+        try {
+            int[] columnas = null;
+            long primeraLinea = 1;
+            if (csv) {
+                String encabezado = lector.readLine();
+                columnas = columnasCsv(encabezado == null ? "" : encabezado, tipo);
+                primeraLinea = 2;
+            }
+            Progreso progreso = new Progreso();
+            BlockingQueue<Trozo> porInterpretar = new ArrayBlockingQueue<>(hilos * 2);
+            BlockingQueue<Lote> porAplicar = new ArrayBlockingQueue<>(hilos * 2);
+            AtomicReference<IOException> errorLectura = new AtomicReference<>();
+
+            long inicio = primeraLinea;
+            hilosTrabajo.execute(() -> leer(lector, inicio, csv, porInterpretar, errorLectura));
+            int[] indices = columnas;
+            for (int i = 0; i < hilos; i++) {
+                hilosTrabajo.execute(() -> interpretar(tipo, indices, porInterpretar, porAplicar));
+            }
+            aplicarEnOrden(tipo, porAplicar, progreso);
+
+            if (errorLectura.get() != null) throw errorLectura.get();
+            return progreso.reporte();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importación interrumpida", e);
+        } finally {
+            hilosTrabajo.shutdownNow();
+            lector.close();
+        }
+    }
+
+    // ===== ETAPAS =====
+
+    /**
+     * Lote de registros crudos con la línea del archivo donde empieza cada uno;
+     * {@code registros} vacío marca el fin.
+     */
+    private record Trozo(long secuencia, String[] registros, long[] lineas) {
+        static final Trozo FIN = new Trozo(-1, new String[0], new long[0]);
+    }
+
+    /**
+     * Lote ya interpretado: un registro por línea válida y los rechazos con su línea.
+     */
+    private record Lote(long secuencia, long lineas, List<Object> registros, List<String> errores) {
+        static final Lote FIN = new Lote(-1, 0, List.of(), List.of());
+    }
+
+    /** Un vínculo entre dos ids (elenco o favorito) y la línea de donde salió. */
+    private record Par(String primero, String segundo, long linea) {
+    }
+
+    private record FilaPelicula(Pelicula pelicula, String director, long linea) {
+    }
+
+    /**
+     * Lee el archivo en trozos de {@code tamanoLote} registros. En CSV, un campo entre
+     * comillas puede abarcar varias líneas; el registro sigue hasta cerrarlas.
+     */
+    private void leer(BufferedReader lector, long primeraLinea, boolean csv, BlockingQueue<Trozo> salida,
+                      AtomicReference<IOException> error) {
+        try {
+            long secuencia = 0;
+            long numero = primeraLinea;
+            String[] registros = new String[tamanoLote];
+            long[] lineas = new long[tamanoLote];
+            int cantidad = 0;
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                lineas[cantidad] = numero++;
+                if (csv && comillasAbiertas(linea)) {
+                    StringBuilder registro = new StringBuilder(linea);
+                    String siguiente;
+                    while (comillasAbiertas(registro) && (siguiente = lector.readLine()) != null) {
+                        registro.append('\n').append(siguiente);
+                        numero++;
+                    }
+                    linea = registro.toString();
+                }
+                registros[cantidad++] = linea;
+                if (cantidad == tamanoLote) {
+                    salida.put(new Trozo(secuencia++, registros, lineas));
+                    registros = new String[tamanoLote];
+                    lineas = new long[tamanoLote];
+                    cantidad = 0;
+                }
+            }
+            if (cantidad > 0) {
+                salida.put(new Trozo(secuencia, Arrays.copyOf(registros, cantidad), Arrays.copyOf(lineas, cantidad)));
+            }
+        } catch (IOException e) {
+            error.set(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            for (int i = 0; i < hilos; i++) salida.put(Trozo.FIN);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean comillasAbiertas(CharSequence texto) {
+        boolean abiertas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == '"') abiertas = !abiertas;
+        }
+        return abiertas;
+    }
+
+    private void interpretar(Tipo tipo, int[] columnas, BlockingQueue<Trozo> entrada, BlockingQueue<Lote> salida) {
+        try {
+            while (true) {
+                Trozo trozo = entrada.take();
+                if (trozo == Trozo.FIN) {
+                    salida.put(Lote.FIN);
+                    return;
+                }
+                List<Object> registros = new ArrayList<>(trozo.registros().length);
+                List<String> errores = new ArrayList<>();
+                long lineas = 0;
+                for (int i = 0; i < trozo.registros().length; i++) {
+                    String linea = trozo.registros()[i];
+                    if (linea.isBlank()) continue;
+                    lineas++;
+                    long numero = trozo.lineas()[i];
+                    try {
+                        String[] valores = (columnas != null) ? valoresCsv(linea, columnas) : valoresJson(linea, tipo);
+                        registros.add(convertir(tipo, valores, numero));
+                    } catch (RuntimeException e) {
+                        errores.add("línea " + numero + ": " + e.getMessage());
+                    }
+                }
+                salida.put(new Lote(trozo.secuencia(), lineas, registros, errores));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Aplica los lotes en el orden del archivo; los que llegan adelantados esperan.
+     */
+    private void aplicarEnOrden(Tipo tipo, BlockingQueue<Lote> entrada, Progreso progreso)
+            throws InterruptedException {
+        Map<Long, Lote> adelantados = new HashMap<>();
+        long siguiente = 0;
+        int terminados = 0;
+        while (terminados < hilos) {
+            Lote lote = entrada.take();
+            if (lote == Lote.FIN) {
+                terminados++;
+                continue;
+            }
+            adelantados.put(lote.secuencia(), lote);
+            for (Lote listo; (listo = adelantados.remove(siguiente)) != null; siguiente++) {
+                progreso.lineas += listo.lineas();
+                for (String error : listo.errores()) progreso.rechazar(error);
+                aplicar(tipo, listo.registros(), progreso);
+                if (alAvanzar != null) alAvanzar.accept(progreso.reporte());
+            }
+        }
+    }
+
+    // ===== INTERPRETACIÓN Y VALIDACIÓN =====
+
+    private static Object convertir(Tipo tipo, String[] v, long linea) {
+        for (int i = 0; i < v.length; i++) {
+            if (v[i] != null) v[i] = v[i].trim();
+            if (tipo.obligatorio(i) && (v[i] == null || v[i].isEmpty())) {
+                throw new IllegalArgumentException("falta " + tipo.campos[i]);
+            }
+        }
+        switch (tipo) {
+            case PELICULAS -> {
+                String id = id(v[0], "id");
+                int anio = entero(v[2], "anio");
+                if (!ReglasValidacion.anioValido(anio)) {
+                    throw new IllegalArgumentException("el año no puede ser anterior a " + ReglasValidacion.ANIO_MINIMO);
+                }
+                int duracion = entero(v[3], "duracion");
+                if (!ReglasValidacion.clasificacionValida(v[4])) {
+                    throw new IllegalArgumentException("clasificación inválida: " + v[4]);
+                }
+                Pelicula p = new Pelicula(id, v[1], anio, duracion, v[4]);
+                if (v[5] != null && !v[5].isEmpty()) {
+                    for (String genero : v[5].split("\\|")) {
+                        Genero g = RegistroGeneros.interno(genero);
+                        if (g != null) p.agregarGenero(g);
+                    }
+                }
+                String director = (v[6] == null || v[6].isEmpty()) ? null : id(v[6], "director");
+                return new FilaPelicula(p, director, linea);
+            }
+            case ACTORES -> {
+                return new Actor(id(v[0], "id"), v[1], new ArrayList<>());
+            }
+            case DIRECTORES -> {
+                return new Director(id(v[0], "id"), v[1], new ArrayList<>());
+            }
+            case USUARIOS -> {
+                if (!ReglasValidacion.emailValido(v[2])) {
+                    throw new IllegalArgumentException("email inválido: " + v[2]);
+                }
+                return new User(id(v[0], "id"), v[1], v[2]);
+            }
+            default -> {
+                return new Par(id(v[0], tipo.campos[0]), id(v[1], tipo.campos[1]), linea);
+            }
+        }
+    }
+
+    private static String id(String valor, String campo) {
+        String id = valor.toUpperCase(Locale.ROOT);
+        if (!ReglasValidacion.idValido(id)) {
+            throw new IllegalArgumentException(campo + " inválido (solo letras y números): " + valor);
+        }
+        return id;
+    }
+
+    private static int entero(String valor, String campo) {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(campo + " no es un número: " + valor);
+        }
+    }
+
+    /**
+     * Posición de cada campo del tipo en el encabezado, o -1 si es opcional y no está.
+     */
+    private static int[] columnasCsv(String encabezado, Tipo tipo) {
+        List<String> nombres = camposCsv(encabezado);
+        int[] columnas = new int[tipo.campos.length];
+        for (int i = 0; i < columnas.length; i++) {
+            columnas[i] = -1;
+            for (int j = 0; j < nombres.size(); j++) {
+                if (nombres.get(j).trim().equalsIgnoreCase(tipo.campos[i])) columnas[i] = j;
+            }
+            if (columnas[i] < 0 && tipo.obligatorio(i)) {
+                throw new IllegalArgumentException("Falta la columna \"" + tipo.campos[i] + "\" en el encabezado");
+            }
+        }
+        return columnas;
+    }
+
+    private static String[] valoresCsv(String linea, int[] columnas) {
+        List<String> campos = camposCsv(linea);
+        String[] valores = new String[columnas.length];
+        for (int i = 0; i < columnas.length; i++) {
+            int c = columnas[i];
+            valores[i] = (c >= 0 && c < campos.size()) ? campos.get(c) : null;
+        }
+        return valores;
+    }
+
+    /**
+     * Separa una línea CSV por comas, respetando comillas dobles ({@code ""} es una comilla).
+     */
+    static List<String> camposCsv(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        if (entreComillas) throw new IllegalArgumentException("comillas sin cerrar");
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    private static String[] valoresJson(String linea, Tipo tipo) {
+        Map<String, String> objeto = ObjetoJson.leer(linea);
+        String[] valores = new String[tipo.campos.length];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = objeto.get(tipo.campos[i]);
+        }
+        return valores;
+    }
+
+    // ===== APLICACIÓN =====
+
+    @SuppressWarnings("unchecked")
+    private void aplicar(Tipo tipo, List<Object> registros, Progreso progreso) {
+        switch (tipo) {
+            case PELICULAS -> aplicarPeliculas(registros, progreso);
+            case ACTORES -> progreso.contar(registros.size(), data.agregarActores((List<Actor>) (List<?>) registros).size());
+            case DIRECTORES -> progreso.contar(registros.size(),
+                    data.agregarDirectores((List<Director>) (List<?>) registros).size());
+            case USUARIOS -> progreso.contar(registros.size(), data.agregarUsuarios((List<User>) (List<?>) registros).size());
+            case ELENCO -> aplicarElenco(registros, progreso);
+            case FAVORITOS -> {
+                for (Object r : registros) aplicarFavorito((Par) r, progreso);
+            }
+        }
+    }
+
+    /**
+     * Resuelve el director de cada película antes de agregarlas, así entran ya
+     * completas en un solo lote.
+     */
+    private void aplicarPeliculas(List<Object> registros, Progreso progreso) {
+        List<Pelicula> validas = new ArrayList<>(registros.size());
+        for (Object r : registros) {
+            FilaPelicula fila = (FilaPelicula) r;
+            if (fila.director() != null) {
+                Director director = data.buscarDirectorPorId(fila.director());
+                if (director == null) {
+                    progreso.rechazar("línea " + fila.linea() + ": el director " + fila.director() + " no existe");
+                    continue;
+                }
+                fila.pelicula().setDirector(director);
+            }
+            validas.add(fila.pelicula());
+        }
+        progreso.contar(validas.size(), data.agregarPeliculas(validas).size());
+    }
+
+    /**
+     * Agrupa los vínculos del lote por película y los aplica con una llamada por película.
+     */
+    private void aplicarElenco(List<Object> registros, Progreso progreso) {
+        Map<String, List<Par>> porPelicula = new LinkedHashMap<>();
+        for (Object r : registros) {
+            Par par = (Par) r;
+            porPelicula.computeIfAbsent(par.primero(), k -> new ArrayList<>()).add(par);
+        }
+        for (Map.Entry<String, List<Par>> grupo : porPelicula.entrySet()) {
+            Pelicula pelicula = data.buscarPeliculaPorId(grupo.getKey());
+            if (pelicula == null) {
+                for (Par par : grupo.getValue()) {
+                    progreso.rechazar("línea " + par.linea() + ": la película " + par.primero() + " no existe");
+                }
+                continue;
+            }
+            List<Actor> actores = new ArrayList<>(grupo.getValue().size());
+            Set<Actor> vistos = new HashSet<>();
+            for (Par par : grupo.getValue()) {
+                Actor actor = data.buscarActorPorId(par.segundo());
+                if (actor == null) {
+                    progreso.rechazar("línea " + par.linea() + ": el actor " + par.segundo() + " no existe");
+                } else if (vistos.add(actor)) {
+                    actores.add(actor);
+                } else {
+                    progreso.repetidos++;
+                }
+            }
+            if (actores.isEmpty()) continue;
+            int numero = data.numeroDe(pelicula);
+            int antes = data.grado(Relacion.ELENCO, numero);
+            data.asociarElenco(pelicula, actores);
+            int nuevos = Math.max(0, data.grado(Relacion.ELENCO, numero) - antes);
+            progreso.importados += nuevos;
+            progreso.repetidos += actores.size() - nuevos;
+        }
+    }
+
+    private void aplicarFavorito(Par par, Progreso progreso) {
+        User usuario = data.buscarUsuarioPorId(par.primero());
+        Pelicula pelicula = data.buscarPeliculaPorId(par.segundo());
+        if (usuario == null) {
+            progreso.rechazar("línea " + par.linea() + ": el usuario " + par.primero() + " no existe");
+        } else if (pelicula == null) {
+            progreso.rechazar("línea " + par.linea() + ": la película " + par.segundo() + " no existe");
+        } else {
+            progreso.contar(data.agregarFavorito(usuario, pelicula));
+        }
+    }
+
+    /**
+     * Contadores de la importación; solo los toca el hilo que aplica.
+     */
+    private static final class Progreso {
+        long lineas;
+        long importados;
+        long repetidos;
+        long rechazados;
+        final List<String> errores = new ArrayList<>();
+
+        void contar(boolean nuevo) {
+            contar(1, nuevo ? 1 : 0);
+        }
+
+        void contar(int validos, int nuevos) {
+            importados += nuevos;
+            repetidos += validos - nuevos;
+        }
+
+        void rechazar(String error) {
+            rechazados++;
+            if (errores.size() < MAXIMO_ERRORES) errores.add(error);
+        }
+
+        ReporteImportacion reporte() {
+            return new ReporteImportacion(lineas, importados, repetidos, rechazados, List.copyOf(errores));
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Genero;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.RegistroGeneros;
+import cr.ac.ucenfotec.dl.OyenteCambios;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índices secundarios del catálogo de películas.
+ *
+ * Mantiene:
+ * <ul>
+ *     <li>Un índice ordenado por año, para consultas por rango.</li>
+ *     <li>Una columna de bits por género: cada película ocupa una ranura y el bit de
+ *         esa ranura está encendido en la columna de cada uno de sus géneros.</li>
+ *     <li>Una lista de películas por clasificación.</li>
+ *     <li>Una lista de películas por director.</li>
+ * </ul>
+ *
+ * Se mantiene al día como {@link OyenteCambios}: cada alta, baja, actualización o
+ * cambio de director vuelve a indexar solo la película afectada.
+ *
+ * Las consultas ({@link ConsultaPeliculas}) resuelven los géneros con un AND de sus
+ * columnas, recorren lo más corto entre ese resultado y las demás listas que aplican,
+ * y verifican el resto de condiciones con las llaves guardadas de cada película, en
+ * lugar de recorrer todo el catálogo.
+ */
+final class IndiceCatalogo implements OyenteCambios {
+
+    /**
+     * Valores con los que quedó indexada una película; se usan para sacarla de los
+     * índices aunque la película ya haya cambiado, y para verificar condiciones.
+     */
+    private record Claves(int ranura, int anio, String clasificacion, BitSet generos, Director director) {}
+
+    private static final Comparator<Pelicula> ORDEN_RESULTADOS = Comparator
+            .comparingInt(Pelicula::getAnio)
+            .thenComparing(p -> p.getId().toLowerCase(Locale.ROOT));
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    private final Map<Pelicula, Claves> claves = new HashMap<>();
+    private final TreeMap<Integer, Set<Pelicula>> porAnio = new TreeMap<>();
+    /** Columna de ranuras por ordinal de {@link RegistroGeneros}; null si ninguna película tiene el género. */
+    private final List<BitSet> porGenero = new ArrayList<>();
+    private final Map<String, Set<Pelicula>> porClasificacion = new HashMap<>();
+    private final Map<Director, Set<Pelicula>> porDirector = new HashMap<>();
+
+    /** Película de cada ranura; las ranuras liberadas se reutilizan. */
+    private Pelicula[] porRanura = new Pelicula[16];
+    private int siguienteRanura;
+    private int[] ranurasLibres = new int[16];
+    private int cantidadLibres;
+
+    /**
+     * Construye los índices con las películas existentes.
+     *
+     * @param peliculas películas ya registradas
+     */
+    IndiceCatalogo(Collection<Pelicula> peliculas) {
+        for (Pelicula p : peliculas) {
+            indexar(p);
+        }
+    }
+
+    /**
+     * Normaliza un género o clasificación para usarlo como llave.
+     */
+    static String normalizar(String texto) {
+        return (texto != null) ? texto.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    // ===== MANTENIMIENTO =====
+
+    @Override
+    public void peliculaAgregada(Pelicula p) {
+        reindexar(p);
+    }
+
+    @Override
+    public void peliculaEliminada(Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            quitar(p);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void peliculaActualizada(Pelicula p) {
+        reindexar(p);
+    }
+
+    @Override
+    public void generosActualizados(Pelicula p) {
+        reindexar(p);
+    }
+
+    @Override
+    public void directorAsociado(Pelicula p, Director d) {
+        reindexar(p);
+    }
+
+    /**
+     * Saca la película con sus llaves anteriores y la vuelve a indexar con las actuales.
+     * También reemplaza la instancia guardada por la recibida, que es la registrada.
+     */
+    private void reindexar(Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            quitar(p);
+            indexar(p);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private void indexar(Pelicula p) {
+        int ranura = tomarRanura();
+        porRanura[ranura] = p;
+        Claves c = new Claves(ranura, p.getAnio(), normalizar(p.getClasificacion()),
+                p.getMascaraGeneros(), p.getDirector());
+        claves.put(p, c);
+
+        porAnio.computeIfAbsent(c.anio(), k -> new HashSet<>()).add(p);
+        BitSet generos = c.generos();
+        for (int g = generos.nextSetBit(0); g >= 0; g = generos.nextSetBit(g + 1)) {
+            while (porGenero.size() <= g) porGenero.add(null);
+            BitSet columna = porGenero.get(g);
+            if (columna == null) {
+                columna = new BitSet();
+                porGenero.set(g, columna);
+            }
+            columna.set(ranura);
+        }
+        if (c.clasificacion() != null) {
+            porClasificacion.computeIfAbsent(c.clasificacion(), k -> new HashSet<>()).add(p);
+        }
+        if (c.director() != null) {
+            porDirector.computeIfAbsent(c.director(), k -> new HashSet<>()).add(p);
+        }
+    }
+
+    private void quitar(Pelicula p) {
+        Claves c = claves.remove(p);
+        if (c == null) return;
+
+        quitarDe(porAnio, c.anio(), p);
+        BitSet generos = c.generos();
+        for (int g = generos.nextSetBit(0); g >= 0; g = generos.nextSetBit(g + 1)) {
+            BitSet columna = porGenero.get(g);
+            columna.clear(c.ranura());
+            if (columna.isEmpty()) porGenero.set(g, null);
+        }
+        porRanura[c.ranura()] = null;
+        if (cantidadLibres == ranurasLibres.length) {
+            ranurasLibres = Arrays.copyOf(ranurasLibres, cantidadLibres * 2);
+        }
+        ranurasLibres[cantidadLibres++] = c.ranura();
+        if (c.clasificacion() != null) {
+            quitarDe(porClasificacion, c.clasificacion(), p);
+        }
+        if (c.director() != null) {
+            quitarDe(porDirector, c.director(), p);
+        }
+    }
+
+    private int tomarRanura() {
+        if (cantidadLibres > 0) return ranurasLibres[--cantidadLibres];
+        if (siguienteRanura == porRanura.length) {
+            porRanura = Arrays.copyOf(porRanura, siguienteRanura * 2);
+        }
+        return siguienteRanura++;
+    }
+
+    private static <K> void quitarDe(Map<K, Set<Pelicula>> indice, K llave, Pelicula p) {
+        Set<Pelicula> lista = indice.get(llave);
+        if (lista == null) return;
+        lista.remove(p);
+        if (lista.isEmpty()) {
+            indice.remove(llave);
+        }
+    }
+
+    // ===== CONSULTAS =====
+
+    /**
+     * Ejecuta una consulta combinando sus condiciones con AND.
+     *
+     * @param consulta condiciones a cumplir
+     * @return películas que cumplen todas las condiciones, ordenadas por año e id
+     */
+    List<Pelicula> buscar(ConsultaPeliculas consulta) {
+        candado.readLock().lock();
+        try {
+            BitSet conGeneros = filtrarGeneros(consulta);
+            Collection<Pelicula> base = listaMasCorta(consulta);
+            List<Pelicula> resultado = new ArrayList<>();
+            if (conGeneros != null && conGeneros.cardinality() < base.size()) {
+                for (int r = conGeneros.nextSetBit(0); r >= 0; r = conGeneros.nextSetBit(r + 1)) {
+                    Pelicula p = porRanura[r];
+                    if (cumple(claves.get(p), consulta)) {
+                        resultado.add(p);
+                    }
+                }
+            } else {
+                for (Pelicula p : base) {
+                    Claves c = claves.get(p);
+                    if (c != null && (conGeneros == null || conGeneros.get(c.ranura())) && cumple(c, consulta)) {
+                        resultado.add(p);
+                    }
+                }
+            }
+            resultado.sort(ORDEN_RESULTADOS);
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Hasta {@code limite} otras películas que tienen un género, tomadas de su columna a
+     * partir de la ranura de {@code p} (dando la vuelta al final). Así cada película
+     * recibe una muestra distinta de un género muy poblado, sin recorrerlo entero.
+     *
+     * @param p       película de referencia (no se incluye)
+     * @param ordinal ordinal del género en {@link RegistroGeneros}
+     * @param limite  cantidad máxima de películas
+     * @return películas con ese género, en orden de ranura
+     */
+    List<Pelicula> conGenero(Pelicula p, int ordinal, int limite) {
+        candado.readLock().lock();
+        try {
+            BitSet columna = (ordinal >= 0 && ordinal < porGenero.size()) ? porGenero.get(ordinal) : null;
+            if (columna == null || limite < 1) return List.of();
+            Claves c = claves.get(p);
+            int inicio = (c != null) ? c.ranura() + 1 : 0;
+            List<Pelicula> resultado = new ArrayList<>(Math.min(limite, columna.cardinality()));
+            for (int r = columna.nextSetBit(inicio); r >= 0 && resultado.size() < limite; r = columna.nextSetBit(r + 1)) {
+                resultado.add(porRanura[r]);
+            }
+            for (int r = columna.nextSetBit(0); r >= 0 && r < inicio - 1 && resultado.size() < limite;
+                 r = columna.nextSetBit(r + 1)) {
+                resultado.add(porRanura[r]);
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranuras de las películas que tienen todos los géneros pedidos: el AND de sus
+     * columnas. Un género que no existe o que ninguna película tiene da un resultado vacío.
+     *
+     * @return ranuras que cumplen, o null si la consulta no pide géneros
+     */
+    private BitSet filtrarGeneros(ConsultaPeliculas consulta) {
+        BitSet resultado = null;
+        for (String nombre : consulta.getGeneros()) {
+            Genero g = RegistroGeneros.buscar(nombre);
+            BitSet columna = (g != null && g.getOrdinal() < porGenero.size()) ? porGenero.get(g.getOrdinal()) : null;
+            if (columna == null) return new BitSet();
+            if (resultado == null) {
+                resultado = (BitSet) columna.clone();
+            } else {
+                resultado.and(columna);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Elige, entre las listas de las condiciones presentes (salvo los géneros), la
+     * que tiene menos películas. Si alguna condición no tiene lista (por ejemplo,
+     * una clasificación inexistente), el resultado es vacío sin recorrer nada.
+     */
+    private Collection<Pelicula> listaMasCorta(ConsultaPeliculas consulta) {
+        Collection<Pelicula> mejor = claves.keySet();
+
+        if (consulta.getClasificacion() != null) {
+            mejor = menor(mejor, porClasificacion.get(consulta.getClasificacion()));
+        }
+        if (consulta.getDirector() != null) {
+            mejor = menor(mejor, porDirector.get(consulta.getDirector()));
+        }
+        if (consulta.tieneRangoAnios()) {
+            NavigableMap<Integer, Set<Pelicula>> rango =
+                    porAnio.subMap(consulta.getAnioDesde(), true, consulta.getAnioHasta(), true);
+            int total = 0;
+            for (Set<Pelicula> s : rango.values()) total += s.size();
+            if (total < mejor.size()) {
+                List<Pelicula> unidas = new ArrayList<>(total);
+                for (Set<Pelicula> s : rango.values()) unidas.addAll(s);
+                mejor = unidas;
+            }
+        }
+        return mejor;
+    }
+
+    private static Collection<Pelicula> menor(Collection<Pelicula> actual, Set<Pelicula> candidata) {
+        if (candidata == null) return Collections.emptySet();
+        return (candidata.size() < actual.size()) ? candidata : actual;
+    }
+
+    private static boolean cumple(Claves c, ConsultaPeliculas consulta) {
+        if (c == null) return false;
+        if (consulta.getClasificacion() != null && !consulta.getClasificacion().equals(c.clasificacion())) {
+            return false;
+        }
+        if (consulta.getDirector() != null && !consulta.getDirector().equals(c.director())) return false;
+        return !consulta.tieneRangoAnios()
+                || (c.anio() >= consulta.getAnioDesde() && c.anio() <= consulta.getAnioHasta());
+    }
+}
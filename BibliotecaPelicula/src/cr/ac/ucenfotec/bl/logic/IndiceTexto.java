@@ -0,0 +1,558 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.dl.OyenteCambios;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de texto completo sobre las películas.
+ *
+ * Indexa el título, la sinopsis de la ficha, los nombres del elenco y el nombre del
+ * director. Cada término tiene una {@link ListaPosteo} comprimida con los documentos
+ * donde aparece, su peso y sus posiciones. El título pesa más que los nombres, y
+ * estos más que la sinopsis.
+ *
+ * Consultas soportadas (se combinan con AND y se ordenan por BM25):
+ * <ul>
+ *     <li>Palabras sueltas: {@code accion futuro}</li>
+ *     <li>Frases entre comillas: {@code "el padrino"}</li>
+ *     <li>Prefijos con asterisco: {@code terminat*}</li>
+ * </ul>
+ *
+ * Como las listas solo admiten agregar al final, cambiar una película le asigna un
+ * documento nuevo y deja el anterior marcado como eliminado. Cuando los eliminados
+ * superan a los vivos, el índice se reconstruye completo.
+ */
+final class IndiceTexto implements OyenteCambios {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int PESO_TITULO = 3;
+    private static final int PESO_PERSONAS = 2;
+    private static final int PESO_SINOPSIS = 1;
+
+    /** Hueco de posiciones entre campos, para que una frase no cruce de un campo a otro. */
+    private static final int SEPARACION_CAMPOS = 8;
+    private static final int MAXIMO_EXPANSIONES = 64;
+    private static final int MINIMO_PARA_RECONSTRUIR = 1024;
+
+    /**
+     * Documentos que cumplen una cláusula, ordenados por número de documento,
+     * con el puntaje acumulado de cada uno.
+     */
+    private record Coincidencias(int[] docs, double[] puntajes, int cantidad) {
+        static final Coincidencias VACIAS = new Coincidencias(new int[0], new double[0], 0);
+    }
+
+    /**
+     * Apariciones de un término dentro del documento que se está indexando.
+     */
+    private static final class Acumulado {
+        int peso;
+        int[] posiciones = new int[4];
+        int cantidad;
+
+        void agregar(int posicion, int pesoCampo) {
+            if (cantidad == posiciones.length) {
+                posiciones = Arrays.copyOf(posiciones, cantidad * 2);
+            }
+            posiciones[cantidad++] = posicion;
+            peso += pesoCampo;
+        }
+    }
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, Integer> terminos = new TreeMap<>();
+    private final List<ListaPosteo> posteos = new ArrayList<>();
+    private int[] frecuenciaDocumentos = new int[64];
+
+    private final List<Pelicula> documentos = new ArrayList<>();
+    private final List<int[]> terminosPorDocumento = new ArrayList<>();
+    private int[] longitudes = new int[64];
+    private final Map<Pelicula, Integer> documentoDe = new HashMap<>();
+
+    private int vivos;
+    private int eliminados;
+    private long sumaLongitudes;
+
+    /**
+     * Construye el índice con las películas existentes.
+     *
+     * @param peliculas películas ya registradas
+     */
+    IndiceTexto(Collection<Pelicula> peliculas) {
+        for (Pelicula p : peliculas) {
+            indexar(p);
+        }
+    }
+
+    // ===== MANTENIMIENTO =====
+
+    @Override
+    public void peliculaAgregada(Pelicula p) {
+        reindexar(p);
+    }
+
+    @Override
+    public void peliculaEliminada(Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            quitar(p);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void peliculaActualizada(Pelicula p) {
+        reindexar(p);
+    }
+
+    @Override
+    public void fichaActualizada(Pelicula p) {
+        reindexar(p);
+    }
+
+    @Override
+    public void actorAsociado(Actor a, Pelicula p) {
+        reindexar(p);
+    }
+
+    @Override
+    public void elencoAsociado(Pelicula p, List<Actor> nuevos) {
+        reindexar(p);
+    }
+
+    @Override
+    public void directorAsociado(Pelicula p, Director d) {
+        reindexar(p);
+    }
+
+    private void reindexar(Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            quitar(p);
+            indexar(p);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private void indexar(Pelicula p) {
+        Map<String, Acumulado> acumulados = new HashMap<>();
+        int posicion = agregarCampo(acumulados, p.getTitulo(), PESO_TITULO, 0);
+        if (p.getFicha() != null) {
+            posicion = agregarCampo(acumulados, p.getFicha().sinopsis(), PESO_SINOPSIS, posicion);
+        }
+        for (Actor a : p.getElenco()) {
+            posicion = agregarCampo(acumulados, a.getNombre(), PESO_PERSONAS, posicion);
+        }
+        if (p.getDirector() != null) {
+            agregarCampo(acumulados, p.getDirector().getNombre(), PESO_PERSONAS, posicion);
+        }
+
+        int doc = documentos.size();
+        documentos.add(p);
+        if (doc == longitudes.length) {
+            longitudes = Arrays.copyOf(longitudes, doc * 2);
+        }
+
+        int[] ids = new int[acumulados.size()];
+        int k = 0;
+        int longitud = 0;
+        for (Map.Entry<String, Acumulado> e : acumulados.entrySet()) {
+            int id = idTermino(e.getKey());
+            Acumulado a = e.getValue();
+            posteos.get(id).agregar(doc, a.peso, a.posiciones, a.cantidad);
+            frecuenciaDocumentos[id]++;
+            ids[k++] = id;
+            longitud += a.peso;
+        }
+        terminosPorDocumento.add(ids);
+        longitudes[doc] = longitud;
+        documentoDe.put(p, doc);
+        sumaLongitudes += longitud;
+        vivos++;
+    }
+
+    /**
+     * Agrega los términos de un campo a partir de {@code posicion}.
+     *
+     * @return posición donde debe empezar el campo siguiente
+     */
+    private static int agregarCampo(Map<String, Acumulado> acumulados, String texto, int peso, int posicion) {
+        for (String termino : AnalizadorTexto.tokenizar(texto)) {
+            acumulados.computeIfAbsent(termino, t -> new Acumulado()).agregar(posicion++, peso);
+        }
+        return posicion + SEPARACION_CAMPOS;
+    }
+
+    private int idTermino(String termino) {
+        Integer id = terminos.get(termino);
+        if (id != null) return id;
+        id = posteos.size();
+        terminos.put(termino, id);
+        posteos.add(new ListaPosteo());
+        if (id == frecuenciaDocumentos.length) {
+            frecuenciaDocumentos = Arrays.copyOf(frecuenciaDocumentos, id * 2);
+        }
+        return id;
+    }
+
+    private void quitar(Pelicula p) {
+        Integer doc = documentoDe.remove(p);
+        if (doc == null) return;
+        for (int id : terminosPorDocumento.get(doc)) {
+            frecuenciaDocumentos[id]--;
+        }
+        terminosPorDocumento.set(doc, null);
+        documentos.set(doc, null);
+        sumaLongitudes -= longitudes[doc];
+        vivos--;
+        eliminados++;
+        if (eliminados >= MINIMO_PARA_RECONSTRUIR && eliminados > vivos) {
+            reconstruir();
+        }
+    }
+
+    /**
+     * Vuelve a indexar solo los documentos vivos, descartando las entradas
+     * eliminadas y los términos que ya no aparecen en ninguna película.
+     */
+    private void reconstruir() {
+        List<Pelicula> vivas = new ArrayList<>(vivos);
+        for (Pelicula p : documentos) {
+            if (p != null) vivas.add(p);
+        }
+        terminos.clear();
+        posteos.clear();
+        frecuenciaDocumentos = new int[64];
+        documentos.clear();
+        terminosPorDocumento.clear();
+        longitudes = new int[Math.max(64, vivas.size())];
+        documentoDe.clear();
+        vivos = 0;
+        eliminados = 0;
+        sumaLongitudes = 0;
+        for (Pelicula p : vivas) {
+            indexar(p);
+        }
+    }
+
+    // ===== CONSULTAS =====
+
+    /**
+     * Busca películas que cumplan todas las partes de la consulta.
+     *
+     * @param consulta texto con palabras, frases entre comillas y prefijos con asterisco
+     * @param limite   cantidad máxima de resultados
+     * @return películas ordenadas por relevancia (BM25), de mayor a menor
+     */
+    List<Pelicula> buscar(String consulta, int limite) {
+        if (consulta == null || limite <= 0) return new ArrayList<>();
+
+        List<String> palabras = new ArrayList<>();
+        List<String> prefijos = new ArrayList<>();
+        List<List<String>> frases = new ArrayList<>();
+        separarConsulta(consulta, palabras, prefijos, frases);
+
+        candado.readLock().lock();
+        try {
+            List<Coincidencias> clausulas = new ArrayList<>();
+            for (String palabra : palabras) {
+                Integer id = terminos.get(palabra);
+                if (id == null) return new ArrayList<>();
+                clausulas.add(decodificar(id));
+            }
+            for (String prefijo : prefijos) {
+                clausulas.add(expandirPrefijo(prefijo));
+            }
+            for (List<String> frase : frases) {
+                clausulas.add(buscarFrase(frase));
+            }
+            if (clausulas.isEmpty()) return new ArrayList<>();
+
+            clausulas.sort(Comparator.comparingInt(Coincidencias::cantidad));
+            Coincidencias resultado = clausulas.get(0);
+            for (int i = 1; i < clausulas.size() && resultado.cantidad() > 0; i++) {
+                resultado = intersectar(resultado, clausulas.get(i));
+            }
+            return mejores(resultado, limite);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reparte la consulta en palabras, prefijos ({@code pal*}) y frases ({@code "..."}).
+     * Una frase de una sola palabra se trata como palabra.
+     */
+    private static void separarConsulta(String consulta, List<String> palabras,
+                                        List<String> prefijos, List<List<String>> frases) {
+        String[] partes = consulta.split("\"", -1);
+        for (int i = 0; i < partes.length; i++) {
+            if (i % 2 == 1) {
+                List<String> frase = AnalizadorTexto.tokenizar(partes[i]);
+                if (frase.size() == 1) palabras.add(frase.get(0));
+                else if (frase.size() > 1) frases.add(frase);
+                continue;
+            }
+            for (String palabra : partes[i].trim().split("\\s+")) {
+                List<String> tokens = AnalizadorTexto.tokenizar(palabra);
+                if (tokens.isEmpty()) continue;
+                int ultimo = tokens.size() - 1;
+                palabras.addAll(tokens.subList(0, ultimo));
+                if (palabra.endsWith("*")) prefijos.add(tokens.get(ultimo));
+                else palabras.add(tokens.get(ultimo));
+            }
+        }
+    }
+
+    private double idf(int id) {
+        double df = frecuenciaDocumentos[id];
+        return Math.log(1 + (vivos - df + 0.5) / (df + 0.5));
+    }
+
+    /**
+     * Puntaje BM25 de un término en un documento, con el idf ya calculado.
+     */
+    private double bm25(double idf, int peso, int doc) {
+        double promedio = (vivos > 0) ? (double) sumaLongitudes / vivos : 1;
+        double normalizacion = K1 * (1 - B + B * longitudes[doc] / promedio);
+        return idf * peso * (K1 + 1) / (peso + normalizacion);
+    }
+
+    /**
+     * Documentos vivos de un término, con su puntaje BM25.
+     */
+    private Coincidencias decodificar(int id) {
+        int[] docs = new int[Math.max(1, frecuenciaDocumentos[id])];
+        double[] puntajes = new double[docs.length];
+        int n = 0;
+        double idf = idf(id);
+        ListaPosteo.Cursor cursor = posteos.get(id).cursor();
+        while (cursor.siguiente()) {
+            int doc = cursor.doc();
+            if (documentos.get(doc) == null) continue;
+            docs[n] = doc;
+            puntajes[n] = bm25(idf, cursor.peso(), doc);
+            n++;
+        }
+        return new Coincidencias(docs, puntajes, n);
+    }
+
+    /**
+     * Une las listas de todos los términos que empiezan con el prefijo
+     * (como máximo {@value #MAXIMO_EXPANSIONES}).
+     */
+    private Coincidencias expandirPrefijo(String prefijo) {
+        SortedMap<String, Integer> expansiones = terminos.subMap(prefijo, prefijo + Character.MAX_VALUE);
+        Coincidencias resultado = Coincidencias.VACIAS;
+        int usadas = 0;
+        for (int id : expansiones.values()) {
+            if (usadas++ == MAXIMO_EXPANSIONES) break;
+            resultado = unir(resultado, decodificar(id));
+        }
+        return resultado;
+    }
+
+    /**
+     * Documentos donde los términos aparecen seguidos y en orden.
+     * Para cada documento candidato se guardan las posiciones donde termina la
+     * parte de la frase ya verificada.
+     */
+    private Coincidencias buscarFrase(List<String> frase) {
+        int[] docs = null;
+        double[] puntajes = null;
+        int[][] finales = null;
+        int n = 0;
+
+        for (String termino : frase) {
+            Integer id = terminos.get(termino);
+            if (id == null) return Coincidencias.VACIAS;
+
+            int capacidad = (docs == null) ? Math.max(1, frecuenciaDocumentos[id]) : n;
+            int[] nuevosDocs = new int[capacidad];
+            double[] nuevosPuntajes = new double[capacidad];
+            int[][] nuevosFinales = new int[capacidad][];
+            int m = 0;
+            int j = 0;
+            double idf = idf(id);
+
+            ListaPosteo.Cursor cursor = posteos.get(id).cursor();
+            while (cursor.siguiente() && (docs == null || j < n)) {
+                int doc = cursor.doc();
+                if (documentos.get(doc) == null) continue;
+                if (docs == null) {
+                    nuevosDocs[m] = doc;
+                    nuevosPuntajes[m] = bm25(idf, cursor.peso(), doc);
+                    nuevosFinales[m] = cursor.posiciones();
+                    m++;
+                    continue;
+                }
+                while (j < n && docs[j] < doc) j++;
+                if (j == n || docs[j] != doc) continue;
+
+                int[] siguientes = continuar(finales[j], cursor.posiciones());
+                if (siguientes.length > 0) {
+                    nuevosDocs[m] = doc;
+                    nuevosPuntajes[m] = puntajes[j] + bm25(idf, cursor.peso(), doc);
+                    nuevosFinales[m] = siguientes;
+                    m++;
+                }
+                j++;
+            }
+            docs = nuevosDocs;
+            puntajes = nuevosPuntajes;
+            finales = nuevosFinales;
+            n = m;
+            if (n == 0) return Coincidencias.VACIAS;
+        }
+        return new Coincidencias(docs, puntajes, n);
+    }
+
+    /**
+     * Posiciones de {@code actuales} que siguen inmediatamente a alguna de {@code finales}.
+     */
+    private static int[] continuar(int[] finales, int[] actuales) {
+        int[] resultado = new int[Math.min(finales.length, actuales.length)];
+        int n = 0;
+        int i = 0;
+        for (int posicion : actuales) {
+            while (i < finales.length && finales[i] < posicion - 1) i++;
+            if (i < finales.length && finales[i] == posicion - 1) {
+                resultado[n++] = posicion;
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    private static Coincidencias intersectar(Coincidencias a, Coincidencias b) {
+        int capacidad = Math.min(a.cantidad(), b.cantidad());
+        int[] docs = new int[capacidad];
+        double[] puntajes = new double[capacidad];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.cantidad() && j < b.cantidad()) {
+            int da = a.docs()[i];
+            int db = b.docs()[j];
+            if (da < db) {
+                i++;
+            } else if (da > db) {
+                j++;
+            } else {
+                docs[n] = da;
+                puntajes[n] = a.puntajes()[i] + b.puntajes()[j];
+                n++;
+                i++;
+                j++;
+            }
+        }
+        return new Coincidencias(docs, puntajes, n);
+    }
+
+    private static Coincidencias unir(Coincidencias a, Coincidencias b) {
+        int[] docs = new int[a.cantidad() + b.cantidad()];
+        double[] puntajes = new double[docs.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.cantidad() || j < b.cantidad()) {
+            int da = (i < a.cantidad()) ? a.docs()[i] : Integer.MAX_VALUE;
+            int db = (j < b.cantidad()) ? b.docs()[j] : Integer.MAX_VALUE;
+            if (da < db) {
+                docs[n] = da;
+                puntajes[n++] = a.puntajes()[i++];
+            } else if (da > db) {
+                docs[n] = db;
+                puntajes[n++] = b.puntajes()[j++];
+            } else {
+                docs[n] = da;
+                puntajes[n++] = a.puntajes()[i++] + b.puntajes()[j++];
+            }
+        }
+        return new Coincidencias(docs, puntajes, n);
+    }
+
+    /**
+     * Selecciona los {@code limite} documentos de mayor puntaje con un montículo
+     * mínimo acotado, sobre arreglos primitivos.
+     */
+    private List<Pelicula> mejores(Coincidencias c, int limite) {
+        int k = Math.min(limite, c.cantidad());
+        int[] monticulo = new int[k];
+        int tamano = 0;
+        for (int i = 0; i < c.cantidad(); i++) {
+            if (tamano < k) {
+                monticulo[tamano] = i;
+                subir(monticulo, tamano++, c);
+            } else if (mayor(c, i, monticulo[0])) {
+                monticulo[0] = i;
+                bajar(monticulo, tamano, c);
+            }
+        }
+        // Extraer el mínimo repetidamente deja el arreglo ordenado de mayor a menor
+        for (int fin = tamano - 1; fin > 0; fin--) {
+            int tmp = monticulo[0];
+            monticulo[0] = monticulo[fin];
+            monticulo[fin] = tmp;
+            bajar(monticulo, fin, c);
+        }
+        List<Pelicula> resultado = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            resultado.add(documentos.get(c.docs()[monticulo[i]]));
+        }
+        return resultado;
+    }
+
+    /**
+     * Orden de relevancia: mayor puntaje primero y, a igual puntaje, el documento más antiguo.
+     */
+    private static boolean mayor(Coincidencias c, int a, int b) {
+        double pa = c.puntajes()[a];
+        double pb = c.puntajes()[b];
+        return pa > pb || (pa == pb && c.docs()[a] < c.docs()[b]);
+    }
+
+    private static void subir(int[] m, int i, Coincidencias c) {
+        while (i > 0) {
+            int padre = (i - 1) / 2;
+            if (!mayor(c, m[padre], m[i])) break;
+            int tmp = m[padre];
+            m[padre] = m[i];
+            m[i] = tmp;
+            i = padre;
+        }
+    }
+
+    private static void bajar(int[] m, int tamano, Coincidencias c) {
+        int i = 0;
+        while (true) {
+            int menor = i;
+            int izq = 2 * i + 1;
+            int der = izq + 1;
+            if (izq < tamano && mayor(c, m[menor], m[izq])) menor = izq;
+            if (der < tamano && mayor(c, m[menor], m[der])) menor = der;
+            if (menor == i) return;
+            int tmp = m[menor];
+            m[menor] = m[i];
+            m[i] = tmp;
+            i = menor;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.Arrays;
+
+/**
+ * Lista de apariciones (posting list) de un término, comprimida en bytes.
+ *
+ * Cada entrada se guarda como enteros de longitud variable (varint, 7 bits por byte):
+ * <pre>
+ *     delta del documento | peso | cantidad de posiciones | deltas de posiciones...
+ * </pre>
+ * Los documentos se agregan siempre en orden creciente, así que los deltas son
+ * pequeños y casi todas las entradas ocupan pocos bytes.
+ */
+final class ListaPosteo {
+
+    private byte[] datos = new byte[8];
+    private int largo;
+    private int ultimoDoc = -1;
+
+    /**
+     * Agrega la entrada de un documento.
+     *
+     * @param doc        número de documento, mayor que el último agregado
+     * @param peso       frecuencia ponderada del término en el documento
+     * @param posiciones posiciones del término, en orden creciente
+     * @param cantidad   cuántas posiciones del arreglo son válidas
+     */
+    void agregar(int doc, int peso, int[] posiciones, int cantidad) {
+        escribir(doc - ultimoDoc);
+        escribir(peso);
+        escribir(cantidad);
+        int anterior = 0;
+        for (int i = 0; i < cantidad; i++) {
+            escribir(posiciones[i] - anterior);
+            anterior = posiciones[i];
+        }
+        ultimoDoc = doc;
+    }
+
+    private void escribir(int valor) {
+        if (largo + 5 > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(datos.length * 2, largo + 5));
+        }
+        while ((valor & ~0x7F) != 0) {
+            datos[largo++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        datos[largo++] = (byte) valor;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Recorrido secuencial de la lista. Las posiciones solo se decodifican si se piden.
+     */
+    final class Cursor {
+
+        private int pos;
+        private int doc = -1;
+        private int peso;
+        private int cantidadPosiciones;
+        private boolean posicionesLeidas = true;
+
+        /**
+         * Avanza a la siguiente entrada.
+         *
+         * @return false si no hay más entradas
+         */
+        boolean siguiente() {
+            if (!posicionesLeidas) {
+                for (int i = 0; i < cantidadPosiciones; i++) leer();
+            }
+            if (pos >= largo) return false;
+            doc += leer();
+            peso = leer();
+            cantidadPosiciones = leer();
+            posicionesLeidas = false;
+            return true;
+        }
+
+        int doc() {
+            return doc;
+        }
+
+        int peso() {
+            return peso;
+        }
+
+        /**
+         * Decodifica las posiciones de la entrada actual.
+         *
+         * @return arreglo con las posiciones en orden creciente
+         */
+        int[] posiciones() {
+            int[] resultado = new int[cantidadPosiciones];
+            int actual = 0;
+            for (int i = 0; i < cantidadPosiciones; i++) {
+                actual += leer();
+                resultado[i] = actual;
+            }
+            posicionesLeidas = true;
+            return resultado;
+        }
+
+        private int leer() {
+            int valor = 0;
+            int desplazamiento = 0;
+            byte b;
+            do {
+                b = datos[pos++];
+                valor |= (b & 0x7F) << desplazamiento;
+                desplazamiento += 7;
+            } while (b < 0);
+            return valor;
+        }
+    }
+}
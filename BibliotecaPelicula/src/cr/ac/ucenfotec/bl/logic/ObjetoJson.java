@@ -0,0 +1,121 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lector de un objeto JSON plano: valores de texto, números, booleanos, null o
+ * arreglos de esos (que se devuelven unidos con {@code |}).
+ */
+public final class ObjetoJson {
+
+    private final String texto;
+    private int pos;
+
+    private ObjetoJson(String texto) {
+        this.texto = texto;
+    }
+
+    /**
+     * Lee un objeto JSON plano.
+     *
+     * @param texto el objeto completo, sin nada antes ni después (salvo espacios)
+     * @return los valores por clave; los {@code null} de JSON quedan como null
+     * @throws IllegalArgumentException si el texto no es un objeto JSON plano válido
+     */
+    public static Map<String, String> leer(String texto) {
+        return new ObjetoJson(texto).leerObjeto();
+    }
+
+    private Map<String, String> leerObjeto() {
+        Map<String, String> objeto = new HashMap<>();
+        esperar('{');
+        if (siguiente() == '}') {
+            pos++;
+        } else {
+            do {
+                String clave = cadena();
+                esperar(':');
+                objeto.put(clave, valor(true));
+            } while (consumirComa());
+            esperar('}');
+        }
+        if (siguiente() != 0) throw new IllegalArgumentException("texto después del objeto JSON");
+        return objeto;
+    }
+
+    private String valor(boolean admiteArreglo) {
+        char c = siguiente();
+        if (c == '"') return cadena();
+        if (c == '[' && admiteArreglo) {
+            pos++;
+            StringBuilder unidos = new StringBuilder();
+            if (siguiente() == ']') {
+                pos++;
+                return "";
+            }
+            do {
+                if (unidos.length() > 0) unidos.append('|');
+                String elemento = valor(false);
+                if (elemento != null) unidos.append(elemento);
+            } while (consumirComa());
+            esperar(']');
+            return unidos.toString();
+        }
+        int inicio = pos;
+        while (pos < texto.length() && ",}] \t".indexOf(texto.charAt(pos)) < 0) pos++;
+        String literal = texto.substring(inicio, pos);
+        if (literal.isEmpty()) throw new IllegalArgumentException("JSON inválido en la posición " + inicio);
+        return literal.equals("null") ? null : literal;
+    }
+
+    private String cadena() {
+        esperar('"');
+        StringBuilder sb = new StringBuilder();
+        while (pos < texto.length()) {
+            char c = texto.charAt(pos++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= texto.length()) break;
+            char escape = texto.charAt(pos++);
+            switch (escape) {
+                case 'n' -> sb.append('\n');
+                case 't' -> sb.append('\t');
+                case 'r' -> sb.append('\r');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (pos + 4 > texto.length()) throw new IllegalArgumentException("escape \\u incompleto");
+                    sb.append((char) Integer.parseInt(texto.substring(pos, pos + 4), 16));
+                    pos += 4;
+                }
+                default -> sb.append(escape);
+            }
+        }
+        throw new IllegalArgumentException("texto JSON sin cerrar");
+    }
+
+    private boolean consumirComa() {
+        if (siguiente() == ',') {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void esperar(char c) {
+        if (siguiente() != c) throw new IllegalArgumentException("se esperaba '" + c + "' en la posición " + pos);
+        pos++;
+    }
+
+    /**
+     * Salta espacios y devuelve el carácter actual sin consumirlo (0 al final).
+     */
+    private char siguiente() {
+        while (pos < texto.length() && Character.isWhitespace(texto.charAt(pos))) pos++;
+        return (pos < texto.length()) ? texto.charAt(pos) : 0;
+    }
+}
@@ -0,0 +1,41 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Una página de un listado recorrido por cursor.
+ *
+ * El cursor es opaco: solo sirve para pedir la página siguiente al mismo método
+ * de {@link Gestor} que devolvió esta. Como se basa en el último elemento entregado
+ * y no en una posición, las altas y bajas entre páginas no repiten ni saltan elementos.
+ *
+ * @param elementos elementos de la página, en orden (solo lectura)
+ * @param siguiente cursor de la página siguiente, o null si esta es la última
+ * @param <T>       tipo de elemento
+ */
+public record Pagina<T>(List<T> elementos, String siguiente) {
+
+    /**
+     * @return true si hay más elementos después de esta página
+     */
+    public boolean haySiguiente() {
+        return siguiente != null;
+    }
+
+    /**
+     * Arma la página a partir de lo obtenido pidiendo un elemento de más: si ese
+     * elemento existe, hay página siguiente y el cursor sale del último que se entrega.
+     *
+     * @param obtenidos hasta {@code tamano + 1} elementos en orden
+     * @param tamano    tamaño de página pedido
+     * @param cursorDe  función que obtiene el cursor de un elemento
+     */
+    static <T> Pagina<T> de(List<T> obtenidos, int tamano, Function<T, String> cursorDe) {
+        if (obtenidos.size() <= tamano) {
+            return new Pagina<>(List.copyOf(obtenidos), null);
+        }
+        List<T> elementos = List.copyOf(obtenidos.subList(0, tamano));
+        return new Pagina<>(elementos, cursorDe.apply(elementos.get(tamano - 1)));
+    }
+}
@@ -0,0 +1,392 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Genero;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.RegistroGeneros;
+import cr.ac.ucenfotec.dl.Data;
+import cr.ac.ucenfotec.dl.OyenteCambios;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Proyección por columnas del catálogo, para las agregaciones de {@link AnalisisPeliculas}.
+ *
+ * Cada película ocupa una ranura y sus datos se copian a arreglos primitivos paralelos:
+ * <ul>
+ *     <li>año y duración como {@code int};</li>
+ *     <li>clasificación y director como códigos de diccionario ({@code -1} si no tiene);</li>
+ *     <li>los géneros como una columna de bits por ordinal de {@link RegistroGeneros}.</li>
+ * </ul>
+ * Una agregación arma la máscara de ranuras con un AND de bits (vivas y géneros pedidos)
+ * y recorre esa máscara leyendo solo las columnas, sin tocar los objetos {@link Pelicula}.
+ *
+ * Se mantiene al día como {@link OyenteCambios}; cada cambio vuelve a proyectar solo
+ * la película afectada. Las ranuras liberadas se reutilizan.
+ */
+final class ProyeccionColumnar implements OyenteCambios {
+
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    /** Ranura de cada película, por id. */
+    private final Map<String, Integer> ranuras = new HashMap<>();
+    private final BitSet vivas = new BitSet();
+    private int[] anios = new int[CAPACIDAD_INICIAL];
+    private int[] duraciones = new int[CAPACIDAD_INICIAL];
+    private int[] clasificaciones = new int[CAPACIDAD_INICIAL];
+    private int[] directores = new int[CAPACIDAD_INICIAL];
+    /** Columna de ranuras por ordinal de género; null si ninguna película lo tiene. */
+    private final List<BitSet> porGenero = new ArrayList<>();
+
+    private int siguienteRanura;
+    private int[] ranurasLibres = new int[16];
+    private int cantidadLibres;
+
+    /** Diccionario de clasificaciones: llave normalizada y texto tal como apareció primero. */
+    private final Map<String, Integer> codigosClasificacion = new HashMap<>();
+    private final List<String> textosClasificacion = new ArrayList<>();
+    private final Map<Director, Integer> codigosDirector = new HashMap<>();
+    private final List<Director> directoresPorCodigo = new ArrayList<>();
+
+    /** Rango de años vistos; no se encoge al eliminar. */
+    private int anioMinimo = Integer.MAX_VALUE;
+    private int anioMaximo = Integer.MIN_VALUE;
+
+    private ProyeccionColumnar() {
+    }
+
+    /**
+     * Crea la proyección con las películas registradas y la suscribe a {@code data}.
+     *
+     * Se suscribe antes de recorrer el catálogo y con el candado tomado: los cambios
+     * que ocurran mientras tanto esperan y se aplican después, así que no se pierde
+     * ninguno aunque haya sesiones trabajando.
+     *
+     * @param data datos a proyectar
+     * @return proyección al día
+     */
+    static ProyeccionColumnar crear(Data data) {
+        ProyeccionColumnar proyeccion = new ProyeccionColumnar();
+        proyeccion.candado.writeLock().lock();
+        try {
+            data.agregarOyente(proyeccion);
+            for (Pelicula p : data.getPeliculas()) {
+                // El recorrido es débilmente consistente y podría ver dos veces un id
+                proyeccion.quitar(p);
+                proyeccion.proyectar(p);
+            }
+        } finally {
+            proyeccion.candado.writeLock().unlock();
+        }
+        return proyeccion;
+    }
+
+    // ===== MANTENIMIENTO =====
+
+    @Override
+    public void peliculaAgregada(Pelicula p) {
+        reproyectar(p);
+    }
+
+    @Override
+    public void peliculaEliminada(Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            quitar(p);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void peliculaActualizada(Pelicula p) {
+        reproyectar(p);
+    }
+
+    @Override
+    public void generosActualizados(Pelicula p) {
+        reproyectar(p);
+    }
+
+    @Override
+    public void directorAsociado(Pelicula p, Director d) {
+        reproyectar(p);
+    }
+
+    private void reproyectar(Pelicula p) {
+        candado.writeLock().lock();
+        try {
+            quitar(p);
+            proyectar(p);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private void proyectar(Pelicula p) {
+        int ranura = tomarRanura();
+        ranuras.put(p.getId(), ranura);
+        vivas.set(ranura);
+
+        int anio = p.getAnio();
+        anios[ranura] = anio;
+        anioMinimo = Math.min(anioMinimo, anio);
+        anioMaximo = Math.max(anioMaximo, anio);
+        duraciones[ranura] = p.getDuracionMinutos();
+        clasificaciones[ranura] = codigoClasificacion(p.getClasificacion());
+        directores[ranura] = codigoDirector(p.getDirector());
+
+        BitSet generos = p.getMascaraGeneros();
+        for (int g = generos.nextSetBit(0); g >= 0; g = generos.nextSetBit(g + 1)) {
+            while (porGenero.size() <= g) porGenero.add(null);
+            BitSet columna = porGenero.get(g);
+            if (columna == null) {
+                columna = new BitSet();
+                porGenero.set(g, columna);
+            }
+            columna.set(ranura);
+        }
+    }
+
+    private void quitar(Pelicula p) {
+        Integer ranura = ranuras.remove(p.getId());
+        if (ranura == null) return;
+        vivas.clear(ranura);
+        // Hay pocos géneros; recorrer sus columnas evita guardar los de cada película
+        for (int g = 0; g < porGenero.size(); g++) {
+            BitSet columna = porGenero.get(g);
+            if (columna != null && columna.get(ranura)) {
+                columna.clear(ranura);
+                if (columna.isEmpty()) porGenero.set(g, null);
+            }
+        }
+        if (cantidadLibres == ranurasLibres.length) {
+            ranurasLibres = Arrays.copyOf(ranurasLibres, cantidadLibres * 2);
+        }
+        ranurasLibres[cantidadLibres++] = ranura;
+    }
+
+    private int tomarRanura() {
+        if (cantidadLibres > 0) return ranurasLibres[--cantidadLibres];
+        if (siguienteRanura == anios.length) {
+            int capacidad = siguienteRanura * 2;
+            anios = Arrays.copyOf(anios, capacidad);
+            duraciones = Arrays.copyOf(duraciones, capacidad);
+            clasificaciones = Arrays.copyOf(clasificaciones, capacidad);
+            directores = Arrays.copyOf(directores, capacidad);
+        }
+        return siguienteRanura++;
+    }
+
+    private int codigoClasificacion(String clasificacion) {
+        String llave = IndiceCatalogo.normalizar(clasificacion);
+        if (llave == null) return -1;
+        Integer codigo = codigosClasificacion.get(llave);
+        if (codigo == null) {
+            codigo = textosClasificacion.size();
+            codigosClasificacion.put(llave, codigo);
+            textosClasificacion.add(clasificacion.trim());
+        }
+        return codigo;
+    }
+
+    private int codigoDirector(Director director) {
+        if (director == null) return -1;
+        Integer codigo = codigosDirector.get(director);
+        if (codigo == null) {
+            codigo = directoresPorCodigo.size();
+            codigosDirector.put(director, codigo);
+            directoresPorCodigo.add(director);
+        }
+        return codigo;
+    }
+
+    // ===== AGREGACIONES =====
+
+    /**
+     * Acumuladores de un grupo por posición: cantidad, suma, mínimo y máximo.
+     */
+    private static final class Acumuladores {
+
+        final long[] cantidad;
+        final long[] suma;
+        final int[] minimo;
+        final int[] maximo;
+
+        Acumuladores(int grupos) {
+            cantidad = new long[grupos];
+            suma = new long[grupos];
+            minimo = new int[grupos];
+            maximo = new int[grupos];
+            Arrays.fill(minimo, Integer.MAX_VALUE);
+            Arrays.fill(maximo, Integer.MIN_VALUE);
+        }
+
+        ResumenDuracion resumen(int grupo) {
+            return (cantidad[grupo] == 0) ? ResumenDuracion.VACIO
+                    : new ResumenDuracion(cantidad[grupo], suma[grupo], minimo[grupo], maximo[grupo]);
+        }
+    }
+
+    ResumenDuracion resumen(AnalisisPeliculas analisis) {
+        candado.readLock().lock();
+        try {
+            Acumuladores acc = new Acumuladores(1);
+            acumular(analisis, mascara(analisis), null, 0, acc);
+            return acc.resumen(0);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    SortedMap<Integer, ResumenDuracion> porAnio(AnalisisPeliculas analisis) {
+        candado.readLock().lock();
+        try {
+            SortedMap<Integer, ResumenDuracion> resultado = new TreeMap<>();
+            int desde = Math.max(anioMinimo, analisis.getAnioDesde());
+            int hasta = Math.min(anioMaximo, analisis.getAnioHasta());
+            if (desde > hasta) return resultado;
+
+            Acumuladores acc = new Acumuladores(hasta - desde + 1);
+            acumular(analisis, mascara(analisis), anios, desde, acc);
+            for (int i = 0; i <= hasta - desde; i++) {
+                if (acc.cantidad[i] > 0) resultado.put(desde + i, acc.resumen(i));
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    Map<String, ResumenDuracion> porClasificacion(AnalisisPeliculas analisis) {
+        candado.readLock().lock();
+        try {
+            Acumuladores acc = new Acumuladores(textosClasificacion.size());
+            acumular(analisis, mascara(analisis), clasificaciones, 0, acc);
+            Map<String, ResumenDuracion> resultado = new LinkedHashMap<>();
+            for (int c = 0; c < textosClasificacion.size(); c++) {
+                if (acc.cantidad[c] > 0) resultado.put(textosClasificacion.get(c), acc.resumen(c));
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    Map<Director, ResumenDuracion> porDirector(AnalisisPeliculas analisis) {
+        candado.readLock().lock();
+        try {
+            Acumuladores acc = new Acumuladores(directoresPorCodigo.size());
+            acumular(analisis, mascara(analisis), directores, 0, acc);
+            Map<Director, ResumenDuracion> resultado = new LinkedHashMap<>();
+            for (int d = 0; d < directoresPorCodigo.size(); d++) {
+                if (acc.cantidad[d] > 0) resultado.put(directoresPorCodigo.get(d), acc.resumen(d));
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    Map<Genero, ResumenDuracion> porGenero(AnalisisPeliculas analisis) {
+        candado.readLock().lock();
+        try {
+            Map<Genero, ResumenDuracion> resultado = new LinkedHashMap<>();
+            BitSet base = mascara(analisis);
+            if (base.isEmpty()) return resultado;
+            for (int g = 0; g < porGenero.size(); g++) {
+                BitSet columna = porGenero.get(g);
+                if (columna == null) continue;
+                BitSet conGenero = (BitSet) base.clone();
+                conGenero.and(columna);
+                Acumuladores acc = new Acumuladores(1);
+                acumular(analisis, conGenero, null, 0, acc);
+                if (acc.cantidad[0] > 0) resultado.put(RegistroGeneros.porOrdinal(g), acc.resumen(0));
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranuras vivas que tienen todos los géneros pedidos. Un género que no existe o
+     * que ninguna película tiene deja la máscara vacía.
+     */
+    private BitSet mascara(AnalisisPeliculas analisis) {
+        BitSet mascara = (BitSet) vivas.clone();
+        for (String nombre : analisis.getGeneros()) {
+            Genero g = RegistroGeneros.buscar(nombre);
+            BitSet columna = (g != null && g.getOrdinal() < porGenero.size()) ? porGenero.get(g.getOrdinal()) : null;
+            if (columna == null) return new BitSet();
+            mascara.and(columna);
+        }
+        return mascara;
+    }
+
+    /**
+     * Recorre las ranuras de la máscara, aplica los filtros de año, clasificación y
+     * director sobre las columnas y acumula la duración en el grupo que indica
+     * {@code grupo[ranura] - base} (o en el grupo 0 si {@code grupo} es null).
+     * Las ranuras cuyo grupo queda fuera de los acumuladores se omiten.
+     */
+    private void acumular(AnalisisPeliculas analisis, BitSet mascara, int[] grupo, int base, Acumuladores acc) {
+        int desde = analisis.getAnioDesde();
+        int hasta = analisis.getAnioHasta();
+        int clasificacion = -1;
+        if (analisis.getClasificacion() != null) {
+            Integer codigo = codigosClasificacion.get(analisis.getClasificacion());
+            if (codigo == null) return;
+            clasificacion = codigo;
+        }
+        int director = -1;
+        if (analisis.getDirector() != null) {
+            Integer codigo = codigosDirector.get(analisis.getDirector());
+            if (codigo == null) return;
+            director = codigo;
+        }
+        // Todo en variables locales para que el ciclo solo lea arreglos
+        int[] anios = this.anios;
+        int[] duraciones = this.duraciones;
+        int[] clasificaciones = this.clasificaciones;
+        int[] directores = this.directores;
+        long[] cantidad = acc.cantidad;
+        long[] suma = acc.suma;
+        int[] minimo = acc.minimo;
+        int[] maximo = acc.maximo;
+        int grupos = cantidad.length;
+
+        long[] palabras = mascara.toLongArray();
+        for (int w = 0; w < palabras.length; w++) {
+            long palabra = palabras[w];
+            while (palabra != 0) {
+                int r = (w << 6) + Long.numberOfTrailingZeros(palabra);
+                palabra &= palabra - 1;
+
+                int anio = anios[r];
+                if (anio < desde || anio > hasta) continue;
+                if (clasificacion >= 0 && clasificaciones[r] != clasificacion) continue;
+                if (director >= 0 && directores[r] != director) continue;
+                int g = (grupo == null) ? 0 : grupo[r] - base;
+                if (g < 0 || g >= grupos) continue;
+
+                int duracion = duraciones[r];
+                cantidad[g]++;
+                suma[g] += duracion;
+                minimo[g] = Math.min(minimo[g], duracion);
+                maximo[g] = Math.max(maximo[g], duracion);
+            }
+        }
+    }
+}
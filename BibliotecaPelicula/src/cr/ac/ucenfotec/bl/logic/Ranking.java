@@ -0,0 +1,57 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Los primeros N índices por valor (mayor primero; a igual valor, menor índice primero).
+ */
+final class Ranking {
+
+    private final int[] indices;
+    private final int[] valores;
+    private int tamano;
+
+    Ranking(int capacidad) {
+        this.indices = new int[capacidad];
+        this.valores = new int[capacidad];
+    }
+
+    void ofrecer(int indice, int valor) {
+        if (tamano == indices.length && !antes(indice, valor, tamano - 1)) return;
+        int pos = (tamano == indices.length) ? tamano - 1 : tamano++;
+        while (pos > 0 && antes(indice, valor, pos - 1)) {
+            indices[pos] = indices[pos - 1];
+            valores[pos] = valores[pos - 1];
+            pos--;
+        }
+        indices[pos] = indice;
+        valores[pos] = valor;
+    }
+
+    private boolean antes(int indice, int valor, int pos) {
+        return valor > valores[pos] || (valor == valores[pos] && indice < indices[pos]);
+    }
+
+    Ranking combinar(Ranking otro) {
+        for (int i = 0; i < otro.tamano; i++) ofrecer(otro.indices[i], otro.valores[i]);
+        return this;
+    }
+
+    <T> List<Conteo<T>> resolver(T[] elementos) {
+        return resolver(i -> elementos[i]);
+    }
+
+    /**
+     * @param porIndice entidad de cada índice; las que resuelven a null se omiten
+     */
+    <T> List<Conteo<T>> resolver(IntFunction<T> porIndice) {
+        List<Conteo<T>> resultado = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            T elemento = porIndice.apply(indices[i]);
+            if (elemento != null) resultado.add(new Conteo<>(elemento, valores[i]));
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,362 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.User;
+import cr.ac.ucenfotec.dl.Data;
+import cr.ac.ucenfotec.dl.OyenteCambios;
+import cr.ac.ucenfotec.dl.Relacion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Recomendaciones "para usted" por filtrado colaborativo película-película.
+ *
+ * Para cada película guarda sus {@link #VECINOS_POR_PELICULA} películas más parecidas.
+ * La similitud es el índice de Jaccard entre los usuarios que tienen cada una como
+ * favorita, más un aporte por contenido (mismo director, actores y géneros en común)
+ * que permite recomendar películas que todavía nadie marcó. Las candidatas por contenido
+ * son otras películas del director, de cada actor y, con un tope por género, de los
+ * géneros de la película (tomadas de {@link IndiceCatalogo}); así una favorita sin
+ * director ni elenco también tiene vecinos.
+ *
+ * Las listas se calculan con la adyacencia entera de {@link Data} y se invalidan como
+ * {@link OyenteCambios}: un favorito nuevo o quitado invalida la película y las demás
+ * favoritas de ese usuario, que son los pares cuya coincidencia cambió. Las demás
+ * películas conservan su lista aunque el total de seguidores de un vecino haya cambiado;
+ * se corrigen la próxima vez que se invaliden. Una lista invalidada se recalcula la
+ * próxima vez que se necesita.
+ *
+ * Recomendar a un usuario solo mezcla las listas de sus favoritas, sin recorrer a los
+ * demás usuarios.
+ */
+final class Recomendador implements OyenteCambios {
+
+    /** Tamaño de la lista de vecinos de cada película. */
+    static final int VECINOS_POR_PELICULA = 20;
+
+    /** Seguidores que se recorren al recalcular una película muy popular. */
+    private static final int MUESTRA_SEGUIDORES = 2000;
+    /** Películas por director o actor que se consideran como candidatas por contenido. */
+    private static final int CANDIDATOS_POR_RELACION = 200;
+    /** Películas por género que se consideran como candidatas por contenido. */
+    private static final int CANDIDATOS_POR_GENERO = 100;
+    /** Favoritas del usuario que se mezclan al recomendar. */
+    private static final int FAVORITOS_CONSIDERADOS = 200;
+
+    /** Peso máximo del contenido frente al Jaccard de favoritos (que va de 0 a 1). */
+    private static final float PESO_CONTENIDO = 0.3f;
+    private static final float PESO_DIRECTOR = 0.4f;
+    private static final float PESO_ACTORES = 0.4f;
+    private static final float PESO_GENEROS = 0.2f;
+
+    private final Data data;
+    private final IndiceCatalogo indice;
+
+    /** Vecinos y similitudes por número de película, de mayor a menor; null si no tiene. */
+    private int[][] vecinos = new int[64][];
+    private float[][] similitudes = new float[64][];
+    /** Películas cuya lista está al día. */
+    private final BitSet vigentes = new BitSet();
+
+    // Acumulador disperso reutilizable: una película está tocada si su época es la actual
+    private int[] epocas = new int[0];
+    private int[] coincidencias = new int[0];
+    private float[] puntajes = new float[0];
+    private int[] tocadas = new int[64];
+    private int cantidadTocadas;
+    private int epocaActual;
+
+    private Recomendador(Data data, IndiceCatalogo indice) {
+        this.data = data;
+        this.indice = indice;
+    }
+
+    /**
+     * Crea el recomendador y lo suscribe a {@code data}. No calcula nada todavía: cada
+     * lista se arma la primera vez que se recomienda a partir de esa película.
+     *
+     * @param data   datos sobre los que recomendar
+     * @param indice índice del catálogo de {@code data}, para las candidatas por género
+     * @return recomendador suscrito
+     */
+    static Recomendador crear(Data data, IndiceCatalogo indice) {
+        Recomendador recomendador = new Recomendador(data, indice);
+        data.agregarOyente(recomendador);
+        return recomendador;
+    }
+
+    /**
+     * Películas recomendadas para un usuario a partir de sus favoritas, sin incluirlas.
+     *
+     * @param u      usuario
+     * @param limite cantidad máxima de películas
+     * @return de la más a la menos recomendada; vacía si el usuario no tiene favoritas
+     */
+    synchronized List<Pelicula> recomendar(User u, int limite) {
+        int numeroUsuario = data.numeroDe(u);
+        if (numeroUsuario < 0 || limite < 1) return List.of();
+        int[] favoritos = data.vecinos(Relacion.FAVORITOS, numeroUsuario);
+        int desde = Math.max(0, favoritos.length - FAVORITOS_CONSIDERADOS);
+
+        for (int i = desde; i < favoritos.length; i++) {
+            if (!vigentes.get(favoritos[i])) recalcular(favoritos[i]);
+        }
+
+        nuevaEpoca();
+        for (int i = desde; i < favoritos.length; i++) {
+            int f = favoritos[i];
+            int[] lista = (f < vecinos.length) ? vecinos[f] : null;
+            if (lista == null) continue;
+            float[] pesos = similitudes[f];
+            for (int j = 0; j < lista.length; j++) {
+                tocar(lista[j]);
+                puntajes[lista[j]] += pesos[j];
+            }
+        }
+        for (int f : favoritos) {
+            if (f < epocas.length && epocas[f] == epocaActual) puntajes[f] = 0;
+        }
+
+        Mejores mejores = new Mejores(limite);
+        for (int i = 0; i < cantidadTocadas; i++) {
+            int g = tocadas[i];
+            if (puntajes[g] > 0) mejores.ofrecer(g, puntajes[g]);
+        }
+        List<Pelicula> resultado = new ArrayList<>(mejores.tamano);
+        for (int i = 0; i < mejores.tamano; i++) {
+            Pelicula p = data.peliculaPorNumero(mejores.indices[i]);
+            if (p != null) resultado.add(p);
+        }
+        return resultado;
+    }
+
+    /**
+     * Vuelve a calcular los vecinos de una película con los favoritos y relaciones actuales.
+     */
+    private void recalcular(int f) {
+        vigentes.set(f);
+        asegurarCapacidad(f);
+        Pelicula p = data.peliculaPorNumero(f);
+        if (p == null) {
+            vecinos[f] = null;
+            similitudes[f] = null;
+            return;
+        }
+        asegurarAcumulador(data.limitePeliculas());
+        nuevaEpoca();
+
+        // Coincidencias: cuántos seguidores de f tienen también a g como favorita
+        int[] seguidores = data.vecinos(Relacion.SEGUIDORES, f);
+        int muestra = Math.min(seguidores.length, MUESTRA_SEGUIDORES);
+        for (int i = 0; i < muestra; i++) {
+            for (int g : data.vecinos(Relacion.FAVORITOS, seguidores[i])) {
+                if (g != f && g < epocas.length) {
+                    tocar(g);
+                    coincidencias[g]++;
+                }
+            }
+        }
+        float escala = (muestra == 0) ? 0 : (float) seguidores.length / muestra;
+
+        // Candidatas por contenido: otras películas del director, de cada actor y de cada género
+        Director director = p.getDirector();
+        int numeroDirector = data.numeroDe(director);
+        if (numeroDirector >= 0) {
+            tocarCandidatas(f, data.vecinos(Relacion.DIRIGIDAS, numeroDirector));
+        }
+        int[] elenco = data.vecinos(Relacion.ELENCO, f);
+        Arrays.sort(elenco);
+        for (int a : elenco) {
+            tocarCandidatas(f, data.vecinos(Relacion.FILMOGRAFIA, a));
+        }
+        BitSet generos = p.getMascaraGeneros();
+        for (int g = generos.nextSetBit(0); g >= 0; g = generos.nextSetBit(g + 1)) {
+            for (Pelicula q : indice.conGenero(p, g, CANDIDATOS_POR_GENERO)) {
+                int numero = data.numeroDe(q);
+                if (numero >= 0 && numero != f && numero < epocas.length) tocar(numero);
+            }
+        }
+
+        Mejores mejores = new Mejores(VECINOS_POR_PELICULA);
+        for (int i = 0; i < cantidadTocadas; i++) {
+            int g = tocadas[i];
+            float jaccard = 0;
+            if (coincidencias[g] > 0) {
+                float comunes = coincidencias[g] * escala;
+                float union = seguidores.length + data.grado(Relacion.SEGUIDORES, g) - comunes;
+                jaccard = Math.min(1f, comunes / Math.max(1f, union));
+            }
+            // El contenido suma a lo sumo PESO_CONTENIDO; si ni así entra, no se calcula
+            if (mejores.lleno() && jaccard + PESO_CONTENIDO < mejores.minimo()) continue;
+            Pelicula q = data.peliculaPorNumero(g);
+            if (q == null) continue;
+            float total = jaccard + PESO_CONTENIDO * contenido(director, elenco, generos, g, q);
+            if (total > 0) mejores.ofrecer(g, total);
+        }
+        vecinos[f] = Arrays.copyOf(mejores.indices, mejores.tamano);
+        similitudes[f] = Arrays.copyOf(mejores.valores, mejores.tamano);
+    }
+
+    /**
+     * Similitud por contenido entre 0 y 1: mismo director, proporción de actores en
+     * común (sobre el elenco más chico) y Jaccard de géneros.
+     *
+     * @param elenco números de actores de la primera película, ordenados
+     */
+    private float contenido(Director director, int[] elenco, BitSet generos, int g, Pelicula q) {
+        float similitud = 0;
+        if (director != null && director.equals(q.getDirector())) similitud += PESO_DIRECTOR;
+
+        if (elenco.length > 0) {
+            int[] otro = data.vecinos(Relacion.ELENCO, g);
+            if (otro.length > 0) {
+                int comunes = 0;
+                for (int a : otro) {
+                    if (Arrays.binarySearch(elenco, a) >= 0) comunes++;
+                }
+                similitud += PESO_ACTORES * comunes / Math.min(elenco.length, otro.length);
+            }
+        }
+
+        if (!generos.isEmpty()) {
+            BitSet otros = q.getMascaraGeneros();
+            if (!otros.isEmpty()) {
+                BitSet union = (BitSet) generos.clone();
+                union.or(otros);
+                BitSet interseccion = (BitSet) generos.clone();
+                interseccion.and(otros);
+                similitud += PESO_GENEROS * interseccion.cardinality() / union.cardinality();
+            }
+        }
+        return similitud;
+    }
+
+    private void tocarCandidatas(int f, int[] peliculas) {
+        int hasta = Math.min(peliculas.length, CANDIDATOS_POR_RELACION);
+        for (int i = 0; i < hasta; i++) {
+            int g = peliculas[i];
+            if (g != f && g < epocas.length) tocar(g);
+        }
+    }
+
+    // ===== ACUMULADOR =====
+
+    private void nuevaEpoca() {
+        cantidadTocadas = 0;
+        if (++epocaActual == Integer.MAX_VALUE) {
+            Arrays.fill(epocas, 0);
+            epocaActual = 1;
+        }
+    }
+
+    private void tocar(int g) {
+        if (epocas[g] == epocaActual) return;
+        epocas[g] = epocaActual;
+        coincidencias[g] = 0;
+        puntajes[g] = 0;
+        if (cantidadTocadas == tocadas.length) tocadas = Arrays.copyOf(tocadas, cantidadTocadas * 2);
+        tocadas[cantidadTocadas++] = g;
+    }
+
+    private void asegurarAcumulador(int limite) {
+        if (limite <= epocas.length) return;
+        int nuevo = Math.max(limite, epocas.length + (epocas.length >> 1));
+        epocas = Arrays.copyOf(epocas, nuevo);
+        coincidencias = Arrays.copyOf(coincidencias, nuevo);
+        puntajes = Arrays.copyOf(puntajes, nuevo);
+    }
+
+    private void asegurarCapacidad(int f) {
+        if (f < vecinos.length) return;
+        int nuevo = Math.max(f + 1, vecinos.length * 2);
+        vecinos = Arrays.copyOf(vecinos, nuevo);
+        similitudes = Arrays.copyOf(similitudes, nuevo);
+    }
+
+    // ===== EVENTOS =====
+
+    @Override
+    public synchronized void favoritoAgregado(User u, Pelicula p) {
+        invalidarFavoritos(u, p);
+    }
+
+    @Override
+    public synchronized void favoritoEliminado(User u, Pelicula p) {
+        invalidarFavoritos(u, p);
+    }
+
+    @Override
+    public synchronized void actorAsociado(Actor a, Pelicula p) {
+        invalidar(data.numeroDe(p));
+    }
+
+    @Override
+    public synchronized void directorAsociado(Pelicula p, Director d) {
+        invalidar(data.numeroDe(p));
+    }
+
+    @Override
+    public synchronized void generosActualizados(Pelicula p) {
+        invalidar(data.numeroDe(p));
+    }
+
+    /**
+     * Cambió la coincidencia de p con cada una de las demás favoritas del usuario.
+     */
+    private void invalidarFavoritos(User u, Pelicula p) {
+        invalidar(data.numeroDe(p));
+        int numeroUsuario = data.numeroDe(u);
+        if (numeroUsuario < 0) return;
+        for (int g : data.vecinos(Relacion.FAVORITOS, numeroUsuario)) {
+            invalidar(g);
+        }
+    }
+
+    private void invalidar(int numero) {
+        if (numero >= 0) vigentes.clear(numero);
+    }
+
+    /**
+     * Las primeras N películas por similitud (mayor primero; a igual valor, menor número primero).
+     */
+    private static final class Mejores {
+
+        private final int[] indices;
+        private final float[] valores;
+        private int tamano;
+
+        Mejores(int capacidad) {
+            this.indices = new int[capacidad];
+            this.valores = new float[capacidad];
+        }
+
+        boolean lleno() {
+            return tamano == indices.length;
+        }
+
+        float minimo() {
+            return valores[tamano - 1];
+        }
+
+        void ofrecer(int indice, float valor) {
+            if (lleno() && !antes(indice, valor, tamano - 1)) return;
+            int pos = lleno() ? tamano - 1 : tamano++;
+            while (pos > 0 && antes(indice, valor, pos - 1)) {
+                indices[pos] = indices[pos - 1];
+                valores[pos] = valores[pos - 1];
+                pos--;
+            }
+            indices[pos] = indice;
+            valores[pos] = valor;
+        }
+
+        private boolean antes(int indice, float valor, int pos) {
+            return valor > valores[pos] || (valor == valores[pos] && indice < indices[pos]);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reglas de formato de los datos que entran al sistema, compartidas por la consola
+ * y la importación masiva para que ambas acepten exactamente lo mismo.
+ */
+public final class ReglasValidacion {
+
+    /** Primer año aceptado para una película. */
+    public static final int ANIO_MINIMO = 1888;
+
+    private static final Pattern ID = Pattern.compile("[A-Z0-9]+");
+    private static final Pattern EMAIL = Pattern.compile("^[\\w.+-]+@[\\w.-]+\\.[A-Za-z]{2,}$");
+    private static final Pattern CLASIFICACION = Pattern.compile("[A-Za-z0-9+\\-]+");
+
+    private ReglasValidacion() {
+    }
+
+    /**
+     * @param id identificador ya pasado a mayúsculas
+     * @return true si solo tiene letras mayúsculas y números
+     */
+    public static boolean idValido(String id) {
+        return id != null && ID.matcher(id).matches();
+    }
+
+    /**
+     * @param email correo electrónico
+     * @return true si tiene el formato básico usuario@dominio.ext
+     */
+    public static boolean emailValido(String email) {
+        return email != null && EMAIL.matcher(email).matches();
+    }
+
+    /**
+     * @param clasificacion clasificación por edad (ej: "PG-13")
+     * @return true si solo tiene letras, números, "+" y "-"
+     */
+    public static boolean clasificacionValida(String clasificacion) {
+        return clasificacion != null && CLASIFICACION.matcher(clasificacion).matches();
+    }
+
+    /**
+     * @param anio año de la película
+     * @return true si no es anterior a {@link #ANIO_MINIMO}
+     */
+    public static boolean anioValido(int anio) {
+        return anio >= ANIO_MINIMO;
+    }
+}
@@ -0,0 +1,16 @@
+package cr.ac.ucenfotec.bl.logic;
+
+import java.util.List;
+
+/**
+ * Avance o resultado de una importación de {@link ImportadorCatalogo}.
+ *
+ * @param lineas     registros leídos hasta el momento (sin contar el encabezado ni las líneas vacías)
+ * @param importados registros aplicados
+ * @param repetidos  registros válidos que ya existían (mismo id, mismo vínculo o favorito)
+ * @param rechazados registros con formato inválido o que apuntan a algo que no existe
+ * @param errores    descripción de los primeros rechazos, con su número de línea
+ */
+public record ReporteImportacion(long lineas, long importados, long repetidos, long rechazados,
+                                 List<String> errores) {
+}
@@ -0,0 +1,23 @@
+package cr.ac.ucenfotec.bl.logic;
+
+/**
+ * Resultado de una agregación de {@link AnalisisPeliculas}: cuántas películas
+ * cumplen y cómo se reparte su duración.
+ *
+ * @param cantidad       cantidad de películas
+ * @param minutosTotales suma de las duraciones en minutos
+ * @param minimo         duración mínima; 0 si no hay películas
+ * @param maximo         duración máxima; 0 si no hay películas
+ */
+public record ResumenDuracion(long cantidad, long minutosTotales, int minimo, int maximo) {
+
+    /** Resumen de un grupo sin películas. */
+    static final ResumenDuracion VACIO = new ResumenDuracion(0, 0, 0, 0);
+
+    /**
+     * @return duración promedio en minutos; 0 si no hay películas
+     */
+    public double promedio() {
+        return (cantidad == 0) ? 0 : (double) minutosTotales / cantidad;
+    }
+}
@@ -0,0 +1,22 @@
+package cr.ac.ucenfotec.bl.logic;
+
+/**
+ * Resultado del autocompletado: una película, actor o director cuyo nombre
+ * coincide con lo que se lleva escrito.
+ *
+ * @param tipo        tipo de entidad sugerida
+ * @param id          identificador de la entidad
+ * @param texto       título o nombre tal como está registrado
+ * @param popularidad favoritos (películas) o cantidad de películas (actores y directores)
+ */
+public record Sugerencia(Tipo tipo, String id, String texto, int popularidad) {
+
+    /**
+     * Tipos de entidad que puede devolver el autocompletado.
+     */
+    public enum Tipo {
+        PELICULA,
+        ACTOR,
+        DIRECTOR
+    }
+}
@@ -0,0 +1,133 @@
+package cr.ac.ucenfotec.dl;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Una relación guardada con llaves enteras densas: para cada número de origen,
+ * un arreglo de enteros con los números de destino.
+ *
+ * Cada arista ocupa 4 bytes, sin nodos ni referencias intermedias, y recorrer los
+ * vecinos de un origen es leer un arreglo contiguo. Al quitar una arista se mueve
+ * la última al hueco, así que el orden de los vecinos no se conserva.
+ *
+ * No controla duplicados: {@link #agregar} supone que la arista es nueva, y
+ * {@link #agregarSiFalta} la busca antes. Los métodos se sincronizan sobre la instancia.
+ */
+final class Adyacencia {
+
+    private static final int[] VACIO = new int[0];
+    private static final int CAPACIDAD_INICIAL = 16;
+    private static final int CAPACIDAD_INICIAL_VECINOS = 4;
+
+    private int[][] vecinos = new int[CAPACIDAD_INICIAL][];
+    private int[] grados = new int[CAPACIDAD_INICIAL];
+
+    /**
+     * Agrega una arista que todavía no existe.
+     *
+     * @param origen  número de origen
+     * @param destino número de destino
+     */
+    synchronized void agregar(int origen, int destino) {
+        if (origen >= vecinos.length) {
+            int capacidad = Math.max(vecinos.length * 2, origen + 1);
+            vecinos = Arrays.copyOf(vecinos, capacidad);
+            grados = Arrays.copyOf(grados, capacidad);
+        }
+        int[] fila = vecinos[origen];
+        int grado = grados[origen];
+        if (fila == null) {
+            fila = vecinos[origen] = new int[CAPACIDAD_INICIAL_VECINOS];
+        } else if (grado == fila.length) {
+            fila = vecinos[origen] = Arrays.copyOf(fila, grado * 2);
+        }
+        fila[grado] = destino;
+        grados[origen] = grado + 1;
+    }
+
+    /**
+     * Agrega una arista solo si no existe, en O(grado del origen).
+     *
+     * @param origen  número de origen
+     * @param destino número de destino
+     */
+    synchronized void agregarSiFalta(int origen, int destino) {
+        if (posicion(origen, destino) < 0) {
+            agregar(origen, destino);
+        }
+    }
+
+    /**
+     * Quita una arista en O(grado del origen).
+     *
+     * @param origen  número de origen
+     * @param destino número de destino
+     * @return true si existía
+     */
+    synchronized boolean quitar(int origen, int destino) {
+        int pos = posicion(origen, destino);
+        if (pos < 0) return false;
+        int grado = --grados[origen];
+        vecinos[origen][pos] = vecinos[origen][grado];
+        if (grado == 0) {
+            vecinos[origen] = null;
+        }
+        return true;
+    }
+
+    /**
+     * Quita todas las aristas de un origen.
+     *
+     * @param origen número de origen
+     * @return los destinos que tenía
+     */
+    synchronized int[] quitarTodos(int origen) {
+        int[] anteriores = vecinos(origen);
+        if (origen >= 0 && origen < vecinos.length) {
+            vecinos[origen] = null;
+            grados[origen] = 0;
+        }
+        return anteriores;
+    }
+
+    private int posicion(int origen, int destino) {
+        if (origen < 0 || origen >= vecinos.length) return -1;
+        int[] fila = vecinos[origen];
+        for (int i = 0; i < grados[origen]; i++) {
+            if (fila[i] == destino) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @param origen número de origen
+     * @return copia de los destinos, sin orden garantizado
+     */
+    synchronized int[] vecinos(int origen) {
+        if (origen < 0 || origen >= vecinos.length || grados[origen] == 0) return VACIO;
+        return Arrays.copyOf(vecinos[origen], grados[origen]);
+    }
+
+    /**
+     * Marca en un mapa de bits los destinos de un origen.
+     *
+     * @param origen número de origen
+     * @param bits   mapa donde se encienden los destinos
+     */
+    synchronized void marcar(int origen, BitSet bits) {
+        if (origen < 0 || origen >= vecinos.length) return;
+        int[] fila = vecinos[origen];
+        for (int i = 0; i < grados[origen]; i++) {
+            bits.set(fila[i]);
+        }
+    }
+
+    /**
+     * @param origen número de origen
+     * @return cantidad de destinos
+     */
+    synchronized int grado(int origen) {
+        return (origen < 0 || origen >= grados.length) ? 0 : grados[origen];
+    }
+}
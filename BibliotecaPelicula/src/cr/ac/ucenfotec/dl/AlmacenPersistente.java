@@ -0,0 +1,460 @@
+package cr.ac.ucenfotec.dl;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Administrador;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Genero;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.RegistroGeneros;
+import cr.ac.ucenfotec.bl.entities.User;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Motor de persistencia durable para {@link Data}.
+ *
+ * Combina una {@link Bitacora} de escritura anticipada con {@link Instantanea}s
+ * periódicas dentro de un directorio:
+ * <ul>
+ *     <li>{@code catalogo.mcat} (opcional): {@link CatalogoMapeado} de solo lectura con la
+ *     base del catálogo de películas; lo genera {@link #compactarCatalogo(Path)}.</li>
+ *     <li>{@code instantanea.bin}: estado completo hasta cierto LSN.</li>
+ *     <li>{@code bitacora.log}: mutaciones posteriores a la instantánea.</li>
+ * </ul>
+ *
+ * Al abrir se carga la última instantánea y se reproduce solo la cola de la
+ * bitácora, de modo que el tiempo de recuperación depende del tamaño de esa cola
+ * y no de toda la historia. Luego se registra como {@link OyenteCambios} y anota
+ * cada mutación de {@link Data} en la bitácora.
+ *
+ * Los registros se confirman en grupo: al completar {@link #TAMANO_GRUPO} registros
+ * o cada {@link #INTERVALO_CONFIRMACION_MS} milisegundos, lo que ocurra primero.
+ * La mutación regresa antes de esa confirmación, así que si el proceso o la máquina
+ * caen en ese intervalo se pierden los últimos cambios aunque ya se hayan reportado
+ * como hechos; quien necesite garantizar uno llama a {@link #sincronizar()}.
+ *
+ * Si la bitácora no se puede escribir, el almacén queda fallido: {@link Data} deja de
+ * aceptar mutaciones (lanzan {@link IllegalStateException}) y {@link #sincronizar()}
+ * reporta el error. El cambio que estaba en curso ya quedó aplicado en memoria y se
+ * avisa al resto de los oyentes, pero puede no estar en la bitácora.
+ */
+public class AlmacenPersistente implements OyenteCambios, Closeable {
+
+    static final String ARCHIVO_INSTANTANEA = "instantanea.bin";
+    static final String ARCHIVO_BITACORA = "bitacora.log";
+    public static final String ARCHIVO_CATALOGO = "catalogo.mcat";
+
+    private static final int TAMANO_GRUPO = 256;
+    private static final long INTERVALO_CONFIRMACION_MS = 50;
+    private static final long REGISTROS_POR_INSTANTANEA = 100_000;
+
+    private final Path directorio;
+    private final Data data;
+    private final Bitacora bitacora;
+    private final ScheduledExecutorService confirmador;
+    private final CatalogoMapeado catalogo;
+
+    private long registrosDesdeInstantanea;
+    private final AtomicBoolean instantaneaPendiente = new AtomicBoolean();
+    /** Error de escritura que dejó al almacén fallido, o null. */
+    private volatile IOException falla;
+
+    private AlmacenPersistente(Path directorio, Data data, Bitacora bitacora, CatalogoMapeado catalogo,
+                               long registrosEnCola) {
+        this.directorio = directorio;
+        this.catalogo = catalogo;
+        this.data = data;
+        this.bitacora = bitacora;
+        this.registrosDesdeInstantanea = registrosEnCola;
+        this.confirmador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bitacora-confirmador");
+            t.setDaemon(true);
+            return t;
+        });
+        this.confirmador.scheduleWithFixedDelay(this::confirmarSilencioso,
+                INTERVALO_CONFIRMACION_MS, INTERVALO_CONFIRMACION_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre (o crea) el almacén en {@code directorio}, recupera su contenido dentro
+     * de {@code data} y empieza a registrar las mutaciones posteriores.
+     * Si el directorio contiene un catálogo mapeado, se adjunta antes de recuperar.
+     *
+     * @param directorio directorio de trabajo del almacén
+     * @param data       contenedor de datos vacío que se llenará con lo recuperado
+     * @return almacén listo para usarse
+     * @throws IOException si no se puede leer o crear el almacén
+     */
+    public static AlmacenPersistente abrir(Path directorio, Data data) throws IOException {
+        Files.createDirectories(directorio);
+        Path archivoBitacora = directorio.resolve(ARCHIVO_BITACORA);
+
+        CatalogoMapeado catalogo = null;
+        Path archivoCatalogo = directorio.resolve(ARCHIVO_CATALOGO);
+        if (Files.exists(archivoCatalogo)) {
+            catalogo = CatalogoMapeado.abrir(archivoCatalogo);
+            data.adjuntarCatalogo(catalogo);
+        }
+
+        long lsnInstantanea = Instantanea.cargar(directorio.resolve(ARCHIVO_INSTANTANEA), data);
+        long[] aplicados = {0};
+        long ultimoLsn = Bitacora.reproducir(archivoBitacora, lsnInstantanea, (tipo, in) -> {
+            aplicar(data, tipo, in);
+            aplicados[0]++;
+        });
+
+        Bitacora bitacora = new Bitacora(archivoBitacora, ultimoLsn, TAMANO_GRUPO);
+        AlmacenPersistente almacen = new AlmacenPersistente(directorio, data, bitacora, catalogo, aplicados[0]);
+        data.agregarOyente(almacen);
+        return almacen;
+    }
+
+    /**
+     * Reescribe {@code catalogo.mcat} con todas las películas vivas del almacén, de modo
+     * que las películas agregadas o modificadas desde el último catálogo pasan al archivo
+     * mapeado y la instantánea vuelve a guardar de ellas solo la referencia (director y
+     * elenco). Así se arma el catálogo la primera vez y se compacta después.
+     *
+     * Trabaja sobre el directorio cerrado: no debe haber otro almacén abierto en él.
+     *
+     * @param directorio directorio del almacén
+     * @return cantidad de películas que quedaron en el catálogo
+     * @throws IOException si falla la lectura o la escritura (por ejemplo, con más de 64 géneros)
+     */
+    public static int compactarCatalogo(Path directorio) throws IOException {
+        int cantidad;
+        Data data = new Data();
+        AlmacenPersistente almacen = abrir(directorio, data);
+        try {
+            List<Pelicula> peliculas = data.getPeliculas();
+            cantidad = peliculas.size();
+            CatalogoMapeado.escribir(directorio.resolve(ARCHIVO_CATALOGO), peliculas);
+        } finally {
+            almacen.close();
+        }
+        // Al reabrir, las películas salen del catálogo nuevo y la instantánea anterior se
+        // fusiona con ellas; el cierre guarda una instantánea que ya solo las referencia.
+        abrir(directorio, new Data()).close();
+        return cantidad;
+    }
+
+    /**
+     * Escribe una instantánea con el estado actual y vacía la bitácora.
+     *
+     * Toma el candado exclusivo de {@link Data} antes que el del almacén (el mismo
+     * orden que siguen las mutaciones), de modo que la instantánea ve un estado
+     * estable sin arriesgar un interbloqueo con hilos que están notificando.
+     *
+     * @throws IOException si falla la escritura
+     */
+    public void crearInstantanea() throws IOException {
+        Lock exclusivo = data.candadoExclusivo();
+        exclusivo.lock();
+        try {
+            synchronized (this) {
+                bitacora.confirmar();
+                Instantanea.escribir(directorio.resolve(ARCHIVO_INSTANTANEA), data, bitacora.getUltimoLsn());
+                bitacora.reiniciar();
+                registrosDesdeInstantanea = 0;
+                instantaneaPendiente.set(false);
+            }
+        } finally {
+            exclusivo.unlock();
+        }
+    }
+
+    /**
+     * Fuerza la escritura de los registros pendientes.
+     *
+     * @throws IOException si falla la escritura
+     */
+    public void sincronizar() throws IOException {
+        IOException f = falla;
+        if (f != null) throw new IOException("El almacén falló y ya no registra cambios", f);
+        try {
+            bitacora.confirmar();
+        } catch (IOException e) {
+            fallar(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Deja de escuchar cambios, guarda una instantánea final y cierra la bitácora.
+     *
+     * @throws IOException si falla la escritura final
+     */
+    @Override
+    public void close() throws IOException {
+        data.removerOyente(this);
+        confirmador.shutdown();
+        try {
+            confirmador.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        crearInstantanea();
+        synchronized (this) {
+            bitacora.close();
+            if (catalogo != null) {
+                catalogo.close();
+            }
+        }
+    }
+
+    // ===== REGISTRO DE MUTACIONES =====
+
+    /**
+     * Agrega un registro a la bitácora. Se invoca desde el hilo que hizo la mutación,
+     * con los candados de {@link Data} tomados; por eso la instantánea periódica no se
+     * escribe aquí, sino que se encarga al hilo confirmador.
+     *
+     * Un error de escritura no se lanza: la mutación ya está aplicada y una excepción
+     * aquí dejaría sin aviso al resto de los oyentes (índices incluidos). En cambio el
+     * almacén queda fallido y las mutaciones siguientes se rechazan.
+     */
+    private synchronized void registrar(byte tipo, Bitacora.EscritorRegistro escritor) {
+        if (falla != null) return;
+        try {
+            bitacora.agregar(tipo, escritor);
+        } catch (IOException e) {
+            fallar(e);
+            return;
+        }
+        if (++registrosDesdeInstantanea >= REGISTROS_POR_INSTANTANEA
+                && instantaneaPendiente.compareAndSet(false, true)) {
+            try {
+                confirmador.execute(this::instantaneaSilenciosa);
+            } catch (RejectedExecutionException e) {
+                // El almacén se está cerrando; close() escribe la instantánea final
+            }
+        }
+    }
+
+    private void instantaneaSilenciosa() {
+        try {
+            crearInstantanea();
+        } catch (IOException e) {
+            instantaneaPendiente.set(false);
+            informar("Error al escribir la instantánea", e);
+        }
+    }
+
+    private void confirmarSilencioso() {
+        if (falla != null) return;
+        try {
+            bitacora.confirmar();
+        } catch (IOException e) {
+            fallar(e);
+        }
+    }
+
+    /**
+     * Marca el almacén como fallido y hace que {@link Data} rechace las mutaciones
+     * siguientes, para no seguir aceptando cambios que no quedarían guardados.
+     */
+    private synchronized void fallar(IOException e) {
+        if (falla != null) return;
+        falla = e;
+        data.rechazarMutaciones("No se pueden guardar cambios: la bitácora falló (" + e + ")");
+        informar("Error al escribir la bitácora; no se aceptan más cambios", e);
+    }
+
+    /**
+     * Informa un error que no se puede lanzar porque ocurre en el hilo confirmador o
+     * durante una notificación. Todos salen por la salida de errores, con el tipo de
+     * la excepción, ya que algunas (como {@code ClosedChannelException}) no traen mensaje.
+     */
+    private static void informar(String contexto, IOException e) {
+        System.err.println(contexto + ": " + e);
+    }
+
+    @Override
+    public void peliculaAgregada(Pelicula p) {
+        registrar(Bitacora.PELICULA_AGREGADA, out -> FormatoBinario.escribirPelicula(out, p));
+    }
+
+    @Override
+    public void peliculaEliminada(Pelicula p) {
+        registrar(Bitacora.PELICULA_ELIMINADA, out -> FormatoBinario.escribirTexto(out, p.getId()));
+    }
+
+    @Override
+    public void peliculaActualizada(Pelicula p) {
+        registrar(Bitacora.PELICULA_ACTUALIZADA, out -> {
+            FormatoBinario.escribirTexto(out, p.getId());
+            FormatoBinario.escribirTexto(out, p.getTitulo());
+            out.writeInt(p.getAnio());
+            out.writeInt(p.getDuracionMinutos());
+            FormatoBinario.escribirTexto(out, p.getClasificacion());
+        });
+    }
+
+    @Override
+    public void fichaActualizada(Pelicula p) {
+        registrar(Bitacora.FICHA_ACTUALIZADA, out -> {
+            FormatoBinario.escribirTexto(out, p.getId());
+            FormatoBinario.escribirTexto(out, (p.getFicha() != null) ? p.getFicha().sinopsis() : null);
+        });
+    }
+
+    @Override
+    public void generosActualizados(Pelicula p) {
+        registrar(Bitacora.GENEROS_ACTUALIZADOS, out -> {
+            FormatoBinario.escribirTexto(out, p.getId());
+            List<Genero> generos = p.getGeneros();
+            out.writeInt(generos.size());
+            for (Genero g : generos) {
+                FormatoBinario.escribirTexto(out, g.getNombre());
+            }
+        });
+    }
+
+    @Override
+    public void usuarioAgregado(User u) {
+        registrar(Bitacora.USUARIO_AGREGADO, out -> {
+            FormatoBinario.escribirTexto(out, u.getId());
+            FormatoBinario.escribirTexto(out, u.getUsername());
+            FormatoBinario.escribirTexto(out, u.getEmail());
+        });
+    }
+
+    @Override
+    public void adminAgregado(Administrador a) {
+        registrar(Bitacora.ADMIN_AGREGADO, out -> Instantanea.escribirAdmin(out, a));
+    }
+
+    @Override
+    public void directorAgregado(Director d) {
+        registrar(Bitacora.DIRECTOR_AGREGADO, out -> {
+            FormatoBinario.escribirTexto(out, d.getId());
+            FormatoBinario.escribirTexto(out, d.getNombre());
+        });
+    }
+
+    @Override
+    public void actorAgregado(Actor a) {
+        registrar(Bitacora.ACTOR_AGREGADO, out -> {
+            FormatoBinario.escribirTexto(out, a.getId());
+            FormatoBinario.escribirTexto(out, a.getNombre());
+        });
+    }
+
+    @Override
+    public void actorAsociado(Actor a, Pelicula p) {
+        registrar(Bitacora.ACTOR_ASOCIADO, out -> {
+            FormatoBinario.escribirTexto(out, a.getId());
+            FormatoBinario.escribirTexto(out, p.getId());
+        });
+    }
+
+    @Override
+    public void directorAsociado(Pelicula p, Director d) {
+        registrar(Bitacora.DIRECTOR_ASOCIADO, out -> {
+            FormatoBinario.escribirTexto(out, p.getId());
+            FormatoBinario.escribirTexto(out, d.getId());
+        });
+    }
+
+    @Override
+    public void favoritoAgregado(User u, Pelicula p) {
+        registrar(Bitacora.FAVORITO_AGREGADO, out -> {
+            FormatoBinario.escribirTexto(out, u.getId());
+            FormatoBinario.escribirTexto(out, p.getId());
+        });
+    }
+
+    @Override
+    public void favoritoEliminado(User u, Pelicula p) {
+        registrar(Bitacora.FAVORITO_ELIMINADO, out -> {
+            FormatoBinario.escribirTexto(out, u.getId());
+            FormatoBinario.escribirTexto(out, p.getId());
+        });
+    }
+
+    // ===== RECUPERACIÓN =====
+
+    /**
+     * Aplica sobre {@code data} un registro leído de la bitácora.
+     * Durante la recuperación el almacén aún no está registrado como oyente,
+     * así que estas operaciones no vuelven a escribirse en la bitácora.
+     */
+    private static void aplicar(Data data, byte tipo, DataInputStream in) throws IOException {
+        switch (tipo) {
+            case Bitacora.PELICULA_AGREGADA -> data.agregarPelicula(FormatoBinario.leerPelicula(in, data));
+            case Bitacora.PELICULA_ELIMINADA -> data.eliminarPelicula(FormatoBinario.leerTexto(in));
+            case Bitacora.PELICULA_ACTUALIZADA -> {
+                Pelicula p = data.buscarPeliculaPorId(FormatoBinario.leerTexto(in));
+                String titulo = FormatoBinario.leerTexto(in);
+                int anio = in.readInt();
+                int duracion = in.readInt();
+                String clasificacion = FormatoBinario.leerTexto(in);
+                data.actualizarPelicula(p, titulo, anio, duracion, clasificacion);
+            }
+            case Bitacora.FICHA_ACTUALIZADA -> {
+                Pelicula p = data.buscarPeliculaPorId(FormatoBinario.leerTexto(in));
+                String sinopsis = FormatoBinario.leerTexto(in);
+                data.actualizarFicha(p, (sinopsis != null) ? new Pelicula.Ficha(sinopsis) : null);
+            }
+            case Bitacora.GENEROS_ACTUALIZADOS -> {
+                Pelicula p = data.buscarPeliculaPorId(FormatoBinario.leerTexto(in));
+                int cantidad = in.readInt();
+                List<Genero> generos = new ArrayList<>(cantidad);
+                for (int i = 0; i < cantidad; i++) {
+                    generos.add(RegistroGeneros.interno(FormatoBinario.leerTexto(in)));
+                }
+                data.actualizarGeneros(p, generos);
+            }
+            case Bitacora.USUARIO_AGREGADO -> {
+                String id = FormatoBinario.leerTexto(in);
+                String username = FormatoBinario.leerTexto(in);
+                String email = FormatoBinario.leerTexto(in);
+                data.agregarUsuario(new User(id, username, email));
+            }
+            case Bitacora.ADMIN_AGREGADO -> data.agregarAdmin(Instantanea.leerAdmin(in));
+            case Bitacora.DIRECTOR_AGREGADO -> {
+                String id = FormatoBinario.leerTexto(in);
+                String nombre = FormatoBinario.leerTexto(in);
+                data.agregarDirector(new Director(id, nombre, new ArrayList<>()));
+            }
+            case Bitacora.ACTOR_AGREGADO -> {
+                String id = FormatoBinario.leerTexto(in);
+                String nombre = FormatoBinario.leerTexto(in);
+                data.agregarActor(new Actor(id, nombre, new ArrayList<>()));
+            }
+            case Bitacora.ACTOR_ASOCIADO -> {
+                Actor a = data.buscarActorPorId(FormatoBinario.leerTexto(in));
+                Pelicula p = data.buscarPeliculaPorId(FormatoBinario.leerTexto(in));
+                data.asociarActorConPelicula(a, p);
+            }
+            case Bitacora.DIRECTOR_ASOCIADO -> {
+                Pelicula p = data.buscarPeliculaPorId(FormatoBinario.leerTexto(in));
+                Director d = data.buscarDirectorPorId(FormatoBinario.leerTexto(in));
+                data.asociarPeliculaConDirector(p, d);
+            }
+            case Bitacora.FAVORITO_AGREGADO -> {
+                User u = data.buscarUsuarioPorId(FormatoBinario.leerTexto(in));
+                Pelicula p = data.buscarPeliculaPorId(FormatoBinario.leerTexto(in));
+                data.agregarFavorito(u, p);
+            }
+            case Bitacora.FAVORITO_ELIMINADO -> {
+                User u = data.buscarUsuarioPorId(FormatoBinario.leerTexto(in));
+                Pelicula p = data.buscarPeliculaPorId(FormatoBinario.leerTexto(in));
+                data.eliminarFavorito(u, p);
+            }
+            default -> throw new IOException("Tipo de registro desconocido en la bitácora: " + tipo);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package cr.ac.ucenfotec.dl;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Bitácora de escritura anticipada (write-ahead log) de solo agregado.
+ *
+ * Cada registro tiene el formato:
+ * <pre>
+ *   int  longitud del cuerpo
+ *   long número de secuencia (LSN)
+ *   byte tipo de operación
+ *   byte[] cuerpo
+ *   int  CRC32 de LSN + tipo + cuerpo
+ * </pre>
+ *
+ * Los registros se acumulan en memoria y se escriben en grupo (group commit):
+ * una sola escritura y un solo {@code force} por lote, ya sea al llenarse el
+ * grupo o cuando se llama a {@link #confirmar()}. Al reproducir, un registro
+ * incompleto o con CRC inválido al final del archivo se considera una escritura
+ * interrumpida y se trunca.
+ */
+final class Bitacora implements Closeable {
+
+    static final byte PELICULA_AGREGADA = 1;
+    static final byte PELICULA_ELIMINADA = 2;
+    static final byte PELICULA_ACTUALIZADA = 3;
+    static final byte FICHA_ACTUALIZADA = 4;
+    static final byte USUARIO_AGREGADO = 5;
+    static final byte ADMIN_AGREGADO = 6;
+    static final byte DIRECTOR_AGREGADO = 7;
+    static final byte ACTOR_AGREGADO = 8;
+    static final byte ACTOR_ASOCIADO = 9;
+    static final byte DIRECTOR_ASOCIADO = 10;
+    static final byte FAVORITO_AGREGADO = 11;
+    static final byte FAVORITO_ELIMINADO = 12;
+    static final byte GENEROS_ACTUALIZADOS = 13;
+
+    /** Tamaño de la cabecera: longitud + LSN + tipo. */
+    private static final int CABECERA = Integer.BYTES + Long.BYTES + 1;
+
+    /** Longitud máxima aceptada para un cuerpo; una mayor indica un registro dañado. */
+    private static final int MAXIMO_CUERPO = 16 * 1024 * 1024;
+
+    /**
+     * Escribe el cuerpo de un registro.
+     */
+    @FunctionalInterface
+    interface EscritorRegistro {
+        void escribir(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Aplica un registro leído durante la recuperación.
+     */
+    @FunctionalInterface
+    interface AplicadorRegistro {
+        void aplicar(byte tipo, DataInputStream in) throws IOException;
+    }
+
+    private final FileChannel canal;
+    private final int tamanoGrupo;
+
+    private final ByteArrayOutputStream cuerpo = new ByteArrayOutputStream(256);
+    private final DataOutputStream salidaCuerpo = new DataOutputStream(cuerpo);
+    private final ByteArrayOutputStream pendientes = new ByteArrayOutputStream(64 * 1024);
+    private final DataOutputStream salidaPendientes = new DataOutputStream(pendientes);
+    private final CRC32 crc = new CRC32();
+
+    private long ultimoLsn;
+    private int registrosPendientes;
+
+    /**
+     * Abre la bitácora para agregar registros al final.
+     *
+     * @param archivo     archivo de la bitácora
+     * @param ultimoLsn   último LSN ya usado (recuperado de la instantánea o de la reproducción)
+     * @param tamanoGrupo cantidad de registros que dispara una confirmación automática
+     * @throws IOException si no se puede abrir el archivo
+     */
+    Bitacora(Path archivo, long ultimoLsn, int tamanoGrupo) throws IOException {
+        this.canal = FileChannel.open(archivo,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.ultimoLsn = ultimoLsn;
+        this.tamanoGrupo = tamanoGrupo;
+    }
+
+    /**
+     * Agrega un registro al grupo pendiente.
+     *
+     * @param tipo     tipo de operación
+     * @param escritor escribe el cuerpo del registro
+     * @return LSN asignado al registro
+     * @throws IOException si falla la escritura del grupo
+     */
+    synchronized long agregar(byte tipo, EscritorRegistro escritor) throws IOException {
+        cuerpo.reset();
+        escritor.escribir(salidaCuerpo);
+        long lsn = ++ultimoLsn;
+
+        crc.reset();
+        crc.update(ByteBuffer.allocate(Long.BYTES + 1).putLong(lsn).put(tipo).array());
+        crc.update(cuerpo.toByteArray());
+
+        salidaPendientes.writeInt(cuerpo.size());
+        salidaPendientes.writeLong(lsn);
+        salidaPendientes.writeByte(tipo);
+        cuerpo.writeTo(salidaPendientes);
+        salidaPendientes.writeInt((int) crc.getValue());
+
+        if (++registrosPendientes >= tamanoGrupo) {
+            confirmar();
+        }
+        return lsn;
+    }
+
+    /**
+     * Escribe en disco todos los registros pendientes y fuerza su persistencia.
+     *
+     * Si la escritura falla, el archivo se trunca al largo que tenía antes y los
+     * registros quedan pendientes: un nuevo intento los escribe una sola vez, sin
+     * dejar detrás la parte que alcanzó a escribirse.
+     *
+     * @throws IOException si falla la escritura
+     */
+    synchronized void confirmar() throws IOException {
+        if (registrosPendientes == 0) return;
+        long largoAnterior = canal.size();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(pendientes.toByteArray());
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+        } catch (IOException e) {
+            try {
+                canal.truncate(largoAnterior);
+            } catch (IOException sinTruncar) {
+                e.addSuppressed(sinTruncar);
+            }
+            throw e;
+        }
+        pendientes.reset();
+        registrosPendientes = 0;
+    }
+
+    /**
+     * Vacía la bitácora luego de que una instantánea cubrió todos sus registros.
+     * Los registros pendientes se descartan porque ya forman parte de la instantánea.
+     *
+     * @throws IOException si no se puede truncar el archivo
+     */
+    synchronized void reiniciar() throws IOException {
+        pendientes.reset();
+        registrosPendientes = 0;
+        canal.truncate(0);
+        canal.force(true);
+    }
+
+    synchronized long getUltimoLsn() {
+        return ultimoLsn;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        confirmar();
+        canal.close();
+    }
+
+    /**
+     * Reproduce los registros de la bitácora con LSN mayor a {@code desdeLsn}.
+     * Si el final del archivo está incompleto o corrupto, se trunca en el último
+     * registro válido.
+     *
+     * @param archivo   archivo de la bitácora
+     * @param desdeLsn  LSN ya cubierto por la instantánea
+     * @param aplicador acción a ejecutar por cada registro a reproducir
+     * @return último LSN encontrado (o {@code desdeLsn} si no hay registros nuevos)
+     * @throws IOException si ocurre un error de lectura
+     */
+    static long reproducir(Path archivo, long desdeLsn, AplicadorRegistro aplicador) throws IOException {
+        if (!Files.exists(archivo)) return desdeLsn;
+
+        long ultimo = desdeLsn;
+        long bytesValidos = 0;
+        CRC32 crc = new CRC32();
+
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(archivo), 64 * 1024);
+             DataInputStream in = new DataInputStream(is)) {
+            while (true) {
+                int longitud;
+                long lsn;
+                byte tipo;
+                byte[] datos;
+                int crcLeido;
+                try {
+                    longitud = in.readInt();
+                    if (longitud < 0 || longitud > MAXIMO_CUERPO) break;
+                    lsn = in.readLong();
+                    tipo = in.readByte();
+                    datos = new byte[longitud];
+                    in.readFully(datos);
+                    crcLeido = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                crc.reset();
+                crc.update(ByteBuffer.allocate(Long.BYTES + 1).putLong(lsn).put(tipo).array());
+                crc.update(datos);
+                if ((int) crc.getValue() != crcLeido) break;
+
+                // Un LSN repetido viene de un grupo que se reintentó sin poder truncar el primero
+                if (lsn > ultimo) {
+                    aplicador.aplicar(tipo, new DataInputStream(new ByteArrayInputStream(datos)));
+                    ultimo = lsn;
+                }
+                bytesValidos += CABECERA + longitud + Integer.BYTES;
+            }
+        }
+
+        if (bytesValidos < Files.size(archivo)) {
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+                canal.truncate(bytesValidos);
+            }
+        }
+        return ultimo;
+    }
+}
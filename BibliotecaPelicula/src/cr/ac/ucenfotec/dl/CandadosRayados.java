@@ -0,0 +1,40 @@
+package cr.ac.ucenfotec.dl;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto fijo de candados repartidos por hash (lock striping).
+ *
+ * Dos llaves distintas pueden compartir candado, pero nunca se crea un candado
+ * por entidad: la memoria es constante y las operaciones sobre entidades
+ * distintas casi nunca compiten entre sí.
+ */
+final class CandadosRayados {
+
+    private final ReentrantLock[] candados;
+    private final int mascara;
+
+    /**
+     * @param cantidad cantidad mínima de candados; se redondea a potencia de dos
+     */
+    CandadosRayados(int cantidad) {
+        int tamano = Integer.highestOneBit(Math.max(1, cantidad - 1)) << 1;
+        this.candados = new ReentrantLock[tamano];
+        for (int i = 0; i < tamano; i++) {
+            candados[i] = new ReentrantLock();
+        }
+        this.mascara = tamano - 1;
+    }
+
+    /**
+     * Devuelve el candado que le corresponde a una llave.
+     *
+     * @param llave objeto cuyo {@code hashCode} decide el candado
+     * @return candado asignado
+     */
+    ReentrantLock para(Object llave) {
+        int h = (llave != null) ? llave.hashCode() : 0;
+        h ^= (h >>> 16);
+        return candados[h & mascara];
+    }
+}
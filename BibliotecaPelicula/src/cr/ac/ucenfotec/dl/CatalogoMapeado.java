@@ -0,0 +1,388 @@
+package cr.ac.ucenfotec.dl;
+
+import cr.ac.ucenfotec.bl.entities.Genero;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.RegistroGeneros;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Archivo binario de solo lectura con el catálogo de películas, abierto con
+ * {@link FileChannel#map}.
+ *
+ * El formato es columnar:
+ * <ul>
+ *     <li>Columnas de ancho fijo para año, duración, clasificación (codificada con
+ *     un diccionario) y géneros (máscara de bits sobre un diccionario de hasta 64).</li>
+ *     <li>Tablas de desplazamientos hacia un área de textos para id, título y sinopsis.</li>
+ *     <li>Una permutación de las filas ordenada por id normalizado, para buscar por id
+ *     con búsqueda binaria sin cargar nada en memoria.</li>
+ * </ul>
+ *
+ * Abrir el archivo no lee las filas: el sistema operativo trae a memoria solo las
+ * páginas que se consultan. {@link PeliculaMapeada} decodifica cada campo al pedirlo.
+ *
+ * Al usar un solo mapeo, el archivo está limitado a 2 GB.
+ */
+public final class CatalogoMapeado implements Closeable {
+
+    private static final int MAGICO = 0x4D434154; // "MCAT"
+    private static final int VERSION = 1;
+    private static final int MAXIMO_GENEROS = Long.SIZE;
+    /** Cada fila guarda el código de su clasificación en un short; -1 es "sin clasificación". */
+    private static final int MAXIMO_CLASIFICACIONES = Short.MAX_VALUE + 1;
+
+    /** Cabecera: mágico, versión, cantidad y 9 posiciones de secciones. */
+    private static final int TAMANO_CABECERA = 12 * Integer.BYTES;
+
+    private final FileChannel canal;
+    private final MappedByteBuffer buffer;
+    private final int cantidad;
+
+    private final String[] clasificaciones;
+    private final Genero[] generos;
+
+    private final int posAnio;
+    private final int posDuracion;
+    private final int posClasificacion;
+    private final int posGeneros;
+    private final int posId;
+    private final int posTitulo;
+    private final int posSinopsis;
+    private final int posOrden;
+
+    private CatalogoMapeado(FileChannel canal, MappedByteBuffer buffer) throws IOException {
+        this.canal = canal;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGICO || buffer.getInt(4) != VERSION) {
+            throw new IOException("Formato de catálogo no reconocido");
+        }
+        this.cantidad = buffer.getInt(8);
+        int posDiccionarios = buffer.getInt(12);
+        this.posAnio = buffer.getInt(16);
+        this.posDuracion = buffer.getInt(20);
+        this.posClasificacion = buffer.getInt(24);
+        this.posGeneros = buffer.getInt(28);
+        this.posId = buffer.getInt(32);
+        this.posTitulo = buffer.getInt(36);
+        this.posSinopsis = buffer.getInt(40);
+        this.posOrden = buffer.getInt(44);
+
+        // Los diccionarios son pequeños y se cargan completos
+        int pos = posDiccionarios;
+        int cantidadClasificaciones = buffer.getInt(pos);
+        pos += Integer.BYTES;
+        this.clasificaciones = new String[cantidadClasificaciones];
+        for (int i = 0; i < cantidadClasificaciones; i++) {
+            clasificaciones[i] = leerTexto(pos);
+            pos += Integer.BYTES + buffer.getInt(pos);
+        }
+        int cantidadGeneros = buffer.getInt(pos);
+        pos += Integer.BYTES;
+        this.generos = new Genero[cantidadGeneros];
+        for (int i = 0; i < cantidadGeneros; i++) {
+            generos[i] = RegistroGeneros.interno(leerTexto(pos));
+            pos += Integer.BYTES + buffer.getInt(pos);
+        }
+    }
+
+    /**
+     * Abre un catálogo existente mapeándolo en memoria.
+     *
+     * @param archivo archivo generado con {@link #escribir}
+     * @return catálogo abierto
+     * @throws IOException si el archivo no existe o no tiene el formato esperado
+     */
+    public static CatalogoMapeado abrir(Path archivo) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            return new CatalogoMapeado(canal, buffer);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    // ===== LECTURA DE COLUMNAS =====
+
+    public int tamano() {
+        return cantidad;
+    }
+
+    int anio(int fila) {
+        return buffer.getInt(posAnio + fila * Integer.BYTES);
+    }
+
+    int duracion(int fila) {
+        return buffer.getInt(posDuracion + fila * Integer.BYTES);
+    }
+
+    String clasificacion(int fila) {
+        int codigo = buffer.getShort(posClasificacion + fila * Short.BYTES);
+        return (codigo < 0) ? null : clasificaciones[codigo];
+    }
+
+    /**
+     * Devuelve los géneros de la fila. Las instancias de {@link Genero} son las
+     * canónicas de {@link RegistroGeneros}, resueltas una vez al abrir el archivo.
+     */
+    List<Genero> generos(int fila) {
+        long mascara = buffer.getLong(posGeneros + fila * Long.BYTES);
+        List<Genero> lista = new ArrayList<>(Long.bitCount(mascara));
+        while (mascara != 0) {
+            int bit = Long.numberOfTrailingZeros(mascara);
+            lista.add(generos[bit]);
+            mascara &= mascara - 1;
+        }
+        return lista;
+    }
+
+    String id(int fila) {
+        return leerTexto(buffer.getInt(posId + fila * Integer.BYTES));
+    }
+
+    String titulo(int fila) {
+        return leerTexto(buffer.getInt(posTitulo + fila * Integer.BYTES));
+    }
+
+    String sinopsis(int fila) {
+        return leerTexto(buffer.getInt(posSinopsis + fila * Integer.BYTES));
+    }
+
+    /**
+     * Busca la fila de una película por id (sin distinguir mayúsculas) con
+     * búsqueda binaria sobre la permutación ordenada.
+     *
+     * @param id identificador a buscar
+     * @return número de fila, o -1 si no existe
+     */
+    int buscarFila(String id) {
+        if (id == null) return -1;
+        String llave = ColeccionIndexada.normalizar(id);
+        int bajo = 0;
+        int alto = cantidad - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            int fila = filaEnOrden(medio);
+            int cmp = ColeccionIndexada.normalizar(id(fila)).compareTo(llave);
+            if (cmp < 0) bajo = medio + 1;
+            else if (cmp > 0) alto = medio - 1;
+            else return fila;
+        }
+        return -1;
+    }
+
+    /**
+     * Posición, dentro del orden por id, de la primera fila cuyo id normalizado es
+     * mayor que {@code llave}.
+     *
+     * @param llave llave normalizada; null para empezar desde el inicio
+     * @return posición entre 0 y {@link #tamano()}
+     */
+    int posicionDespuesDe(String llave) {
+        if (llave == null) return 0;
+        int bajo = 0;
+        int alto = cantidad;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (ColeccionIndexada.normalizar(id(filaEnOrden(medio))).compareTo(llave) <= 0) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    /**
+     * Fila que ocupa una posición en el orden por id.
+     */
+    int filaEnOrden(int posicion) {
+        return buffer.getInt(posOrden + posicion * Integer.BYTES);
+    }
+
+    private String leerTexto(int posicion) {
+        if (posicion < 0) return null;
+        int longitud = buffer.getInt(posicion);
+        byte[] bytes = new byte[longitud];
+        buffer.get(posicion + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    // ===== ESCRITURA =====
+
+    /**
+     * Genera un archivo de catálogo a partir de una colección de películas.
+     * Solo se guardan los datos propios de cada película; director, elenco y
+     * favoritos se siguen manejando en {@link Data}. Los ids repetidos se ignoran.
+     *
+     * @param archivo     destino (se reemplaza de forma atómica)
+     * @param peliculas   películas a incluir
+     * @throws IOException si falla la escritura, hay más de 64 géneros distintos o más
+     *                     de 32 768 clasificaciones distintas
+     */
+    public static void escribir(Path archivo, Collection<Pelicula> peliculas) throws IOException {
+        List<Pelicula> filas = new ArrayList<>(peliculas.size());
+        Set<String> vistos = new HashSet<>();
+        for (Pelicula p : peliculas) {
+            if (p.getId() != null && vistos.add(ColeccionIndexada.normalizar(p.getId()))) {
+                filas.add(p);
+            }
+        }
+        int n = filas.size();
+
+        Map<String, Integer> codigosClasificacion = new LinkedHashMap<>();
+        Map<String, Integer> codigosGenero = new LinkedHashMap<>();
+        for (Pelicula p : filas) {
+            if (p.getClasificacion() != null) {
+                codigosClasificacion.putIfAbsent(p.getClasificacion(), codigosClasificacion.size());
+            }
+            for (Genero g : p.getGeneros()) {
+                codigosGenero.putIfAbsent(g.getNombre(), codigosGenero.size());
+            }
+        }
+        if (codigosGenero.size() > MAXIMO_GENEROS) {
+            throw new IOException("El catálogo admite como máximo " + MAXIMO_GENEROS + " géneros distintos");
+        }
+        if (codigosClasificacion.size() > MAXIMO_CLASIFICACIONES) {
+            throw new IOException("El catálogo admite como máximo " + MAXIMO_CLASIFICACIONES
+                    + " clasificaciones distintas");
+        }
+
+        // Área de textos y sus desplazamientos (relativos al inicio del área)
+        ByteArrayOutputStream textos = new ByteArrayOutputStream();
+        DataOutputStream salidaTextos = new DataOutputStream(textos);
+        int[] offId = new int[n];
+        int[] offTitulo = new int[n];
+        int[] offSinopsis = new int[n];
+        for (int i = 0; i < n; i++) {
+            Pelicula p = filas.get(i);
+            offId[i] = agregarTexto(salidaTextos, textos, p.getId());
+            offTitulo[i] = agregarTexto(salidaTextos, textos, p.getTitulo());
+            offSinopsis[i] = agregarTexto(salidaTextos, textos,
+                    (p.getFicha() != null) ? p.getFicha().sinopsis() : null);
+        }
+
+        ByteArrayOutputStream diccionarios = new ByteArrayOutputStream();
+        DataOutputStream salidaDiccionarios = new DataOutputStream(diccionarios);
+        salidaDiccionarios.writeInt(codigosClasificacion.size());
+        for (String c : codigosClasificacion.keySet()) {
+            escribirTextoPlano(salidaDiccionarios, c);
+        }
+        salidaDiccionarios.writeInt(codigosGenero.size());
+        for (String g : codigosGenero.keySet()) {
+            escribirTextoPlano(salidaDiccionarios, g);
+        }
+
+        Integer[] orden = new Integer[n];
+        String[] llaves = new String[n];
+        for (int i = 0; i < n; i++) {
+            orden[i] = i;
+            llaves[i] = ColeccionIndexada.normalizar(filas.get(i).getId());
+        }
+        Arrays.sort(orden, (a, b) -> llaves[a].compareTo(llaves[b]));
+
+        long posDiccionarios = TAMANO_CABECERA;
+        long posAnio = posDiccionarios + diccionarios.size();
+        long posDuracion = posAnio + (long) n * Integer.BYTES;
+        long posClasificacion = posDuracion + (long) n * Integer.BYTES;
+        long posGeneros = alinear(posClasificacion + (long) n * Short.BYTES, Long.BYTES);
+        long posId = posGeneros + (long) n * Long.BYTES;
+        long posTitulo = posId + (long) n * Integer.BYTES;
+        long posSinopsis = posTitulo + (long) n * Integer.BYTES;
+        long posOrden = posSinopsis + (long) n * Integer.BYTES;
+        long posTextos = posOrden + (long) n * Integer.BYTES;
+        if (posTextos + textos.size() > Integer.MAX_VALUE) {
+            throw new IOException("El catálogo supera el tamaño máximo de 2 GB");
+        }
+
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(temporal.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 64 * 1024))) {
+            out.writeInt(MAGICO);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeInt((int) posDiccionarios);
+            out.writeInt((int) posAnio);
+            out.writeInt((int) posDuracion);
+            out.writeInt((int) posClasificacion);
+            out.writeInt((int) posGeneros);
+            out.writeInt((int) posId);
+            out.writeInt((int) posTitulo);
+            out.writeInt((int) posSinopsis);
+            out.writeInt((int) posOrden);
+            diccionarios.writeTo(out);
+
+            for (Pelicula p : filas) out.writeInt(p.getAnio());
+            for (Pelicula p : filas) out.writeInt(p.getDuracionMinutos());
+            for (Pelicula p : filas) {
+                Integer codigo = (p.getClasificacion() != null) ? codigosClasificacion.get(p.getClasificacion()) : null;
+                out.writeShort((codigo != null) ? codigo : -1);
+            }
+            for (long i = posClasificacion + (long) n * Short.BYTES; i < posGeneros; i++) {
+                out.writeByte(0);
+            }
+            for (Pelicula p : filas) {
+                long mascara = 0;
+                for (Genero g : p.getGeneros()) {
+                    mascara |= 1L << codigosGenero.get(g.getNombre());
+                }
+                out.writeLong(mascara);
+            }
+            for (int i = 0; i < n; i++) out.writeInt(absoluta(posTextos, offId[i]));
+            for (int i = 0; i < n; i++) out.writeInt(absoluta(posTextos, offTitulo[i]));
+            for (int i = 0; i < n; i++) out.writeInt(absoluta(posTextos, offSinopsis[i]));
+            for (int i = 0; i < n; i++) out.writeInt(orden[i]);
+            textos.writeTo(out);
+
+            out.flush();
+            fos.getFD().sync();
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int agregarTexto(DataOutputStream out, ByteArrayOutputStream destino, String texto)
+            throws IOException {
+        if (texto == null) return -1;
+        int offset = destino.size();
+        escribirTextoPlano(out, texto);
+        return offset;
+    }
+
+    private static void escribirTextoPlano(DataOutputStream out, String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static int absoluta(long base, int offset) {
+        return (offset < 0) ? -1 : (int) (base + offset);
+    }
+
+    private static long alinear(long posicion, int alineacion) {
+        return (posicion + alineacion - 1) / alineacion * alineacion;
+    }
+}
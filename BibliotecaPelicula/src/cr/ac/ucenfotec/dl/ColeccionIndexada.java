@@ -0,0 +1,328 @@
+package cr.ac.ucenfotec.dl;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * Colección de entidades indexada por su identificador.
+ *
+ * Mantiene tres estructuras en paralelo:
+ * <ul>
+ *     <li>Un arreglo con el orden de inserción (lo que devuelven los getters de {@link Data}).</li>
+ *     <li>Un índice hash por id normalizado, para búsquedas y control de duplicados en O(1).</li>
+ *     <li>Las llaves ordenadas, para recorrer por páginas con {@link #pagina}.</li>
+ * </ul>
+ *
+ * Cada elemento recibe un número de secuencia creciente al agregarse, que además
+ * sirve como llave entera densa: {@link #porSecuencia(int)} lo resuelve con un acceso
+ * directo a arreglo. Las secuencias no se reutilizan. Al eliminar
+ * no se desplaza el arreglo: la posición se localiza por búsqueda binaria sobre las
+ * secuencias y se marca como lápida ({@code null}). Las lápidas se compactan de forma
+ * periódica, cuando superan la mitad del arreglo o cuando alguien pide la lista.
+ *
+ * La normalización conserva la semántica de {@code equalsIgnoreCase} que usaba
+ * la búsqueda lineal original.
+ *
+ * Es segura para varios hilos: las búsquedas van directo a un
+ * {@link ConcurrentHashMap} sin tomar candados, y las altas, bajas y el acceso por
+ * posición se sincronizan sobre la colección. El alta es atómica (insertar si no
+ * existe). La compactación crea un arreglo nuevo en lugar de mover el actual, así
+ * que los iteradores recorren el arreglo que había al crearse sin bloquear.
+ *
+ * @param <T> tipo de entidad almacenada
+ */
+final class ColeccionIndexada<T> {
+
+    private static final int CAPACIDAD_INICIAL = 16;
+    private static final int MINIMO_PARA_COMPACTAR = 64;
+
+    /**
+     * Entrada del índice: el elemento y su número de secuencia.
+     */
+    private record Entrada<T>(T valor, int secuencia) {}
+
+    private final Function<T, String> extractorId;
+    private final ConcurrentHashMap<String, Entrada<T>> indice = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<String> llavesOrdenadas = new ConcurrentSkipListSet<>();
+
+    private Object[] elementos = new Object[CAPACIDAD_INICIAL];
+    private int[] secuencias = new int[CAPACIDAD_INICIAL];
+    /** Elemento vivo de cada secuencia; null si se eliminó. */
+    private Object[] porSecuencia = new Object[CAPACIDAD_INICIAL];
+    private int usados;
+    private int lapidas;
+    private int siguienteSecuencia;
+
+    private final List<T> vista = new Vista();
+
+    /**
+     * @param extractorId función que obtiene el id de cada entidad
+     */
+    ColeccionIndexada(Function<T, String> extractorId) {
+        this.extractorId = extractorId;
+    }
+
+    /**
+     * Normaliza un id para usarlo como llave del índice (sin distinguir mayúsculas).
+     *
+     * @param id identificador original
+     * @return llave normalizada
+     */
+    static String normalizar(String id) {
+        return id.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Agrega un elemento si no existe otro con el mismo id.
+     *
+     * @param elemento entidad a agregar
+     * @return true si se agregó, false si el id ya estaba registrado o es null
+     */
+    synchronized boolean agregar(T elemento) {
+        String id = extractorId.apply(elemento);
+        if (id == null) return false;
+        String llave = normalizar(id);
+        if (indice.containsKey(llave)) return false;
+
+        if (usados == elementos.length) {
+            if (lapidas > 0) {
+                compactar();
+            }
+            if (usados == elementos.length) {
+                elementos = Arrays.copyOf(elementos, usados * 2);
+                secuencias = Arrays.copyOf(secuencias, usados * 2);
+            }
+        }
+        int secuencia = siguienteSecuencia++;
+        if (secuencia == porSecuencia.length) {
+            porSecuencia = Arrays.copyOf(porSecuencia, secuencia * 2);
+        }
+        porSecuencia[secuencia] = elemento;
+        elementos[usados] = elemento;
+        secuencias[usados] = secuencia;
+        usados++;
+        indice.put(llave, new Entrada<>(elemento, secuencia));
+        llavesOrdenadas.add(llave);
+        return true;
+    }
+
+    /**
+     * Busca un elemento por id.
+     *
+     * @param id identificador a buscar
+     * @return el elemento encontrado o null si no existe
+     */
+    T buscar(String id) {
+        if (id == null) return null;
+        Entrada<T> entrada = indice.get(normalizar(id));
+        return (entrada != null) ? entrada.valor() : null;
+    }
+
+    /**
+     * Indica si ya existe un elemento con ese id.
+     *
+     * @param id identificador a consultar
+     * @return true si existe
+     */
+    boolean contiene(String id) {
+        return buscar(id) != null;
+    }
+
+    /**
+     * Secuencia de un elemento, solo si es el registrado con su id.
+     *
+     * @param elemento entidad a consultar
+     * @return su secuencia, o -1 si no está registrado
+     */
+    int secuencia(T elemento) {
+        String id = extractorId.apply(elemento);
+        if (id == null) return -1;
+        Entrada<T> entrada = indice.get(normalizar(id));
+        return (entrada != null && entrada.valor() == elemento) ? entrada.secuencia() : -1;
+    }
+
+    /**
+     * Secuencia del elemento registrado con un id.
+     *
+     * @param id identificador
+     * @return su secuencia, o -1 si no existe
+     */
+    int secuencia(String id) {
+        if (id == null) return -1;
+        Entrada<T> entrada = indice.get(normalizar(id));
+        return (entrada != null) ? entrada.secuencia() : -1;
+    }
+
+    /**
+     * Elemento vivo con una secuencia, en O(1).
+     *
+     * @param secuencia secuencia asignada al agregarlo
+     * @return el elemento, o null si se eliminó o la secuencia no existe
+     */
+    @SuppressWarnings("unchecked")
+    synchronized T porSecuencia(int secuencia) {
+        return (secuencia >= 0 && secuencia < siguienteSecuencia) ? (T) porSecuencia[secuencia] : null;
+    }
+
+    /**
+     * @return cota superior (exclusiva) de las secuencias asignadas hasta ahora
+     */
+    synchronized int limiteSecuencias() {
+        return siguienteSecuencia;
+    }
+
+    /**
+     * Devuelve hasta {@code cantidad} elementos en orden de id normalizado, a partir
+     * de una llave. Cuesta O(log n + cantidad) y no copia la colección.
+     *
+     * @param llave     llave normalizada desde la que se continúa; null para empezar desde el inicio
+     * @param inclusiva si el elemento con esa misma llave se incluye
+     * @param cantidad  cantidad máxima de elementos
+     * @return elementos encontrados, en orden
+     */
+    List<T> pagina(String llave, boolean inclusiva, int cantidad) {
+        NavigableSet<String> resto = (llave == null) ? llavesOrdenadas : llavesOrdenadas.tailSet(llave, inclusiva);
+        List<T> resultado = new ArrayList<>(Math.min(cantidad, 64));
+        for (String k : resto) {
+            if (resultado.size() >= cantidad) break;
+            Entrada<T> entrada = indice.get(k);
+            // Pudo eliminarse entre la lectura de la llave y la del índice
+            if (entrada != null) resultado.add(entrada.valor());
+        }
+        return resultado;
+    }
+
+    /**
+     * Elimina un elemento por id en O(log n), dejando una lápida en su posición.
+     *
+     * @param id identificador del elemento
+     * @return el elemento eliminado o null si no existía
+     */
+    synchronized T eliminar(String id) {
+        if (id == null) return null;
+        Entrada<T> entrada = indice.remove(normalizar(id));
+        if (entrada == null) return null;
+        llavesOrdenadas.remove(normalizar(id));
+
+        int pos = Arrays.binarySearch(secuencias, 0, usados, entrada.secuencia());
+        elementos[pos] = null;
+        porSecuencia[entrada.secuencia()] = null;
+        lapidas++;
+        if (lapidas >= MINIMO_PARA_COMPACTAR && lapidas * 2 > usados) {
+            compactar();
+        }
+        return entrada.valor();
+    }
+
+    /**
+     * Elimina las lápidas copiando los elementos vivos a arreglos nuevos.
+     * Las secuencias conservan su orden, así que la búsqueda binaria sigue siendo válida.
+     * Los arreglos anteriores quedan intactos para los iteradores que los estén recorriendo.
+     */
+    private void compactar() {
+        Object[] nuevosElementos = new Object[elementos.length];
+        int[] nuevasSecuencias = new int[secuencias.length];
+        int destino = 0;
+        for (int i = 0; i < usados; i++) {
+            if (elementos[i] != null) {
+                nuevosElementos[destino] = elementos[i];
+                nuevasSecuencias[destino] = secuencias[i];
+                destino++;
+            }
+        }
+        elementos = nuevosElementos;
+        secuencias = nuevasSecuencias;
+        usados = destino;
+        lapidas = 0;
+    }
+
+    /**
+     * Devuelve la lista en orden de inserción.
+     * La vista es de solo lectura para que nadie desincronice el índice,
+     * y refleja los cambios posteriores de la colección.
+     *
+     * @return lista de elementos
+     */
+    List<T> comoLista() {
+        return vista;
+    }
+
+    synchronized int tamano() {
+        return usados - lapidas;
+    }
+
+    /**
+     * Vista de solo lectura sobre los elementos vivos.
+     * Si hay lápidas pendientes, se compactan antes del primer acceso por posición.
+     *
+     * El iterador es débilmente consistente: recorre el arreglo vigente al crearse,
+     * omite lo que se elimine durante el recorrido y no ve las altas posteriores.
+     */
+    private final class Vista extends AbstractList<T> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            synchronized (ColeccionIndexada.this) {
+                if (lapidas > 0) {
+                    compactar();
+                }
+                if (index < 0 || index >= usados) {
+                    throw new IndexOutOfBoundsException("Índice: " + index + ", tamaño: " + usados);
+                }
+                return (T) elementos[index];
+            }
+        }
+
+        @Override
+        public int size() {
+            return tamano();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            Object[] arreglo;
+            int limite;
+            synchronized (ColeccionIndexada.this) {
+                arreglo = elementos;
+                limite = usados;
+            }
+            return new Iterator<>() {
+                private int pos;
+                private Object siguiente = avanzar();
+
+                /** Busca el próximo elemento vivo; se lee una sola vez por si lo eliminan después. */
+                private Object avanzar() {
+                    while (pos < limite) {
+                        Object candidato = arreglo[pos++];
+                        if (candidato != null) return candidato;
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return siguiente != null;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T next() {
+                    if (siguiente == null) throw new NoSuchElementException();
+                    Object actual = siguiente;
+                    siguiente = avanzar();
+                    return (T) actual;
+                }
+            };
+        }
+    }
+}
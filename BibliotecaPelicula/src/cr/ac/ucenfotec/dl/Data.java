@@ -4,11 +4,31 @@ import cr.ac.ucenfotec.bl.entities.Administrador;
 import cr.ac.ucenfotec.bl.entities.Actor;
 import cr.ac.ucenfotec.bl.entities.Cuenta;
 import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Genero;
 import cr.ac.ucenfotec.bl.entities.Pelicula;
 import cr.ac.ucenfotec.bl.entities.User;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Capa de acceso a datos (Data Layer) del sistema.
@@ -20,50 +40,484 @@ import java.util.List;
  * En el portafolio se puede justificar como una implementación sencilla
  * del patrón DAO (Data Access Object) sin base de datos, solo con estructuras
  * en memoria.
+ *
+ * Cada colección está respaldada por una {@link ColeccionIndexada}, de modo que
+ * las búsquedas por id y el control de duplicados son O(1) (sin distinguir
+ * mayúsculas), mientras que los getters conservan el orden de inserción.
+ *
+ * Todas las mutaciones (altas, bajas, actualizaciones y relaciones) pasan por esta
+ * clase y se notifican a los {@link OyenteCambios} registrados.
+ *
+ * Al registrarse, cada entidad recibe además un número entero denso (ver
+ * {@link #numeroDe(Pelicula)}), y las relaciones entre entidades registradas se
+ * reflejan en arreglos de esos números ({@link #vecinos(Relacion, int)}). Los ids de
+ * texto quedan para la API; los cruces internos, como las recomendaciones, trabajan
+ * con enteros y mapas de bits.
+ *
+ * Opcionalmente puede tener un {@link CatalogoMapeado} como base de películas de solo
+ * lectura: sus filas no se cargan al arrancar, sino que se exponen como vistas
+ * ({@link PeliculaMapeada}) que se crean al buscarlas. Las vistas buscadas por id se
+ * conservan para que las relaciones y cambios sobre ellas no se pierdan.
+ *
+ * <h2>Concurrencia</h2>
+ * Una misma instancia puede atender varias sesiones a la vez:
+ * <ul>
+ *     <li>Las búsquedas por id no toman candados.</li>
+ *     <li>Las altas son atómicas (insertar si no existe).</li>
+ *     <li>Cada mutación de una película (alta, baja, cambios, elenco, director y favoritos)
+ *         se serializa con el candado de su id, tomado de un conjunto fijo de candados
+ *         rayados. Mientras se tiene, se toman uno a uno los candados de las entidades
+ *         del otro lado de la relación (actor, director o usuario) para tocar sus listas.
+ *         Nunca se tienen dos candados de entidad a la vez, así que no hay interbloqueos.</li>
+ *     <li>Los oyentes se notifican con esos candados tomados, de modo que reciben los
+ *         cambios de una misma película en el orden en que ocurrieron, y el alta de una
+ *         entidad siempre antes que cualquier relación con ella.</li>
+ * </ul>
+ * Las listas de relaciones de las entidades solo deben leerse desde otros hilos con
+ * las copias que ofrece esta clase ({@link #favoritosDe(User)}, {@link #elencoDe(Pelicula)}, ...).
  */
 public class Data {
 
-    private List<Pelicula> peliculas;
-    private List<User> usuarios;
-    private List<Administrador> administradores;
-    private List<Director> directores;
-    private List<Actor> actores;
-    private List<Cuenta> cuentas;
+    private final ColeccionIndexada<Pelicula> peliculas;
+    private final ColeccionIndexada<User> usuarios;
+    private final ColeccionIndexada<Administrador> administradores;
+    private final ColeccionIndexada<Director> directores;
+    private final ColeccionIndexada<Actor> actores;
+    private final List<Cuenta> cuentas;
+    private final List<Cuenta> cuentasSoloLectura;
+
+    /**
+     * Índice inverso de favoritos: para cada película, los usuarios que la marcaron.
+     * Permite limpiar las referencias al eliminar una película sin recorrer todos los usuarios.
+     */
+    private final Map<Pelicula, Set<User>> seguidoresPorPelicula;
+
+    private final List<OyenteCambios> oyentes;
+
+    /** Relaciones por número entero; se modifican con los mismos candados que las listas de las entidades. */
+    private final Map<Relacion, Adyacencia> adyacencias;
+
+    private static final int CANTIDAD_CANDADOS = 64;
+
+    /** Candados por id normalizado de película. */
+    private final CandadosRayados candadosPeliculas;
+    /** Candados por actor, director o usuario, para sus listas de relaciones. */
+    private final CandadosRayados candadosEntidades;
+    /**
+     * Las mutaciones toman la parte compartida; la exclusiva la usa la instantánea
+     * para ver un estado estable mientras escribe.
+     */
+    private final ReentrantReadWriteLock candadoMutaciones;
+    /** Cantidad de mutaciones terminadas; la usan las lecturas optimistas. */
+    private final AtomicLong versionMutaciones;
+
+    private static final int INTENTOS_LECTURA_OPTIMISTA = 3;
+
+    /** Si no es null, las mutaciones se rechazan con este motivo (ver {@link #rechazarMutaciones}). */
+    private volatile String motivoSoloLectura;
+
+    private volatile CatalogoMapeado catalogo;
+    private final Map<Integer, PeliculaMapeada> vistasActivas;
+    private final BitSet filasEliminadas;
+    private int cantidadFilasEliminadas;
+    private final List<Pelicula> peliculasConCatalogo;
 
     /**
      * Constructor por defecto.
-     * Inicializa todas las listas como colecciones vacías.
+     * Inicializa todas las colecciones vacías.
      */
     public Data() {
-        this.peliculas = new ArrayList<>();
-        this.usuarios = new ArrayList<>();
-        this.administradores = new ArrayList<>();
-        this.directores = new ArrayList<>();
-        this.actores = new ArrayList<>();
-        this.cuentas = new ArrayList<>();
+        this.peliculas = new ColeccionIndexada<>(Pelicula::getId);
+        this.usuarios = new ColeccionIndexada<>(User::getId);
+        this.administradores = new ColeccionIndexada<>(Administrador::getId);
+        this.directores = new ColeccionIndexada<>(Director::getId);
+        this.actores = new ColeccionIndexada<>(Actor::getId);
+        this.cuentas = new CopyOnWriteArrayList<>();
+        this.cuentasSoloLectura = Collections.unmodifiableList(cuentas);
+        this.seguidoresPorPelicula = new ConcurrentHashMap<>();
+        this.oyentes = new CopyOnWriteArrayList<>();
+        this.adyacencias = new EnumMap<>(Relacion.class);
+        for (Relacion r : Relacion.values()) {
+            adyacencias.put(r, new Adyacencia());
+        }
+        this.candadosPeliculas = new CandadosRayados(CANTIDAD_CANDADOS);
+        this.candadosEntidades = new CandadosRayados(CANTIDAD_CANDADOS);
+        this.candadoMutaciones = new ReentrantReadWriteLock();
+        this.versionMutaciones = new AtomicLong();
+        this.vistasActivas = new ConcurrentHashMap<>();
+        this.filasEliminadas = new BitSet();
+        this.peliculasConCatalogo = new VistaPeliculas();
+    }
+
+    // ===== CATÁLOGO MAPEADO =====
+
+    /**
+     * Usa un catálogo mapeado en memoria como base de películas.
+     * Debe llamarse antes de registrar cualquier película.
+     *
+     * @param catalogo catálogo abierto
+     * @throws IllegalStateException si ya hay un catálogo o películas registradas
+     */
+    public synchronized void adjuntarCatalogo(CatalogoMapeado catalogo) {
+        if (this.catalogo != null || peliculas.tamano() > 0) {
+            throw new IllegalStateException("El catálogo debe adjuntarse antes de registrar películas");
+        }
+        this.catalogo = catalogo;
+    }
+
+    // ===== CANDADOS =====
+
+    /**
+     * Candado exclusivo frente a todas las mutaciones. Mientras se tiene, ninguna
+     * alta, baja ni relación está a medias. Lo usa la instantánea.
+     */
+    Lock candadoExclusivo() {
+        return candadoMutaciones.writeLock();
+    }
+
+    /**
+     * Deja de aceptar mutaciones: desde ahora cada alta, baja o relación lanza
+     * {@link IllegalStateException} antes de tocar nada. Las lecturas siguen funcionando.
+     * Lo usa el almacén cuando ya no puede anotar los cambios en la bitácora.
+     *
+     * @param motivo mensaje de las excepciones
+     */
+    void rechazarMutaciones(String motivo) {
+        motivoSoloLectura = motivo;
+    }
+
+    /**
+     * Toma la parte compartida del candado de mutaciones, salvo que las mutaciones estén rechazadas.
+     */
+    private void tomarMutaciones() {
+        candadoMutaciones.readLock().lock();
+        String motivo = motivoSoloLectura;
+        if (motivo != null) {
+            candadoMutaciones.readLock().unlock();
+            throw new IllegalStateException(motivo);
+        }
+    }
+
+    /**
+     * Toma la parte compartida del candado de mutaciones y el candado de la película.
+     */
+    private Lock iniciarMutacionPelicula(String idPelicula) {
+        tomarMutaciones();
+        ReentrantLock candado = candadosPeliculas.para(ColeccionIndexada.normalizar(idPelicula));
+        candado.lock();
+        return candado;
+    }
+
+    /**
+     * Toma la parte compartida del candado de mutaciones y el candado de la entidad.
+     */
+    private Lock iniciarMutacionEntidad(Object entidad) {
+        tomarMutaciones();
+        ReentrantLock candado = candadosEntidades.para(entidad);
+        candado.lock();
+        return candado;
+    }
+
+    private void terminarMutacion(Lock candado) {
+        // Antes de soltar la parte compartida, para que una lectura optimista que ya
+        // no ve mutaciones en curso vea siempre la versión nueva
+        versionMutaciones.incrementAndGet();
+        candado.unlock();
+        candadoMutaciones.readLock().unlock();
+    }
+
+    private Lock bloquearEntidad(Object entidad) {
+        ReentrantLock candado = candadosEntidades.para(entidad);
+        candado.lock();
+        return candado;
+    }
+
+    /**
+     * Inserta varias entidades con el candado exclusivo y notifica una sola vez.
+     *
+     * @param insertar  inserta una entidad no null; true si era nueva
+     * @param completar se llama con las agregadas antes de notificar
+     * @param notificar evento de lote para cada oyente, solo si se agregó alguna
+     */
+    private <T> List<T> agregarEnLote(Collection<T> nuevas, Predicate<T> insertar, Consumer<List<T>> completar,
+                                      BiConsumer<OyenteCambios, List<T>> notificar) {
+        List<T> agregadas = new ArrayList<>();
+        if (nuevas == null) return agregadas;
+        Lock exclusivo = candadoExclusivo();
+        exclusivo.lock();
+        try {
+            String motivo = motivoSoloLectura;
+            if (motivo != null) throw new IllegalStateException(motivo);
+            for (T e : nuevas) {
+                if (e != null && insertar.test(e)) agregadas.add(e);
+            }
+            if (!agregadas.isEmpty()) {
+                completar.accept(agregadas);
+                for (OyenteCambios o : oyentes) notificar.accept(o, agregadas);
+            }
+            return agregadas;
+        } finally {
+            versionMutaciones.incrementAndGet();
+            exclusivo.unlock();
+        }
+    }
+
+    /**
+     * Ejecuta una lectura que debe ver todos los datos en un mismo instante, sin
+     * mutaciones a medias ni intercaladas (por ejemplo, copiar el catálogo para un reporte).
+     *
+     * Primero lo intenta sin bloquear a nadie: la lectura vale si al empezar y al
+     * terminar no había mutaciones ni lotes en curso y ninguno terminó entretanto; si no, se
+     * descarta y se repite. Tras unos intentos fallidos (escrituras constantes) se
+     * ejecuta con el candado exclusivo, que sí detiene a los escritores mientras dura.
+     *
+     * La lectura puede ejecutarse varias veces y, en los intentos optimistas, ver estados
+     * intermedios; no debe tener efectos fuera de lo que devuelve.
+     *
+     * @param lectura lectura a ejecutar
+     * @param <T>     tipo del resultado
+     * @return el resultado de un intento consistente
+     */
+    public <T> T leerConsistente(Supplier<T> lectura) {
+        for (int i = 0; i < INTENTOS_LECTURA_OPTIMISTA; i++) {
+            long version = versionMutaciones.get();
+            if (hayMutacionesEnCurso()) {
+                Thread.yield();
+                continue;
+            }
+            T resultado;
+            try {
+                resultado = lectura.get();
+            } catch (RuntimeException e) {
+                // Vio una colección mientras otro hilo la modificaba; se repite
+                continue;
+            }
+            if (!hayMutacionesEnCurso() && versionMutaciones.get() == version) {
+                return resultado;
+            }
+        }
+        Lock exclusivo = candadoExclusivo();
+        exclusivo.lock();
+        try {
+            return lectura.get();
+        } finally {
+            exclusivo.unlock();
+        }
+    }
+
+    /**
+     * Hay mutaciones sueltas (parte compartida) o un lote (parte exclusiva) a medias.
+     * Los lotes solo suben la versión al terminar, así que también hay que mirar el
+     * candado exclusivo: si no, una lectura hecha entera dentro de un lote pasaría por
+     * consistente.
+     */
+    private boolean hayMutacionesEnCurso() {
+        return candadoMutaciones.getReadLockCount() > 0 || candadoMutaciones.isWriteLocked();
+    }
+
+    /**
+     * Devuelve la fila viva del catálogo para un id, o -1 si no existe o fue eliminada.
+     */
+    private int filaCatalogo(String id) {
+        if (catalogo == null || id == null) return -1;
+        int fila = catalogo.buscarFila(id);
+        return (fila >= 0 && !filaEliminada(fila)) ? fila : -1;
+    }
+
+    private boolean filaEliminada(int fila) {
+        synchronized (filasEliminadas) {
+            return filasEliminadas.get(fila);
+        }
+    }
+
+    private int siguienteFilaViva(int desde) {
+        synchronized (filasEliminadas) {
+            return filasEliminadas.nextClearBit(desde);
+        }
+    }
+
+    /**
+     * Devuelve la vista conservada de una fila, creándola si hace falta,
+     * o null si la fila se eliminó mientras tanto.
+     */
+    private PeliculaMapeada activar(int fila) {
+        PeliculaMapeada vista = vistasActivas.computeIfAbsent(fila, f -> new PeliculaMapeada(catalogo, f));
+        if (filaEliminada(fila)) {
+            // Una baja concurrente pudo quitar la vista antes de que la creáramos
+            vistasActivas.remove(fila, vista);
+            return null;
+        }
+        return vista;
+    }
+
+    /**
+     * Vista de una fila del catálogo: la conservada si existe, o una temporal
+     * que no se guarda.
+     */
+    private Pelicula vistaDe(int fila) {
+        PeliculaMapeada activa = vistasActivas.get(fila);
+        return (activa != null) ? activa : new PeliculaMapeada(catalogo, fila);
+    }
+
+    /**
+     * Para una vista del catálogo obtenida al recorrer la lista, devuelve la vista
+     * conservada equivalente; cualquier otra película se devuelve tal cual.
+     */
+    private Pelicula canonica(Pelicula p) {
+        if (p instanceof PeliculaMapeada vista) {
+            PeliculaMapeada activa = activar(vista.getFila());
+            return (activa != null) ? activa : p;
+        }
+        return p;
+    }
+
+    /**
+     * Películas que tienen estado en memoria: las registradas directamente y las
+     * vistas del catálogo que se han buscado. Las usa la instantánea.
+     */
+    Collection<Pelicula> peliculasEnMemoria() {
+        List<Pelicula> todas = new ArrayList<>(peliculas.comoLista());
+        todas.addAll(vistasActivas.values());
+        return todas;
+    }
+
+    /**
+     * Ids de las películas del catálogo que fueron eliminadas.
+     */
+    List<String> idsEliminadosDelCatalogo() {
+        synchronized (filasEliminadas) {
+            List<String> ids = new ArrayList<>(cantidadFilasEliminadas);
+            for (int fila = filasEliminadas.nextSetBit(0); fila >= 0; fila = filasEliminadas.nextSetBit(fila + 1)) {
+                ids.add(catalogo.id(fila));
+            }
+            return ids;
+        }
+    }
+
+    // ===== OYENTES =====
+
+    /**
+     * Registra un oyente que será notificado de cada mutación exitosa.
+     *
+     * @param oyente oyente a registrar
+     */
+    public void agregarOyente(OyenteCambios oyente) {
+        if (oyente != null) oyentes.add(oyente);
+    }
+
+    /**
+     * Construye un oyente a partir de los datos actuales y lo registra sin que se
+     * cuele ningún cambio entre ambos pasos: mientras {@code construir} corre no hay
+     * mutaciones a medias ni nuevas. Sirve para los índices que se arman recién en la
+     * primera consulta y que, a diferencia de una reconstrucción, no pueden aplicar
+     * dos veces el mismo evento.
+     *
+     * @param construir crea el oyente leyendo los datos; no debe modificarlos
+     * @return el oyente ya registrado
+     */
+    public <T extends OyenteCambios> T agregarOyente(Supplier<T> construir) {
+        Lock exclusivo = candadoExclusivo();
+        exclusivo.lock();
+        try {
+            T oyente = construir.get();
+            oyentes.add(oyente);
+            return oyente;
+        } finally {
+            exclusivo.unlock();
+        }
+    }
+
+    /**
+     * Quita un oyente previamente registrado.
+     *
+     * @param oyente oyente a quitar
+     */
+    public void removerOyente(OyenteCambios oyente) {
+        oyentes.remove(oyente);
     }
 
     // ===== PELÍCULAS =====
 
     /**
-     * Devuelve la lista completa de películas.
+     * Devuelve la lista completa de películas en orden de registro.
+     * Si hay un catálogo adjunto, primero aparecen sus filas y luego las
+     * películas registradas en memoria.
      *
-     * @return lista de películas
+     * @return lista de películas (solo lectura)
      */
     public List<Pelicula> getPeliculas() {
-        return peliculas;
+        return (catalogo == null) ? peliculas.comoLista() : peliculasConCatalogo;
     }
 
     /**
      * Agrega una nueva película si no existe otra con el mismo id.
      *
+     * Si la película ya trae director o elenco, completa la relación inversa
+     * (películas dirigidas y filmografía) para que ambos lados queden consistentes.
+     *
      * @param p película a agregar
      * @return true si se agregó, false si ya existía una con el mismo id o si p es null
      */
     public boolean agregarPelicula(Pelicula p) {
         if (p == null || p.getId() == null) return false;
-        if (buscarPeliculaPorId(p.getId()) != null) return false;
-        return peliculas.add(p);
+        Lock candado = iniciarMutacionPelicula(p.getId());
+        try {
+            if (!insertarPelicula(p)) return false;
+            for (OyenteCambios o : oyentes) o.peliculaAgregada(p);
+            return true;
+        } finally {
+            terminarMutacion(candado);
+        }
+    }
+
+    /**
+     * Agrega varias películas tomando el candado exclusivo una sola vez y avisa a los
+     * oyentes con un solo {@link OyenteCambios#peliculasAgregadas}. Pensado para cargas
+     * masivas: mientras dura, las demás mutaciones esperan.
+     *
+     * @param nuevas películas a agregar, con las mismas reglas que {@link #agregarPelicula(Pelicula)}
+     * @return las que sí se agregaron, en el mismo orden (sin null ni ids repetidos)
+     */
+    public List<Pelicula> agregarPeliculas(Collection<Pelicula> nuevas) {
+        return agregarEnLote(nuevas, p -> p.getId() != null && insertarPelicula(p), lote -> {},
+                OyenteCambios::peliculasAgregadas);
+    }
+
+    /**
+     * Inserta la película y completa las relaciones inversas, sin notificar.
+     * Requiere el candado de la película o el exclusivo.
+     */
+    private boolean insertarPelicula(Pelicula p) {
+        if (filaCatalogo(p.getId()) >= 0 || !peliculas.agregar(p)) return false;
+        int numero = numeroDe(p);
+
+        Director director = p.getDirector();
+        if (director != null) {
+            Lock candadoDirector = bloquearEntidad(director);
+            try {
+                director.agregarPeliculaDirigida(p);
+                int numeroDirector = numeroDe(director);
+                if (numeroDirector >= 0) {
+                    adyacencias.get(Relacion.DIRIGIDAS).agregar(numeroDirector, numero);
+                }
+            } finally {
+                candadoDirector.unlock();
+            }
+        }
+        for (Actor actor : p.getElenco()) {
+            Lock candadoActor = bloquearEntidad(actor);
+            try {
+                actor.agregarPelicula(p);
+                int numeroActor = numeroDe(actor);
+                if (numeroActor >= 0) {
+                    adyacencias.get(Relacion.ELENCO).agregar(numero, numeroActor);
+                    adyacencias.get(Relacion.FILMOGRAFIA).agregar(numeroActor, numero);
+                }
+            } finally {
+                candadoActor.unlock();
+            }
+        }
+        return true;
     }
 
     /**
@@ -73,25 +527,668 @@ public class Data {
      * @return la película encontrada o null si no existe
      */
     public Pelicula buscarPeliculaPorId(String id) {
-        if (id == null) return null;
-        for (Pelicula p : peliculas) {
-            if (p.getId() != null && p.getId().equalsIgnoreCase(id)) {
-                return p;
-            }
-        }
-        return null;
+        Pelicula p = peliculas.buscar(id);
+        if (p != null) return p;
+        int fila = filaCatalogo(id);
+        return (fila >= 0) ? activar(fila) : null;
     }
 
     /**
      * Elimina una película según su id.
      *
+     * Además de sacarla del catálogo, elimina las referencias que otras entidades
+     * tienen hacia ella (director, filmografía de cada actor del elenco y favoritos
+     * de los usuarios), usando las propias relaciones de la película y el índice
+     * inverso de favoritos en lugar de recorrer todos los actores y usuarios.
+     *
      * @param id identificador de la película
      * @return true si se eliminó, false si no se encontró
      */
     public boolean eliminarPelicula(String id) {
-        Pelicula p = buscarPeliculaPorId(id);
+        if (id == null) return false;
+        Lock candado = iniciarMutacionPelicula(id);
+        try {
+            int numero = numeroPelicula(id);
+            Pelicula p = peliculas.eliminar(id);
+            if (p == null) {
+                int fila = filaCatalogo(id);
+                if (fila < 0) return false;
+                synchronized (filasEliminadas) {
+                    filasEliminadas.set(fila);
+                    cantidadFilasEliminadas++;
+                }
+                p = vistasActivas.remove(fila);
+                if (p == null) {
+                    p = new PeliculaMapeada(catalogo, fila);
+                }
+            }
+
+            Director director = p.getDirector();
+            if (director != null) {
+                Lock candadoDirector = bloquearEntidad(director);
+                try {
+                    director.quitarPeliculaDirigida(p);
+                    adyacencias.get(Relacion.DIRIGIDAS).quitar(numeroDe(director), numero);
+                } finally {
+                    candadoDirector.unlock();
+                }
+            }
+            for (Actor actor : p.getElenco()) {
+                Lock candadoActor = bloquearEntidad(actor);
+                try {
+                    actor.quitarPelicula(p);
+                    adyacencias.get(Relacion.FILMOGRAFIA).quitar(numeroDe(actor), numero);
+                } finally {
+                    candadoActor.unlock();
+                }
+            }
+            adyacencias.get(Relacion.ELENCO).quitarTodos(numero);
+            Set<User> seguidores = seguidoresPorPelicula.remove(p);
+            if (seguidores != null) {
+                for (User u : seguidores) {
+                    Lock candadoUsuario = bloquearEntidad(u);
+                    try {
+                        u.eliminarFavorito(p);
+                        adyacencias.get(Relacion.FAVORITOS).quitar(numeroDe(u), numero);
+                    } finally {
+                        candadoUsuario.unlock();
+                    }
+                }
+            }
+            adyacencias.get(Relacion.SEGUIDORES).quitarTodos(numero);
+            for (OyenteCambios o : oyentes) o.peliculaEliminada(p);
+            return true;
+        } finally {
+            terminarMutacion(candado);
+        }
+    }
+
+    /**
+     * Actualiza los datos básicos de una película registrada.
+     *
+     * @param p             película a actualizar
+     * @param titulo        nuevo título
+     * @param anio          nuevo año
+     * @param duracion      nueva duración en minutos
+     * @param clasificacion nueva clasificación
+     * @return true si se actualizó, false si la película es null o no está registrada
+     */
+    public boolean actualizarPelicula(Pelicula p, String titulo, int anio, int duracion, String clasificacion) {
+        if (p == null) return false;
+        Lock candado = iniciarMutacionPelicula(p.getId());
+        try {
+            p = registrada(p);
+            if (p == null) return false;
+            p.setTitulo(titulo);
+            p.setAnio(anio);
+            p.setDuracionMinutos(duracion);
+            p.setClasificacion(clasificacion);
+            for (OyenteCambios o : oyentes) o.peliculaActualizada(p);
+            return true;
+        } finally {
+            terminarMutacion(candado);
+        }
+    }
+
+    /**
+     * Reemplaza (o elimina, si se recibe null) la ficha de una película registrada.
+     *
+     * @param p     película a modificar
+     * @param ficha nueva ficha, o null para quitarla
+     * @return true si se actualizó, false si la película es null o no está registrada
+     */
+    public boolean actualizarFicha(Pelicula p, Pelicula.Ficha ficha) {
+        if (p == null) return false;
+        Lock candado = iniciarMutacionPelicula(p.getId());
+        try {
+            p = registrada(p);
+            if (p == null) return false;
+            p.setFicha(ficha);
+            for (OyenteCambios o : oyentes) o.fichaActualizada(p);
+            return true;
+        } finally {
+            terminarMutacion(candado);
+        }
+    }
+
+    /**
+     * Reemplaza los géneros de una película registrada.
+     *
+     * @param p       película a modificar
+     * @param generos nuevos géneros; null o vacío la deja sin géneros
+     * @return true si se actualizó, false si la película es null o no está registrada
+     */
+    public boolean actualizarGeneros(Pelicula p, Collection<Genero> generos) {
         if (p == null) return false;
-        return peliculas.remove(p);
+        Lock candado = iniciarMutacionPelicula(p.getId());
+        try {
+            p = registrada(p);
+            if (p == null) return false;
+            p.setGeneros(generos);
+            for (OyenteCambios o : oyentes) o.generosActualizados(p);
+            return true;
+        } finally {
+            terminarMutacion(candado);
+        }
+    }
+
+    /**
+     * Devuelve la instancia registrada que corresponde a {@code p}, o null si
+     * {@code p} no es la película registrada con ese id.
+     */
+    private Pelicula registrada(Pelicula p) {
+        if (p == null || p.getId() == null) return null;
+        p = canonica(p);
+        return (buscarPeliculaPorId(p.getId()) == p) ? p : null;
+    }
+
+    // ===== RELACIONES =====
+
+    /**
+     * Asocia un actor con una película en ambos sentidos
+     * (elenco de la película y filmografía del actor).
+     *
+     * @param actor    actor registrado
+     * @param pelicula película registrada
+     * @return true si la asociación es válida, false si alguno es null o no está registrado
+     */
+    public boolean asociarActorConPelicula(Actor actor, Pelicula pelicula) {
+        if (actor == null || pelicula == null) return false;
+        Lock candado = iniciarMutacionPelicula(pelicula.getId());
+        try {
+            pelicula = registrada(pelicula);
+            if (pelicula == null) return false;
+            Lock candadoActor = bloquearEntidad(actor);
+            try {
+                if (actores.buscar(actor.getId()) != actor) return false;
+                if (vincular(actor, pelicula)) {
+                    for (OyenteCambios o : oyentes) o.actorAsociado(actor, pelicula);
+                }
+                return true;
+            } finally {
+                candadoActor.unlock();
+            }
+        } finally {
+            terminarMutacion(candado);
+        }
+    }
+
+    /**
+     * Asocia varios actores con una película tomando el candado de la película una
+     * sola vez. Cada asociación cuesta O(1), así que un elenco de miles de actores
+     * se carga en tiempo lineal. Los oyentes reciben un solo
+     * {@link OyenteCambios#elencoAsociado} con los actores que no estaban.
+     *
+     * @param pelicula película registrada
+     * @param elenco   actores a asociar; se ignoran los null y los no registrados
+     * @return cantidad de actores asociados (incluye los que ya estaban);
+     * 0 si la película es null o no está registrada
+     */
+    public int asociarElenco(Pelicula pelicula, Collection<Actor> elenco) {
+        if (pelicula == null || elenco == null) return 0;
+        Lock candado = iniciarMutacionPelicula(pelicula.getId());
+        try {
+            pelicula = registrada(pelicula);
+            if (pelicula == null) return 0;
+            int asociados = 0;
+            List<Actor> nuevos = new ArrayList<>();
+            for (Actor actor : elenco) {
+                if (actor == null) continue;
+                Lock candadoActor = bloquearEntidad(actor);
+                try {
+                    if (actores.buscar(actor.getId()) != actor) continue;
+                    if (vincular(actor, pelicula)) nuevos.add(actor);
+                    asociados++;
+                } finally {
+                    candadoActor.unlock();
+                }
+            }
+            if (!nuevos.isEmpty()) {
+                for (OyenteCambios o : oyentes) o.elencoAsociado(pelicula, nuevos);
+            }
+            return asociados;
+        } finally {
+            terminarMutacion(candado);
+        }
+    }
+
+    /**
+     * Agrega la relación en ambos sentidos, sin notificar.
+     * Requiere los candados de la película y del actor.
+     *
+     * Si un lado ya la tenía, pudo agregarse antes de registrar al actor; en ese caso
+     * la arista entera se busca antes de agregarla.
+     *
+     * @return true si algún lado era nuevo (hay que avisar a los oyentes)
+     */
+    private boolean vincular(Actor actor, Pelicula pelicula) {
+        int numeroPelicula = numeroDe(pelicula);
+        int numeroActor = numeroDe(actor);
+        boolean enElenco = pelicula.agregarActor(actor);
+        boolean enFilmografia = actor.agregarPelicula(pelicula);
+        enlazar(Relacion.ELENCO, numeroPelicula, numeroActor, enElenco);
+        enlazar(Relacion.FILMOGRAFIA, numeroActor, numeroPelicula, enFilmografia);
+        return enElenco || enFilmografia;
+    }
+
+    /**
+     * Asigna el director de una película. Si la película ya tenía otro director,
+     * se quita de la lista de películas dirigidas del anterior.
+     *
+     * @param pelicula película registrada
+     * @param director director registrado
+     * @return true si la asociación es válida, false si alguno es null o no está registrado
+     */
+    public boolean asociarPeliculaConDirector(Pelicula pelicula, Director director) {
+        if (pelicula == null || director == null) return false;
+        Lock candado = iniciarMutacionPelicula(pelicula.getId());
+        try {
+            pelicula = registrada(pelicula);
+            if (pelicula == null) return false;
+
+            Lock candadoDirector = bloquearEntidad(director);
+            try {
+                if (directores.buscar(director.getId()) != director) return false;
+                if (pelicula.getDirector() == director && director.getPeliculasDirigidas().contains(pelicula)) {
+                    return true;
+                }
+            } finally {
+                candadoDirector.unlock();
+            }
+
+            // Los directores no se eliminan, así que puede soltarse el candado del
+            // nuevo mientras se actualiza el anterior (nunca dos candados de entidad a la vez)
+            Director anterior = pelicula.getDirector();
+            if (anterior != null && anterior != director) {
+                Lock candadoAnterior = bloquearEntidad(anterior);
+                try {
+                    anterior.quitarPeliculaDirigida(pelicula);
+                    adyacencias.get(Relacion.DIRIGIDAS).quitar(numeroDe(anterior), numeroDe(pelicula));
+                } finally {
+                    candadoAnterior.unlock();
+                }
+            }
+            pelicula.setDirector(director);
+            candadoDirector = bloquearEntidad(director);
+            try {
+                boolean nueva = director.agregarPeliculaDirigida(pelicula);
+                enlazar(Relacion.DIRIGIDAS, numeroDe(director), numeroDe(pelicula), nueva);
+            } finally {
+                candadoDirector.unlock();
+            }
+            for (OyenteCambios o : oyentes) o.directorAsociado(pelicula, director);
+            return true;
+        } finally {
+            terminarMutacion(candado);
+        }
+    }
+
+    // ===== FAVORITOS =====
+
+    /**
+     * Marca una película como favorita de un usuario y actualiza el índice inverso.
+     *
+     * @param u usuario
+     * @param p película
+     * @return true si se agregó, false si ya estaba, si la película no está registrada
+     * o si algún parámetro es null
+     */
+    public boolean agregarFavorito(User u, Pelicula p) {
+        if (u == null || p == null || p.getId() == null) return false;
+        Lock candado = iniciarMutacionPelicula(p.getId());
+        try {
+            // Si otra sesión la eliminó después de buscarla, no debe quedar como favorita
+            p = registrada(p);
+            if (p == null) return false;
+            Lock candadoUsuario = bloquearEntidad(u);
+            try {
+                if (!u.agregarFavorito(p)) return false;
+                seguidoresPorPelicula.computeIfAbsent(p, k -> ConcurrentHashMap.newKeySet()).add(u);
+                int numeroUsuario = numeroDe(u);
+                if (numeroUsuario >= 0) {
+                    int numeroPelicula = numeroDe(p);
+                    adyacencias.get(Relacion.FAVORITOS).agregar(numeroUsuario, numeroPelicula);
+                    adyacencias.get(Relacion.SEGUIDORES).agregar(numeroPelicula, numeroUsuario);
+                }
+                for (OyenteCambios o : oyentes) o.favoritoAgregado(u, p);
+                return true;
+            } finally {
+                candadoUsuario.unlock();
+            }
+        } finally {
+            terminarMutacion(candado);
+        }
+    }
+
+    /**
+     * Quita una película de los favoritos de un usuario y actualiza el índice inverso.
+     *
+     * @param u usuario
+     * @param p película
+     * @return true si se eliminó, false si no estaba o si algún parámetro es null
+     */
+    public boolean eliminarFavorito(User u, Pelicula p) {
+        if (u == null || p == null || p.getId() == null) return false;
+        Lock candado = iniciarMutacionPelicula(p.getId());
+        try {
+            p = canonica(p);
+            Lock candadoUsuario = bloquearEntidad(u);
+            try {
+                if (!u.eliminarFavorito(p)) return false;
+                Set<User> seguidores = seguidoresPorPelicula.get(p);
+                if (seguidores != null) {
+                    seguidores.remove(u);
+                    if (seguidores.isEmpty()) {
+                        seguidoresPorPelicula.remove(p);
+                    }
+                }
+                // p puede ser una instancia vieja con el mismo id; lo que se quitó es la registrada
+                int numeroUsuario = numeroDe(u);
+                int numeroPelicula = numeroPelicula(p.getId());
+                adyacencias.get(Relacion.FAVORITOS).quitar(numeroUsuario, numeroPelicula);
+                adyacencias.get(Relacion.SEGUIDORES).quitar(numeroPelicula, numeroUsuario);
+                for (OyenteCambios o : oyentes) o.favoritoEliminado(u, p);
+                return true;
+            } finally {
+                candadoUsuario.unlock();
+            }
+        } finally {
+            terminarMutacion(candado);
+        }
+    }
+
+    // ===== LLAVES ENTERAS =====
+    //
+    // Las filas del catálogo conservan su número de fila; las películas en memoria se
+    // numeran a continuación. Los demás tipos usan la secuencia de su colección. Los
+    // números no se reutilizan después de una baja.
+
+    private int filasCatalogo() {
+        CatalogoMapeado c = catalogo;
+        return (c == null) ? 0 : c.tamano();
+    }
+
+    /**
+     * Número de la película registrada con un id, o -1 si no existe.
+     */
+    private int numeroPelicula(String id) {
+        int secuencia = peliculas.secuencia(id);
+        if (secuencia >= 0) return filasCatalogo() + secuencia;
+        return filaCatalogo(id);
+    }
+
+    /**
+     * Si {@code nueva} es false, la relación ya existía en la entidad pero pudo
+     * crearse antes de registrar el otro extremo, así que se busca antes de agregarla.
+     */
+    private void enlazar(Relacion relacion, int origen, int destino, boolean nueva) {
+        if (origen < 0 || destino < 0) return;
+        if (nueva) {
+            adyacencias.get(relacion).agregar(origen, destino);
+        } else {
+            adyacencias.get(relacion).agregarSiFalta(origen, destino);
+        }
+    }
+
+    /**
+     * Número entero denso de una película registrada.
+     *
+     * @param p película
+     * @return su número, o -1 si no es la película registrada con ese id
+     */
+    public int numeroDe(Pelicula p) {
+        if (p == null || p.getId() == null) return -1;
+        if (p instanceof PeliculaMapeada vista) {
+            return filaEliminada(vista.getFila()) ? -1 : vista.getFila();
+        }
+        int secuencia = peliculas.secuencia(p);
+        return (secuencia >= 0) ? filasCatalogo() + secuencia : -1;
+    }
+
+    /**
+     * Número entero denso de un actor registrado.
+     *
+     * @param a actor
+     * @return su número, o -1 si no está registrado
+     */
+    public int numeroDe(Actor a) {
+        return (a == null) ? -1 : actores.secuencia(a);
+    }
+
+    /**
+     * Número entero denso de un director registrado.
+     *
+     * @param d director
+     * @return su número, o -1 si no está registrado
+     */
+    public int numeroDe(Director d) {
+        return (d == null) ? -1 : directores.secuencia(d);
+    }
+
+    /**
+     * Número entero denso de un usuario registrado.
+     *
+     * @param u usuario
+     * @return su número, o -1 si no está registrado
+     */
+    public int numeroDe(User u) {
+        return (u == null) ? -1 : usuarios.secuencia(u);
+    }
+
+    /**
+     * Película con un número, en O(1).
+     *
+     * @param numero número obtenido con {@link #numeroDe(Pelicula)} o {@link #vecinos}
+     * @return la película, o null si se eliminó o el número no existe
+     */
+    public Pelicula peliculaPorNumero(int numero) {
+        if (numero < 0) return null;
+        int filas = filasCatalogo();
+        if (numero < filas) {
+            return filaEliminada(numero) ? null : activar(numero);
+        }
+        return peliculas.porSecuencia(numero - filas);
+    }
+
+    /**
+     * Igual que {@code peliculaPorNumero(numero) != null}, pero sin crear la vista de
+     * una fila del catálogo.
+     *
+     * @param numero número de película
+     * @return true si el número corresponde a una película registrada
+     */
+    public boolean peliculaViva(int numero) {
+        if (numero < 0) return false;
+        int filas = filasCatalogo();
+        if (numero < filas) return !filaEliminada(numero);
+        return peliculas.porSecuencia(numero - filas) != null;
+    }
+
+    /**
+     * @param numero número de actor
+     * @return el actor, o null si el número no existe
+     */
+    public Actor actorPorNumero(int numero) {
+        return actores.porSecuencia(numero);
+    }
+
+    /**
+     * @param numero número de director
+     * @return el director, o null si el número no existe
+     */
+    public Director directorPorNumero(int numero) {
+        return directores.porSecuencia(numero);
+    }
+
+    /**
+     * @param numero número de usuario
+     * @return el usuario, o null si el número no existe
+     */
+    public User usuarioPorNumero(int numero) {
+        return usuarios.porSecuencia(numero);
+    }
+
+    /**
+     * Cota superior (exclusiva) de los números de película asignados hasta ahora;
+     * sirve para dimensionar arreglos o mapas de bits indexados por película.
+     *
+     * @return cota de números de película
+     */
+    public int limitePeliculas() {
+        return filasCatalogo() + peliculas.limiteSecuencias();
+    }
+
+    /**
+     * @return cota superior (exclusiva) de los números de actor
+     */
+    public int limiteActores() {
+        return actores.limiteSecuencias();
+    }
+
+    /**
+     * @return cota superior (exclusiva) de los números de director
+     */
+    public int limiteDirectores() {
+        return directores.limiteSecuencias();
+    }
+
+    /**
+     * @return cota superior (exclusiva) de los números de usuario
+     */
+    public int limiteUsuarios() {
+        return usuarios.limiteSecuencias();
+    }
+
+    /**
+     * Números de las entidades relacionadas con un origen. Solo incluye relaciones
+     * entre entidades registradas.
+     *
+     * @param relacion relación a consultar
+     * @param numero   número del origen
+     * @return copia de los números relacionados, sin orden garantizado
+     */
+    public int[] vecinos(Relacion relacion, int numero) {
+        return adyacencias.get(relacion).vecinos(numero);
+    }
+
+    /**
+     * Igual que {@link #vecinos}, pero como mapa de bits, listo para intersecciones
+     * y uniones con {@link BitSet#and} y {@link BitSet#or}.
+     *
+     * @param relacion relación a consultar
+     * @param numero   número del origen
+     * @return mapa de bits nuevo con los números relacionados
+     */
+    public BitSet vecinosComoBits(Relacion relacion, int numero) {
+        BitSet bits = new BitSet();
+        adyacencias.get(relacion).marcar(numero, bits);
+        return bits;
+    }
+
+    /**
+     * Cantidad de entidades relacionadas con un origen, sin copiar nada.
+     *
+     * @param relacion relación a consultar
+     * @param numero   número del origen
+     * @return cantidad de vecinos
+     */
+    public int grado(Relacion relacion, int numero) {
+        return adyacencias.get(relacion).grado(numero);
+    }
+
+    // ===== COPIAS DE RELACIONES =====
+
+    /**
+     * Favoritos de un usuario como lista inmutable, segura aunque otro hilo los esté
+     * modificando. Solo se copian si cambiaron desde la última vez que se pidieron
+     * (ver {@link User#listaFavoritos()}).
+     *
+     * @param u usuario
+     * @return lista de solo lectura; vacía si u es null
+     */
+    public List<Pelicula> favoritosDe(User u) {
+        if (u == null) return List.of();
+        Lock candado = bloquearEntidad(u);
+        try {
+            return u.listaFavoritos();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Usuarios que marcaron una película como favorita, tomados del índice inverso
+     * (sin recorrer los usuarios).
+     *
+     * @param p película
+     * @return copia del conjunto de usuarios; vacía si nadie la marcó
+     */
+    public List<User> seguidoresDe(Pelicula p) {
+        Set<User> seguidores = (p == null) ? null : seguidoresPorPelicula.get(p);
+        return (seguidores == null) ? new ArrayList<>() : new ArrayList<>(seguidores);
+    }
+
+    /**
+     * Cantidad de usuarios que marcaron una película como favorita, en O(1).
+     *
+     * @param p película
+     * @return cantidad de seguidores
+     */
+    public int cantidadSeguidores(Pelicula p) {
+        Set<User> seguidores = (p == null) ? null : seguidoresPorPelicula.get(p);
+        return (seguidores == null) ? 0 : seguidores.size();
+    }
+
+    /**
+     * Filmografía de un actor como lista inmutable; solo se copia si cambió
+     * desde la última vez que se pidió.
+     *
+     * @param a actor
+     * @return lista de solo lectura; vacía si a es null
+     */
+    public List<Pelicula> filmografiaDe(Actor a) {
+        if (a == null) return List.of();
+        Lock candado = bloquearEntidad(a);
+        try {
+            return a.listaFilmografia();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Películas dirigidas por un director como lista inmutable; solo se copia si
+     * cambió desde la última vez que se pidió.
+     *
+     * @param d director
+     * @return lista de solo lectura; vacía si d es null
+     */
+    public List<Pelicula> peliculasDirigidasDe(Director d) {
+        if (d == null) return List.of();
+        Lock candado = bloquearEntidad(d);
+        try {
+            return d.listaPeliculasDirigidas();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Elenco de una película como lista inmutable; solo se copia si cambió desde
+     * la última vez que se pidió.
+     *
+     * @param p película
+     * @return lista de solo lectura; vacía si p es null
+     */
+    public List<Actor> elencoDe(Pelicula p) {
+        if (p == null || p.getId() == null) return List.of();
+        ReentrantLock candado = candadosPeliculas.para(ColeccionIndexada.normalizar(p.getId()));
+        candado.lock();
+        try {
+            return p.listaElenco();
+        } finally {
+            candado.unlock();
+        }
     }
 
     // ===== USUARIOS =====
@@ -102,7 +1199,7 @@ public class Data {
      * @return lista de usuarios
      */
     public List<User> getUsuarios() {
-        return usuarios;
+        return usuarios.comoLista();
     }
 
     /**
@@ -113,14 +1210,45 @@ public class Data {
      * @return true si se agregó, false si ya existía un usuario con el mismo id o si u es null
      */
     public boolean agregarUsuario(User u) {
-        if (u == null || u.getId() == null) return false;
-        if (buscarUsuarioPorId(u.getId()) != null) return false;
+        if (u == null) return false;
 
-        boolean agregado = usuarios.add(u);
-        if (agregado) {
-            cuentas.add(u); // User es una Cuenta (polimorfismo)
+        Lock candado = iniciarMutacionEntidad(u);
+        try {
+            boolean agregado = agregarCuenta(usuarios, u);
+            if (agregado) {
+                for (OyenteCambios o : oyentes) o.usuarioAgregado(u);
+            }
+            return agregado;
+        } finally {
+            terminarMutacion(candado);
+        }
+    }
+
+    /**
+     * Agrega la cuenta a su colección y a la lista polimórfica de cuentas en un solo paso.
+     * Con el candado de la entidad solo, dos altas concurrentes podrían quedar en un orden
+     * en {@code cuentas} y en otro en su colección.
+     *
+     * @return true si la cuenta era nueva
+     */
+    private <T extends Cuenta> boolean agregarCuenta(ColeccionIndexada<T> coleccion, T cuenta) {
+        synchronized (cuentas) {
+            if (!coleccion.agregar(cuenta)) return false;
+            cuentas.add(cuenta); // User y Administrador son Cuenta (polimorfismo)
+            return true;
         }
-        return agregado;
+    }
+
+    /**
+     * Agrega varios usuarios tomando el candado exclusivo una sola vez y avisa a los
+     * oyentes con un solo {@link OyenteCambios#usuariosAgregados}.
+     *
+     * @param nuevos usuarios a agregar
+     * @return los que sí se agregaron, en el mismo orden (sin null ni ids repetidos)
+     */
+    public List<User> agregarUsuarios(Collection<User> nuevos) {
+        // A la lista de cuentas de una sola vez: cada add la copia entera
+        return agregarEnLote(nuevos, usuarios::agregar, cuentas::addAll, OyenteCambios::usuariosAgregados);
     }
 
     /**
@@ -130,13 +1258,7 @@ public class Data {
      * @return el usuario encontrado o null si no existe
      */
     public User buscarUsuarioPorId(String id) {
-        if (id == null) return null;
-        for (User u : usuarios) {
-            if (u.getId() != null && u.getId().equalsIgnoreCase(id)) {
-                return u;
-            }
-        }
-        return null;
+        return usuarios.buscar(id);
     }
 
     // ===== ADMINISTRADORES =====
@@ -147,7 +1269,7 @@ public class Data {
      * @return lista de administradores
      */
     public List<Administrador> getAdministradores() {
-        return administradores;
+        return administradores.comoLista();
     }
 
     /**
@@ -158,14 +1280,18 @@ public class Data {
      * @return true si se agregó, false si ya existía un admin con ese id o si a es null
      */
     public boolean agregarAdmin(Administrador a) {
-        if (a == null || a.getId() == null) return false;
-        if (buscarAdminPorId(a.getId()) != null) return false;
+        if (a == null) return false;
 
-        boolean agregado = administradores.add(a);
-        if (agregado) {
-            cuentas.add(a); // Administrador es una Cuenta (polimorfismo)
+        Lock candado = iniciarMutacionEntidad(a);
+        try {
+            boolean agregado = agregarCuenta(administradores, a);
+            if (agregado) {
+                for (OyenteCambios o : oyentes) o.adminAgregado(a);
+            }
+            return agregado;
+        } finally {
+            terminarMutacion(candado);
         }
-        return agregado;
     }
 
     /**
@@ -175,13 +1301,7 @@ public class Data {
      * @return el administrador encontrado o null si no existe
      */
     public Administrador buscarAdminPorId(String id) {
-        if (id == null) return null;
-        for (Administrador a : administradores) {
-            if (a.getId() != null && a.getId().equalsIgnoreCase(id)) {
-                return a;
-            }
-        }
-        return null;
+        return administradores.buscar(id);
     }
 
     // ===== DIRECTORES =====
@@ -192,7 +1312,7 @@ public class Data {
      * @return lista de directores
      */
     public List<Director> getDirectores() {
-        return directores;
+        return directores.comoLista();
     }
 
     /**
@@ -202,9 +1322,26 @@ public class Data {
      * @return true si se agregó, false si ya existía un director con ese id o si d es null
      */
     public boolean agregarDirector(Director d) {
-        if (d == null || d.getId() == null) return false;
-        if (buscarDirectorPorId(d.getId()) != null) return false;
-        return directores.add(d);
+        if (d == null) return false;
+        Lock candado = iniciarMutacionEntidad(d);
+        try {
+            if (!directores.agregar(d)) return false;
+            for (OyenteCambios o : oyentes) o.directorAgregado(d);
+            return true;
+        } finally {
+            terminarMutacion(candado);
+        }
+    }
+
+    /**
+     * Agrega varios directores tomando el candado exclusivo una sola vez y avisa a los
+     * oyentes con un solo {@link OyenteCambios#directoresAgregados}.
+     *
+     * @param nuevos directores a agregar
+     * @return los que sí se agregaron, en el mismo orden (sin null ni ids repetidos)
+     */
+    public List<Director> agregarDirectores(Collection<Director> nuevos) {
+        return agregarEnLote(nuevos, directores::agregar, lote -> {}, OyenteCambios::directoresAgregados);
     }
 
     /**
@@ -214,13 +1351,7 @@ public class Data {
      * @return el director encontrado o null si no existe
      */
     public Director buscarDirectorPorId(String id) {
-        if (id == null) return null;
-        for (Director d : directores) {
-            if (d.getId() != null && d.getId().equalsIgnoreCase(id)) {
-                return d;
-            }
-        }
-        return null;
+        return directores.buscar(id);
     }
 
     // ===== ACTORES =====
@@ -231,7 +1362,7 @@ public class Data {
      * @return lista de actores
      */
     public List<Actor> getActores() {
-        return actores;
+        return actores.comoLista();
     }
 
     /**
@@ -241,9 +1372,26 @@ public class Data {
      * @return true si se agregó, false si ya existía un actor con ese id o si a es null
      */
     public boolean agregarActor(Actor a) {
-        if (a == null || a.getId() == null) return false;
-        if (buscarActorPorId(a.getId()) != null) return false;
-        return actores.add(a);
+        if (a == null) return false;
+        Lock candado = iniciarMutacionEntidad(a);
+        try {
+            if (!actores.agregar(a)) return false;
+            for (OyenteCambios o : oyentes) o.actorAgregado(a);
+            return true;
+        } finally {
+            terminarMutacion(candado);
+        }
+    }
+
+    /**
+     * Agrega varios actores tomando el candado exclusivo una sola vez y avisa a los
+     * oyentes con un solo {@link OyenteCambios#actoresAgregados}.
+     *
+     * @param nuevos actores a agregar
+     * @return los que sí se agregaron, en el mismo orden (sin null ni ids repetidos)
+     */
+    public List<Actor> agregarActores(Collection<Actor> nuevos) {
+        return agregarEnLote(nuevos, actores::agregar, lote -> {}, OyenteCambios::actoresAgregados);
     }
 
     /**
@@ -253,13 +1401,7 @@ public class Data {
      * @return el actor encontrado o null si no existe
      */
     public Actor buscarActorPorId(String id) {
-        if (id == null) return null;
-        for (Actor a : actores) {
-            if (a.getId() != null && a.getId().equalsIgnoreCase(id)) {
-                return a;
-            }
-        }
-        return null;
+        return actores.buscar(id);
     }
 
     // ===== CUENTAS =====
@@ -269,9 +1411,183 @@ public class Data {
      * Aquí conviven tanto usuarios como administradores
      * gracias a que ambos heredan de {@link Cuenta}.
      *
-     * @return lista de cuentas
+     * @return lista de cuentas (solo lectura)
      */
     public List<Cuenta> getCuentas() {
-        return cuentas;
+        return cuentasSoloLectura;
+    }
+
+    // ===== PAGINACIÓN =====
+    //
+    // Recorridos por id (sin distinguir mayúsculas) que continúan después del último
+    // id entregado, en lugar de copiar listas completas. Cada página cuesta
+    // O(log n + cantidad) y las altas o bajas entre páginas no hacen que se repitan
+    // ni se salten los elementos que siguen registrados.
+
+    private static String llaveDe(String id) {
+        return (id == null) ? null : ColeccionIndexada.normalizar(id);
+    }
+
+    /**
+     * Películas ordenadas por id que siguen a {@code id}, incluyendo las filas vivas
+     * del catálogo. Las filas del catálogo sin vista conservada se devuelven como
+     * vistas temporales, igual que en {@link #getPeliculas()}.
+     *
+     * @param id       último id ya entregado; null para empezar desde el inicio
+     * @param cantidad cantidad máxima de películas
+     * @return películas en orden de id
+     */
+    public List<Pelicula> peliculasDespuesDe(String id, int cantidad) {
+        String llave = llaveDe(id);
+        List<Pelicula> enMemoria = peliculas.pagina(llave, false, cantidad);
+        CatalogoMapeado c = catalogo;
+        if (c == null) return enMemoria;
+
+        List<Pelicula> resultado = new ArrayList<>(Math.min(cantidad, 64));
+        int posicion = c.posicionDespuesDe(llave);
+        int i = 0;
+        while (resultado.size() < cantidad) {
+            while (posicion < c.tamano() && filaEliminada(c.filaEnOrden(posicion))) {
+                posicion++;
+            }
+            boolean quedaCatalogo = posicion < c.tamano();
+            boolean quedaMemoria = i < enMemoria.size();
+            if (!quedaCatalogo && !quedaMemoria) break;
+
+            // Los ids del catálogo y los de memoria nunca coinciden
+            if (quedaCatalogo && (!quedaMemoria || ColeccionIndexada.normalizar(c.id(c.filaEnOrden(posicion)))
+                    .compareTo(ColeccionIndexada.normalizar(enMemoria.get(i).getId())) < 0)) {
+                resultado.add(vistaDe(c.filaEnOrden(posicion++)));
+            } else {
+                resultado.add(enMemoria.get(i++));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Usuarios ordenados por id que siguen a {@code id}.
+     *
+     * @param id       último id ya entregado; null para empezar desde el inicio
+     * @param cantidad cantidad máxima de usuarios
+     * @return usuarios en orden de id
+     */
+    public List<User> usuariosDespuesDe(String id, int cantidad) {
+        return usuarios.pagina(llaveDe(id), false, cantidad);
+    }
+
+    /**
+     * Directores ordenados por id que siguen a {@code id}.
+     *
+     * @param id       último id ya entregado; null para empezar desde el inicio
+     * @param cantidad cantidad máxima de directores
+     * @return directores en orden de id
+     */
+    public List<Director> directoresDespuesDe(String id, int cantidad) {
+        return directores.pagina(llaveDe(id), false, cantidad);
+    }
+
+    /**
+     * Actores ordenados por id que siguen a {@code id}.
+     *
+     * @param id       último id ya entregado; null para empezar desde el inicio
+     * @param cantidad cantidad máxima de actores
+     * @return actores en orden de id
+     */
+    public List<Actor> actoresDespuesDe(String id, int cantidad) {
+        return actores.pagina(llaveDe(id), false, cantidad);
+    }
+
+    /**
+     * Cuentas ordenadas por id que siguen a la cuenta indicada. Un usuario y un
+     * administrador pueden compartir id; en ese caso va primero el administrador.
+     *
+     * @param id            id de la última cuenta entregada; null para empezar desde el inicio
+     * @param administrador si la última cuenta entregada era de administrador
+     * @param cantidad      cantidad máxima de cuentas
+     * @return cuentas en orden de id
+     */
+    public List<Cuenta> cuentasDespuesDe(String id, boolean administrador, int cantidad) {
+        String llave = llaveDe(id);
+        List<Administrador> admins = administradores.pagina(llave, false, cantidad);
+        List<User> users = usuarios.pagina(llave, administrador, cantidad);
+
+        List<Cuenta> resultado = new ArrayList<>(Math.min(cantidad, 64));
+        int i = 0;
+        int j = 0;
+        while (resultado.size() < cantidad && (i < admins.size() || j < users.size())) {
+            if (j == users.size() || (i < admins.size() && ColeccionIndexada.normalizar(admins.get(i).getId())
+                    .compareTo(ColeccionIndexada.normalizar(users.get(j).getId())) <= 0)) {
+                resultado.add(admins.get(i++));
+            } else {
+                resultado.add(users.get(j++));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Lista de solo lectura que combina las filas vivas del catálogo con las películas
+     * registradas en memoria. Las filas que no tienen vista conservada se devuelven
+     * como vistas temporales, sin guardarlas.
+     *
+     * El recorrido con iterador es secuencial y débilmente consistente; el acceso por
+     * posición es directo mientras no haya filas eliminadas del catálogo y lineal en
+     * caso contrario.
+     */
+    private final class VistaPeliculas extends AbstractList<Pelicula> {
+
+        private int filasVivas() {
+            synchronized (filasEliminadas) {
+                return catalogo.tamano() - cantidadFilasEliminadas;
+            }
+        }
+
+        @Override
+        public Pelicula get(int index) {
+            if (index < 0) throw new IndexOutOfBoundsException("Índice: " + index);
+            int vivas = filasVivas();
+            if (index >= vivas) {
+                return peliculas.comoLista().get(index - vivas);
+            }
+            synchronized (filasEliminadas) {
+                int fila = filasEliminadas.nextClearBit(0);
+                for (int i = 0; i < index; i++) {
+                    fila = filasEliminadas.nextClearBit(fila + 1);
+                }
+                return vistaDe(fila);
+            }
+        }
+
+        @Override
+        public int size() {
+            return filasVivas() + peliculas.tamano();
+        }
+
+        @Override
+        public Iterator<Pelicula> iterator() {
+            return new Iterator<>() {
+                private int fila = siguienteFilaViva(0);
+                private Iterator<Pelicula> enMemoria;
+
+                @Override
+                public boolean hasNext() {
+                    if (fila < catalogo.tamano()) return true;
+                    if (enMemoria == null) enMemoria = peliculas.comoLista().iterator();
+                    return enMemoria.hasNext();
+                }
+
+                @Override
+                public Pelicula next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    if (fila < catalogo.tamano()) {
+                        Pelicula p = vistaDe(fila);
+                        fila = siguienteFilaViva(fila + 1);
+                        return p;
+                    }
+                    return enMemoria.next();
+                }
+            };
+        }
     }
 }
@@ -0,0 +1,101 @@
+package cr.ac.ucenfotec.dl;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Genero;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.RegistroGeneros;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utilidades de codificación binaria compartidas por la bitácora y las instantáneas.
+ *
+ * Los textos se guardan como longitud + bytes UTF-8 (longitud -1 para null),
+ * lo que evita el límite de 64 KB de {@code writeUTF}.
+ */
+final class FormatoBinario {
+
+    private FormatoBinario() {
+    }
+
+    static void escribirTexto(DataOutput out, String texto) throws IOException {
+        if (texto == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String leerTexto(DataInput in) throws IOException {
+        int longitud = in.readInt();
+        if (longitud < 0) return null;
+        byte[] bytes = new byte[longitud];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Escribe una película con sus datos, géneros, ficha y las referencias
+     * (por id) a su director y a los actores del elenco.
+     */
+    static void escribirPelicula(DataOutput out, Pelicula p) throws IOException {
+        escribirTexto(out, p.getId());
+        escribirTexto(out, p.getTitulo());
+        out.writeInt(p.getAnio());
+        out.writeInt(p.getDuracionMinutos());
+        escribirTexto(out, p.getClasificacion());
+
+        out.writeInt(p.getGeneros().size());
+        for (Genero g : p.getGeneros()) {
+            escribirTexto(out, g.getNombre());
+        }
+        escribirTexto(out, (p.getFicha() != null) ? p.getFicha().sinopsis() : null);
+        escribirTexto(out, (p.getDirector() != null) ? p.getDirector().getId() : null);
+
+        out.writeInt(p.getElenco().size());
+        for (Actor a : p.getElenco()) {
+            escribirTexto(out, a.getId());
+        }
+    }
+
+    /**
+     * Lee una película escrita con {@link #escribirPelicula}, resolviendo director
+     * y elenco contra los registrados en {@code data}. Las referencias que ya no
+     * existen se descartan.
+     */
+    static Pelicula leerPelicula(DataInput in, Data data) throws IOException {
+        Pelicula p = new Pelicula();
+        p.setId(leerTexto(in));
+        p.setTitulo(leerTexto(in));
+        p.setAnio(in.readInt());
+        p.setDuracionMinutos(in.readInt());
+        p.setClasificacion(leerTexto(in));
+
+        int cantidadGeneros = in.readInt();
+        for (int i = 0; i < cantidadGeneros; i++) {
+            p.agregarGenero(RegistroGeneros.interno(leerTexto(in)));
+        }
+
+        String sinopsis = leerTexto(in);
+        if (sinopsis != null) {
+            p.setFicha(new Pelicula.Ficha(sinopsis));
+        }
+        Director director = data.buscarDirectorPorId(leerTexto(in));
+        p.setDirector(director);
+
+        int cantidadActores = in.readInt();
+        for (int i = 0; i < cantidadActores; i++) {
+            Actor a = data.buscarActorPorId(leerTexto(in));
+            if (a != null) {
+                p.agregarActor(a);
+            }
+        }
+        return p;
+    }
+}
@@ -0,0 +1,318 @@
+package cr.ac.ucenfotec.dl;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Administrador;
+import cr.ac.ucenfotec.bl.entities.Cuenta;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.Privilegio;
+import cr.ac.ucenfotec.bl.entities.Rol;
+import cr.ac.ucenfotec.bl.entities.User;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Instantánea binaria compacta del contenido completo de {@link Data}.
+ *
+ * El archivo guarda el último LSN de la bitácora que cubre, de modo que al
+ * arrancar solo se reproducen los registros posteriores. Se escribe primero en
+ * un archivo temporal y luego se reemplaza de forma atómica, para que una caída
+ * a mitad de la escritura no deje una instantánea incompleta.
+ *
+ * Orden de las secciones: directores, actores, cuentas (administradores y usuarios
+ * en su orden de registro), ids eliminados del catálogo mapeado, películas (con
+ * referencias a director y elenco) y favoritos (cada bloque encabezado por el id de su
+ * usuario, así no depende de que las dos listas de cuentas estén en el mismo orden).
+ *
+ * Las películas de un {@link CatalogoMapeado} que no fueron modificadas se guardan
+ * solo como referencia (id, director y elenco); sus datos siguen viniendo del
+ * catálogo. Las filas sin director ni elenco no ocupan espacio, aunque se hayan
+ * consultado.
+ */
+final class Instantanea {
+
+    private static final int MAGICO = 0x4D435331; // "MCS1"
+    private static final int VERSION = 3;
+    /** Versión anterior: los favoritos iban por posición del usuario, sin su id. */
+    private static final int VERSION_FAVORITOS_POR_POSICION = 2;
+
+    /**
+     * Cantidad de privilegios que se escribe para un administrador sin ninguno. Antes de
+     * existir {@link Privilegio} la lista siempre se guardaba vacía (0) y esos
+     * administradores podían hacer de todo; por eso 0 se lee como {@link Rol#ADMINISTRADOR}
+     * y "ninguno" se distingue con este valor.
+     */
+    private static final int SIN_PRIVILEGIOS = -1;
+
+    private static final byte CUENTA_ADMIN = 1;
+    private static final byte CUENTA_USUARIO = 2;
+
+    private static final byte PELICULA_COMPLETA = 1;
+    private static final byte PELICULA_REFERENCIA = 2;
+
+    private Instantanea() {
+    }
+
+    /**
+     * Escribe la instantánea de {@code data}.
+     *
+     * @param archivo destino
+     * @param data    datos a guardar
+     * @param lsn     último LSN cubierto por esta instantánea
+     * @throws IOException si falla la escritura
+     */
+    static void escribir(Path archivo, Data data, long lsn) throws IOException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+
+        try (FileOutputStream fos = new FileOutputStream(temporal.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 64 * 1024))) {
+            out.writeInt(MAGICO);
+            out.writeInt(VERSION);
+            out.writeLong(lsn);
+
+            List<Director> directores = data.getDirectores();
+            out.writeInt(directores.size());
+            for (Director d : directores) {
+                FormatoBinario.escribirTexto(out, d.getId());
+                FormatoBinario.escribirTexto(out, d.getNombre());
+            }
+
+            List<Actor> actores = data.getActores();
+            out.writeInt(actores.size());
+            for (Actor a : actores) {
+                FormatoBinario.escribirTexto(out, a.getId());
+                FormatoBinario.escribirTexto(out, a.getNombre());
+            }
+
+            List<Cuenta> cuentas = data.getCuentas();
+            out.writeInt(cuentas.size());
+            for (Cuenta c : cuentas) {
+                if (c instanceof Administrador a) {
+                    out.writeByte(CUENTA_ADMIN);
+                    escribirAdmin(out, a);
+                } else {
+                    out.writeByte(CUENTA_USUARIO);
+                    FormatoBinario.escribirTexto(out, c.getId());
+                    FormatoBinario.escribirTexto(out, c.getUsername());
+                    FormatoBinario.escribirTexto(out, c.getEmail());
+                }
+            }
+
+            List<String> eliminadas = data.idsEliminadosDelCatalogo();
+            out.writeInt(eliminadas.size());
+            for (String id : eliminadas) {
+                FormatoBinario.escribirTexto(out, id);
+            }
+
+            List<Pelicula> peliculas = new ArrayList<>();
+            for (Pelicula p : data.peliculasEnMemoria()) {
+                if (!esFilaIntacta(p)) peliculas.add(p);
+            }
+            out.writeInt(peliculas.size());
+            for (Pelicula p : peliculas) {
+                if (p instanceof PeliculaMapeada vista && !vista.isModificada()) {
+                    out.writeByte(PELICULA_REFERENCIA);
+                    escribirReferencia(out, p);
+                } else {
+                    out.writeByte(PELICULA_COMPLETA);
+                    FormatoBinario.escribirPelicula(out, p);
+                }
+            }
+
+            List<User> usuarios = data.getUsuarios();
+            out.writeInt(usuarios.size());
+            for (User u : usuarios) {
+                FormatoBinario.escribirTexto(out, u.getId());
+                out.writeInt(u.getFavoritos().size());
+                for (Pelicula p : u.getFavoritos()) {
+                    FormatoBinario.escribirTexto(out, p.getId());
+                }
+            }
+
+            out.flush();
+            fos.getFD().sync();
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Carga la instantánea en {@code data}, que debe estar vacío.
+     *
+     * @param archivo archivo de la instantánea
+     * @param data    destino de los datos
+     * @return LSN cubierto por la instantánea, o 0 si el archivo no existe
+     * @throws IOException si el archivo no es válido o falla la lectura
+     */
+    static long cargar(Path archivo, Data data) throws IOException {
+        if (!Files.exists(archivo)) return 0;
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(archivo), 64 * 1024))) {
+            int version = (in.readInt() == MAGICO) ? in.readInt() : -1;
+            if (version != VERSION && version != VERSION_FAVORITOS_POR_POSICION) {
+                throw new IOException("Formato de instantánea no reconocido: " + archivo);
+            }
+            long lsn = in.readLong();
+
+            int cantidad = in.readInt();
+            for (int i = 0; i < cantidad; i++) {
+                String id = FormatoBinario.leerTexto(in);
+                String nombre = FormatoBinario.leerTexto(in);
+                data.agregarDirector(new Director(id, nombre, new ArrayList<>()));
+            }
+
+            cantidad = in.readInt();
+            for (int i = 0; i < cantidad; i++) {
+                String id = FormatoBinario.leerTexto(in);
+                String nombre = FormatoBinario.leerTexto(in);
+                data.agregarActor(new Actor(id, nombre, new ArrayList<>()));
+            }
+
+            cantidad = in.readInt();
+            List<User> usuarios = new ArrayList<>();
+            for (int i = 0; i < cantidad; i++) {
+                if (in.readByte() == CUENTA_ADMIN) {
+                    data.agregarAdmin(leerAdmin(in));
+                } else {
+                    String id = FormatoBinario.leerTexto(in);
+                    String username = FormatoBinario.leerTexto(in);
+                    String email = FormatoBinario.leerTexto(in);
+                    User u = new User(id, username, email);
+                    data.agregarUsuario(u);
+                    usuarios.add(u);
+                }
+            }
+
+            cantidad = in.readInt();
+            for (int i = 0; i < cantidad; i++) {
+                data.eliminarPelicula(FormatoBinario.leerTexto(in));
+            }
+
+            cantidad = in.readInt();
+            for (int i = 0; i < cantidad; i++) {
+                if (in.readByte() == PELICULA_REFERENCIA) {
+                    leerReferencia(in, data);
+                } else {
+                    Pelicula p = FormatoBinario.leerPelicula(in, data);
+                    if (!data.agregarPelicula(p)) {
+                        fusionar(data, p);
+                    }
+                }
+            }
+
+            if (version == VERSION_FAVORITOS_POR_POSICION) {
+                for (User u : usuarios) {
+                    leerFavoritos(in, data, u);
+                }
+            } else {
+                cantidad = in.readInt();
+                for (int i = 0; i < cantidad; i++) {
+                    leerFavoritos(in, data, data.buscarUsuarioPorId(FormatoBinario.leerTexto(in)));
+                }
+            }
+            return lsn;
+        }
+    }
+
+    /** Lee un bloque de favoritos; con {@code u} null (usuario que ya no existe) solo lo salta. */
+    private static void leerFavoritos(DataInputStream in, Data data, User u) throws IOException {
+        int favoritos = in.readInt();
+        for (int j = 0; j < favoritos; j++) {
+            Pelicula p = data.buscarPeliculaPorId(FormatoBinario.leerTexto(in));
+            if (u != null) data.agregarFavorito(u, p);
+        }
+    }
+
+    /**
+     * Vista del catálogo sin cambios, sin director y sin elenco: todo lo que diría su
+     * referencia ya está en el catálogo. Omitirla evita que cada consulta que conservó
+     * una vista la vuelva a cargar en el siguiente arranque.
+     */
+    private static boolean esFilaIntacta(Pelicula p) {
+        return p instanceof PeliculaMapeada vista && !vista.isModificada()
+                && p.getDirector() == null && p.getElenco().isEmpty();
+    }
+
+    private static void escribirReferencia(DataOutputStream out, Pelicula p) throws IOException {
+        FormatoBinario.escribirTexto(out, p.getId());
+        FormatoBinario.escribirTexto(out, (p.getDirector() != null) ? p.getDirector().getId() : null);
+        out.writeInt(p.getElenco().size());
+        for (Actor a : p.getElenco()) {
+            FormatoBinario.escribirTexto(out, a.getId());
+        }
+    }
+
+    private static void leerReferencia(DataInputStream in, Data data) throws IOException {
+        Pelicula p = data.buscarPeliculaPorId(FormatoBinario.leerTexto(in));
+        Director director = data.buscarDirectorPorId(FormatoBinario.leerTexto(in));
+        data.asociarPeliculaConDirector(p, director);
+        int cantidad = in.readInt();
+        for (int i = 0; i < cantidad; i++) {
+            data.asociarActorConPelicula(data.buscarActorPorId(FormatoBinario.leerTexto(in)), p);
+        }
+    }
+
+    /**
+     * Aplica sobre la película ya existente (por ejemplo, porque ahora viene del
+     * catálogo mapeado) los datos y relaciones de una película leída completa.
+     */
+    private static void fusionar(Data data, Pelicula leida) {
+        Pelicula existente = data.buscarPeliculaPorId(leida.getId());
+        if (existente == null) return;
+        if (!Objects.equals(existente.getTitulo(), leida.getTitulo())
+                || existente.getAnio() != leida.getAnio()
+                || existente.getDuracionMinutos() != leida.getDuracionMinutos()
+                || !Objects.equals(existente.getClasificacion(), leida.getClasificacion())) {
+            data.actualizarPelicula(existente, leida.getTitulo(), leida.getAnio(),
+                    leida.getDuracionMinutos(), leida.getClasificacion());
+        }
+        if (!Objects.equals(existente.getFicha(), leida.getFicha())) {
+            data.actualizarFicha(existente, leida.getFicha());
+        }
+        if (!existente.getGeneros().equals(leida.getGeneros())) {
+            data.actualizarGeneros(existente, leida.getGeneros());
+        }
+        data.asociarPeliculaConDirector(existente, leida.getDirector());
+        data.asociarElenco(existente, leida.getElenco());
+    }
+
+    static void escribirAdmin(DataOutputStream out, Administrador a) throws IOException {
+        FormatoBinario.escribirTexto(out, a.getId());
+        FormatoBinario.escribirTexto(out, a.getUsername());
+        FormatoBinario.escribirTexto(out, a.getEmail());
+        // Se guardan los nombres, no la máscara: los bits dependen del orden del enum.
+        Set<Privilegio> privilegios = a.getPrivilegios();
+        out.writeInt(privilegios.isEmpty() ? SIN_PRIVILEGIOS : privilegios.size());
+        for (Privilegio privilegio : privilegios) {
+            FormatoBinario.escribirTexto(out, privilegio.name());
+        }
+    }
+
+    static Administrador leerAdmin(DataInputStream in) throws IOException {
+        String id = FormatoBinario.leerTexto(in);
+        String username = FormatoBinario.leerTexto(in);
+        String email = FormatoBinario.leerTexto(in);
+        int cantidad = in.readInt();
+        if (cantidad == 0) {
+            // Guardado antes de los privilegios: conserva el acceso total que tenía.
+            return new Administrador(id, username, email, Rol.ADMINISTRADOR.mascara());
+        }
+        List<String> privilegios = new ArrayList<>(Math.max(cantidad, 0));
+        for (int i = 0; i < cantidad; i++) {
+            privilegios.add(FormatoBinario.leerTexto(in));
+        }
+        return new Administrador(id, username, email, Privilegio.mascaraDeNombres(privilegios));
+    }
+}
@@ -0,0 +1,108 @@
+package cr.ac.ucenfotec.dl;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Administrador;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.User;
+
+import java.util.List;
+
+/**
+ * Observador de las mutaciones que ocurren en {@link Data}.
+ *
+ * {@link Data} notifica a sus oyentes después de aplicar cada cambio con éxito,
+ * de modo que componentes como la persistencia puedan reaccionar sin que la
+ * capa de datos dependa de ellos.
+ *
+ * Todos los métodos tienen una implementación vacía por defecto para que cada
+ * oyente sobrescriba solo los eventos que le interesan. Los eventos de lote
+ * ({@code *Agregados}, {@link #elencoAsociado}) delegan por defecto en el evento
+ * individual; un oyente los sobrescribe si le sale más barato actualizarse una
+ * sola vez por lote.
+ */
+public interface OyenteCambios {
+
+    default void peliculaAgregada(Pelicula p) {}
+
+    default void peliculaEliminada(Pelicula p) {}
+
+    /**
+     * Se invoca cuando cambian título, año, duración o clasificación.
+     *
+     * @param p película ya actualizada
+     */
+    default void peliculaActualizada(Pelicula p) {}
+
+    default void fichaActualizada(Pelicula p) {}
+
+    /**
+     * Se invoca cuando se reemplazan los géneros de una película.
+     *
+     * @param p película ya actualizada
+     */
+    default void generosActualizados(Pelicula p) {}
+
+    default void usuarioAgregado(User u) {}
+
+    default void adminAgregado(Administrador a) {}
+
+    default void directorAgregado(Director d) {}
+
+    default void actorAgregado(Actor a) {}
+
+    default void actorAsociado(Actor a, Pelicula p) {}
+
+    default void directorAsociado(Pelicula p, Director d) {}
+
+    default void favoritoAgregado(User u, Pelicula p) {}
+
+    default void favoritoEliminado(User u, Pelicula p) {}
+
+    /**
+     * Se invoca una vez por {@link Data#agregarPeliculas} con las películas que sí se agregaron.
+     *
+     * @param nuevas películas agregadas, en el orden recibido
+     */
+    default void peliculasAgregadas(List<Pelicula> nuevas) {
+        for (Pelicula p : nuevas) peliculaAgregada(p);
+    }
+
+    /**
+     * Se invoca una vez por {@link Data#agregarUsuarios} con los usuarios que sí se agregaron.
+     *
+     * @param nuevos usuarios agregados, en el orden recibido
+     */
+    default void usuariosAgregados(List<User> nuevos) {
+        for (User u : nuevos) usuarioAgregado(u);
+    }
+
+    /**
+     * Se invoca una vez por {@link Data#agregarDirectores} con los directores que sí se agregaron.
+     *
+     * @param nuevos directores agregados, en el orden recibido
+     */
+    default void directoresAgregados(List<Director> nuevos) {
+        for (Director d : nuevos) directorAgregado(d);
+    }
+
+    /**
+     * Se invoca una vez por {@link Data#agregarActores} con los actores que sí se agregaron.
+     *
+     * @param nuevos actores agregados, en el orden recibido
+     */
+    default void actoresAgregados(List<Actor> nuevos) {
+        for (Actor a : nuevos) actorAgregado(a);
+    }
+
+    /**
+     * Se invoca una vez por {@link Data#asociarElenco} con los actores que quedaron
+     * asociados a la película en esa llamada (no los que ya estaban).
+     *
+     * @param p      película
+     * @param nuevos actores recién asociados
+     */
+    default void elencoAsociado(Pelicula p, List<Actor> nuevos) {
+        for (Actor a : nuevos) actorAsociado(a, p);
+    }
+}
@@ -0,0 +1,166 @@
+package cr.ac.ucenfotec.dl;
+
+import cr.ac.ucenfotec.bl.entities.Genero;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Vista ligera (flyweight) de una fila de un {@link CatalogoMapeado}.
+ *
+ * Solo el id se decodifica al crear la vista (lo necesitan {@code equals} y
+ * {@code hashCode}); el resto de campos se leen del archivo mapeado cada vez que
+ * se piden. En cuanto se modifica algún dato propio de la película, la vista se
+ * materializa: copia los valores a los campos de {@link Pelicula} y a partir de
+ * ahí se comporta como una película normal.
+ *
+ * Director y elenco no están en el archivo y viven siempre en memoria.
+ *
+ * El id es el de la fila. Como el de cualquier película registrada, no se cambia: las
+ * rutas de edición no lo ofrecen y la API rechaza el intento con un error de validación.
+ *
+ * Los cambios llegan siempre desde {@link Data} con el candado de la película
+ * tomado; {@code materializada} es volátil para que los lectores de otros hilos
+ * vean los campos copiados completos en cuanto la vista deja de leer del archivo.
+ */
+final class PeliculaMapeada extends Pelicula {
+
+    private final CatalogoMapeado catalogo;
+    private final int fila;
+
+    private volatile boolean materializada;
+    private boolean generosCargados;
+
+    PeliculaMapeada(CatalogoMapeado catalogo, int fila) {
+        this.catalogo = catalogo;
+        this.fila = fila;
+        super.setId(catalogo.id(fila));
+    }
+
+    int getFila() {
+        return fila;
+    }
+
+    /**
+     * Indica si algún dato propio de la película cambió respecto al archivo.
+     */
+    boolean isModificada() {
+        return materializada;
+    }
+
+    /**
+     * Copia al objeto todos los campos del archivo. Se invoca antes de cualquier
+     * modificación para no perder los valores que no se están cambiando.
+     */
+    private synchronized void materializar() {
+        if (materializada) return;
+        super.setTitulo(catalogo.titulo(fila));
+        super.setAnio(catalogo.anio(fila));
+        super.setDuracionMinutos(catalogo.duracion(fila));
+        super.setClasificacion(catalogo.clasificacion(fila));
+        String sinopsis = catalogo.sinopsis(fila);
+        super.setFicha((sinopsis != null) ? new Ficha(sinopsis) : null);
+        cargarGeneros();
+        materializada = true;
+    }
+
+    @Override
+    public String getTitulo() {
+        return materializada ? super.getTitulo() : catalogo.titulo(fila);
+    }
+
+    @Override
+    public void setTitulo(String titulo) {
+        materializar();
+        super.setTitulo(titulo);
+    }
+
+    @Override
+    public int getAnio() {
+        return materializada ? super.getAnio() : catalogo.anio(fila);
+    }
+
+    @Override
+    public void setAnio(int anio) {
+        materializar();
+        super.setAnio(anio);
+    }
+
+    @Override
+    public int getDuracionMinutos() {
+        return materializada ? super.getDuracionMinutos() : catalogo.duracion(fila);
+    }
+
+    @Override
+    public void setDuracionMinutos(int duracionMinutos) {
+        materializar();
+        super.setDuracionMinutos(duracionMinutos);
+    }
+
+    @Override
+    public String getClasificacion() {
+        return materializada ? super.getClasificacion() : catalogo.clasificacion(fila);
+    }
+
+    @Override
+    public void setClasificacion(String clasificacion) {
+        materializar();
+        super.setClasificacion(clasificacion);
+    }
+
+    /**
+     * Los géneros se pasan del archivo al mapa de bits de la película la primera
+     * vez que se consultan.
+     */
+    private synchronized void cargarGeneros() {
+        if (!generosCargados) {
+            generosCargados = true;
+            super.setGeneros(catalogo.generos(fila));
+        }
+    }
+
+    @Override
+    public List<Genero> getGeneros() {
+        cargarGeneros();
+        return super.getGeneros();
+    }
+
+    @Override
+    public boolean tieneGenero(Genero genero) {
+        cargarGeneros();
+        return super.tieneGenero(genero);
+    }
+
+    @Override
+    public BitSet getMascaraGeneros() {
+        cargarGeneros();
+        return super.getMascaraGeneros();
+    }
+
+    @Override
+    public void setGeneros(Collection<Genero> generos) {
+        materializar();
+        super.setGeneros(generos);
+    }
+
+    @Override
+    public boolean agregarGenero(Genero genero) {
+        materializar();
+        return super.agregarGenero(genero);
+    }
+
+    @Override
+    public Ficha getFicha() {
+        if (materializada) return super.getFicha();
+        String sinopsis = catalogo.sinopsis(fila);
+        return (sinopsis != null) ? new Ficha(sinopsis) : null;
+    }
+
+    @Override
+    public void setFicha(Ficha ficha) {
+        materializar();
+        super.setFicha(ficha);
+    }
+}
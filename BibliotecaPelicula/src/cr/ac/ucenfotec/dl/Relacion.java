@@ -0,0 +1,26 @@
+package cr.ac.ucenfotec.dl;
+
+/**
+ * Relaciones que {@link Data} guarda con llaves enteras densas
+ * (ver {@link Data#vecinos(Relacion, int)}).
+ *
+ * Cada constante indica qué número recibe como origen y a qué tipo de entidad
+ * pertenecen los números que devuelve.
+ */
+public enum Relacion {
+
+    /** Película → actores de su elenco. */
+    ELENCO,
+
+    /** Actor → películas en las que participa. */
+    FILMOGRAFIA,
+
+    /** Director → películas que dirigió. */
+    DIRIGIDAS,
+
+    /** Usuario → películas favoritas. */
+    FAVORITOS,
+
+    /** Película → usuarios que la marcaron como favorita. */
+    SEGUIDORES
+}
@@ -0,0 +1,60 @@
+package cr.ac.ucenfotec.bench;
+
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.dl.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Data#agregarPelicula(Pelicula)} sobre catálogos de distinto tamaño.
+ *
+ * Cada iteración parte de un catálogo recién cargado y mide un lote fijo de altas
+ * con ids nuevos, así el tamaño no crece sin control entre iteraciones. Las
+ * películas del lote se crean en la preparación para no medir su construcción.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, batchSize = AltaPeliculasBenchmark.LOTE)
+@Measurement(iterations = 10, batchSize = AltaPeliculasBenchmark.LOTE)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AltaPeliculasBenchmark {
+
+    static final int LOTE = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    int tamano;
+
+    private Data data;
+    private Pelicula[] nuevas;
+    private int siguiente;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        data = GeneradorDatos.dataConPeliculas(tamano);
+        Random random = new Random(GeneradorDatos.SEMILLA);
+        nuevas = new Pelicula[LOTE];
+        for (int i = 0; i < LOTE; i++) {
+            nuevas[i] = GeneradorDatos.pelicula(GeneradorDatos.idPelicula(tamano + i), random);
+        }
+        siguiente = 0;
+    }
+
+    @Benchmark
+    public boolean agregarPelicula() {
+        return data.agregarPelicula(nuevas[siguiente++]);
+    }
+}
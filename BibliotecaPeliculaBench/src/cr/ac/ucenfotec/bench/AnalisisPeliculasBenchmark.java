@@ -0,0 +1,72 @@
+package cr.ac.ucenfotec.bench;
+
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.logic.Gestor;
+import cr.ac.ucenfotec.bl.logic.ResumenDuracion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agregaciones de {@link Gestor#analizarPeliculas()} sobre la proyección por columnas,
+ * con todo el catálogo y con un filtro de género y rango de años.
+ *
+ * La proyección se construye en la preparación, así que solo se mide el recorrido.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AnalisisPeliculasBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int tamano;
+
+    private Gestor gestor;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        gestor = new Gestor();
+        for (int i = 0; i < 20; i++) {
+            gestor.registrarDirector("D" + i, "Director " + i);
+        }
+        Random random = new Random(GeneradorDatos.SEMILLA);
+        for (Pelicula p : GeneradorDatos.peliculas(tamano)) {
+            gestor.crearPelicula(p);
+            gestor.asociarPeliculaConDirector(p, gestor.buscarDirectorPorId("D" + random.nextInt(20)));
+        }
+        gestor.analizarPeliculas();
+    }
+
+    @Benchmark
+    public SortedMap<Integer, ResumenDuracion> duracionPorAnio() {
+        return gestor.analizarPeliculas().porAnio();
+    }
+
+    @Benchmark
+    public Map<String, ResumenDuracion> dramasNoventaPorClasificacion() {
+        return gestor.analizarPeliculas().genero("Drama").entreAnios(1990, 1999).porClasificacion();
+    }
+
+    @Benchmark
+    public Map<Director, ResumenDuracion> peliculasPorDirector() {
+        return gestor.analizarPeliculas().porDirector();
+    }
+}
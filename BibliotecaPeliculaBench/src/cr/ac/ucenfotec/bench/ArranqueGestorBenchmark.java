@@ -0,0 +1,83 @@
+package cr.ac.ucenfotec.bench;
+
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.logic.Gestor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link Gestor#Gestor(Path)} sobre un directorio con el catálogo compactado a
+ * {@code catalogo.mcat}. Abrir no debe crecer con el catálogo: los índices se arman
+ * en la primera consulta, que se mide aparte para ver a dónde se movió ese costo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ArranqueGestorBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int tamano;
+
+    private Path directorio;
+    private Gestor gestor;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("arranque");
+        try (Gestor g = new Gestor(directorio)) {
+            g.crearPeliculas(GeneradorDatos.peliculas(tamano));
+        }
+        Gestor.compactarCatalogo(directorio);
+    }
+
+    @TearDown(Level.Invocation)
+    public void cerrar() throws IOException {
+        if (gestor != null) {
+            gestor.close();
+            gestor = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            for (Path p : archivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Benchmark
+    public Gestor abrir() throws IOException {
+        gestor = new Gestor(directorio);
+        return gestor;
+    }
+
+    @Benchmark
+    public List<Pelicula> abrirYBuscar() throws IOException {
+        gestor = new Gestor(directorio);
+        return gestor.buscarPeliculasPorTexto("noche", 10);
+    }
+}
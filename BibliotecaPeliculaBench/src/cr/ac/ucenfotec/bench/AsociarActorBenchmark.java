@@ -0,0 +1,70 @@
+package cr.ac.ucenfotec.bench;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.logic.Gestor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Gestor#asociarActorConPelicula(Actor, Pelicula)} sobre una película que
+ * ya tiene un elenco grande.
+ *
+ * Cada iteración arma de nuevo la película con {@code elenco} actores y mide un lote
+ * de asociaciones de actores nuevos. Pasa por los índices y oyentes del gestor, igual
+ * que desde la consola.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, batchSize = AsociarActorBenchmark.LOTE)
+@Measurement(iterations = 10, batchSize = AsociarActorBenchmark.LOTE)
+@Fork(1)
+public class AsociarActorBenchmark {
+
+    static final int LOTE = 1_000;
+
+    @Param({"10", "1000", "100000"})
+    int elenco;
+
+    private Gestor gestor;
+    private Pelicula pelicula;
+    private Actor[] nuevos;
+    private int siguiente;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        gestor = new Gestor();
+        pelicula = GeneradorDatos.pelicula(GeneradorDatos.idPelicula(0), new Random(GeneradorDatos.SEMILLA));
+        gestor.crearPelicula(pelicula);
+        for (int i = 0; i < elenco; i++) {
+            gestor.registrarActor(GeneradorDatos.idActor(i), "Actor " + i);
+            gestor.asociarActorConPelicula(gestor.buscarActorPorId(GeneradorDatos.idActor(i)), pelicula);
+        }
+        nuevos = new Actor[LOTE];
+        for (int i = 0; i < LOTE; i++) {
+            String id = GeneradorDatos.idActor(elenco + i);
+            gestor.registrarActor(id, "Actor " + (elenco + i));
+            nuevos[i] = gestor.buscarActorPorId(id);
+        }
+        siguiente = 0;
+    }
+
+    @Benchmark
+    public boolean asociarActorConPelicula() {
+        return gestor.asociarActorConPelicula(nuevos[siguiente++], pelicula);
+    }
+}
@@ -0,0 +1,66 @@
+package cr.ac.ucenfotec.bench;
+
+import cr.ac.ucenfotec.bl.entities.Administrador;
+import cr.ac.ucenfotec.bl.entities.Privilegio;
+import cr.ac.ucenfotec.bl.entities.Rol;
+import cr.ac.ucenfotec.bl.logic.Autorizador;
+import cr.ac.ucenfotec.bl.logic.GestorSesiones;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de las verificaciones de permisos que el {@code Gestor} hace antes de cada
+ * escritura: {@link Administrador#tienePrivilegio(Privilegio)} sobre la máscara, el
+ * {@link Autorizador#PERMITIR_TODO} por defecto y {@link Autorizador#segunSesion}
+ * leyendo la sesión del hilo, como lo instala el servidor HTTP (por eso el estado es
+ * por hilo: la sesión se fija en el mismo hilo que mide).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AutorizacionBenchmark {
+
+    private final ThreadLocal<GestorSesiones.Identidad> sesionActual = new ThreadLocal<>();
+
+    private Administrador admin;
+    private Autorizador porSesion;
+    private Privilegio privilegio;
+
+    @Setup
+    public void preparar() {
+        admin = new Administrador("AD0", "admin", "admin@moviecloud.com", Rol.EDITOR.mascara());
+        GestorSesiones sesiones = new GestorSesiones();
+        GestorSesiones.Identidad identidad = sesiones.validar(sesiones.abrir(admin));
+        sesionActual.set(identidad);
+        porSesion = Autorizador.segunSesion(sesionActual::get);
+        privilegio = Privilegio.GESTIONAR_ELENCO;
+    }
+
+    @Benchmark
+    public boolean tienePrivilegio() {
+        return admin.tienePrivilegio(privilegio);
+    }
+
+    @Benchmark
+    public void permitirTodo() {
+        Autorizador.PERMITIR_TODO.verificar(privilegio);
+    }
+
+    @Benchmark
+    public void segunSesion() {
+        porSesion.verificar(privilegio);
+    }
+}
@@ -0,0 +1,68 @@
+package cr.ac.ucenfotec.bench;
+
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.dl.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Data#buscarPeliculaPorId(String)} con catálogos de distinto tamaño.
+ *
+ * Los ids a buscar se eligen al azar de antemano y la mitad va en minúsculas,
+ * para incluir el costo de la búsqueda sin distinguir mayúsculas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BusquedaPeliculasBenchmark {
+
+    private static final int CANTIDAD_IDS = 1 << 12;
+
+    @Param({"1000", "100000", "1000000"})
+    int tamano;
+
+    private Data data;
+    private String[] existentes;
+    private String[] inexistentes;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        data = GeneradorDatos.dataConPeliculas(tamano);
+        Random random = new Random(GeneradorDatos.SEMILLA);
+        existentes = new String[CANTIDAD_IDS];
+        inexistentes = new String[CANTIDAD_IDS];
+        for (int i = 0; i < CANTIDAD_IDS; i++) {
+            String id = GeneradorDatos.idPelicula(random.nextInt(tamano));
+            existentes[i] = (i % 2 == 0) ? id : id.toLowerCase(Locale.ROOT);
+            inexistentes[i] = GeneradorDatos.idPelicula(tamano + random.nextInt(tamano));
+        }
+    }
+
+    @Benchmark
+    public Pelicula buscarExistente() {
+        return data.buscarPeliculaPorId(existentes[siguiente++ & (CANTIDAD_IDS - 1)]);
+    }
+
+    @Benchmark
+    public Pelicula buscarInexistente() {
+        return data.buscarPeliculaPorId(inexistentes[siguiente++ & (CANTIDAD_IDS - 1)]);
+    }
+}
@@ -0,0 +1,14 @@
+package cr.ac.ucenfotec.bench;
+
+/**
+ * Punto de entrada para correr los benchmarks desde el IDE.
+ *
+ * Acepta los mismos argumentos que la línea de comandos de JMH, por ejemplo
+ * {@code Busqueda -p tamano=100000} para correr solo las búsquedas con 100 mil películas.
+ */
+public class EjecutarBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,101 @@
+package cr.ac.ucenfotec.bench;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Genero;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.logic.Conteo;
+import cr.ac.ucenfotec.bl.logic.EstadisticasCatalogo;
+import cr.ac.ucenfotec.bl.logic.Gestor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Gestor#estadisticas()}: la copia consistente del catálogo y cada reporte
+ * calculado en paralelo sobre una copia ya tomada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EstadisticasCatalogoBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int tamano;
+
+    private Gestor gestor;
+    private EstadisticasCatalogo estadisticas;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        gestor = new Gestor();
+        for (int i = 0; i < 200; i++) {
+            gestor.registrarDirector("D" + i, "Director " + i);
+        }
+        for (int i = 0; i < 5000; i++) {
+            gestor.registrarActor(GeneradorDatos.idActor(i), "Actor " + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            gestor.registrarUsuario("U" + i, "usuario" + i, "u" + i + "@correo.com");
+        }
+        Random random = new Random(GeneradorDatos.SEMILLA);
+        List<Actor> elenco = new ArrayList<>();
+        for (Pelicula p : GeneradorDatos.peliculas(tamano)) {
+            gestor.crearPelicula(p);
+            gestor.asociarPeliculaConDirector(p, gestor.buscarDirectorPorId("D" + random.nextInt(200)));
+            elenco.clear();
+            for (int j = random.nextInt(6); j > 0; j--) {
+                elenco.add(gestor.buscarActorPorId(GeneradorDatos.idActor(random.nextInt(5000))));
+            }
+            gestor.asociarElenco(p, elenco);
+            for (int j = random.nextInt(3); j > 0; j--) {
+                gestor.agregarFavorito(gestor.loginUsuario("U" + random.nextInt(1000)), p);
+            }
+        }
+        estadisticas = gestor.estadisticas();
+    }
+
+    @Benchmark
+    public EstadisticasCatalogo tomarCopia() {
+        return gestor.estadisticas();
+    }
+
+    @Benchmark
+    public List<Conteo<Pelicula>> peliculasMasFavoritas() {
+        return estadisticas.peliculasMasFavoritas(100);
+    }
+
+    @Benchmark
+    public List<Conteo<Actor>> actoresMasProlificos() {
+        return estadisticas.actoresMasProlificos(100);
+    }
+
+    @Benchmark
+    public SortedMap<Integer, Map<Genero, Long>> generosPorDecada() {
+        return estadisticas.generosPorDecada();
+    }
+
+    @Benchmark
+    public Map<Director, Double> promedioElencoPorDirector() {
+        return estadisticas.promedioElencoPorDirector();
+    }
+}
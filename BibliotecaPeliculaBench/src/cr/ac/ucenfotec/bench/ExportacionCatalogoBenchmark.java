@@ -0,0 +1,88 @@
+package cr.ac.ucenfotec.bench;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.logic.ExportadorCatalogo;
+import cr.ac.ucenfotec.bl.logic.Gestor;
+import cr.ac.ucenfotec.bl.logic.ImportadorCatalogo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Gestor#exportador()}: exportar 100 000 películas con elenco y director en
+ * cada formato, con y sin gzip, a un archivo temporal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExportacionCatalogoBenchmark {
+
+    private static final int PELICULAS = 100_000;
+
+    @Param({"CSV", "JSONL", "BINARIO"})
+    ExportadorCatalogo.Formato formato;
+
+    @Param({"false", "true"})
+    boolean comprimido;
+
+    private Gestor gestor;
+    private Path archivo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        gestor = new Gestor();
+        for (int i = 0; i < 100; i++) {
+            gestor.registrarDirector("D" + i, "Director " + i);
+        }
+        for (int i = 0; i < 5000; i++) {
+            gestor.registrarActor(GeneradorDatos.idActor(i), "Actor " + i);
+        }
+        Random random = new Random(GeneradorDatos.SEMILLA);
+        List<Actor> elenco = new ArrayList<>();
+        for (Pelicula p : GeneradorDatos.peliculas(PELICULAS)) {
+            gestor.crearPelicula(p);
+            gestor.asociarPeliculaConDirector(p, gestor.buscarDirectorPorId("D" + random.nextInt(100)));
+            elenco.clear();
+            for (int j = random.nextInt(6); j > 0; j--) {
+                elenco.add(gestor.buscarActorPorId(GeneradorDatos.idActor(random.nextInt(5000))));
+            }
+            gestor.asociarElenco(p, elenco);
+        }
+        archivo = Files.createTempFile("exportacion", ".dat");
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        Files.deleteIfExists(archivo);
+    }
+
+    @Benchmark
+    public long exportarPeliculas() throws IOException {
+        return gestor.exportador()
+                .formato(formato)
+                .comprimido(comprimido)
+                .exportar(archivo, ImportadorCatalogo.Tipo.PELICULAS);
+    }
+}
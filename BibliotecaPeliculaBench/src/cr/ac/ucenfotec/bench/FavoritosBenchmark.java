@@ -0,0 +1,70 @@
+package cr.ac.ucenfotec.bench;
+
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link User#agregarFavorito(Pelicula)} con listas de favoritos largas.
+ *
+ * Mide dos casos por separado: agregar películas nuevas (un lote por iteración,
+ * partiendo de {@code favoritos} ya marcadas) y volver a marcar una que ya estaba,
+ * que es el peor caso de la verificación de duplicados.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, batchSize = FavoritosBenchmark.LOTE)
+@Measurement(iterations = 10, batchSize = FavoritosBenchmark.LOTE)
+@Fork(1)
+public class FavoritosBenchmark {
+
+    static final int LOTE = 1_000;
+
+    @Param({"10", "1000", "100000"})
+    int favoritos;
+
+    private User usuario;
+    private List<Pelicula> peliculas;
+    private Pelicula repetida;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void crearPeliculas() {
+        peliculas = GeneradorDatos.peliculas(favoritos + LOTE);
+    }
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        usuario = new User("U0", "usuario", "usuario@moviecloud.com");
+        for (int i = 0; i < favoritos; i++) {
+            usuario.agregarFavorito(peliculas.get(i));
+        }
+        repetida = peliculas.get(favoritos - 1);
+        siguiente = favoritos;
+    }
+
+    @Benchmark
+    public boolean agregarNueva() {
+        return usuario.agregarFavorito(peliculas.get(siguiente++));
+    }
+
+    @Benchmark
+    public boolean agregarRepetida() {
+        return usuario.agregarFavorito(repetida);
+    }
+}
@@ -0,0 +1,121 @@
+package cr.ac.ucenfotec.bench;
+
+import cr.ac.ucenfotec.bl.entities.Actor;
+import cr.ac.ucenfotec.bl.entities.Director;
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.RegistroGeneros;
+import cr.ac.ucenfotec.dl.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos sintéticos para los benchmarks.
+ *
+ * Todo es determinista: la misma semilla produce los mismos títulos, años y
+ * géneros, para que dos corridas (antes y después de un cambio) midan lo mismo.
+ * Los ids son {@code P0, P1, ...} para películas y {@code A0, A1, ...} para actores.
+ */
+public final class GeneradorDatos {
+
+    public static final long SEMILLA = 42L;
+
+    private static final String[] PALABRAS = {
+            "amor", "guerra", "noche", "ciudad", "sombra", "regreso", "viaje", "secreto",
+            "camino", "futuro", "mar", "sol", "tiempo", "historia", "corazón", "último"
+    };
+    private static final String[] CLASIFICACIONES = {"G", "PG", "PG-13", "R", "NC-17"};
+    private static final String[] GENEROS = {
+            "Acción", "Drama", "Comedia", "Terror", "Ciencia ficción", "Animación", "Documental", "Romance"
+    };
+
+    private GeneradorDatos() {
+    }
+
+    public static String idPelicula(int i) {
+        return "P" + i;
+    }
+
+    public static String idActor(int i) {
+        return "A" + i;
+    }
+
+    /**
+     * Película con título de tres palabras, año, duración, clasificación y dos géneros.
+     *
+     * @param id     id de la película
+     * @param random generador a usar
+     * @return película sin elenco ni director
+     */
+    public static Pelicula pelicula(String id, Random random) {
+        String titulo = PALABRAS[random.nextInt(PALABRAS.length)] + " "
+                + PALABRAS[random.nextInt(PALABRAS.length)] + " "
+                + PALABRAS[random.nextInt(PALABRAS.length)];
+        Pelicula p = new Pelicula(id, titulo, 1950 + random.nextInt(75), 80 + random.nextInt(100),
+                CLASIFICACIONES[random.nextInt(CLASIFICACIONES.length)]);
+        p.agregarGenero(RegistroGeneros.interno(GENEROS[random.nextInt(GENEROS.length)]));
+        p.agregarGenero(RegistroGeneros.interno(GENEROS[random.nextInt(GENEROS.length)]));
+        return p;
+    }
+
+    /**
+     * Películas {@code P0 ... P(cantidad-1)}.
+     *
+     * @param cantidad cantidad de películas
+     * @return lista nueva
+     */
+    public static List<Pelicula> peliculas(int cantidad) {
+        Random random = new Random(SEMILLA);
+        List<Pelicula> lista = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            lista.add(pelicula(idPelicula(i), random));
+        }
+        return lista;
+    }
+
+    public static Actor actor(int i) {
+        return new Actor(idActor(i), "Actor " + i, new ArrayList<>());
+    }
+
+    public static Director director(int i) {
+        return new Director("D" + i, "Director " + i, new ArrayList<>());
+    }
+
+    /**
+     * Capa de datos en memoria con {@code cantidad} películas registradas.
+     *
+     * @param cantidad cantidad de películas
+     * @return datos listos para consultar
+     */
+    public static Data dataConPeliculas(int cantidad) {
+        Data data = new Data();
+        for (Pelicula p : peliculas(cantidad)) {
+            data.agregarPelicula(p);
+        }
+        return data;
+    }
+
+    /**
+     * Películas completas para mostrar: con director y un elenco de cinco actores
+     * (compartidos entre todas, como en un catálogo real).
+     *
+     * @param cantidad cantidad de películas
+     * @return lista nueva
+     */
+    public static List<Pelicula> peliculasConElenco(int cantidad) {
+        List<Actor> actores = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            actores.add(actor(i));
+        }
+        Random random = new Random(SEMILLA);
+        List<Pelicula> lista = peliculas(cantidad);
+        for (Pelicula p : lista) {
+            p.setDirector(director(random.nextInt(20)));
+            for (int j = 0; j < 5; j++) {
+                p.agregarActor(actores.get(random.nextInt(actores.size())));
+            }
+        }
+        return lista;
+    }
+}
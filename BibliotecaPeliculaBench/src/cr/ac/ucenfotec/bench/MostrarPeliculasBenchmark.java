@@ -0,0 +1,60 @@
+package cr.ac.ucenfotec.bench;
+
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.ui.UI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UI#mostrarPeliculas} con la salida estándar redirigida a un destino nulo,
+ * para medir el armado del texto sin depender de la consola.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MostrarPeliculasBenchmark {
+
+    @Param({"20", "1000", "10000"})
+    int cantidad;
+
+    private UI ui;
+    private List<Pelicula> peliculas;
+    private PrintStream salidaOriginal;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        ui = new UI();
+        peliculas = GeneradorDatos.peliculasConElenco(cantidad);
+        salidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restaurar() {
+        System.setOut(salidaOriginal);
+    }
+
+    @Benchmark
+    public void mostrarPeliculas() {
+        ui.mostrarPeliculas(peliculas);
+    }
+}
@@ -0,0 +1,161 @@
+package cr.ac.ucenfotec.bench;
+
+import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.logic.Gestor;
+import cr.ac.ucenfotec.tl.ServidorApi;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga de {@link ServidorApi}: levanta el servidor en este mismo proceso
+ * (puerto libre, datos en memoria de {@link GeneradorDatos}) y lo golpea con muchos
+ * clientes concurrentes, cada uno en un hilo virtual con su propia conexión HTTP/1.1.
+ * <p>
+ * No es un benchmark de JMH: mide el servidor completo (red local, análisis de la
+ * solicitud, JSON) y reporta solicitudes por segundo y percentiles de latencia.
+ * La mezcla es 70 % consultas de película, 10 % búsquedas, 10 % favoritos leídos y
+ * 10 % favoritos marcados.
+ * <p>
+ * Argumentos (todos opcionales): {@code clientes segundos peliculas}, por defecto
+ * {@code 200 10 100000}.
+ */
+public final class PruebaCargaServidor {
+
+    private static final int USUARIOS = 1000;
+    private static final String[] BUSQUEDAS = {"amor", "noche ciudad", "viaje", "último secreto", "mar"};
+
+    private PruebaCargaServidor() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clientes = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int segundos = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int peliculas = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+        Gestor gestor = new Gestor();
+        List<Pelicula> catalogo = GeneradorDatos.peliculas(peliculas);
+        gestor.crearPeliculas(catalogo);
+        String[] tokens = new String[USUARIOS];
+        for (int i = 0; i < USUARIOS; i++) {
+            gestor.registrarUsuario("U" + i, "usuario" + i, "usuario" + i + "@correo.com");
+            tokens[i] = gestor.iniciarSesionUsuario("U" + i);
+        }
+
+        try (ServidorApi servidor = new ServidorApi(gestor)) {
+            servidor.iniciar(new InetSocketAddress("localhost", 0));
+            String base = "http://localhost:" + servidor.puerto() + "/api/";
+            System.out.printf("%d película(s), %d cliente(s), %d s contra %s%n", peliculas, clientes, segundos, base);
+
+            // Un segundo de calentamiento para que el JIT no cuente en la medición.
+            correr(base, tokens, clientes, 1, peliculas);
+            Resultado r = correr(base, tokens, clientes, segundos, peliculas);
+
+            long[] lat = r.latencias();
+            Arrays.sort(lat);
+            System.out.printf("%d solicitud(es), %d error(es), %.0f sol/s%n",
+                    lat.length, r.errores(), lat.length / (r.nanos() / 1e9));
+            System.out.printf("latencia (ms): p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  máx %.2f%n",
+                    percentil(lat, 0.50), percentil(lat, 0.90), percentil(lat, 0.99),
+                    percentil(lat, 0.999), lat.length == 0 ? 0 : lat[lat.length - 1] / 1e6);
+        }
+    }
+
+    private record Resultado(long[] latencias, long errores, long nanos) {
+    }
+
+    private static Resultado correr(String base, String[] tokens, int clientes, int segundos, int peliculas)
+            throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        AtomicLong errores = new AtomicLong();
+        long inicio = System.nanoTime();
+        long fin = inicio + segundos * 1_000_000_000L;
+        long[][] porCliente = new long[clientes][];
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?>[] tareas = new Future<?>[clientes];
+            for (int c = 0; c < clientes; c++) {
+                int cliente = c;
+                tareas[c] = hilos.submit(() -> {
+                    porCliente[cliente] = cliente(http, base, tokens, cliente, fin, peliculas, errores);
+                    return null;
+                });
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        }
+        long nanos = System.nanoTime() - inicio;
+
+        int total = 0;
+        for (long[] l : porCliente) total += l.length;
+        long[] todas = new long[total];
+        int k = 0;
+        for (long[] l : porCliente) {
+            System.arraycopy(l, 0, todas, k, l.length);
+            k += l.length;
+        }
+        return new Resultado(todas, errores.get(), nanos);
+    }
+
+    /**
+     * Un cliente: manda solicitudes una tras otra hasta {@code fin} y devuelve sus latencias.
+     * Las de favoritos van con la sesión de su usuario, como las exige el servidor.
+     */
+    private static long[] cliente(HttpClient http, String base, String[] tokens, int cliente, long fin,
+                                  int peliculas, AtomicLong errores) throws Exception {
+        SplittableRandom random = new SplittableRandom(GeneradorDatos.SEMILLA + cliente);
+        String usuario = "usuarios/U" + (cliente % USUARIOS);
+        String autorizacion = "Bearer " + tokens[cliente % USUARIOS];
+        long[] latencias = new long[1024];
+        int n = 0;
+        while (System.nanoTime() < fin) {
+            int tipo = random.nextInt(10);
+            HttpRequest.Builder solicitud;
+            if (tipo < 7) {
+                solicitud = HttpRequest.newBuilder(URI.create(
+                        base + "peliculas/" + GeneradorDatos.idPelicula(random.nextInt(peliculas))));
+            } else if (tipo == 7) {
+                String q = BUSQUEDAS[random.nextInt(BUSQUEDAS.length)].replace(" ", "%20");
+                solicitud = HttpRequest.newBuilder(URI.create(base + "peliculas/buscar?limite=20&q=" + q));
+            } else if (tipo == 8) {
+                solicitud = HttpRequest.newBuilder(URI.create(base + usuario + "/favoritos"))
+                        .header("Authorization", autorizacion);
+            } else {
+                solicitud = HttpRequest.newBuilder(URI.create(base + usuario + "/favoritos/"
+                                + GeneradorDatos.idPelicula(random.nextInt(peliculas))))
+                        .header("Authorization", autorizacion)
+                        .PUT(HttpRequest.BodyPublishers.noBody());
+            }
+
+            long t0 = System.nanoTime();
+            try {
+                HttpResponse<Void> respuesta = http.send(solicitud.build(), HttpResponse.BodyHandlers.discarding());
+                if (respuesta.statusCode() >= 400) errores.incrementAndGet();
+            } catch (java.io.IOException e) {
+                errores.incrementAndGet();
+            }
+            if (n == latencias.length) latencias = Arrays.copyOf(latencias, n * 2);
+            latencias[n++] = System.nanoTime() - t0;
+        }
+        return Arrays.copyOf(latencias, n);
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) return 0;
+        int i = (int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1);
+        return ordenadas[Math.max(0, i)] / 1e6;
+    }
+}
@@ -1,12 +1,20 @@
 package cr.ac.ucenfotec.tl;
 
 import cr.ac.ucenfotec.bl.entities.*;
+import cr.ac.ucenfotec.bl.logic.ExportadorCatalogo;
 import cr.ac.ucenfotec.bl.logic.Gestor;
+import cr.ac.ucenfotec.bl.logic.GestorSesiones;
+import cr.ac.ucenfotec.bl.logic.ImportadorCatalogo;
+import cr.ac.ucenfotec.bl.logic.Pagina;
+import cr.ac.ucenfotec.bl.logic.ReporteImportacion;
+import cr.ac.ucenfotec.bl.logic.Sugerencia;
 import cr.ac.ucenfotec.ui.UI;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 /**
  * Controlador principal de la aplicación.
@@ -19,29 +27,36 @@ import java.util.List;
  *     <li>Menú de usuario normal.</li>
  * </ul>
  *
- * También gestiona el estado de la sesión (sin sesión, admin, usuario)
- * utilizando el enum {@link EstadoSesion}.
+ * La sesión se abre en el {@link Gestor}, que devuelve un token; en cada vuelta del
+ * menú se valida el token y la identidad obtenida (administrador o usuario) decide qué
+ * menú mostrar. Sin token, o si la sesión venció por inactividad, se vuelve al modo invitado.
  */
 public class Controller {
 
-    /**
-     * Representa el estado actual de la sesión en ejecución.
-     * SIN_SESION: nadie ha iniciado sesión.
-     * ADMIN: sesión iniciada como administrador.
-     * USUARIO: sesión iniciada como usuario normal.
-     */
-    private enum EstadoSesion {
-        SIN_SESION,
-        ADMIN,
-        USUARIO
-    }
+    private static final int MAXIMO_RESULTADOS_TEXTO = 20;
+    private static final int MAXIMO_SUGERENCIAS = 5;
+    private static final int RECOMENDACIONES_AL_INICIAR = 5;
+    private static final int MAXIMO_RECOMENDACIONES = 20;
+    private static final int TAMANO_PAGINA = 20;
+    private static final long AVISO_IMPORTACION = 100_000;
 
     private final UI ui = new UI();
-    private final Gestor gestor = new Gestor();
+    private final Gestor gestor;
 
-    private EstadoSesion estadoSesion = EstadoSesion.SIN_SESION;
-    private Administrador adminActual;
-    private User usuarioActual;
+    /** Token de la sesión abierta, o null en modo invitado. */
+    private String token;
+    /** Identidad de la sesión, validada al inicio de cada vuelta del menú. */
+    private GestorSesiones.Identidad sesion;
+
+    /**
+     * Crea el controlador sobre un gestor ya inicializado
+     * (en memoria o con persistencia).
+     *
+     * @param gestor lógica de negocio a utilizar
+     */
+    public Controller(Gestor gestor) {
+        this.gestor = gestor;
+    }
 
     /**
      * Método de arranque de la aplicación.
@@ -55,22 +70,24 @@ public class Controller {
         while (!salir) {
             int opcion;
 
-            switch (estadoSesion) {
-                case SIN_SESION -> {
-                    ui.mostrarMenuInvitado();
-                    opcion = ui.leerOpcion();
-                    salir = procesarOpcionInvitado(opcion);
-                }
-                case ADMIN -> {
-                    ui.mostrarMenuAdmin(adminActual.getUsername());
-                    opcion = ui.leerOpcion();
-                    procesarOpcionAdmin(opcion);
-                }
-                case USUARIO -> {
-                    ui.mostrarMenuUsuario(usuarioActual.getUsername());
-                    opcion = ui.leerOpcion();
-                    procesarOpcionUsuario(opcion);
-                }
+            sesion = gestor.sesion(token);
+            if (sesion == null && token != null) {
+                token = null;
+                ui.mostrarMensaje("La sesión venció por inactividad. Volviendo al modo invitado.");
+            }
+
+            if (sesion == null) {
+                ui.mostrarMenuInvitado();
+                opcion = ui.leerOpcion();
+                salir = procesarOpcionInvitado(opcion);
+            } else if (sesion.administrador()) {
+                ui.mostrarMenuAdmin(sesion.cuenta().getUsername());
+                opcion = ui.leerOpcion();
+                procesarOpcionAdmin(opcion);
+            } else {
+                ui.mostrarMenuUsuario(sesion.cuenta().getUsername());
+                opcion = ui.leerOpcion();
+                procesarOpcionUsuario(opcion);
             }
         }
 
@@ -141,14 +158,12 @@ public class Controller {
     private void iniciarSesionAdmin() throws IOException {
         ui.mostrarMensaje("\n=== Iniciar sesión (ADMIN) ===");
         String id = ui.leerId("ID admin:");
-        Administrador a = gestor.loginAdmin(id);
-        if (a == null) {
+        String nuevo = gestor.iniciarSesionAdmin(id);
+        if (nuevo == null) {
             ui.mostrarMensaje("Administrador no encontrado.");
         } else {
-            adminActual = a;
-            usuarioActual = null;
-            estadoSesion = EstadoSesion.ADMIN;
-            ui.mostrarMensaje("Sesión iniciada como administrador: " + adminActual.getUsername());
+            cambiarSesion(nuevo);
+            ui.mostrarMensaje("Sesión iniciada como administrador: " + sesion.cuenta().getUsername());
         }
     }
 
@@ -160,14 +175,17 @@ public class Controller {
     private void iniciarSesionUsuario() throws IOException {
         ui.mostrarMensaje("\n=== Iniciar sesión (USUARIO) ===");
         String id = ui.leerId("ID usuario:");
-        User u = gestor.loginUsuario(id);
-        if (u == null) {
+        String nuevo = gestor.iniciarSesionUsuario(id);
+        if (nuevo == null) {
             ui.mostrarMensaje("Usuario no encontrado.");
         } else {
-            usuarioActual = u;
-            adminActual = null;
-            estadoSesion = EstadoSesion.USUARIO;
-            ui.mostrarMensaje("Sesión iniciada como usuario: " + usuarioActual.getUsername());
+            cambiarSesion(nuevo);
+            ui.mostrarMensaje("Sesión iniciada como usuario: " + sesion.cuenta().getUsername());
+            List<Pelicula> recomendadas = gestor.recomendarPeliculas(usuarioActual(), RECOMENDACIONES_AL_INICIAR);
+            if (!recomendadas.isEmpty()) {
+                ui.mostrarMensaje("\n=== RECOMENDADAS PARA USTED ===");
+                ui.mostrarPeliculas(recomendadas);
+            }
         }
     }
 
@@ -175,12 +193,28 @@ public class Controller {
      * Cierra la sesión actual (si la hay) y vuelve al modo invitado.
      */
     private void cerrarSesion() {
-        adminActual = null;
-        usuarioActual = null;
-        estadoSesion = EstadoSesion.SIN_SESION;
+        gestor.cerrarSesion(token);
+        token = null;
+        sesion = null;
         ui.mostrarMensaje("Sesión cerrada. Volviendo al modo invitado.");
     }
 
+    /**
+     * Reemplaza la sesión actual (cerrándola, si había una) por la recién abierta.
+     *
+     * @param nuevo token devuelto por el gestor
+     */
+    private void cambiarSesion(String nuevo) {
+        if (token != null) gestor.cerrarSesion(token);
+        token = nuevo;
+        sesion = gestor.sesion(nuevo);
+    }
+
+    /** Usuario de la sesión actual; solo se llama desde el menú de usuario. */
+    private User usuarioActual() {
+        return (User) sesion.cuenta();
+    }
+
     // ====== MENÚ ADMIN ======
 
     /**
@@ -192,7 +226,7 @@ public class Controller {
     private void procesarOpcionAdmin(int opcion) throws IOException {
         switch (opcion) {
             case 1 -> crearPelicula();
-            case 2 -> ui.mostrarPeliculas(gestor.listarPeliculas());
+            case 2 -> listarPeliculas();
             case 3 -> buscarPelicula();
             case 4 -> actualizarPelicula();
             case 5 -> eliminarPelicula();
@@ -201,6 +235,9 @@ public class Controller {
             case 8 -> registrarActor();
             case 9 -> listarActores();
             case 10 -> asociarActorPelicula();
+            case 11 -> buscarPorTexto();
+            case 12 -> importarCatalogo();
+            case 13 -> exportarCatalogo();
             case 0 -> cerrarSesion();
             default -> ui.mostrarMensaje("Opción inválida.");
         }
@@ -216,7 +253,7 @@ public class Controller {
         ui.mostrarMensaje("\n=== Crear película ===");
         String id = ui.leerId("ID película:");
         String titulo = ui.leerTextoObligatorio("Título:");
-        int anio = ui.leerEntero("Año (>= 1888):");
+        int anio = ui.leerAnio("Año (>= 1888):");
         int duracion = ui.leerEntero("Duración en minutos:");
         String clasificacion = ui.leerClasificacion();
 
@@ -228,7 +265,7 @@ public class Controller {
         p.setAnio(anio);
         p.setDuracionMinutos(duracion);
         p.setClasificacion(clasificacion);
-        p.setGeneros(new ArrayList<>(generos));
+        p.setGeneros(generos);
 
         String desea = ui.leerTextoObligatorio("¿Desea agregar sinopsis? (si/no):");
         if (desea.equalsIgnoreCase("si") || desea.equalsIgnoreCase("sí")) {
@@ -236,19 +273,31 @@ public class Controller {
             p.setFicha(new Pelicula.Ficha(sinopsis));
         }
 
+        Director director = null;
         String respDir = ui.leerTextoObligatorio("¿Desea asociar un director? (si/no):");
         if (respDir.equalsIgnoreCase("si") || respDir.equalsIgnoreCase("sí")) {
-            seleccionarDirectorParaPelicula(p);
+            director = seleccionarDirector();
         }
 
         boolean ok = gestor.crearPelicula(p);
         if (ok) {
             ui.mostrarMensaje("Película creada correctamente.");
+            // La asociación se hace con la película ya registrada
+            asociarDirector(p, director);
         } else {
             ui.mostrarMensaje("Ya existe una película con ese ID.");
         }
     }
 
+    /**
+     * Lista las películas por páginas, ordenadas por id.
+     *
+     * @throws IOException si ocurre un error de lectura
+     */
+    private void listarPeliculas() throws IOException {
+        mostrarPorPaginas(gestor::paginarPeliculas, ui::mostrarPeliculas);
+    }
+
     /**
      * Busca una película por su id y muestra el detalle.
      *
@@ -259,6 +308,34 @@ public class Controller {
         String id = ui.leerId("ID de la película:");
         Pelicula p = gestor.buscarPeliculaPorId(id);
         ui.mostrarDetallePelicula(p);
+        if (p != null) {
+            ui.mostrarMensaje("Favorita de " + gestor.contarFavoritos(p) + " usuario(s).");
+        }
+    }
+
+    /**
+     * Busca películas por texto libre (título, sinopsis, actores y director)
+     * y muestra las más relevantes.
+     *
+     * @throws IOException si ocurre un error de lectura
+     */
+    private void buscarPorTexto() throws IOException {
+        ui.mostrarMensaje("\n=== Buscar películas por texto ===");
+        ui.mostrarMensaje("Use \"comillas\" para frases y * al final para buscar por prefijo.");
+        String consulta = ui.leerTextoObligatorio("Texto a buscar:");
+        List<Pelicula> resultados = gestor.buscarPeliculasPorTexto(consulta, MAXIMO_RESULTADOS_TEXTO);
+        if (resultados.isEmpty()) {
+            ui.mostrarMensaje("No se encontraron películas.");
+            List<Sugerencia> sugerencias = gestor.autocompletar(consulta, MAXIMO_SUGERENCIAS);
+            if (!sugerencias.isEmpty()) {
+                ui.mostrarMensaje("¿Quiso decir...?");
+                for (Sugerencia s : sugerencias) {
+                    ui.mostrarMensaje("  " + s.texto() + " (" + s.tipo().name().toLowerCase() + ")");
+                }
+            }
+            return;
+        }
+        ui.mostrarPeliculas(resultados);
     }
 
     /**
@@ -277,6 +354,7 @@ public class Controller {
         }
 
         ui.mostrarMensaje("\nValores actuales:");
+        ui.mostrarMensaje("ID: " + p.getId() + " (no se puede cambiar)");
         ui.mostrarMensaje("Título: " + p.getTitulo());
         ui.mostrarMensaje("Año: " + p.getAnio());
         ui.mostrarMensaje("Duración: " + p.getDuracionMinutos() + " min");
@@ -303,15 +381,12 @@ public class Controller {
             seleccionarDirectorParaPelicula(p);
         }
 
-        System.out.print("Nueva sinopsis (ENTER = mantener, '-' = eliminar): ");
-        String nuevaSinopsis = new java.io.BufferedReader(
-                new java.io.InputStreamReader(System.in)).readLine();
+        String nuevaSinopsis = ui.leerLinea("Nueva sinopsis (ENTER = mantener, '-' = eliminar):");
         if (nuevaSinopsis != null) {
-            nuevaSinopsis = nuevaSinopsis.trim();
             if (nuevaSinopsis.equals("-")) {
-                p.setFicha(null);
+                gestor.actualizarFicha(p, null);
             } else if (!nuevaSinopsis.isEmpty()) {
-                p.setFicha(new Pelicula.Ficha(nuevaSinopsis));
+                gestor.actualizarFicha(p, new Pelicula.Ficha(nuevaSinopsis));
             }
         }
 
@@ -332,13 +407,38 @@ public class Controller {
     }
 
     /**
-     * Permite seleccionar un director para una película, ya sea
+     * Permite seleccionar un director para una película ya registrada, ya sea
      * utilizando uno existente o creando uno nuevo.
      *
      * @param p película a la que se asociará el director
      * @throws IOException si ocurre un error de lectura
      */
     private void seleccionarDirectorParaPelicula(Pelicula p) throws IOException {
+        asociarDirector(p, seleccionarDirector());
+    }
+
+    /**
+     * Asocia el director elegido a la película, si se eligió alguno.
+     *
+     * @param p        película registrada
+     * @param director director elegido (puede ser null)
+     */
+    private void asociarDirector(Pelicula p, Director director) {
+        if (director == null) return;
+        if (gestor.asociarPeliculaConDirector(p, director)) {
+            ui.mostrarMensaje("Director asociado correctamente a la película.");
+        } else {
+            ui.mostrarMensaje("No se pudo asociar el director a la película.");
+        }
+    }
+
+    /**
+     * Permite elegir un director existente o registrar uno nuevo.
+     *
+     * @return director elegido, o null si no se pudo obtener
+     * @throws IOException si ocurre un error de lectura
+     */
+    private Director seleccionarDirector() throws IOException {
         String usarExistente = ui.leerTextoObligatorio("¿Usar director ya registrado? (si/no):");
         Director director = null;
 
@@ -366,11 +466,7 @@ public class Controller {
             }
             director = gestor.buscarDirectorPorId(idNuevo);
         }
-
-        if (director != null) {
-            gestor.asociarPeliculaConDirector(p, director);
-            ui.mostrarMensaje("Director asociado correctamente a la película.");
-        }
+        return director;
     }
 
     // ====== DIRECTORES ======
@@ -392,8 +488,8 @@ public class Controller {
     /**
      * Muestra la lista de directores con las películas que han dirigido.
      */
-    private void listarDirectores() {
-        ui.mostrarDirectoresConPeliculas(gestor.listarDirectores());
+    private void listarDirectores() throws IOException {
+        mostrarPorPaginas(gestor::paginarDirectores, ui::mostrarDirectoresConPeliculas);
     }
 
     // ====== ACTORES ======
@@ -415,8 +511,8 @@ public class Controller {
     /**
      * Muestra la lista de actores con su filmografía.
      */
-    private void listarActores() {
-        ui.mostrarActoresConPeliculas(gestor.listarActores());
+    private void listarActores() throws IOException {
+        mostrarPorPaginas(gestor::paginarActores, ui::mostrarActoresConPeliculas);
     }
 
     /**
@@ -446,15 +542,116 @@ public class Controller {
         else ui.mostrarMensaje("No se pudo asociar el actor a la película.");
     }
 
+    /**
+     * Importa películas, actores, directores, usuarios, elenco o favoritos desde un
+     * archivo CSV o JSON-lines, mostrando el avance y los primeros errores.
+     *
+     * @throws IOException si ocurre un error de lectura de la consola
+     */
+    private void importarCatalogo() throws IOException {
+        ui.mostrarMensaje("\n=== Importar catálogo ===");
+        ImportadorCatalogo.Tipo tipo = elegir("Qué contiene el archivo:", ImportadorCatalogo.Tipo.values());
+        if (tipo == null) return;
+        Path archivo = Path.of(ui.leerTextoObligatorio("Ruta del archivo (.csv, .jsonl):"));
+
+        ReporteImportacion reporte;
+        try {
+            long[] siguienteAviso = {AVISO_IMPORTACION};
+            reporte = gestor.importador()
+                    .alAvanzar(r -> {
+                        if (r.lineas() >= siguienteAviso[0]) {
+                            ui.mostrarMensaje("  ... " + r.lineas() + " líneas procesadas");
+                            siguienteAviso[0] = r.lineas() + AVISO_IMPORTACION;
+                        }
+                    })
+                    .importar(archivo, tipo);
+        } catch (IOException | IllegalArgumentException e) {
+            ui.mostrarMensaje("No se pudo importar: " + e.getMessage());
+            return;
+        }
+
+        ui.mostrarMensaje("Líneas: " + reporte.lineas() + " | importadas: " + reporte.importados()
+                + " | repetidas: " + reporte.repetidos() + " | rechazadas: " + reporte.rechazados());
+        for (String error : reporte.errores()) {
+            ui.mostrarMensaje("  " + error);
+        }
+        if (reporte.rechazados() > reporte.errores().size()) {
+            ui.mostrarMensaje("  ... y " + (reporte.rechazados() - reporte.errores().size()) + " rechazo(s) más.");
+        }
+    }
+
+    /**
+     * Exporta películas, actores, directores, usuarios, elenco o favoritos a un archivo
+     * en el formato elegido, opcionalmente comprimido con gzip.
+     *
+     * @throws IOException si ocurre un error de lectura de la consola
+     */
+    private void exportarCatalogo() throws IOException {
+        ui.mostrarMensaje("\n=== Exportar catálogo ===");
+        ImportadorCatalogo.Tipo tipo = elegir("Qué exportar:", ImportadorCatalogo.Tipo.values());
+        if (tipo == null) return;
+        ExportadorCatalogo.Formato formato = elegir("Formato:", ExportadorCatalogo.Formato.values());
+        if (formato == null) return;
+        boolean comprimido = ui.leerTextoObligatorio("¿Comprimir con gzip? (s/n):").equalsIgnoreCase("s");
+        Path archivo = Path.of(ui.leerTextoObligatorio("Ruta del archivo de salida:"));
+
+        try {
+            long registros = gestor.exportador()
+                    .formato(formato)
+                    .comprimido(comprimido)
+                    .exportar(archivo, tipo);
+            ui.mostrarMensaje("Se exportaron " + registros + " registro(s) a " + archivo + ".");
+        } catch (IOException e) {
+            ui.mostrarMensaje("No se pudo exportar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Muestra las opciones numeradas y devuelve la elegida.
+     *
+     * @return la opción, o null si el número no corresponde a ninguna
+     */
+    private <E extends Enum<E>> E elegir(String label, E[] opciones) throws IOException {
+        for (int i = 0; i < opciones.length; i++) {
+            ui.mostrarMensaje((i + 1) + ") " + opciones[i].name().toLowerCase());
+        }
+        int opcion = ui.leerEntero(label);
+        if (opcion < 1 || opcion > opciones.length) {
+            ui.mostrarMensaje("Opción inválida.");
+            return null;
+        }
+        return opciones[opcion - 1];
+    }
+
     // ====== CUENTAS (POLIMORFISMO) ======
 
     /**
      * Muestra todas las cuentas registradas (usuarios y administradores)
      * utilizando polimorfismo sobre la clase base {@link Cuenta}.
      */
-    private void verCuentas() {
-        List<Cuenta> cuentas = gestor.listarCuentas();
-        ui.mostrarCuentas(cuentas);
+    private void verCuentas() throws IOException {
+        mostrarPorPaginas(gestor::paginarCuentas, ui::mostrarCuentas);
+    }
+
+    // ====== LISTADOS POR PÁGINAS ======
+
+    /**
+     * Muestra un listado de {@value #TAMANO_PAGINA} en {@value #TAMANO_PAGINA}
+     * elementos, preguntando antes de cada página siguiente.
+     *
+     * @param paginar método del gestor que devuelve la página para un cursor
+     * @param mostrar método de la UI que imprime los elementos de una página
+     * @param <T>     tipo de elemento listado
+     * @throws IOException si ocurre un error de lectura
+     */
+    private <T> void mostrarPorPaginas(BiFunction<String, Integer, Pagina<T>> paginar,
+                                       Consumer<List<T>> mostrar) throws IOException {
+        String cursor = null;
+        do {
+            Pagina<T> pagina = paginar.apply(cursor, TAMANO_PAGINA);
+            mostrar.accept(pagina.elementos());
+            cursor = pagina.siguiente();
+        } while (cursor != null && ui.leerVerMas());
     }
 
     // ====== MENÚ USUARIO ======
@@ -467,11 +664,13 @@ public class Controller {
      */
     private void procesarOpcionUsuario(int opcion) throws IOException {
         switch (opcion) {
-            case 1 -> ui.mostrarPeliculas(gestor.listarPeliculas());
+            case 1 -> listarPeliculas();
             case 2 -> agregarFavorito();
             case 3 -> verFavoritos();
             case 4 -> listarDirectores();
             case 5 -> listarActores();
+            case 6 -> buscarPorTexto();
+            case 7 -> verRecomendadas();
             case 0 -> cerrarSesion();
             default -> ui.mostrarMensaje("Opción inválida.");
         }
@@ -490,7 +689,7 @@ public class Controller {
             ui.mostrarMensaje("Película no encontrada.");
             return;
         }
-        boolean ok = gestor.agregarFavorito(usuarioActual, p);
+        boolean ok = gestor.agregarFavorito(usuarioActual(), p);
         if (ok) ui.mostrarMensaje("Película agregada a favoritos.");
         else ui.mostrarMensaje("La película ya estaba en favoritos.");
     }
@@ -500,7 +699,20 @@ public class Controller {
      */
     private void verFavoritos() {
         ui.mostrarMensaje("\n=== MIS FAVORITAS ===");
-        List<Pelicula> favs = gestor.listarFavoritos(usuarioActual);
+        List<Pelicula> favs = gestor.listarFavoritos(usuarioActual());
         ui.mostrarPeliculas(favs);
     }
+
+    /**
+     * Muestra las películas recomendadas para el usuario en sesión según sus favoritas.
+     */
+    private void verRecomendadas() {
+        ui.mostrarMensaje("\n=== RECOMENDADAS PARA USTED ===");
+        List<Pelicula> recomendadas = gestor.recomendarPeliculas(usuarioActual(), MAXIMO_RECOMENDACIONES);
+        if (recomendadas.isEmpty()) {
+            ui.mostrarMensaje("Agregue películas a favoritas para recibir recomendaciones.");
+            return;
+        }
+        ui.mostrarPeliculas(recomendadas);
+    }
 }
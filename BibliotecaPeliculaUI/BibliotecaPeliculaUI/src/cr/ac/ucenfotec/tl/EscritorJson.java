@@ -0,0 +1,134 @@
+package cr.ac.ucenfotec.tl;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escritor de JSON en flujo: cada llamada escribe directamente en el {@link Writer},
+ * sin armar el documento en memoria. Lleva la cuenta de las comas por nivel de
+ * anidamiento; quien lo usa solo abre, escribe y cierra en orden.
+ */
+final class EscritorJson {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer salida;
+
+    /** Por nivel abierto: si ya tiene algún elemento (y el siguiente lleva coma). */
+    private boolean[] conElementos = new boolean[8];
+    private int nivel = -1;
+    private boolean despuesDeNombre;
+
+    EscritorJson(Writer salida) {
+        this.salida = salida;
+    }
+
+    EscritorJson inicioObjeto() throws IOException {
+        abrir('{');
+        return this;
+    }
+
+    EscritorJson finObjeto() throws IOException {
+        nivel--;
+        salida.write('}');
+        return this;
+    }
+
+    EscritorJson inicioArreglo() throws IOException {
+        abrir('[');
+        return this;
+    }
+
+    EscritorJson finArreglo() throws IOException {
+        nivel--;
+        salida.write(']');
+        return this;
+    }
+
+    /** Escribe la clave de un campo; lo siguiente que se escriba es su valor. */
+    EscritorJson nombre(String nombre) throws IOException {
+        separar();
+        cadena(nombre);
+        salida.write(':');
+        despuesDeNombre = true;
+        return this;
+    }
+
+    EscritorJson valor(String texto) throws IOException {
+        separar();
+        if (texto == null) salida.write("null");
+        else cadena(texto);
+        return this;
+    }
+
+    EscritorJson valor(long numero) throws IOException {
+        separar();
+        salida.write(Long.toString(numero));
+        return this;
+    }
+
+    EscritorJson valor(boolean logico) throws IOException {
+        separar();
+        salida.write(logico ? "true" : "false");
+        return this;
+    }
+
+    EscritorJson campo(String nombre, String texto) throws IOException {
+        return nombre(nombre).valor(texto);
+    }
+
+    EscritorJson campo(String nombre, long numero) throws IOException {
+        return nombre(nombre).valor(numero);
+    }
+
+    EscritorJson campo(String nombre, boolean logico) throws IOException {
+        return nombre(nombre).valor(logico);
+    }
+
+    private void abrir(char c) throws IOException {
+        separar();
+        salida.write(c);
+        if (++nivel == conElementos.length) {
+            conElementos = java.util.Arrays.copyOf(conElementos, nivel * 2);
+        }
+        conElementos[nivel] = false;
+    }
+
+    private void separar() throws IOException {
+        if (despuesDeNombre) {
+            despuesDeNombre = false;
+            return;
+        }
+        if (nivel >= 0) {
+            if (conElementos[nivel]) salida.write(',');
+            conElementos[nivel] = true;
+        }
+    }
+
+    /** Escribe el texto entre comillas; los tramos sin escapes salen de una sola vez. */
+    private void cadena(String texto) throws IOException {
+        salida.write('"');
+        int inicio = 0;
+        int n = texto.length();
+        for (int i = 0; i < n; i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') continue;
+            salida.write(texto, inicio, i - inicio);
+            switch (c) {
+                case '"' -> salida.write("\\\"");
+                case '\\' -> salida.write("\\\\");
+                case '\n' -> salida.write("\\n");
+                case '\r' -> salida.write("\\r");
+                case '\t' -> salida.write("\\t");
+                default -> {
+                    salida.write("\\u00");
+                    salida.write(HEX[c >> 4]);
+                    salida.write(HEX[c & 0xF]);
+                }
+            }
+            inicio = i + 1;
+        }
+        salida.write(texto, inicio, n - inicio);
+        salida.write('"');
+    }
+}
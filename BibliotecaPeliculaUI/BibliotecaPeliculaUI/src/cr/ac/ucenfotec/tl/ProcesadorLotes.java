@@ -0,0 +1,554 @@
+package cr.ac.ucenfotec.tl;
+
+import cr.ac.ucenfotec.bl.entities.*;
+import cr.ac.ucenfotec.bl.logic.Gestor;
+import cr.ac.ucenfotec.bl.logic.ReglasValidacion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Modo por lotes: ejecuta comandos escritos, uno por línea, directamente sobre el
+ * {@link Gestor}, sin menús ni preguntas.
+ * <p>
+ * Cada línea es un comando seguido de sus argumentos, separados por espacios; un
+ * argumento con espacios va entre comillas dobles ({@code \"} y {@code \\} dentro de
+ * ellas). Las líneas vacías y las que empiezan con {@code #} se ignoran. Ejemplo:
+ * <pre>
+ * registrar-director D1 "Greta Gerwig"
+ * crear-pelicula P1 "Lady Bird" 2017 94 R Drama,Comedia D1
+ * asociar-actor A1 P1
+ * favorito U1 P1
+ * buscar "lady bird" 5
+ * </pre>
+ * Por cada comando se escribe una línea {@code número-de-línea TAB OK|ERROR TAB detalle}.
+ * <p>
+ * Las modificaciones se aplican en el orden de entrada. Dos tipos de comandos seguidos
+ * se juntan en grupos, con el mismo resultado que ejecutarlos uno por uno:
+ * <ul>
+ *     <li>Altas del mismo tipo ({@code crear-pelicula}, {@code registrar-actor},
+ *     {@code registrar-director}): se registran con una sola llamada al gestor, así
+ *     los índices se actualizan una vez por grupo y no una vez por entidad.</li>
+ *     <li>Consultas: si hay más de un hilo se reparten entre ellos; como ninguna
+ *     modifica nada, ven el mismo estado que en orden.</li>
+ * </ul>
+ * Los resultados siempre se escriben en el orden de entrada.
+ */
+public final class ProcesadorLotes {
+
+    /** Comandos que se juntan como máximo en un grupo antes de ejecutarlo. */
+    private static final int MAXIMO_GRUPO = 10_000;
+    private static final int LIMITE_POR_DEFECTO = 10;
+
+    /**
+     * Resultado de un lote.
+     *
+     * @param comandos  comandos leídos (sin contar líneas vacías ni comentarios)
+     * @param correctos comandos que terminaron bien
+     * @param fallidos  comandos mal escritos o que no se pudieron aplicar
+     */
+    public record Resumen(long comandos, long correctos, long fallidos) {
+    }
+
+    private final Gestor gestor;
+    private final int hilos;
+
+    /**
+     * Crea el procesador sobre un gestor ya inicializado.
+     *
+     * @param gestor lógica de negocio a utilizar
+     * @param hilos  hilos para las consultas; con 1 todo se ejecuta en el hilo que llama
+     */
+    public ProcesadorLotes(Gestor gestor, int hilos) {
+        if (hilos < 1) throw new IllegalArgumentException("Debe haber al menos un hilo");
+        this.gestor = gestor;
+        this.hilos = hilos;
+    }
+
+    /**
+     * Ejecuta todos los comandos de la entrada hasta que se termine.
+     * La salida se vacía al final y cada vez que la entrada no tiene más datos
+     * listos, para que quien escribe por una tubería vea las respuestas a tiempo.
+     *
+     * @param entrada comandos, uno por línea
+     * @param salida  destino de los resultados (conviene que tenga búfer)
+     * @return cantidad de comandos y cuántos fallaron
+     * @throws IOException si falla la lectura o la escritura
+     */
+    public Resumen ejecutar(BufferedReader entrada, Writer salida) throws IOException {
+        ExecutorService ejecutor = (hilos > 1) ? Executors.newFixedThreadPool(hilos) : null;
+        try {
+            long[] cuentas = new long[2];
+            List<Pendiente> grupo = new ArrayList<>();
+            long numero = 0;
+            String texto;
+            while ((texto = entrada.readLine()) != null) {
+                numero++;
+                Pendiente p = interpretar(numero, texto);
+                if (p == null) continue;
+                if (!grupo.isEmpty() && !grupo.get(0).agrupaCon(p)) {
+                    vaciar(grupo, ejecutor, salida, cuentas);
+                }
+                if (p.agrupable()) {
+                    grupo.add(p);
+                    if (grupo.size() >= MAXIMO_GRUPO) vaciar(grupo, ejecutor, salida, cuentas);
+                } else {
+                    escribir(p.linea(), aplicar(p), salida, cuentas);
+                }
+                if (!entrada.ready()) {
+                    vaciar(grupo, ejecutor, salida, cuentas);
+                    salida.flush();
+                }
+            }
+            vaciar(grupo, ejecutor, salida, cuentas);
+            salida.flush();
+            return new Resumen(cuentas[0] + cuentas[1], cuentas[0], cuentas[1]);
+        } finally {
+            if (ejecutor != null) ejecutor.shutdownNow();
+        }
+    }
+
+    // ===== INTERPRETACIÓN =====
+
+    /**
+     * Comando ya separado en argumentos, o con el motivo por el que no se pudo leer.
+     * Un comando mal escrito se trata como consulta: no cambia nada y solo hay que
+     * informar su error en su lugar.
+     */
+    private record Pendiente(long linea, Comando comando, String[] argumentos, String error) {
+        boolean soloLectura() {
+            return comando == null || comando.soloLectura;
+        }
+
+        boolean agrupable() {
+            return soloLectura() || comando.alta != null;
+        }
+
+        /** Si {@code otro} puede ir en el mismo grupo que este. */
+        boolean agrupaCon(Pendiente otro) {
+            return soloLectura() ? otro.soloLectura() : comando == otro.comando;
+        }
+    }
+
+    private static Pendiente interpretar(long linea, String texto) {
+        if (texto.isBlank() || texto.stripLeading().startsWith("#")) return null;
+        List<String> partes;
+        try {
+            partes = separar(texto);
+        } catch (IllegalArgumentException e) {
+            return new Pendiente(linea, null, null, e.getMessage());
+        }
+        Comando comando = Comando.porNombre(partes.get(0));
+        if (comando == null) {
+            return new Pendiente(linea, null, null, "comando desconocido: " + partes.get(0));
+        }
+        int cantidad = partes.size() - 1;
+        if (cantidad < comando.minimo || cantidad > comando.maximo) {
+            return new Pendiente(linea, null, null, "uso: " + comando.uso);
+        }
+        return new Pendiente(linea, comando, partes.subList(1, partes.size()).toArray(new String[0]), null);
+    }
+
+    /** Separa una línea en palabras, respetando los argumentos entre comillas dobles. */
+    private static List<String> separar(String texto) {
+        List<String> partes = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        int i = 0;
+        int n = texto.length();
+        while (i < n) {
+            char c = texto.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            actual.setLength(0);
+            if (c == '"') {
+                i++;
+                while (true) {
+                    if (i >= n) throw new IllegalArgumentException("comillas sin cerrar");
+                    c = texto.charAt(i++);
+                    if (c == '"') break;
+                    if (c == '\\' && i < n) c = texto.charAt(i++);
+                    actual.append(c);
+                }
+            } else {
+                while (i < n && !Character.isWhitespace(texto.charAt(i))) {
+                    actual.append(texto.charAt(i++));
+                }
+            }
+            partes.add(actual.toString());
+        }
+        return partes;
+    }
+
+    // ===== EJECUCIÓN =====
+
+    /** Falla esperada de un comando; su mensaje es el detalle que se informa. */
+    private static final class ErrorComando extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        ErrorComando(String mensaje) {
+            super(mensaje, null, false, false);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Accion {
+        String ejecutar(ProcesadorLotes procesador, String[] argumentos) throws ErrorComando;
+    }
+
+    @FunctionalInterface
+    private interface Preparacion<T> {
+        T preparar(ProcesadorLotes procesador, String[] argumentos) throws ErrorComando;
+    }
+
+    /**
+     * Alta que se puede agrupar: se arma y valida la entidad de cada línea y luego
+     * se registran todas con una sola llamada al gestor.
+     *
+     * @param preparar  arma la entidad a partir de los argumentos
+     * @param registrar registra el grupo y devuelve las que sí se agregaron
+     * @param hecho     detalle para una entidad registrada
+     * @param repetido  detalle para una entidad cuyo id ya existía
+     */
+    private record Alta<T>(Preparacion<T> preparar,
+                           BiFunction<Gestor, List<T>, List<T>> registrar,
+                           Function<T, String> hecho,
+                           String repetido) {
+    }
+
+    /** Devuelve "OK"/"ERROR" y el detalle, separados por un tabulador. */
+    private String aplicar(Pendiente p) {
+        if (p.error() != null) return "ERROR\t" + p.error();
+        try {
+            return "OK\t" + p.comando().accion.ejecutar(this, p.argumentos());
+        } catch (ErrorComando e) {
+            return "ERROR\t" + e.getMessage();
+        } catch (RuntimeException e) {
+            return "ERROR\t" + e;
+        }
+    }
+
+    /** Ejecuta el grupo acumulado, sea de consultas o de altas, y lo deja vacío. */
+    private void vaciar(List<Pendiente> grupo, ExecutorService ejecutor,
+                        Writer salida, long[] cuentas) throws IOException {
+        if (grupo.isEmpty()) return;
+        Pendiente primero = grupo.get(0);
+        if (primero.soloLectura()) {
+            ejecutarConsultas(grupo, ejecutor, salida, cuentas);
+        } else {
+            ejecutarAltas(primero.comando().alta, grupo, salida, cuentas);
+        }
+        grupo.clear();
+    }
+
+    /** Prepara las entidades del grupo, las registra juntas y escribe un resultado por línea. */
+    private <T> void ejecutarAltas(Alta<T> alta, List<Pendiente> altas,
+                                   Writer salida, long[] cuentas) throws IOException {
+        int n = altas.size();
+        String[] resultados = new String[n];
+        List<T> entidades = new ArrayList<>(n);
+        int[] posiciones = new int[n];
+        for (int i = 0; i < n; i++) {
+            try {
+                T entidad = alta.preparar().preparar(this, altas.get(i).argumentos());
+                posiciones[entidades.size()] = i;
+                entidades.add(entidad);
+            } catch (ErrorComando e) {
+                resultados[i] = "ERROR\t" + e.getMessage();
+            }
+        }
+        if (!entidades.isEmpty()) {
+            Set<T> registradas = Collections.newSetFromMap(new IdentityHashMap<>());
+            String falla = null;
+            try {
+                registradas.addAll(alta.registrar().apply(gestor, entidades));
+            } catch (RuntimeException e) {
+                falla = "ERROR\t" + e;
+            }
+            for (int k = 0; k < entidades.size(); k++) {
+                T entidad = entidades.get(k);
+                resultados[posiciones[k]] = (falla != null) ? falla
+                        : registradas.contains(entidad) ? "OK\t" + alta.hecho().apply(entidad)
+                        : "ERROR\t" + alta.repetido();
+            }
+        }
+        for (int i = 0; i < n; i++) escribir(altas.get(i).linea(), resultados[i], salida, cuentas);
+    }
+
+    /**
+     * Ejecuta las consultas acumuladas y escribe sus resultados en orden.
+     * Con varios hilos, cada uno toma un tramo contiguo del grupo.
+     */
+    private void ejecutarConsultas(List<Pendiente> consultas, ExecutorService ejecutor,
+                                   Writer salida, long[] cuentas) throws IOException {
+        int n = consultas.size();
+        if (n == 0) return;
+        String[] resultados = new String[n];
+        if (ejecutor == null || n == 1) {
+            for (int i = 0; i < n; i++) resultados[i] = aplicar(consultas.get(i));
+        } else {
+            int tramos = Math.min(hilos, n);
+            List<Callable<Void>> tareas = new ArrayList<>(tramos);
+            for (int t = 0; t < tramos; t++) {
+                int desde = (int) ((long) n * t / tramos);
+                int hasta = (int) ((long) n * (t + 1) / tramos);
+                tareas.add(() -> {
+                    for (int i = desde; i < hasta; i++) resultados[i] = aplicar(consultas.get(i));
+                    return null;
+                });
+            }
+            try {
+                ejecutor.invokeAll(tareas);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Se interrumpió el lote", e);
+            }
+        }
+        for (int i = 0; i < n; i++) escribir(consultas.get(i).linea(), resultados[i], salida, cuentas);
+    }
+
+    private static void escribir(long linea, String resultado, Writer salida, long[] cuentas) throws IOException {
+        cuentas[resultado.startsWith("OK") ? 0 : 1]++;
+        salida.write(Long.toString(linea));
+        salida.write('\t');
+        salida.write(resultado);
+        salida.write('\n');
+    }
+
+    // ===== COMANDOS =====
+
+    private enum Comando {
+        REGISTRAR_ADMIN("registrar-admin ID USUARIO EMAIL", 3, 3, false, ProcesadorLotes::registrarAdmin),
+        REGISTRAR_USUARIO("registrar-usuario ID USUARIO EMAIL", 3, 3, false, ProcesadorLotes::registrarUsuario),
+        REGISTRAR_DIRECTOR("registrar-director ID NOMBRE", 2, 2, new Alta<Director>(
+                ProcesadorLotes::prepararDirector, Gestor::registrarDirectores,
+                d -> "director " + d.getId() + " registrado", "ya existe un director con ese ID")),
+        REGISTRAR_ACTOR("registrar-actor ID NOMBRE", 2, 2, new Alta<Actor>(
+                ProcesadorLotes::prepararActor, Gestor::registrarActores,
+                a -> "actor " + a.getId() + " registrado", "ya existe un actor con ese ID")),
+        CREAR_PELICULA("crear-pelicula ID TITULO AÑO DURACION CLASIFICACION [GENEROS|-] [DIRECTOR]", 5, 7,
+                new Alta<Pelicula>(ProcesadorLotes::prepararPelicula, Gestor::crearPeliculas,
+                        p -> "película " + p.getId() + " creada", "ya existe una película con ese ID")),
+        SINOPSIS("sinopsis PELICULA TEXTO|-", 2, 2, false, ProcesadorLotes::sinopsis),
+        ASOCIAR_DIRECTOR("asociar-director PELICULA DIRECTOR", 2, 2, false, ProcesadorLotes::asociarDirector),
+        ASOCIAR_ACTOR("asociar-actor ACTOR PELICULA", 2, 2, false, ProcesadorLotes::asociarActor),
+        FAVORITO("favorito USUARIO PELICULA", 2, 2, false, ProcesadorLotes::favorito),
+        QUITAR_FAVORITO("quitar-favorito USUARIO PELICULA", 2, 2, false, ProcesadorLotes::quitarFavorito),
+        ELIMINAR_PELICULA("eliminar-pelicula ID", 1, 1, false, ProcesadorLotes::eliminarPelicula),
+
+        PELICULA("pelicula ID", 1, 1, true, ProcesadorLotes::verPelicula),
+        BUSCAR("buscar TEXTO [LIMITE]", 1, 2, true, ProcesadorLotes::buscar),
+        FAVORITOS("favoritos USUARIO", 1, 1, true, ProcesadorLotes::favoritos),
+        RECOMENDAR("recomendar USUARIO [LIMITE]", 1, 2, true, ProcesadorLotes::recomendar);
+
+        private static final Map<String, Comando> POR_NOMBRE = new HashMap<>();
+
+        static {
+            for (Comando c : values()) POR_NOMBRE.put(c.nombre, c);
+        }
+
+        final String nombre;
+        final String uso;
+        final int minimo;
+        final int maximo;
+        final boolean soloLectura;
+        final Accion accion;
+        final Alta<?> alta;
+
+        Comando(String uso, int minimo, int maximo, boolean soloLectura, Accion accion) {
+            this(uso, minimo, maximo, soloLectura, accion, null);
+        }
+
+        Comando(String uso, int minimo, int maximo, Alta<?> alta) {
+            this(uso, minimo, maximo, false, null, alta);
+        }
+
+        Comando(String uso, int minimo, int maximo, boolean soloLectura, Accion accion, Alta<?> alta) {
+            this.nombre = uso.substring(0, uso.indexOf(' '));
+            this.uso = uso;
+            this.minimo = minimo;
+            this.maximo = maximo;
+            this.soloLectura = soloLectura;
+            this.accion = accion;
+            this.alta = alta;
+        }
+
+        static Comando porNombre(String nombre) {
+            return POR_NOMBRE.get(nombre.toLowerCase());
+        }
+    }
+
+    private String registrarAdmin(String[] a) throws ErrorComando {
+        String id = id(a[0]);
+        exigir(ReglasValidacion.emailValido(a[2]), "email inválido: " + a[2]);
+        exigir(gestor.registrarAdmin(id, a[1], a[2]), "ya existe un administrador con ese ID");
+        return "administrador " + id + " registrado";
+    }
+
+    private String registrarUsuario(String[] a) throws ErrorComando {
+        String id = id(a[0]);
+        exigir(ReglasValidacion.emailValido(a[2]), "email inválido: " + a[2]);
+        exigir(gestor.registrarUsuario(id, a[1], a[2]), "ya existe un usuario con ese ID");
+        return "usuario " + id + " registrado";
+    }
+
+    private Director prepararDirector(String[] a) throws ErrorComando {
+        return new Director(id(a[0]), a[1], new ArrayList<>());
+    }
+
+    private Actor prepararActor(String[] a) throws ErrorComando {
+        return new Actor(id(a[0]), a[1], new ArrayList<>());
+    }
+
+    private Pelicula prepararPelicula(String[] a) throws ErrorComando {
+        Pelicula p = new Pelicula();
+        p.setId(id(a[0]));
+        p.setTitulo(a[1]);
+        int anio = entero(a[2]);
+        exigir(ReglasValidacion.anioValido(anio), "el año no puede ser anterior a " + ReglasValidacion.ANIO_MINIMO);
+        p.setAnio(anio);
+        p.setDuracionMinutos(entero(a[3]));
+        exigir(ReglasValidacion.clasificacionValida(a[4]), "clasificación inválida: " + a[4]);
+        p.setClasificacion(a[4]);
+
+        List<Genero> generos = new ArrayList<>();
+        if (a.length > 5 && !a[5].equals("-")) {
+            for (String nombre : a[5].split(",")) {
+                Genero g = RegistroGeneros.interno(nombre);
+                if (g != null && !generos.contains(g)) generos.add(g);
+            }
+        }
+        p.setGeneros(generos);
+
+        if (a.length > 6) {
+            Director director = gestor.buscarDirectorPorId(id(a[6]));
+            exigir(director != null, "no existe el director " + a[6]);
+            p.setDirector(director);
+        }
+        return p;
+    }
+
+    private String sinopsis(String[] a) throws ErrorComando {
+        Pelicula p = pelicula(a[0]);
+        boolean quitar = a[1].equals("-");
+        exigir(gestor.actualizarFicha(p, quitar ? null : new Pelicula.Ficha(a[1])),
+                "no se pudo actualizar la sinopsis");
+        return quitar ? "sinopsis eliminada" : "sinopsis actualizada";
+    }
+
+    private String asociarDirector(String[] a) throws ErrorComando {
+        Pelicula p = pelicula(a[0]);
+        Director d = gestor.buscarDirectorPorId(id(a[1]));
+        exigir(d != null, "no existe el director " + a[1]);
+        exigir(gestor.asociarPeliculaConDirector(p, d), "no se pudo asociar el director");
+        return "director " + d.getId() + " asociado a " + p.getId();
+    }
+
+    private String asociarActor(String[] a) throws ErrorComando {
+        Actor actor = gestor.buscarActorPorId(id(a[0]));
+        exigir(actor != null, "no existe el actor " + a[0]);
+        Pelicula p = pelicula(a[1]);
+        exigir(gestor.asociarActorConPelicula(actor, p), "no se pudo asociar el actor a la película");
+        return "actor " + actor.getId() + " asociado a " + p.getId();
+    }
+
+    private String favorito(String[] a) throws ErrorComando {
+        User u = usuario(a[0]);
+        Pelicula p = pelicula(a[1]);
+        exigir(gestor.agregarFavorito(u, p), "la película ya estaba en favoritas");
+        return p.getId() + " agregada a favoritas de " + u.getId();
+    }
+
+    private String quitarFavorito(String[] a) throws ErrorComando {
+        User u = usuario(a[0]);
+        Pelicula p = pelicula(a[1]);
+        exigir(gestor.eliminarFavorito(u, p), "la película no estaba en favoritas");
+        return p.getId() + " quitada de favoritas de " + u.getId();
+    }
+
+    private String eliminarPelicula(String[] a) throws ErrorComando {
+        String id = id(a[0]);
+        exigir(gestor.eliminarPelicula(id), "no existe una película con ese ID");
+        return "película " + id + " eliminada";
+    }
+
+    private String verPelicula(String[] a) throws ErrorComando {
+        Pelicula p = pelicula(a[0]);
+        return p.getId() + " | " + p.getTitulo() + " (" + p.getAnio() + ") | "
+                + p.getDuracionMinutos() + " min | " + p.getClasificacion()
+                + " | Dir: " + (p.getDirector() == null ? "N/A" : p.getDirector().getNombre())
+                + " | Favorita de " + gestor.contarFavoritos(p);
+    }
+
+    private String buscar(String[] a) throws ErrorComando {
+        int limite = (a.length > 1) ? entero(a[1]) : LIMITE_POR_DEFECTO;
+        return ids(gestor.buscarPeliculasPorTexto(a[0], limite));
+    }
+
+    private String favoritos(String[] a) throws ErrorComando {
+        return ids(gestor.listarFavoritos(usuario(a[0])));
+    }
+
+    private String recomendar(String[] a) throws ErrorComando {
+        int limite = (a.length > 1) ? entero(a[1]) : LIMITE_POR_DEFECTO;
+        return ids(gestor.recomendarPeliculas(usuario(a[0]), limite));
+    }
+
+    // ===== AUXILIARES =====
+
+    private static void exigir(boolean condicion, String mensaje) throws ErrorComando {
+        if (!condicion) throw new ErrorComando(mensaje);
+    }
+
+    private static String id(String texto) throws ErrorComando {
+        String id = texto.toUpperCase();
+        exigir(ReglasValidacion.idValido(id), "ID inválido (solo letras y números): " + texto);
+        return id;
+    }
+
+    private static int entero(String texto) throws ErrorComando {
+        try {
+            return Integer.parseInt(texto);
+        } catch (NumberFormatException e) {
+            throw new ErrorComando("no es un entero: " + texto);
+        }
+    }
+
+    private Pelicula pelicula(String texto) throws ErrorComando {
+        Pelicula p = gestor.buscarPeliculaPorId(id(texto));
+        exigir(p != null, "no existe la película " + texto);
+        return p;
+    }
+
+    private User usuario(String texto) throws ErrorComando {
+        User u = gestor.loginUsuario(id(texto));
+        exigir(u != null, "no existe el usuario " + texto);
+        return u;
+    }
+
+    /** Cantidad y ids de las películas, separados por coma. */
+    private static String ids(Collection<Pelicula> peliculas) {
+        StringBuilder sb = new StringBuilder().append(peliculas.size()).append(" película(s)");
+        String separador = ": ";
+        for (Pelicula p : peliculas) {
+            sb.append(separador).append(p.getId());
+            separador = ", ";
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,673 @@
+package cr.ac.ucenfotec.tl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import cr.ac.ucenfotec.bl.entities.*;
+import cr.ac.ucenfotec.bl.logic.Autorizador;
+import cr.ac.ucenfotec.bl.logic.Gestor;
+import cr.ac.ucenfotec.bl.logic.GestorSesiones;
+import cr.ac.ucenfotec.bl.logic.ObjetoJson;
+import cr.ac.ucenfotec.bl.logic.Pagina;
+import cr.ac.ucenfotec.bl.logic.ReglasValidacion;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+
+/**
+ * API HTTP/JSON sobre el {@link Gestor}, con el servidor que trae el JDK
+ * ({@code com.sun.net.httpserver}) y un hilo virtual por solicitud: una conexión
+ * que espera no ocupa un hilo de plataforma, así que miles de clientes a la vez
+ * caben en una sola máquina.
+ * <p>
+ * Rutas (todas bajo {@code /api}; los cuerpos son objetos JSON planos):
+ * <pre>
+ * POST   /sesion                                {tipo: usuario, id} → {token, cuenta}
+ * GET    /sesion                                cuenta de la sesión
+ * DELETE /sesion                                cierra la sesión
+ * GET    /peliculas?cursor=&amp;limite=             listado por id (sin limite: todo)
+ * POST   /peliculas                             {id, titulo, anio, duracion, clasificacion, generos?, director?, sinopsis?}
+ * GET    /peliculas/buscar?q=&amp;limite=
+ * GET    /peliculas/{id}
+ * PUT    /peliculas/{id}                        {titulo?, anio?, duracion?, clasificacion?, sinopsis?} (id no cambia)
+ * DELETE /peliculas/{id}
+ * GET    /peliculas/{id}/actores
+ * PUT    /peliculas/{id}/actores/{actor}
+ * PUT    /peliculas/{id}/director/{director}
+ * GET    /directores, /actores                  listados por id, igual que /peliculas
+ * POST   /directores, /actores                  {id, nombre}
+ * GET    /directores/{id}, /actores/{id}        con sus películas
+ * POST   /usuarios                              {id, username, email}
+ * POST   /administradores                       {id, username, email, rol?: EDITOR|MODERADOR|ADMINISTRADOR}
+ * GET    /usuarios/{id}
+ * GET    /usuarios/{id}/favoritos
+ * PUT    /usuarios/{id}/favoritos/{pelicula}
+ * DELETE /usuarios/{id}/favoritos/{pelicula}
+ * GET    /usuarios/{id}/recomendaciones?limite=
+ * </pre>
+ * La sesión viaja en el encabezado {@code Authorization: Bearer <token>}. Las cuentas no
+ * tienen contraseña, así que por HTTP solo se abren sesiones de usuario: una de
+ * administrador se abre en la consola del servidor ({@link Gestor#iniciarSesionAdmin})
+ * y su token se entrega por fuera. Las operaciones que modifican el catálogo o registran
+ * administradores pasan por el {@link Autorizador} del gestor, que mientras el servidor
+ * está iniciado exige la sesión de la solicitud y el privilegio de la operación: sin
+ * sesión responde 401 y sin privilegio 403. Las rutas
+ * {@code /usuarios/{id}} (salvo el registro) solo las puede usar ese mismo usuario, o un
+ * administrador con {@link Privilegio#GESTIONAR_CUENTAS}.
+ * <p>
+ * Las respuestas se escriben en flujo con {@link EscritorJson} directamente sobre la
+ * conexión (transferencia por trozos): un listado del catálogo completo se recorre por
+ * páginas y nunca se arma entero en memoria. Los errores responden
+ * {@code {"error": "..."}} con 400, 401, 403, 404, 405, 409, 413 o 500.
+ */
+public final class ServidorApi implements Closeable {
+
+    private static final String PREFIJO = "/api/";
+    /** Conexiones que pueden esperar a ser aceptadas. */
+    private static final int COLA_CONEXIONES = 4096;
+    private static final int MAXIMO_CUERPO = 64 * 1024;
+    private static final int TAMANO_PAGINA = 1000;
+    private static final int LIMITE_POR_DEFECTO = 20;
+    private static final int TAMANO_BUFER = 16 * 1024;
+
+    static {
+        // El servidor del JDK envía los encabezados y el cuerpo en escrituras separadas;
+        // con Nagle activo el cuerpo espera el ACK retardado del cliente (~40 ms por
+        // solicitud). Se lee una sola vez al crear el primer servidor.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /** Solicitud que no se puede atender; se responde con su estado y mensaje. */
+    private static final class ErrorApi extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int estado;
+
+        ErrorApi(int estado, String mensaje) {
+            super(mensaje, null, false, false);
+            this.estado = estado;
+        }
+    }
+
+    /** Escribe el cuerpo de una respuesta correcta. */
+    @FunctionalInterface
+    private interface Respuesta {
+        void escribir(EscritorJson json) throws IOException;
+    }
+
+    private final Gestor gestor;
+    /** Sesión de la solicitud que atiende cada hilo; la consulta el autorizador del gestor. */
+    private final ThreadLocal<GestorSesiones.Identidad> sesionActual = new ThreadLocal<>();
+    private HttpServer servidor;
+    private ExecutorService hilos;
+
+    /**
+     * Crea la API sobre un gestor ya inicializado; no escucha hasta {@link #iniciar}.
+     *
+     * @param gestor lógica de negocio a utilizar
+     */
+    public ServidorApi(Gestor gestor) {
+        this.gestor = gestor;
+    }
+
+    /**
+     * Empieza a escuchar.
+     *
+     * @param direccion dirección y puerto (puerto 0 para uno libre cualquiera)
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public void iniciar(InetSocketAddress direccion) throws IOException {
+        servidor = HttpServer.create(direccion, COLA_CONEXIONES);
+        hilos = Executors.newVirtualThreadPerTaskExecutor();
+        servidor.setExecutor(hilos);
+        servidor.createContext(PREFIJO, this::atender);
+        gestor.setAutorizador(Autorizador.segunSesion(sesionActual::get));
+        servidor.start();
+    }
+
+    /** Puerto en el que escucha. */
+    public int puerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /** Deja de aceptar conexiones y espera a que terminen las solicitudes en curso. */
+    @Override
+    public void close() {
+        if (servidor == null) return;
+        servidor.stop(0);
+        hilos.close();
+        gestor.setAutorizador(null);
+    }
+
+    // ===== ENRUTAMIENTO =====
+
+    private void atender(HttpExchange intercambio) throws IOException {
+        try (intercambio) {
+            try {
+                sesionActual.set(sesionDe(intercambio));
+                String ruta = intercambio.getRequestURI().getPath().substring(PREFIJO.length());
+                String[] partes = ruta.isEmpty() ? new String[0] : ruta.split("/");
+                Map<String, String> parametros = parametros(intercambio.getRequestURI().getRawQuery());
+                enrutar(intercambio, intercambio.getRequestMethod(), partes, parametros);
+            } catch (ErrorApi e) {
+                error(intercambio, e.estado, e.getMessage());
+            } catch (SecurityException e) {
+                error(intercambio, (sesionActual.get() == null) ? 401 : 403, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                error(intercambio, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                error(intercambio, 500, "error interno: " + e);
+            } finally {
+                sesionActual.remove();
+            }
+        }
+    }
+
+    private void enrutar(HttpExchange x, String metodo, String[] p, Map<String, String> parametros)
+            throws IOException {
+        if (p.length == 0) throw new ErrorApi(404, "ruta desconocida");
+        switch (p[0]) {
+            case "sesion" -> {
+                if (p.length != 1) throw new ErrorApi(404, "ruta desconocida");
+                switch (metodo) {
+                    case "POST" -> iniciarSesion(x);
+                    case "GET" -> {
+                        GestorSesiones.Identidad sesion = sesionActual.get();
+                        if (sesion == null) throw new ErrorApi(401, "se requiere iniciar sesión");
+                        responder(x, 200, json -> escribirCuenta(json, sesion.cuenta()));
+                    }
+                    case "DELETE" -> {
+                        if (!gestor.cerrarSesion(token(x))) throw new ErrorApi(401, "sesión inválida o vencida");
+                        responder(x, 200, json -> json.inicioObjeto().campo("cerrada", true).finObjeto());
+                    }
+                    default -> throw new ErrorApi(405, "método no permitido");
+                }
+            }
+            case "peliculas" -> enrutarPeliculas(x, metodo, p, parametros);
+            case "directores" -> enrutarPersonas(x, metodo, p, parametros,
+                    gestor::paginarDirectores, gestor::registrarDirector, this::director);
+            case "actores" -> enrutarPersonas(x, metodo, p, parametros,
+                    gestor::paginarActores, gestor::registrarActor, this::actor);
+            case "usuarios" -> enrutarUsuarios(x, metodo, p, parametros);
+            case "administradores" -> {
+                exigirForma(p, 1, metodo, "POST");
+                registrarCuenta(x, true);
+            }
+            default -> throw new ErrorApi(404, "ruta desconocida");
+        }
+    }
+
+    private void enrutarPeliculas(HttpExchange x, String metodo, String[] p, Map<String, String> parametros)
+            throws IOException {
+        if (p.length == 1) {
+            if (metodo.equals("GET")) {
+                listar(x, "peliculas", parametros, gestor::paginarPeliculas, this::escribirPelicula);
+            } else {
+                exigirMetodo(metodo, "POST");
+                crearPelicula(x);
+            }
+        } else if (p.length == 2 && p[1].equals("buscar")) {
+            exigirMetodo(metodo, "GET");
+            String consulta = parametros.get("q");
+            if (consulta == null || consulta.isBlank()) throw new ErrorApi(400, "falta el parámetro q");
+            List<Pelicula> resultados = gestor.buscarPeliculasPorTexto(consulta, limite(parametros));
+            responder(x, 200, json -> escribirPeliculas(json, resultados));
+        } else if (p.length == 2) {
+            switch (metodo) {
+                case "GET" -> {
+                    Pelicula pelicula = pelicula(p[1]);
+                    responder(x, 200, json -> escribirPelicula(json, pelicula));
+                }
+                case "PUT" -> actualizarPelicula(x, pelicula(p[1]));
+                case "DELETE" -> {
+                    if (!gestor.eliminarPelicula(id(p[1]))) throw new ErrorApi(404, "no existe la película " + p[1]);
+                    responder(x, 200, json -> json.inicioObjeto().campo("eliminada", id(p[1])).finObjeto());
+                }
+                default -> throw new ErrorApi(405, "método no permitido");
+            }
+        } else if (p.length == 3 && p[2].equals("actores")) {
+            exigirMetodo(metodo, "GET");
+            List<Actor> elenco = gestor.listarElenco(pelicula(p[1]));
+            responder(x, 200, json -> {
+                json.inicioArreglo();
+                for (Actor a : elenco) escribirPersona(json, a.getId(), a.getNombre());
+                json.finArreglo();
+            });
+        } else if (p.length == 4 && p[2].equals("actores")) {
+            exigirMetodo(metodo, "PUT");
+            Pelicula pelicula = pelicula(p[1]);
+            Actor actor = actor(p[3]);
+            if (!gestor.asociarActorConPelicula(actor, pelicula)) {
+                throw new ErrorApi(409, "no se pudo asociar el actor a la película");
+            }
+            responder(x, 200, json -> escribirPelicula(json, pelicula));
+        } else if (p.length == 4 && p[2].equals("director")) {
+            exigirMetodo(metodo, "PUT");
+            Pelicula pelicula = pelicula(p[1]);
+            Director director = director(p[3]);
+            if (!gestor.asociarPeliculaConDirector(pelicula, director)) {
+                throw new ErrorApi(409, "no se pudo asociar el director a la película");
+            }
+            responder(x, 200, json -> escribirPelicula(json, pelicula));
+        } else {
+            throw new ErrorApi(404, "ruta desconocida");
+        }
+    }
+
+    /** Directores y actores: mismo listado, alta y detalle, cada uno con lo suyo. */
+    private <T> void enrutarPersonas(HttpExchange x, String metodo, String[] p, Map<String, String> parametros,
+                                     BiFunction<String, Integer, Pagina<T>> paginar,
+                                     BiFunction<String, String, Boolean> registrar,
+                                     Buscador<T> buscar) throws IOException {
+        if (p.length == 1) {
+            if (metodo.equals("GET")) {
+                listar(x, p[0], parametros, paginar, this::escribirPersona);
+            } else {
+                exigirMetodo(metodo, "POST");
+                Map<String, String> cuerpo = cuerpo(x);
+                String id = id(obligatorio(cuerpo, "id"));
+                String nombre = obligatorio(cuerpo, "nombre");
+                if (!registrar.apply(id, nombre)) throw new ErrorApi(409, "ya existe ese ID");
+                responder(x, 201, json -> escribirPersona(json, buscar.buscar(id)));
+            }
+        } else if (p.length == 2) {
+            exigirMetodo(metodo, "GET");
+            T persona = buscar.buscar(p[1]);
+            responder(x, 200, json -> escribirPersona(json, persona));
+        } else {
+            throw new ErrorApi(404, "ruta desconocida");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Buscador<T> {
+        T buscar(String id);
+    }
+
+    private void enrutarUsuarios(HttpExchange x, String metodo, String[] p, Map<String, String> parametros)
+            throws IOException {
+        if (p.length == 1) {
+            exigirMetodo(metodo, "POST");
+            registrarCuenta(x, false);
+        } else if (p.length == 2) {
+            exigirMetodo(metodo, "GET");
+            User u = usuarioDeLaSesion(p[1]);
+            responder(x, 200, json -> escribirCuenta(json, u));
+        } else if (p.length == 3 && p[2].equals("favoritos")) {
+            exigirMetodo(metodo, "GET");
+            List<Pelicula> favoritos = gestor.listarFavoritos(usuarioDeLaSesion(p[1]));
+            responder(x, 200, json -> escribirPeliculas(json, favoritos));
+        } else if (p.length == 4 && p[2].equals("favoritos")) {
+            User u = usuarioDeLaSesion(p[1]);
+            Pelicula pelicula = pelicula(p[3]);
+            boolean cambio = switch (metodo) {
+                case "PUT" -> gestor.agregarFavorito(u, pelicula);
+                case "DELETE" -> gestor.eliminarFavorito(u, pelicula);
+                default -> throw new ErrorApi(405, "método no permitido");
+            };
+            responder(x, 200, json -> json.inicioObjeto()
+                    .campo("pelicula", pelicula.getId())
+                    .campo("favorita", metodo.equals("PUT"))
+                    .campo("cambio", cambio)
+                    .finObjeto());
+        } else if (p.length == 3 && p[2].equals("recomendaciones")) {
+            exigirMetodo(metodo, "GET");
+            List<Pelicula> recomendadas = gestor.recomendarPeliculas(usuarioDeLaSesion(p[1]), limite(parametros));
+            responder(x, 200, json -> escribirPeliculas(json, recomendadas));
+        } else {
+            throw new ErrorApi(404, "ruta desconocida");
+        }
+    }
+
+    // ===== OPERACIONES =====
+
+    private void iniciarSesion(HttpExchange x) throws IOException {
+        Map<String, String> cuerpo = cuerpo(x);
+        String tipo = obligatorio(cuerpo, "tipo");
+        String id = id(obligatorio(cuerpo, "id"));
+        String token = switch (tipo) {
+            // Sin contraseñas, bastaría conocer el id de un administrador para tener sus privilegios
+            case "admin" -> throw new ErrorApi(403, "las sesiones de administrador se abren en la consola del servidor");
+            case "usuario" -> gestor.iniciarSesionUsuario(id);
+            default -> throw new ErrorApi(400, "tipo debe ser usuario");
+        };
+        if (token == null) throw new ErrorApi(404, "cuenta no encontrada");
+        Cuenta cuenta = gestor.sesion(token).cuenta();
+        responder(x, 200, json -> {
+            json.inicioObjeto().campo("token", token).nombre("cuenta");
+            escribirCuenta(json, cuenta);
+            json.finObjeto();
+        });
+    }
+
+    /**
+     * Sesión del encabezado {@code Authorization: Bearer <token>}, o null si la solicitud
+     * no trae el encabezado; 401 si lo trae y el token no vale.
+     */
+    private GestorSesiones.Identidad sesionDe(HttpExchange x) {
+        if (!x.getRequestHeaders().containsKey("Authorization")) return null;
+        GestorSesiones.Identidad sesion = gestor.sesion(token(x));
+        if (sesion == null) throw new ErrorApi(401, "sesión inválida o vencida");
+        return sesion;
+    }
+
+    private static String token(HttpExchange x) {
+        String autorizacion = x.getRequestHeaders().getFirst("Authorization");
+        if (autorizacion == null || !autorizacion.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            throw new ErrorApi(401, "falta el encabezado Authorization: Bearer");
+        }
+        return autorizacion.substring(7).trim();
+    }
+
+    private void registrarCuenta(HttpExchange x, boolean admin) throws IOException {
+        Map<String, String> cuerpo = cuerpo(x);
+        String id = id(obligatorio(cuerpo, "id"));
+        String username = obligatorio(cuerpo, "username");
+        String email = obligatorio(cuerpo, "email");
+        if (!ReglasValidacion.emailValido(email)) throw new ErrorApi(400, "email inválido");
+        boolean ok = admin
+                ? gestor.registrarAdmin(id, username, email, rol(cuerpo.getOrDefault("rol", "ADMINISTRADOR")))
+                : gestor.registrarUsuario(id, username, email);
+        if (!ok) throw new ErrorApi(409, "ya existe una cuenta con ese ID");
+        Cuenta cuenta = admin ? gestor.loginAdmin(id) : gestor.loginUsuario(id);
+        responder(x, 201, json -> escribirCuenta(json, cuenta));
+    }
+
+    private void crearPelicula(HttpExchange x) throws IOException {
+        Map<String, String> cuerpo = cuerpo(x);
+        Pelicula p = new Pelicula();
+        p.setId(id(obligatorio(cuerpo, "id")));
+        p.setTitulo(obligatorio(cuerpo, "titulo"));
+        p.setAnio(anio(obligatorio(cuerpo, "anio")));
+        p.setDuracionMinutos(entero(obligatorio(cuerpo, "duracion"), "duracion"));
+        p.setClasificacion(clasificacion(obligatorio(cuerpo, "clasificacion")));
+        p.setGeneros(generos(cuerpo.get("generos")));
+        String sinopsis = cuerpo.get("sinopsis");
+        if (sinopsis != null && !sinopsis.isBlank()) p.setFicha(new Pelicula.Ficha(sinopsis));
+        Director director = (cuerpo.get("director") != null) ? director(cuerpo.get("director")) : null;
+
+        if (!gestor.crearPelicula(p, director)) throw new ErrorApi(409, "ya existe una película con ese ID");
+        responder(x, 201, json -> escribirPelicula(json, p));
+    }
+
+    private void actualizarPelicula(HttpExchange x, Pelicula p) throws IOException {
+        Map<String, String> cuerpo = cuerpo(x);
+        String nuevoId = cuerpo.get("id");
+        if (nuevoId != null && !p.getId().equalsIgnoreCase(id(nuevoId))) {
+            throw new ErrorApi(400, "el id de una película no se puede cambiar");
+        }
+        String titulo = cuerpo.getOrDefault("titulo", p.getTitulo());
+        int anio = cuerpo.containsKey("anio") ? anio(cuerpo.get("anio")) : p.getAnio();
+        int duracion = cuerpo.containsKey("duracion")
+                ? entero(cuerpo.get("duracion"), "duracion") : p.getDuracionMinutos();
+        String clasificacion = cuerpo.containsKey("clasificacion")
+                ? clasificacion(cuerpo.get("clasificacion")) : p.getClasificacion();
+
+        if (!gestor.actualizarPelicula(p, titulo, anio, duracion, clasificacion)) {
+            throw new ErrorApi(404, "no existe la película " + p.getId());
+        }
+        if (cuerpo.containsKey("sinopsis")) {
+            String sinopsis = cuerpo.get("sinopsis");
+            gestor.actualizarFicha(p, (sinopsis == null || sinopsis.isBlank()) ? null : new Pelicula.Ficha(sinopsis));
+        }
+        responder(x, 200, json -> escribirPelicula(json, p));
+    }
+
+    /**
+     * Listado por id, recorrido por páginas del gestor. Con {@code limite} responde
+     * esa cantidad y el cursor de la siguiente; sin él, todo el catálogo de una vez.
+     */
+    private <T> void listar(HttpExchange x, String nombre, Map<String, String> parametros,
+                            BiFunction<String, Integer, Pagina<T>> paginar,
+                            Elemento<T> escribir) throws IOException {
+        String limiteTexto = parametros.get("limite");
+        long limite = (limiteTexto == null) ? Long.MAX_VALUE : limite(parametros);
+        String inicio = parametros.get("cursor");
+        responder(x, 200, json -> {
+            json.inicioObjeto().nombre(nombre).inicioArreglo();
+            String cursor = inicio;
+            long restantes = limite;
+            do {
+                Pagina<T> pagina = paginar.apply(cursor, (int) Math.min(TAMANO_PAGINA, restantes));
+                for (T elemento : pagina.elementos()) escribir.escribir(json, elemento);
+                restantes -= pagina.elementos().size();
+                cursor = pagina.siguiente();
+            } while (cursor != null && restantes > 0);
+            json.finArreglo().campo("siguiente", cursor).finObjeto();
+        });
+    }
+
+    @FunctionalInterface
+    private interface Elemento<T> {
+        void escribir(EscritorJson json, T elemento) throws IOException;
+    }
+
+    // ===== JSON DE SALIDA =====
+
+    private void escribirPelicula(EscritorJson json, Pelicula p) throws IOException {
+        json.inicioObjeto()
+                .campo("id", p.getId())
+                .campo("titulo", p.getTitulo())
+                .campo("anio", p.getAnio())
+                .campo("duracion", p.getDuracionMinutos())
+                .campo("clasificacion", p.getClasificacion());
+        json.nombre("generos").inicioArreglo();
+        for (Genero g : p.getGeneros()) json.valor(g.getNombre());
+        json.finArreglo();
+        Director d = p.getDirector();
+        json.campo("director", d == null ? null : d.getId());
+        Pelicula.Ficha ficha = p.getFicha();
+        json.campo("sinopsis", ficha == null ? null : ficha.sinopsis());
+        json.nombre("elenco").inicioArreglo();
+        for (Actor a : gestor.listarElenco(p)) json.valor(a.getId());
+        json.finArreglo().finObjeto();
+    }
+
+    private void escribirPeliculas(EscritorJson json, List<Pelicula> peliculas) throws IOException {
+        json.inicioArreglo();
+        for (Pelicula p : peliculas) escribirPelicula(json, p);
+        json.finArreglo();
+    }
+
+    /** Director o actor; en el detalle van también los ids de sus películas. */
+    private void escribirPersona(EscritorJson json, Object persona) throws IOException {
+        if (persona instanceof Director d) {
+            escribirPersona(json, d.getId(), d.getNombre(), gestor.listarPeliculasDirigidas(d));
+        } else if (persona instanceof Actor a) {
+            escribirPersona(json, a.getId(), a.getNombre(), gestor.listarFilmografia(a));
+        }
+    }
+
+    private static void escribirPersona(EscritorJson json, String id, String nombre) throws IOException {
+        json.inicioObjeto().campo("id", id).campo("nombre", nombre).finObjeto();
+    }
+
+    private static void escribirPersona(EscritorJson json, String id, String nombre, List<Pelicula> peliculas)
+            throws IOException {
+        json.inicioObjeto().campo("id", id).campo("nombre", nombre).nombre("peliculas").inicioArreglo();
+        for (Pelicula p : peliculas) json.valor(p.getId());
+        json.finArreglo().finObjeto();
+    }
+
+    private static void escribirCuenta(EscritorJson json, Cuenta c) throws IOException {
+        json.inicioObjeto()
+                .campo("id", c.getId())
+                .campo("username", c.getUsername())
+                .campo("email", c.getEmail())
+                .campo("tipo", c.getTipoCuenta());
+        if (c instanceof Administrador a) {
+            json.nombre("privilegios").inicioArreglo();
+            for (Privilegio p : a.getPrivilegios()) {
+                json.valor(p.name());
+            }
+            json.finArreglo();
+        }
+        json.finObjeto();
+    }
+
+    // ===== HTTP =====
+
+    /**
+     * Envía los encabezados y escribe el cuerpo en flujo sobre la conexión; el largo
+     * no se conoce de antemano, así que va por trozos.
+     */
+    private static void responder(HttpExchange x, int estado, Respuesta respuesta) throws IOException {
+        x.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        x.sendResponseHeaders(estado, 0);
+        Writer salida = new BufferedWriter(new OutputStreamWriter(x.getResponseBody(), StandardCharsets.UTF_8),
+                TAMANO_BUFER);
+        respuesta.escribir(new EscritorJson(salida));
+        salida.flush();
+    }
+
+    private static void error(HttpExchange x, int estado, String mensaje) throws IOException {
+        responder(x, estado, json -> json.inicioObjeto().campo("error", mensaje).finObjeto());
+    }
+
+    private static Map<String, String> cuerpo(HttpExchange x) throws IOException {
+        InputStream entrada = x.getRequestBody();
+        byte[] bytes = entrada.readNBytes(MAXIMO_CUERPO + 1);
+        if (bytes.length > MAXIMO_CUERPO) throw new ErrorApi(413, "cuerpo demasiado grande");
+        if (bytes.length == 0) throw new ErrorApi(400, "falta el cuerpo JSON");
+        return ObjetoJson.leer(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> parametros(String consulta) {
+        if (consulta == null || consulta.isEmpty()) return Map.of();
+        Map<String, String> parametros = new HashMap<>();
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            String clave = (igual < 0) ? par : par.substring(0, igual);
+            String valor = (igual < 0) ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(clave, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    private static void exigirMetodo(String metodo, String esperado) {
+        if (!metodo.equals(esperado)) throw new ErrorApi(405, "método no permitido");
+    }
+
+    private static void exigirForma(String[] p, int partes, String metodo, String esperado) {
+        if (p.length != partes) throw new ErrorApi(404, "ruta desconocida");
+        exigirMetodo(metodo, esperado);
+    }
+
+    // ===== VALIDACIÓN Y BÚSQUEDA =====
+
+    private static String obligatorio(Map<String, String> cuerpo, String campo) {
+        String valor = cuerpo.get(campo);
+        if (valor == null || valor.isBlank()) throw new ErrorApi(400, "falta el campo " + campo);
+        return valor.trim();
+    }
+
+    private static Rol rol(String texto) {
+        for (Rol rol : Rol.values()) {
+            if (rol.name().equalsIgnoreCase(texto.trim())) return rol;
+        }
+        throw new ErrorApi(400, "rol debe ser EDITOR, MODERADOR o ADMINISTRADOR");
+    }
+
+    private static String id(String texto) {
+        String id = texto.trim().toUpperCase();
+        if (!ReglasValidacion.idValido(id)) throw new ErrorApi(400, "ID inválido (solo letras y números): " + texto);
+        return id;
+    }
+
+    private static int entero(String texto, String campo) {
+        try {
+            return Integer.parseInt(texto.trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new ErrorApi(400, campo + " debe ser un entero");
+        }
+    }
+
+    private static int anio(String texto) {
+        int anio = entero(texto, "anio");
+        if (!ReglasValidacion.anioValido(anio)) {
+            throw new ErrorApi(400, "el año no puede ser anterior a " + ReglasValidacion.ANIO_MINIMO);
+        }
+        return anio;
+    }
+
+    private static String clasificacion(String texto) {
+        if (texto == null || !ReglasValidacion.clasificacionValida(texto.trim())) {
+            throw new ErrorApi(400, "clasificación inválida");
+        }
+        return texto.trim();
+    }
+
+    /** Géneros de un arreglo JSON (que {@link ObjetoJson} une con {@code |}). */
+    private static List<Genero> generos(String unidos) {
+        List<Genero> generos = new ArrayList<>();
+        if (unidos == null || unidos.isBlank()) return generos;
+        for (String nombre : unidos.split("\\|")) {
+            Genero g = RegistroGeneros.interno(nombre);
+            if (g != null && !generos.contains(g)) generos.add(g);
+        }
+        return generos;
+    }
+
+    private static int limite(Map<String, String> parametros) {
+        String texto = parametros.get("limite");
+        if (texto == null) return LIMITE_POR_DEFECTO;
+        int limite = entero(texto, "limite");
+        if (limite < 1) throw new ErrorApi(400, "limite debe ser positivo");
+        return limite;
+    }
+
+    private Pelicula pelicula(String texto) {
+        Pelicula p = gestor.buscarPeliculaPorId(id(texto));
+        if (p == null) throw new ErrorApi(404, "no existe la película " + texto);
+        return p;
+    }
+
+    private Director director(String texto) {
+        Director d = gestor.buscarDirectorPorId(id(texto));
+        if (d == null) throw new ErrorApi(404, "no existe el director " + texto);
+        return d;
+    }
+
+    private Actor actor(String texto) {
+        Actor a = gestor.buscarActorPorId(id(texto));
+        if (a == null) throw new ErrorApi(404, "no existe el actor " + texto);
+        return a;
+    }
+
+    /**
+     * Usuario de la ruta, siempre que la sesión sea la suya o la de un administrador con
+     * {@link Privilegio#GESTIONAR_CUENTAS}: 401 sin sesión, 403 si es de otra persona.
+     * El permiso se revisa antes de buscar, para no revelar qué usuarios existen.
+     */
+    private User usuarioDeLaSesion(String texto) {
+        GestorSesiones.Identidad sesion = sesionActual.get();
+        if (sesion == null) throw new ErrorApi(401, "se requiere iniciar sesión");
+        String id = id(texto);
+        boolean propio = !sesion.administrador() && sesion.cuenta().getId().equalsIgnoreCase(id);
+        if (!propio && !sesion.tienePrivilegio(Privilegio.GESTIONAR_CUENTAS)) {
+            throw new ErrorApi(403, "solo el propio usuario puede consultar o cambiar sus datos");
+        }
+        return usuario(id);
+    }
+
+    private User usuario(String texto) {
+        User u = gestor.loginUsuario(id(texto));
+        if (u == null) throw new ErrorApi(404, "no existe el usuario " + texto);
+        return u;
+    }
+}
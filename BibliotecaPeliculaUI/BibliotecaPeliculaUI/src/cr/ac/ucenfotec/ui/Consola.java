@@ -0,0 +1,133 @@
+package cr.ac.ucenfotec.ui;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Salida de consola con búfer que usa la {@link UI}.
+ * <p>
+ * Cada pantalla se arma en un {@link StringBuilder} reutilizable y se entrega a
+ * {@code System.out} en trozos de tamaño fijo, ya codificados sobre búferes propios:
+ * una escritura por trozo en lugar de una escritura (con su vaciado automático)
+ * por línea, y sin cadenas intermedias. {@link #enviar()} cierra la pantalla;
+ * entre pantallas el búfer queda vacío, así que cualquier otra escritura directa
+ * a {@code System.out} sale en el orden esperado.
+ * <p>
+ * Se resuelve {@code System.out} en cada envío, no al construir, para respetar
+ * redirecciones posteriores con {@link System#setOut}. No es segura para hilos:
+ * la consola la usa un único hilo.
+ */
+final class Consola {
+
+    /** Caracteres por trozo: al pasar este tamaño, lo armado se envía sin esperar al final. */
+    static final int TAMANO_TROZO = 16 * 1024;
+
+    private static final String FIN_LINEA = System.lineSeparator();
+
+    private final StringBuilder texto = new StringBuilder(TAMANO_TROZO * 2);
+    private final char[] caracteres = new char[TAMANO_TROZO];
+    private final CharsetEncoder codificador;
+    private final ByteBuffer bytes;
+
+    /** Último encabezado de menú enviado y si hubo contenido después de él. */
+    private String ultimoEncabezado;
+    private boolean huboContenido = true;
+
+    Consola() {
+        Charset juego = Charset.forName(System.getProperty("stdout.encoding", Charset.defaultCharset().name()));
+        codificador = juego.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        bytes = ByteBuffer.allocate((int) Math.ceil(TAMANO_TROZO * (double) codificador.maxBytesPerChar()));
+    }
+
+    /** Búfer de la pantalla actual, para anexar con {@code append} sin crear cadenas. */
+    StringBuilder texto() {
+        return texto;
+    }
+
+    /** Termina la línea actual. */
+    Consola linea() {
+        texto.append(FIN_LINEA);
+        return this;
+    }
+
+    /** Anexa {@code s} y termina la línea. */
+    Consola linea(String s) {
+        texto.append(s).append(FIN_LINEA);
+        return this;
+    }
+
+    /**
+     * Envía lo armado si ya ocupa al menos un trozo. Los listados lo llaman tras
+     * cada elemento para que la memoria no crezca con el tamaño del catálogo.
+     */
+    void quizasEnviar() {
+        if (texto.length() >= TAMANO_TROZO) {
+            escribir(false);
+        }
+    }
+
+    /** Envía lo armado y vacía la salida: fin de una pantalla con contenido. */
+    void enviar() {
+        huboContenido = true;
+        escribir(true);
+    }
+
+    /**
+     * Envía un texto de solicitud (lo que precede a una lectura). No cuenta como
+     * contenido para {@link #encabezado(String)}.
+     */
+    void pedir(String solicitud) {
+        texto.append(solicitud);
+        escribir(true);
+    }
+
+    /**
+     * Envía el encabezado de un menú, salvo que sea el mismo que se envió último
+     * y no haya salido nada más desde entonces (el menú sigue a la vista).
+     * Se compara por identidad: la {@link UI} guarda cada encabezado ya armado.
+     */
+    void encabezado(String menu) {
+        if (menu == ultimoEncabezado && !huboContenido) {
+            return;
+        }
+        texto.append(menu);
+        escribir(true);
+        ultimoEncabezado = menu;
+        huboContenido = false;
+    }
+
+    /** Adapta un bloque de texto con {@code \n} al separador de líneas de la plataforma. */
+    static String conFinDeLinea(String bloque) {
+        return "\n".equals(FIN_LINEA) ? bloque : bloque.replace("\n", FIN_LINEA);
+    }
+
+    private void escribir(boolean vaciar) {
+        PrintStream salida = System.out;
+        int total = texto.length();
+        int inicio = 0;
+        while (inicio < total) {
+            int fin = Math.min(total, inicio + caracteres.length);
+            // No partir un par sustituto entre dos trozos.
+            if (fin < total && fin - inicio > 1 && Character.isHighSurrogate(texto.charAt(fin - 1))) {
+                fin--;
+            }
+            texto.getChars(inicio, fin, caracteres, 0);
+            codificador.reset();
+            codificador.encode(CharBuffer.wrap(caracteres, 0, fin - inicio), bytes, true);
+            codificador.flush(bytes);
+            salida.write(bytes.array(), 0, bytes.position());
+            bytes.clear();
+            inicio = fin;
+        }
+        texto.setLength(0);
+        if (vaciar) {
+            salida.flush();
+        }
+    }
+}
@@ -1,15 +1,150 @@
 package cr.ac.ucenfotec.ui;
 
+import cr.ac.ucenfotec.bl.logic.Gestor;
 import cr.ac.ucenfotec.tl.Controller;
+import cr.ac.ucenfotec.tl.ProcesadorLotes;
+import cr.ac.ucenfotec.tl.ServidorApi;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Punto de entrada.
+ * <p>
+ * Uso: {@code Main [directorio] [--compactar] [--lote ARCHIVO|-] [--hilos N] [--servidor PUERTO]
+ * [--publica] [--sesion-admin ID]}.
+ * Sin opciones se abre el menú interactivo. Con {@code --lote} se ejecutan los comandos
+ * del archivo (o de la entrada estándar con {@code -}) mediante {@link ProcesadorLotes}:
+ * los resultados salen por la salida estándar y el resumen por la salida de errores.
+ * Los resúmenes y errores del propio programa (compactación, fallos al abrir los datos)
+ * también van a la salida de errores.
+ * Con {@code --servidor} se atiende la API HTTP de {@link ServidorApi} hasta que se
+ * detenga el proceso (Ctrl+C); los datos se guardan al cerrar igual que en los otros modos.
+ * Por defecto la API solo escucha en la interfaz local (loopback); {@code --publica} la
+ * expone en todas las interfaces de red.
+ * La API no abre sesiones de administrador: con {@code --sesion-admin ID} se abre una al
+ * iniciar el servidor y su token se muestra en la consola (vence tras
+ * {@link cr.ac.ucenfotec.bl.logic.GestorSesiones#INACTIVIDAD_POR_DEFECTO} sin uso).
+ * Con {@code --compactar}, antes de abrir los datos se pasan todas las películas a su
+ * catálogo mapeado ({@link Gestor#compactarCatalogo}); sin otro modo, el programa termina ahí.
+ */
 public class Main {
+
+    /** Directorio por defecto donde se guardan los datos entre ejecuciones. */
+    private static final String DIRECTORIO_DATOS = "moviecloud-datos";
+
+    private static final int TAMANO_BUFER = 64 * 1024;
+    private static final int PUERTO_POR_DEFECTO = 8080;
+
     public static void main(String[] args) {
-        Controller controller = new Controller();
-        try {
-            controller.start();
+        String directorioDatos = DIRECTORIO_DATOS;
+        String lote = null;
+        int hilos = 1;
+        int puerto = -1;
+        boolean compactar = false;
+        String sesionAdmin = null;
+        boolean publica = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--lote" -> lote = (i + 1 < args.length) ? args[++i] : "-";
+                case "--hilos" -> hilos = (i + 1 < args.length) ? Integer.parseInt(args[++i]) : hilos;
+                case "--compactar" -> compactar = true;
+                case "--publica" -> publica = true;
+                case "--sesion-admin" -> sesionAdmin = (i + 1 < args.length) ? args[++i] : null;
+                case "--servidor" -> puerto = (i + 1 < args.length) ? Integer.parseInt(args[++i]) : PUERTO_POR_DEFECTO;
+                default -> directorioDatos = args[i];
+            }
+        }
+
+        Path directorio = Path.of(directorioDatos);
+        if (compactar) {
+            try {
+                long inicio = System.nanoTime();
+                int peliculas = Gestor.compactarCatalogo(directorio);
+                System.err.printf("Catálogo: %d película(s) compactada(s), %d ms%n",
+                        peliculas, (System.nanoTime() - inicio) / 1_000_000);
+            } catch (IOException e) {
+                System.err.println("Error al compactar el catálogo: " + e.getMessage());
+                return;
+            }
+            if (puerto < 0 && lote == null) return;
+        }
+        CountDownLatch cerrado = new CountDownLatch(1);
+        try (Gestor gestor = new Gestor(directorio)) {
+            if (puerto >= 0) {
+                atenderApi(gestor, puerto, publica, sesionAdmin, cerrado);
+            } else if (lote != null) {
+                ejecutarLote(gestor, lote, hilos);
+            } else {
+                Controller controller = new Controller(gestor);
+                controller.start();
+            }
         } catch (Exception e) {
-            System.out.println("Error al ejecutar la aplicación: " + e.getMessage());
+            System.err.println("Error al ejecutar la aplicación: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            cerrado.countDown();
+        }
+    }
+
+    /**
+     * Atiende la API hasta que el proceso recibe la señal de terminar. El gancho de
+     * cierre detiene el servidor y espera a que {@code main} cierre el gestor (que
+     * confirma la bitácora) antes de dejar terminar a la JVM.
+     */
+    private static void atenderApi(Gestor gestor, int puerto, boolean publica, String sesionAdmin,
+                                   CountDownLatch cerrado) throws IOException, InterruptedException {
+        ServidorApi servidor = new ServidorApi(gestor);
+        InetSocketAddress direccion = publica
+                ? new InetSocketAddress(puerto)
+                : new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto);
+        servidor.iniciar(direccion);
+        CountDownLatch detener = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.close();
+            detener.countDown();
+            try {
+                cerrado.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        System.out.println((publica
+                ? "API en /api/ del puerto " + servidor.puerto() + " de todas las interfaces"
+                : "API en http://localhost:" + servidor.puerto() + "/api/") + " (Ctrl+C para detener)");
+        if (sesionAdmin != null) {
+            String token = gestor.iniciarSesionAdmin(sesionAdmin);
+            System.out.println((token != null)
+                    ? "Token de administrador de " + sesionAdmin + ": " + token
+                    : "No existe el administrador " + sesionAdmin + "; no se abrió su sesión.");
+        }
+        detener.await();
+    }
+
+    private static void ejecutarLote(Gestor gestor, String lote, int hilos) throws IOException {
+        long inicio = System.nanoTime();
+        // Lector sobre un InputStream también para archivos: su ready() consulta available()
+        // y así el procesador no corta los grupos cada vez que se vacía el búfer.
+        InputStream origen = lote.equals("-") ? System.in : Files.newInputStream(Path.of(lote));
+        try (BufferedReader entrada = new BufferedReader(
+                new InputStreamReader(origen, StandardCharsets.UTF_8), TAMANO_BUFER)) {
+            Writer salida = new BufferedWriter(new OutputStreamWriter(System.out), TAMANO_BUFER);
+            ProcesadorLotes.Resumen resumen = new ProcesadorLotes(gestor, hilos).ejecutar(entrada, salida);
+            System.err.printf("Lote: %d comando(s), %d correcto(s), %d con error, %d ms%n",
+                    resumen.comandos(), resumen.correctos(), resumen.fallidos(),
+                    (System.nanoTime() - inicio) / 1_000_000);
         }
     }
 }
@@ -6,12 +6,16 @@ import cr.ac.ucenfotec.bl.entities.Cuenta;
 import cr.ac.ucenfotec.bl.entities.Director;
 import cr.ac.ucenfotec.bl.entities.Genero;
 import cr.ac.ucenfotec.bl.entities.Pelicula;
+import cr.ac.ucenfotec.bl.entities.RegistroGeneros;
 import cr.ac.ucenfotec.bl.entities.User;
+import cr.ac.ucenfotec.bl.logic.ReglasValidacion;
 
 import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -30,36 +34,110 @@ public class UI {
 
     private final BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
 
+    /** Salida con búfer: cada método vuelca su pantalla completa de una vez. */
+    private final Consola consola = new Consola();
+
     // ===== MENUS PRINCIPALES =====
 
+    private static final String MENU_INVITADO = Consola.conFinDeLinea("""
+
+            ===== MOVIE LIBRARY =====
+            Modo: Invitado
+            ----------------------------------
+            1. Registrar administrador
+            2. Registrar usuario
+            3. Iniciar sesión (administrador)
+            4. Iniciar sesión (usuario)
+            5. Listar cuentas registradas
+            0. Salir
+            """);
+
+    private static final String MENU_ADMIN = Consola.conFinDeLinea("""
+
+            ════════════════════════════════════
+                 PANEL DE ADMINISTRACIÓN
+                 Sesión: %s
+            ════════════════════════════════════
+              PELÍCULAS\s
+              1) Crear película
+              2) Listar películas
+              3) Buscar película por ID
+              4) Actualizar película
+              5) Eliminar película
+             11) Buscar películas por texto
+            ────────────────────────────────────
+              DIRECTORES \s
+              6) Registrar director
+              7) Listar directores y sus películas
+            ────────────────────────────────────
+              ACTORES \s
+              8) Registrar actor
+              9) Listar actores y su filmografía
+             10) Asociar actor a película
+            ────────────────────────────────────
+              IMPORTACIÓN Y EXPORTACIÓN \s
+             12) Importar catálogo desde archivo (CSV o JSON-lines)
+             13) Exportar catálogo a archivo (CSV, JSON-lines o binario)
+            ────────────────────────────────────
+
+              0) Cerrar sesión y volver al inicio
+
+            ════════════════════════════════════
+            """);
+
+    private static final String MENU_USUARIO = Consola.conFinDeLinea("""
+
+            ════════════════════════════════════
+                   CATÁLOGO - USUARIO
+                   Sesión: %s
+            ════════════════════════════════════
+              CATÁLOGO\s
+              1) Listar películas
+              6) Buscar películas por texto
+            ────────────────────────────────────
+              FAVORITOS\s
+              2) Agregar a favoritas
+              3) Ver mis favoritas
+              7) Ver recomendadas para mí
+            ────────────────────────────────────
+              INFORMACIÓN \s
+              4) Listar directores y sus películas
+              5) Listar actores y su filmografía
+            ────────────────────────────────────
+
+              0) Cerrar sesión y volver al inicio
+            ════════════════════════════════════
+            """);
+
+    /** Último menú de sesión armado, con su plantilla y nombre: se rehace solo si cambian. */
+    private String menuSesion;
+    private String plantillaMenuSesion;
+    private String nombreMenuSesion;
+
     /**
      * Muestra el menú principal cuando no hay sesión iniciada (modo invitado).
      */
     public void mostrarMenuInvitado() {
-        System.out.println("\n===== MOVIE LIBRARY =====");
-        System.out.println("Modo: Invitado");
-        System.out.println("----------------------------------");
-        System.out.println("1. Registrar administrador");
-        System.out.println("2. Registrar usuario");
-        System.out.println("3. Iniciar sesión (administrador)");
-        System.out.println("4. Iniciar sesión (usuario)");
-        System.out.println("5. Listar cuentas registradas");
-        System.out.println("0. Salir");
+        consola.encabezado(MENU_INVITADO);
     }
 
     /**
      * Lee una opción numérica del usuario, validando que sea un entero.
+     * Si la entrada se terminó (por ejemplo, un archivo redirigido) devuelve 0,
+     * que en todos los menús lleva de vuelta hacia la salida.
      *
      * @return número de opción seleccionada
      * @throws IOException si ocurre un error al leer desde consola
      */
     public int leerOpcion() throws IOException {
         while (true) {
+            consola.pedir("Opción: ");
+            String s = in.readLine();
+            if (s == null) return 0;
             try {
-                System.out.print("Opción: ");
-                return Integer.parseInt(in.readLine().trim());
-            } catch (Exception e) {
-                System.out.println("Valor inválido. Intente de nuevo.");
+                return Integer.parseInt(s.trim());
+            } catch (NumberFormatException e) {
+                consola.linea("Valor inválido. Intente de nuevo.").enviar();
             }
         }
     }
@@ -70,37 +148,7 @@ public class UI {
      * @param adminName nombre de usuario del administrador
      */
     public void mostrarMenuAdmin(String adminName) {
-        System.out.println("\n════════════════════════════════════");
-        System.out.println("     PANEL DE ADMINISTRACIÓN");
-        System.out.println("     Sesión: " + adminName);
-        System.out.println("════════════════════════════════════");
-
-        // Películas
-        System.out.println("  PELÍCULAS ");
-        System.out.println("  1) Crear película");
-        System.out.println("  2) Listar películas");
-        System.out.println("  3) Buscar película por ID");
-        System.out.println("  4) Actualizar película");
-        System.out.println("  5) Eliminar película");
-
-        System.out.println("────────────────────────────────────");
-
-        // Directores
-        System.out.println("  DIRECTORES  ");
-        System.out.println("  6) Registrar director");
-        System.out.println("  7) Listar directores y sus películas");
-
-        System.out.println("────────────────────────────────────");
-
-        // Actores
-        System.out.println("  ACTORES  ");
-        System.out.println("  8) Registrar actor");
-        System.out.println("  9) Listar actores y su filmografía");
-        System.out.println(" 10) Asociar actor a película");
-
-        System.out.println("────────────────────────────────────");
-        System.out.println("\n  0) Cerrar sesión y volver al inicio");
-        System.out.println("\n════════════════════════════════════");
+        consola.encabezado(menuDeSesion(MENU_ADMIN, adminName));
     }
 
     /**
@@ -109,29 +157,20 @@ public class UI {
      * @param userName nombre de usuario
      */
     public void mostrarMenuUsuario(String userName) {
-        System.out.println("\n════════════════════════════════════");
-        System.out.println("       CATÁLOGO - USUARIO");
-        System.out.println("       Sesión: " + userName);
-        System.out.println("════════════════════════════════════");
-
-        System.out.println("  CATÁLOGO ");
-        System.out.println("  1) Listar películas");
-
-        System.out.println("────────────────────────────────────");
-
-        System.out.println("  FAVORITOS ");
-        System.out.println("  2) Agregar a favoritas");
-        System.out.println("  3) Ver mis favoritas");
-
-        System.out.println("────────────────────────────────────");
-
-        System.out.println("  INFORMACIÓN  ");
-        System.out.println("  4) Listar directores y sus películas");
-        System.out.println("  5) Listar actores y su filmografía");
+        consola.encabezado(menuDeSesion(MENU_USUARIO, userName));
+    }
 
-        System.out.println("────────────────────────────────────");
-        System.out.println("\n  0) Cerrar sesión y volver al inicio");
-        System.out.println("════════════════════════════════════");
+    /**
+     * Devuelve el menú de sesión armado para {@code nombre}, reutilizando el anterior
+     * si no cambió, para que {@link Consola#encabezado} pueda reconocerlo.
+     */
+    private String menuDeSesion(String plantilla, String nombre) {
+        if (plantilla != plantillaMenuSesion || !nombre.equals(nombreMenuSesion)) {
+            menuSesion = plantilla.formatted(nombre);
+            plantillaMenuSesion = plantilla;
+            nombreMenuSesion = nombre;
+        }
+        return menuSesion;
     }
 
     // ===== MÉTODOS DE IO =====
@@ -142,7 +181,7 @@ public class UI {
      * @param msg texto a mostrar
      */
     public void mostrarMensaje(String msg) {
-        System.out.println(msg);
+        consola.linea(msg).enviar();
     }
 
     /**
@@ -150,36 +189,82 @@ public class UI {
      *
      * @param label texto a mostrar como etiqueta
      * @return texto ingresado sin espacios al inicio ni al final
-     * @throws IOException si ocurre un error de lectura
+     * @throws EOFException si la entrada se termina antes de leer un texto
+     * @throws IOException  si ocurre un error de lectura
      */
     public String leerTextoObligatorio(String label) throws IOException {
         String s;
         do {
-            System.out.print(label + " ");
+            consola.pedir(label + " ");
             s = in.readLine();
-            if (s != null) s = s.trim();
-        } while (s == null || s.isEmpty());
+            if (s == null) throw new EOFException("Se terminó la entrada.");
+            s = s.trim();
+        } while (s.isEmpty());
         return s;
     }
 
+    /**
+     * Lee una línea que puede quedar vacía, mostrando una etiqueta.
+     *
+     * @param label texto a mostrar como etiqueta
+     * @return texto ingresado sin espacios al inicio ni al final (vacío si solo
+     *         se presiona ENTER), o null si la entrada se terminó
+     * @throws IOException si ocurre un error de lectura
+     */
+    public String leerLinea(String label) throws IOException {
+        consola.pedir(label + " ");
+        String s = in.readLine();
+        return (s == null) ? null : s.trim();
+    }
+
+    /**
+     * Pregunta si se quiere ver la página siguiente de un listado.
+     *
+     * @return true si se presiona Enter, false si se escribe cualquier otra cosa
+     * @throws IOException si ocurre un error de lectura
+     */
+    public boolean leerVerMas() throws IOException {
+        consola.pedir("Enter para ver más, cualquier otra tecla y Enter para volver: ");
+        String s = in.readLine();
+        return s != null && s.trim().isEmpty();
+    }
+
     /**
      * Lee un número entero desde consola, con validación.
      *
      * @param label etiqueta a mostrar
      * @return entero leído
-     * @throws IOException si ocurre un error de lectura
+     * @throws EOFException si la entrada se termina antes de leer un entero
+     * @throws IOException  si ocurre un error de lectura
      */
     public int leerEntero(String label) throws IOException {
         while (true) {
+            consola.pedir(label + " ");
+            String s = in.readLine();
+            if (s == null) throw new EOFException("Se terminó la entrada.");
             try {
-                System.out.print(label + " ");
-                return Integer.parseInt(in.readLine().trim());
-            } catch (Exception e) {
-                System.out.println("Valor inválido. Intente de nuevo.");
+                return Integer.parseInt(s.trim());
+            } catch (NumberFormatException e) {
+                consola.linea("Valor inválido. Intente de nuevo.").enviar();
             }
         }
     }
 
+    /**
+     * Lee el año de una película, que no puede ser anterior a {@link ReglasValidacion#ANIO_MINIMO}.
+     *
+     * @param label etiqueta a mostrar
+     * @return año válido
+     * @throws IOException si ocurre un error de lectura
+     */
+    public int leerAnio(String label) throws IOException {
+        while (true) {
+            int anio = leerEntero(label);
+            if (ReglasValidacion.anioValido(anio)) return anio;
+            consola.linea("El año no puede ser anterior a " + ReglasValidacion.ANIO_MINIMO + ".").enviar();
+        }
+    }
+
     /**
      * Lee un identificador alfanumérico (solo letras y números).
      *
@@ -190,8 +275,8 @@ public class UI {
     public String leerId(String label) throws IOException {
         while (true) {
             String id = leerTextoObligatorio(label).toUpperCase();
-            if (id.matches("[A-Z0-9]+")) return id;
-            System.out.println("Solo se permiten letras y números.");
+            if (ReglasValidacion.idValido(id)) return id;
+            consola.linea("Solo se permiten letras y números.").enviar();
         }
     }
 
@@ -205,8 +290,8 @@ public class UI {
     public String leerEmail(String label) throws IOException {
         while (true) {
             String email = leerTextoObligatorio(label);
-            if (email.matches("^[\\w.+-]+@[\\w.-]+\\.[A-Za-z]{2,}$")) return email;
-            System.out.println("Email inválido. Intente de nuevo.");
+            if (ReglasValidacion.emailValido(email)) return email;
+            consola.linea("Email inválido. Intente de nuevo.").enviar();
         }
     }
 
@@ -220,28 +305,28 @@ public class UI {
     public String leerClasificacion() throws IOException {
         while (true) {
             String c = leerTextoObligatorio("Clasificación (ej: G, PG-13, R):");
-            if (c.matches("[A-Za-z0-9+\\-]+")) return c;
-            System.out.println("Formato de clasificación inválido.");
+            if (ReglasValidacion.clasificacionValida(c)) return c;
+            consola.linea("Formato de clasificación inválido.").enviar();
         }
     }
 
     /**
      * Lee una lista de géneros separados por coma.
      *
-     * @return lista de objetos {@link Genero} creados a partir del texto ingresado
+     * @return géneros canónicos de {@link RegistroGeneros}, sin repetir, en el orden ingresado
      * @throws IOException si ocurre un error de lectura
      */
     public List<Genero> leerGeneros() throws IOException {
-        System.out.print("Géneros separados por coma (ej: Acción, Drama): ");
+        consola.pedir("Géneros separados por coma (ej: Acción, Drama): ");
         String linea = in.readLine();
         List<Genero> generos = new ArrayList<>();
         if (linea == null || linea.trim().isEmpty()) {
             return generos;
         }
         for (String raw : linea.split(",")) {
-            String g = raw.trim();
-            if (!g.isEmpty()) {
-                generos.add(new Genero(g));
+            Genero g = RegistroGeneros.interno(raw);
+            if (g != null && !generos.contains(g)) {
+                generos.add(g);
             }
         }
         return generos;
@@ -259,7 +344,7 @@ public class UI {
      * @throws IOException si ocurre un error de lectura
      */
     public String leerTextoConDefault(String label, String actual) throws IOException {
-        System.out.print(label + " (actual: " + actual + ") [ENTER para mantener]: ");
+        consola.pedir(label + " (actual: " + actual + ") [ENTER para mantener]: ");
         String s = in.readLine();
         if (s == null || s.trim().isEmpty()) return actual;
         return s.trim();
@@ -275,13 +360,13 @@ public class UI {
      * @throws IOException si ocurre un error de lectura
      */
     public int leerEnteroConDefault(String label, int actual) throws IOException {
-        System.out.print(label + " (actual: " + actual + ") [ENTER para mantener]: ");
+        consola.pedir(label + " (actual: " + actual + ") [ENTER para mantener]: ");
         String s = in.readLine();
         if (s == null || s.trim().isEmpty()) return actual;
         try {
             return Integer.parseInt(s.trim());
         } catch (NumberFormatException e) {
-            System.out.println("Entrada inválida. Se mantiene el valor: " + actual);
+            consola.linea("Entrada inválida. Se mantiene el valor: " + actual).enviar();
             return actual;
         }
     }
@@ -295,16 +380,18 @@ public class UI {
      * @throws IOException si ocurre un error de lectura
      */
     public String leerClasificacionConDefault(String actual) throws IOException {
-        System.out.print("Nueva clasificación (actual: " + actual + ") [ENTER para mantener]: ");
+        consola.pedir("Nueva clasificación (actual: " + actual + ") [ENTER para mantener]: ");
         String s = in.readLine();
         if (s == null || s.trim().isEmpty()) return actual;
-        if (s.matches("[A-Za-z0-9+\\-]+")) return s;
-        System.out.println("Formato inválido. Se mantiene: " + actual);
+        if (ReglasValidacion.clasificacionValida(s)) return s;
+        consola.linea("Formato inválido. Se mantiene: " + actual).enviar();
         return actual;
     }
 
     // ===== MOSTRAR PELÍCULAS =====
 
+    private static final String SEPARADOR = "----------------------------------";
+
     /**
      * Muestra en forma de lista todas las películas con datos
      * básicos, géneros y actores asociados.
@@ -313,57 +400,44 @@ public class UI {
      */
     public void mostrarPeliculas(List<Pelicula> peliculas) {
         if (peliculas == null || peliculas.isEmpty()) {
-            System.out.println("No hay películas registradas.");
+            consola.linea("No hay películas registradas.").enviar();
             return;
         }
 
-        System.out.println("\n--- LISTA DE PELÍCULAS ---");
+        consola.linea("\n--- LISTA DE PELÍCULAS ---");
+        StringBuilder sb = consola.texto();
         int i = 1;
         for (Pelicula p : peliculas) {
-            String dir = (p.getDirector() == null)
-                    ? "N/A"
-                    : p.getDirector().getNombre();
+            sb.append(i++).append(") ").append(p.getId())
+                    .append(" | ").append(p.getTitulo()).append(" (").append(p.getAnio()).append(')')
+                    .append(" | ").append(p.getDuracionMinutos()).append(" min")
+                    .append(" | ").append(p.getClasificacion())
+                    .append(" | Dir: ").append(p.getDirector() == null ? "N/A" : p.getDirector().getNombre());
+            consola.linea();
 
             // Géneros
-            String gs;
-            if (p.getGeneros() == null || p.getGeneros().isEmpty()) {
-                gs = "Sin géneros";
+            sb.append("   Géneros: ");
+            List<Genero> generos = p.getGeneros();
+            if (generos == null || generos.isEmpty()) {
+                sb.append("Sin géneros");
             } else {
-                StringBuilder sb = new StringBuilder();
-                for (int j = 0; j < p.getGeneros().size(); j++) {
-                    sb.append(p.getGeneros().get(j).getNombre());
-                    if (j < p.getGeneros().size() - 1) sb.append(", ");
+                for (int j = 0; j < generos.size(); j++) {
+                    if (j > 0) sb.append(", ");
+                    sb.append(generos.get(j).getNombre());
                 }
-                gs = sb.toString();
             }
+            consola.linea();
 
             // Actores (elenco)
-            String elencoStr;
+            sb.append("   Actores: ");
             if (p.getElenco() == null || p.getElenco().isEmpty()) {
-                elencoStr = "Sin actores asociados";
+                sb.append("Sin actores asociados");
             } else {
-                StringBuilder sbElenco = new StringBuilder();
-                for (int j = 0; j < p.getElenco().size(); j++) {
-                    sbElenco.append(p.getElenco().get(j).getNombre());
-                    if (j < p.getElenco().size() - 1) sbElenco.append(", ");
-                }
-                elencoStr = sbElenco.toString();
+                anexarNombresActores(sb, p.getElenco());
             }
-
-            System.out.printf(
-                    "%d) %s | %s (%d) | %d min | %s | Dir: %s%n",
-                    i++,
-                    p.getId(),
-                    p.getTitulo(),
-                    p.getAnio(),
-                    p.getDuracionMinutos(),
-                    p.getClasificacion(),
-                    dir
-            );
-            System.out.println("   Géneros: " + gs);
-            System.out.println("   Actores: " + elencoStr);
-            System.out.println("----------------------------------");
+            consola.linea().linea(SEPARADOR).quizasEnviar();
         }
+        consola.enviar();
     }
 
     /**
@@ -374,48 +448,71 @@ public class UI {
      */
     public void mostrarDetallePelicula(Pelicula p) {
         if (p == null) {
-            System.out.println("Película no encontrada.");
+            consola.linea("Película no encontrada.").enviar();
             return;
         }
-        System.out.println("\n--- Detalle de película ---");
-        System.out.println("ID: " + p.getId());
-        System.out.println("Título: " + p.getTitulo());
-        System.out.println("Año: " + p.getAnio());
-        System.out.println("Duración: " + p.getDuracionMinutos() + " min");
-        System.out.println("Clasificación: " + p.getClasificacion());
-
-        if (p.getDirector() != null) {
-            System.out.println("Director: " + p.getDirector().getNombre());
-        } else {
-            System.out.println("Director: (no asignado)");
-        }
+        StringBuilder sb = consola.texto();
+        consola.linea("\n--- Detalle de película ---");
+        sb.append("ID: ").append(p.getId());
+        consola.linea();
+        sb.append("Título: ").append(p.getTitulo());
+        consola.linea();
+        sb.append("Año: ").append(p.getAnio());
+        consola.linea();
+        sb.append("Duración: ").append(p.getDuracionMinutos()).append(" min");
+        consola.linea();
+        sb.append("Clasificación: ").append(p.getClasificacion());
+        consola.linea();
+
+        sb.append("Director: ").append(p.getDirector() != null ? p.getDirector().getNombre() : "(no asignado)");
+        consola.linea();
 
         // Géneros
-        if (p.getGeneros() != null && !p.getGeneros().isEmpty()) {
-            System.out.print("Géneros: ");
-            for (int i = 0; i < p.getGeneros().size(); i++) {
-                System.out.print(p.getGeneros().get(i).getNombre());
-                if (i < p.getGeneros().size() - 1) System.out.print(", ");
+        List<Genero> generos = p.getGeneros();
+        sb.append("Géneros: ");
+        if (generos != null && !generos.isEmpty()) {
+            for (int i = 0; i < generos.size(); i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(generos.get(i).getNombre());
             }
-            System.out.println();
         } else {
-            System.out.println("Géneros: (no asignados)");
+            sb.append("(no asignados)");
         }
+        consola.linea();
 
         // Actores / elenco
+        sb.append("Actores: ");
         if (p.getElenco() != null && !p.getElenco().isEmpty()) {
-            System.out.print("Actores: ");
-            for (int i = 0; i < p.getElenco().size(); i++) {
-                System.out.print(p.getElenco().get(i).getNombre());
-                if (i < p.getElenco().size() - 1) System.out.print(", ");
-            }
-            System.out.println();
+            anexarNombresActores(sb, p.getElenco());
         } else {
-            System.out.println("Actores: (no asociados)");
+            sb.append("(no asociados)");
         }
+        consola.linea();
 
         if (p.getFicha() != null) {
-            System.out.println("Sinopsis: " + p.getFicha().sinopsis());
+            sb.append("Sinopsis: ").append(p.getFicha().sinopsis());
+            consola.linea();
+        }
+        consola.enviar();
+    }
+
+    /** Anexa los nombres de los actores separados por coma. */
+    private static void anexarNombresActores(StringBuilder sb, Collection<Actor> actores) {
+        boolean primero = true;
+        for (Actor a : actores) {
+            if (!primero) sb.append(", ");
+            sb.append(a.getNombre());
+            primero = false;
+        }
+    }
+
+    /** Anexa la línea "• id - título (año)" de cada película de un director o actor. */
+    private void anexarPeliculasRelacionadas(Collection<Pelicula> peliculas) {
+        StringBuilder sb = consola.texto();
+        for (Pelicula p : peliculas) {
+            sb.append("      • ").append(p.getId()).append(" - ").append(p.getTitulo())
+                    .append(" (").append(p.getAnio()).append(')');
+            consola.linea().quizasEnviar();
         }
     }
 
@@ -429,24 +526,25 @@ public class UI {
      */
     public void mostrarDirectoresConPeliculas(List<Director> directores) {
         if (directores == null || directores.isEmpty()) {
-            System.out.println("No hay directores registrados.");
+            consola.linea("No hay directores registrados.").enviar();
             return;
         }
 
-        System.out.println("\n=== DIRECTORES REGISTRADOS ===");
+        consola.linea("\n=== DIRECTORES REGISTRADOS ===");
+        StringBuilder sb = consola.texto();
         int i = 1;
         for (Director d : directores) {
-            System.out.println(i++ + ") " + d.getNombre() + " (ID: " + d.getId() + ")");
+            sb.append(i++).append(") ").append(d.getNombre()).append(" (ID: ").append(d.getId()).append(')');
+            consola.linea();
             if (d.getPeliculasDirigidas() == null || d.getPeliculasDirigidas().isEmpty()) {
-                System.out.println("   - Sin películas registradas.");
+                consola.linea("   - Sin películas registradas.");
             } else {
-                System.out.println("   Películas dirigidas:");
-                for (Pelicula p : d.getPeliculasDirigidas()) {
-                    System.out.println("      • " + p.getId() + " - " + p.getTitulo() + " (" + p.getAnio() + ")");
-                }
+                consola.linea("   Películas dirigidas:");
+                anexarPeliculasRelacionadas(d.getPeliculasDirigidas());
             }
-            System.out.println("----------------------------------");
+            consola.linea(SEPARADOR).quizasEnviar();
         }
+        consola.enviar();
     }
 
     // ===== MOSTRAR ACTORES Y SU FILMOGRAFIA =====
@@ -458,24 +556,25 @@ public class UI {
      */
     public void mostrarActoresConPeliculas(List<Actor> actores) {
         if (actores == null || actores.isEmpty()) {
-            System.out.println("No hay actores registrados.");
+            consola.linea("No hay actores registrados.").enviar();
             return;
         }
 
-        System.out.println("\n=== ACTORES REGISTRADOS ===");
+        consola.linea("\n=== ACTORES REGISTRADOS ===");
+        StringBuilder sb = consola.texto();
         int i = 1;
         for (Actor a : actores) {
-            System.out.println(i++ + ") " + a.getNombre() + " (ID: " + a.getId() + ")");
+            sb.append(i++).append(") ").append(a.getNombre()).append(" (ID: ").append(a.getId()).append(')');
+            consola.linea();
             if (a.getFilmografia() == null || a.getFilmografia().isEmpty()) {
-                System.out.println("   - Sin películas registradas.");
+                consola.linea("   - Sin películas registradas.");
             } else {
-                System.out.println("   Películas en las que participa:");
-                for (Pelicula p : a.getFilmografia()) {
-                    System.out.println("      • " + p.getId() + " - " + p.getTitulo() + " (" + p.getAnio() + ")");
-                }
+                consola.linea("   Películas en las que participa:");
+                anexarPeliculasRelacionadas(a.getFilmografia());
             }
-            System.out.println("----------------------------------");
+            consola.linea(SEPARADOR).quizasEnviar();
         }
+        consola.enviar();
     }
 
     // ===== MOSTRAR CUENTAS =====
@@ -488,19 +587,22 @@ public class UI {
      */
     public void mostrarCuentas(List<Cuenta> cuentas) {
         if (cuentas == null || cuentas.isEmpty()) {
-            System.out.println("No hay cuentas registradas.");
+            consola.linea("No hay cuentas registradas.").enviar();
             return;
         }
 
-        System.out.println("\n=== CUENTAS REGISTRADAS (polimorfismo) ===");
+        consola.linea("\n=== CUENTAS REGISTRADAS (polimorfismo) ===");
+        StringBuilder sb = consola.texto();
         for (Cuenta c : cuentas) {
             String tipo;
             if (c instanceof Administrador) tipo = "Administrador";
             else if (c instanceof User) tipo = "Usuario";
             else tipo = "Cuenta";
 
-            System.out.println("- [" + tipo + "] " +
-                    c.getUsername() + " (ID: " + c.getId() + ", Email: " + c.getEmail() + ")");
+            sb.append("- [").append(tipo).append("] ").append(c.getUsername())
+                    .append(" (ID: ").append(c.getId()).append(", Email: ").append(c.getEmail()).append(')');
+            consola.linea().quizasEnviar();
         }
+        consola.enviar();
     }
 }